@@ -11,6 +11,8 @@ package fr.inria.atlanmod.neoemf.benchmarks.adapter;
 import fr.inria.atlanmod.neoemf.bind.FactoryBinding;
 import fr.inria.atlanmod.neoemf.config.BaseConfig;
 import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.core.IdProvider;
+import fr.inria.atlanmod.neoemf.core.IdProviders;
 import fr.inria.atlanmod.neoemf.data.Backend;
 import fr.inria.atlanmod.neoemf.data.BackendFactory;
 import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
@@ -46,7 +48,8 @@ abstract class AbstractPersistentAdapter extends AbstractAdapter {
 
     @Override
     public boolean supportsMapper() {
-        return true;
+        // The direct import generates the identifiers from XPath expressions, not from the defined provider
+        return idProvider() == IdProviders.random();
     }
 
     @Nonnull
@@ -78,6 +81,12 @@ abstract class AbstractPersistentAdapter extends AbstractAdapter {
     @Nonnull
     protected abstract ImmutableConfig createConfig();
 
+    @Nonnull
+    @Override
+    public IdProvider idProvider() {
+        return createConfig().getIdProvider();
+    }
+
     /**
      * Returns the {@link BackendFactory} associated with this adapter.
      *
@@ -9,6 +9,8 @@
 package fr.inria.atlanmod.neoemf.benchmarks.adapter;
 
 import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.core.IdProvider;
+import fr.inria.atlanmod.neoemf.core.IdProviders;
 import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
 
 import org.eclipse.emf.common.util.URI;
@@ -36,6 +38,16 @@ public interface Adapter {
     @Nonnull
     EPackage initAndGetEPackage();
 
+    /**
+     * Returns the provider used to generate the identifiers of the objects created with this adapter.
+     *
+     * @return the identifier provider
+     */
+    @Nonnull
+    default IdProvider idProvider() {
+        return IdProviders.getDefault();
+    }
+
     /**
      * Creates a resource from the given {@code name} and returns its path.
      *
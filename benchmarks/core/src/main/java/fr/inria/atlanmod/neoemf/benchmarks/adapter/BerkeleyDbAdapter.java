@@ -33,6 +33,19 @@ public abstract class BerkeleyDbAdapter extends AbstractPersistentLocalAdapter {
         }
     }
 
+    /**
+     * A {@link BerkeleyDbAdapter} with a mapping with indices, that generates sequential identifiers.
+     */
+    @AdapterName("berkeleydb-i-s")
+    public static final class WithIndicesAndSequentialIds extends BerkeleyDbAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new BerkeleyDbConfig().withIndices().sequentialIds();
+        }
+    }
+
     /**
      * A {@link BerkeleyDbAdapter} with a mapping with arrays.
      */
@@ -58,4 +71,17 @@ public abstract class BerkeleyDbAdapter extends AbstractPersistentLocalAdapter {
             return new BerkeleyDbConfig().withLists();
         }
     }
+
+    /**
+     * A {@link BerkeleyDbAdapter} with a mapping with chunks.
+     */
+    @AdapterName("berkeleydb-c")
+    public static final class WithChunks extends BerkeleyDbAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new BerkeleyDbConfig().withChunks();
+        }
+    }
 }
@@ -19,15 +19,8 @@ import javax.annotation.ParametersAreNonnullByDefault;
  *
  * @see "https://hub.docker.com/r/harisekhon/hbase/"
  */
-@AdapterName("hbase")
 @ParametersAreNonnullByDefault
-public class HBaseAdapter extends AbstractPersistentRemoteAdapter {
-
-    @Nonnull
-    @Override
-    protected ImmutableConfig createConfig() {
-        return new HBaseConfig();
-    }
+public abstract class HBaseAdapter extends AbstractPersistentRemoteAdapter {
 
     @Nonnull
     @Override
@@ -39,4 +32,70 @@ public class HBaseAdapter extends AbstractPersistentRemoteAdapter {
     protected int getPort() {
         return 2181;
     }
+
+    /**
+     * A {@link HBaseAdapter} with hexadecimal row keys.
+     */
+    @AdapterName("hbase")
+    public static final class WithHexKeys extends HBaseAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new HBaseConfig();
+        }
+    }
+
+    /**
+     * A {@link HBaseAdapter} with hexadecimal row keys, that generates sequential identifiers.
+     */
+    @AdapterName("hbase-s")
+    public static final class WithHexKeysAndSequentialIds extends HBaseAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new HBaseConfig().sequentialIds();
+        }
+    }
+
+    /**
+     * A {@link HBaseAdapter} with binary row keys.
+     */
+    @AdapterName("hbase-b")
+    public static final class WithBinaryKeys extends HBaseAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new HBaseConfig().withBinaryRowKeys();
+        }
+    }
+
+    /**
+     * A {@link HBaseAdapter} with hexadecimal row keys, that stores each element of multi-valued references in its own
+     * column.
+     */
+    @AdapterName("hbase-c")
+    public static final class WithColumns extends HBaseAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new HBaseConfig().withColumns();
+        }
+    }
+
+    /**
+     * A {@link HBaseAdapter} with binary row keys salted in 16 buckets, that generates sequential identifiers.
+     */
+    @AdapterName("hbase-b16-s")
+    public static final class WithSaltedKeysAndSequentialIds extends HBaseAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new HBaseConfig().withBinaryRowKeys(16).sequentialIds();
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.adapter;
+
+import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.data.im.config.InMemoryConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * An {@link Adapter} on top of a {@link fr.inria.atlanmod.neoemf.data.im.InMemoryBackend}.
+ * <p>
+ * <b>NOTE:</b> The created back-ends are not persistent: they are only relevant for benchmarks that do not reload a
+ * previously saved resource.
+ */
+@ParametersAreNonnullByDefault
+public abstract class InMemoryAdapter extends AbstractPersistentLocalAdapter {
+
+    /**
+     * A {@link InMemoryAdapter} that stores the elements outside of the heap.
+     */
+    @AdapterName("im-o")
+    public static final class OffHeap extends InMemoryAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new InMemoryConfig().offHeap();
+        }
+    }
+
+    /**
+     * A {@link InMemoryAdapter} that stores the elements on the heap.
+     */
+    @AdapterName("im-h")
+    public static final class OnHeap extends InMemoryAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new InMemoryConfig().onHeap();
+        }
+    }
+}
@@ -33,6 +33,19 @@ public abstract class MapDbAdapter extends AbstractPersistentLocalAdapter {
         }
     }
 
+    /**
+     * A {@link MapDbAdapter} with a mapping with indices, that generates sequential identifiers.
+     */
+    @AdapterName("mapdb-i-s")
+    public static final class WithIndicesAndSequentialIds extends MapDbAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new MapDbConfig().withIndices().sequentialIds();
+        }
+    }
+
     /**
      * A {@link MapDbAdapter} with a mapping with arrays.
      */
@@ -58,4 +71,17 @@ public abstract class MapDbAdapter extends AbstractPersistentLocalAdapter {
             return new MapDbConfig().withLists();
         }
     }
+
+    /**
+     * A {@link MapDbAdapter} with a mapping with chunks.
+     */
+    @AdapterName("mapdb-c")
+    public static final class WithChunks extends MapDbAdapter {
+
+        @Nonnull
+        @Override
+        protected ImmutableConfig createConfig() {
+            return new MapDbConfig().withChunks();
+        }
+    }
 }
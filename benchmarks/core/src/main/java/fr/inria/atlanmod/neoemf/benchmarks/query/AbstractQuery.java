@@ -8,6 +8,8 @@
 
 package fr.inria.atlanmod.neoemf.benchmarks.query;
 
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -21,6 +23,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -71,6 +78,48 @@ public abstract class AbstractQuery<T> implements Query<T> {
         return Collections.unmodifiableCollection(result);
     }
 
+    /**
+     * Returns a parallel stream over all the contents of the {@code resource}. If the {@code resource} is not a {@link
+     * PersistentResource}, the contents are streamed sequentially.
+     *
+     * @param resource the resource to explore
+     *
+     * @return a new stream
+     *
+     * @see PersistentResource#parallelAllContents()
+     */
+    @Nonnull
+    protected Stream<EObject> parallelAllContents(Resource resource) {
+        if (resource instanceof PersistentResource) {
+            return ((PersistentResource) resource).parallelAllContents();
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(resource.getAllContents(), Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Retrieves all elements within the {@code resource} that is instance of the given {@code type}, by using a
+     * parallel traversal.
+     *
+     * @param resource the resource to explore
+     * @param type     the instance of the expected objects
+     * @param <U>      the type of the expected objects
+     *
+     * @return an immutable iterable
+     *
+     * @see #parallelAllContents(Resource)
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    protected <U extends EObject> Iterable<U> parallelAllInstancesOf(Resource resource, EClass type) {
+        List<U> result = parallelAllContents(resource)
+                .filter(type::isInstance)
+                .map(e -> (U) e)
+                .collect(Collectors.toList());
+
+        return Collections.unmodifiableCollection(result);
+    }
+
     /**
      * Creates a new {@link List} to store the result of queries.
      *
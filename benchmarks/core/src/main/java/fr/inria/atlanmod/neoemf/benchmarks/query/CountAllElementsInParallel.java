@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.query;
+
+import org.eclipse.emf.ecore.resource.Resource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link Query} that counts the number of elements in a {@link Resource} by using a parallel traversal.
+ *
+ * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#parallelAllContents()
+ */
+@ParametersAreNonnullByDefault
+class CountAllElementsInParallel extends AbstractQuery<Long> {
+
+    @Nonnull
+    @Override
+    public Long executeOn(Resource resource) {
+        return parallelAllContents(resource).count();
+    }
+}
@@ -8,6 +8,8 @@
 
 package fr.inria.atlanmod.neoemf.benchmarks.query;
 
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.gmt.modisco.java.BodyDeclaration;
 import org.eclipse.gmt.modisco.java.ClassDeclaration;
@@ -91,4 +93,17 @@ class GetInvisibleMethods extends AbstractQuery<Collection<MethodDeclaration>> {
         }
         return true;
     }
+
+    /**
+     * A {@link GetInvisibleMethods} that retrieves the class declarations by using a parallel traversal.
+     */
+    @ParametersAreNonnullByDefault
+    public static class InParallel extends GetInvisibleMethods {
+
+        @Nonnull
+        @Override
+        protected <U extends EObject> Iterable<U> allInstancesOf(Resource resource, EClass type) {
+            return parallelAllInstancesOf(resource, type);
+        }
+    }
 }
@@ -47,6 +47,18 @@ public class QueryFactory {
         return new CountAllElements();
     }
 
+    /**
+     * Counts the number of elements in a {@link Resource} by using a parallel traversal.
+     *
+     * @return a new query
+     *
+     * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#parallelAllContents()
+     */
+    @Nonnull
+    public static Query<Long> countAllElementsInParallel() {
+        return new CountAllElementsInParallel();
+    }
+
     /**
      * Returns the orphan and non-primitive types of a {@link Model}. This is a common query to all both standard and
      * customized methods.
@@ -90,6 +102,14 @@ public class QueryFactory {
         return new GetInvisibleMethods();
     }
 
+    /**
+     * @return a new query
+     */
+    @Nonnull
+    public static Query<Collection<MethodDeclaration>> getInvisibleMethodsInParallel() {
+        return new GetInvisibleMethods.InParallel();
+    }
+
     /**
      * @return a new query
      */
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner;
+
+import fr.inria.atlanmod.neoemf.benchmarks.query.QueryFactory;
+import fr.inria.atlanmod.neoemf.benchmarks.runner.state.ConcurrentReadResourceState;
+
+import org.eclipse.gmt.modisco.java.MethodDeclaration;
+import org.eclipse.gmt.modisco.java.NamedElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link BaseRunner} that provides benchmark methods for read-only queries executed by several threads on the same
+ * resource.
+ * <p>
+ * The throughput of each query is measured with an increasing number of threads: in the concurrent read-only mode, it
+ * should scale with the number of cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@ParametersAreNonnullByDefault
+public class ConcurrentReadRunner extends BaseRunner {
+
+    // region Traversal
+
+    @Benchmark
+    @Threads(1)
+    public Long traverse1(ConcurrentReadResourceState state) {
+        return QueryFactory.countAllElements().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Long traverse2(ConcurrentReadResourceState state) {
+        return QueryFactory.countAllElements().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long traverse4(ConcurrentReadResourceState state) {
+        return QueryFactory.countAllElements().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Long traverseMax(ConcurrentReadResourceState state) {
+        return QueryFactory.countAllElements().executeOn(state.resource());
+    }
+
+    // endregion
+
+    // region Class attributes
+
+    @Benchmark
+    @Threads(1)
+    public Map<String, Iterable<NamedElement>> classDeclarationAttributes1(ConcurrentReadResourceState state) {
+        return QueryFactory.getClassFields().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Map<String, Iterable<NamedElement>> classDeclarationAttributes2(ConcurrentReadResourceState state) {
+        return QueryFactory.getClassFields().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, Iterable<NamedElement>> classDeclarationAttributes4(ConcurrentReadResourceState state) {
+        return QueryFactory.getClassFields().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Map<String, Iterable<NamedElement>> classDeclarationAttributesMax(ConcurrentReadResourceState state) {
+        return QueryFactory.getClassFields().executeOn(state.resource());
+    }
+
+    // endregion
+
+    // region Parallel traversal
+
+    @Benchmark
+    @Threads(1)
+    public Long traverseInParallel(ConcurrentReadResourceState state) {
+        return QueryFactory.countAllElementsInParallel().executeOn(state.resource());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Collection<MethodDeclaration> invisibleMethodsInParallel(ConcurrentReadResourceState state) {
+        return QueryFactory.getInvisibleMethodsInParallel().executeOn(state.resource());
+    }
+
+    // endregion
+}
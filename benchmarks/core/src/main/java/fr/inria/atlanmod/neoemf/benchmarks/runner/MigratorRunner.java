@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner;
+
+import fr.inria.atlanmod.neoemf.benchmarks.runner.state.MigratorState;
+import fr.inria.atlanmod.neoemf.io.Migrator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.IOException;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link BaseRunner} that provides benchmark methods for reading a resource file with the {@link Migrator}, either
+ * from its XMI form or from its binary dumps.
+ * <p>
+ * The read events are only counted: the measured time is the time spent to parse each format, without the cost of
+ * writing into a back-end.
+ */
+@ParametersAreNonnullByDefault
+public class MigratorRunner extends BaseRunner {
+
+    @Benchmark
+    public void readXmi(MigratorState state) throws IOException {
+        Migrator.fromXmi(state.resourceFile()).withCounter().migrate();
+    }
+
+    @Benchmark
+    public void readBinary(MigratorState state) throws IOException {
+        Migrator.fromBinary(state.binaryFile()).withCounter().migrate();
+    }
+
+    @Benchmark
+    public void readCompressedBinary(MigratorState state) throws IOException {
+        Migrator.fromBinary(state.compressedBinaryFile()).withCounter().migrate();
+    }
+}
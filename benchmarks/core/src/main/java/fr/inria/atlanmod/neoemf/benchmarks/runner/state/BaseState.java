@@ -10,12 +10,15 @@ package fr.inria.atlanmod.neoemf.benchmarks.runner.state;
 
 import fr.inria.atlanmod.neoemf.benchmarks.adapter.Adapter;
 import fr.inria.atlanmod.neoemf.benchmarks.adapter.AdapterFactory;
+import fr.inria.atlanmod.neoemf.core.IdProvider;
+import fr.inria.atlanmod.neoemf.core.IdProviders;
 
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -44,6 +47,11 @@ public abstract class BaseState {
      */
     private Adapter adapter;
 
+    /**
+     * The default {@link IdProvider} before the initialization of the current {@link Adapter}.
+     */
+    private IdProvider previousIdProvider;
+
     /**
      * Returns the current adapter.
      */
@@ -58,5 +66,17 @@ public abstract class BaseState {
     @Setup(Level.Trial)
     public void initAdapter() {
         adapter = AdapterFactory.createAdapter(a);
+
+        // The identifiers are generated when the objects are created, before they are attached to any resource
+        previousIdProvider = IdProviders.getDefault();
+        IdProviders.setDefault(adapter.idProvider());
+    }
+
+    /**
+     * Restores the default {@link IdProvider}.
+     */
+    @TearDown(Level.Trial)
+    public void restoreIdProvider() {
+        IdProviders.setDefault(previousIdProvider);
     }
 }
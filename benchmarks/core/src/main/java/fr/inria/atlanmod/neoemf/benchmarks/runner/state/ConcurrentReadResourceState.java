@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner.state;
+
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link ReadOnlyResourceState} that loads the resource in the concurrent read-only mode, in order to be shared by
+ * several benchmark threads.
+ *
+ * @see fr.inria.atlanmod.neoemf.config.Config#concurrentReads()
+ */
+@ParametersAreNonnullByDefault
+public class ConcurrentReadResourceState extends ReadOnlyResourceState {
+
+    @Nonnull
+    @Override
+    protected ImmutableConfig loadConfig() {
+        return new BaseConfig<>().merge(baseConfig()).concurrentReads();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner.state;
+
+import fr.inria.atlanmod.neoemf.benchmarks.io.LocalWorkspace;
+import fr.inria.atlanmod.neoemf.io.Migrator;
+
+import org.atlanmod.commons.io.MoreFiles;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link ResourceState} that provides the binary dumps of the resource file, with and without compression.
+ */
+@ParametersAreNonnullByDefault
+public class MigratorState extends ResourceState {
+
+    /**
+     * The binary dump of the current resource file.
+     */
+    private File binaryFile;
+
+    /**
+     * The compressed binary dump of the current resource file.
+     */
+    private File compressedBinaryFile;
+
+    /**
+     * Returns the binary dump of the current resource file.
+     */
+    @Nonnull
+    public File binaryFile() {
+        return binaryFile;
+    }
+
+    /**
+     * Returns the compressed binary dump of the current resource file.
+     */
+    @Nonnull
+    public File compressedBinaryFile() {
+        return compressedBinaryFile;
+    }
+
+    /**
+     * Creates the binary dumps of the current resource file.
+     */
+    @Setup(Level.Trial)
+    public void createBinaryFiles() throws IOException {
+        adapter().initAndGetEPackage();
+
+        final Path directory = LocalWorkspace.newTempDirectory();
+        final String name = MoreFiles.nameWithoutExtension(resourceFile().getName());
+
+        binaryFile = directory.resolve(name + ".bin").toFile();
+        Migrator.fromXmi(resourceFile()).toBinary(binaryFile).migrate();
+
+        compressedBinaryFile = directory.resolve(name + ".zbin").toFile();
+        Migrator.fromXmi(resourceFile()).toBinary(compressedBinaryFile, true).migrate();
+    }
+
+    /**
+     * Deletes the binary dumps.
+     */
+    @TearDown(Level.Trial)
+    public void deleteBinaryFiles() {
+        LocalWorkspace.cleanTempDirectory();
+    }
+}
@@ -11,10 +11,13 @@ package fr.inria.atlanmod.neoemf.config;
 import fr.inria.atlanmod.neoemf.bind.Bindings;
 import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
 import fr.inria.atlanmod.neoemf.data.store.AutoSavingStore;
+import fr.inria.atlanmod.neoemf.data.store.BatchingStore;
 import fr.inria.atlanmod.neoemf.data.store.ClassCachingStore;
 import fr.inria.atlanmod.neoemf.data.store.ContainerCachingStore;
 import fr.inria.atlanmod.neoemf.data.store.FeatureCachingStore;
 import fr.inria.atlanmod.neoemf.data.store.ListeningStore;
+import fr.inria.atlanmod.neoemf.data.store.MetricsStore;
+import fr.inria.atlanmod.neoemf.data.store.ReadAheadStore;
 import fr.inria.atlanmod.neoemf.data.store.ReadOnlyStore;
 import fr.inria.atlanmod.neoemf.data.store.SizeCachingStore;
 import fr.inria.atlanmod.neoemf.data.store.Store;
@@ -22,6 +25,7 @@ import fr.inria.atlanmod.neoemf.data.store.listener.LoggingStoreListener;
 import fr.inria.atlanmod.neoemf.data.store.listener.RecordingStoreListener;
 import fr.inria.atlanmod.neoemf.data.store.listener.StoreListener;
 import fr.inria.atlanmod.neoemf.data.store.listener.StoreStats;
+import fr.inria.atlanmod.neoemf.data.store.metrics.StoreMetrics;
 
 import org.atlanmod.commons.log.Level;
 import org.atlanmod.commons.log.Log;
@@ -37,6 +41,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.Predicate;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -105,8 +110,20 @@ public class BaseConfig<C extends BaseConfig<C>> implements Config {
      */
     static final String STORE_LISTENERS = createKey(STORE, "listeners");
 
+    /**
+     * The key identifying the concurrent read-only mode.
+     */
+    static final String STORE_CONCURRENT_READS = createKey(STORE, "concurrent");
+
     // endregion
 
+    /**
+     * The key identifying the {@link fr.inria.atlanmod.neoemf.core.IdProvider} used to generate the identifiers.
+     *
+     * @see fr.inria.atlanmod.neoemf.core.IdProviders#PROVIDER_PROPERTY
+     */
+    static final String ID_PROVIDER = createKey(BASE_PREFIX, "id", "provider");
+
     /**
      * A map that holds all defined key/value options.
      */
@@ -226,6 +243,12 @@ public class BaseConfig<C extends BaseConfig<C>> implements Config {
         return me();
     }
 
+    @Nonnull
+    @Override
+    public C sequentialIds() {
+        return addOption(ID_PROVIDER, "sequential");
+    }
+
     // region Stores
 
     @Nonnull
@@ -250,30 +273,61 @@ public class BaseConfig<C extends BaseConfig<C>> implements Config {
         return addStore(new FeatureCachingStore());
     }
 
+    @Nonnull
+    @Override
+    public C cacheFeatures(long maxEntries) {
+        return addStore(new FeatureCachingStore(checkCacheSize(maxEntries)));
+    }
+
     @Nonnull
     @Override
     public C cacheContainers() {
         return addStore(new ContainerCachingStore());
     }
 
+    @Nonnull
+    @Override
+    public C cacheContainers(long maxEntries) {
+        return addStore(new ContainerCachingStore(checkCacheSize(maxEntries)));
+    }
+
     @Nonnull
     @Override
     public C cacheMetaClasses() {
         return addStore(new ClassCachingStore());
     }
 
+    @Nonnull
+    @Override
+    public C cacheMetaClasses(long maxEntries) {
+        return addStore(new ClassCachingStore(checkCacheSize(maxEntries)));
+    }
+
     @Nonnull
     @Override
     public C cacheSizes() {
         return addStore(new SizeCachingStore());
     }
 
+    @Nonnull
+    @Override
+    public C cacheSizes(long maxEntries) {
+        return addStore(new SizeCachingStore(checkCacheSize(maxEntries)));
+    }
+
     @Nonnull
     @Override
     public C readOnly() {
         return addStore(new ReadOnlyStore());
     }
 
+    @Nonnull
+    @Override
+    public C concurrentReads() {
+        readOnly();
+        return addOption(STORE_CONCURRENT_READS, true);
+    }
+
     @Nonnull
     @Override
     public C autoSave() {
@@ -290,6 +344,56 @@ public class BaseConfig<C extends BaseConfig<C>> implements Config {
         return addStore(new AutoSavingStore(chunk));
     }
 
+    @Nonnull
+    @Override
+    public C batchWrites() {
+        return addStore(new BatchingStore());
+    }
+
+    @Nonnull
+    @Override
+    public C batchWrites(int size, long delay) {
+        if (size < 0) {
+            throw new InvalidConfigException(String.format("The batch size cannot be lower than 0 (but it was %d)", size));
+        }
+
+        if (delay < 0) {
+            throw new InvalidConfigException(String.format("The batch delay cannot be lower than 0 (but it was %d)", delay));
+        }
+
+        return addStore(new BatchingStore(size, delay));
+    }
+
+    @Nonnull
+    @Override
+    public C readAhead() {
+        return addStore(new ReadAheadStore());
+    }
+
+    @Nonnull
+    @Override
+    public C readAhead(int depth, int width, int threads) {
+        if (depth < 1) {
+            throw new InvalidConfigException(String.format("The read-ahead depth cannot be lower than 1 (but it was %d)", depth));
+        }
+
+        if (width < 1) {
+            throw new InvalidConfigException(String.format("The read-ahead width cannot be lower than 1 (but it was %d)", width));
+        }
+
+        if (threads < 1) {
+            throw new InvalidConfigException(String.format("The number of read-ahead threads cannot be lower than 1 (but it was %d)", threads));
+        }
+
+        return addStore(new ReadAheadStore(depth, width, threads));
+    }
+
+    @Nonnull
+    @Override
+    public C recordMetrics(StoreMetrics metrics) {
+        return addStore(new MetricsStore(metrics));
+    }
+
     // endregion
 
     // region Listeners
@@ -455,6 +559,24 @@ public class BaseConfig<C extends BaseConfig<C>> implements Config {
         return me();
     }
 
+    /**
+     * Checks that the {@code maxEntries} of a cache is valid.
+     *
+     * @param maxEntries the maximum number of entries in the cache
+     *
+     * @return the {@code maxEntries}
+     *
+     * @throws InvalidConfigException if the {@code maxEntries} is {@code &lt; 0}
+     */
+    @Nonnegative
+    private long checkCacheSize(long maxEntries) {
+        if (maxEntries < 0) {
+            throw new InvalidConfigException(String.format("The cache size cannot be lower than 0 (but it was %d)", maxEntries));
+        }
+
+        return maxEntries;
+    }
+
     /**
      * Checks a collision between the current value, if defined, and the {@code newValue}. The current value and the new
      * must be identical.
@@ -12,6 +12,7 @@ import fr.inria.atlanmod.neoemf.bind.Bindings;
 import fr.inria.atlanmod.neoemf.data.store.Store;
 import fr.inria.atlanmod.neoemf.data.store.listener.StoreListener;
 import fr.inria.atlanmod.neoemf.data.store.listener.StoreStats;
+import fr.inria.atlanmod.neoemf.data.store.metrics.StoreMetrics;
 
 import org.atlanmod.commons.log.Level;
 
@@ -154,6 +155,21 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     <V> Config addOption(String key, V value);
 
+    /**
+     * Defines the sequential {@link fr.inria.atlanmod.neoemf.core.IdProvider} in this configuration.
+     * <p>
+     * Identifiers are generated when objects are created, before they are attached to any resource: the provider is
+     * not used by the resources, but it can be retrieved with {@link ImmutableConfig#getIdProvider()} to be defined for
+     * the whole application.
+     *
+     * @return this configuration (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.core.IdProviders#sequential()
+     * @see fr.inria.atlanmod.neoemf.core.IdProviders#setDefault(fr.inria.atlanmod.neoemf.core.IdProvider)
+     */
+    @Nonnull
+    Config sequentialIds();
+
     // region Stores
 
     /**
@@ -174,6 +190,19 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config cacheFeatures();
 
+    /**
+     * Adds the {@code cache-features} feature, with a defined maximum size, in this configuration.
+     *
+     * @param maxEntries the maximum number of values in the cache, where each cached position of a multi-valued feature
+     *                   counts as one value
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code maxEntries} is {@code &lt; 0}
+     */
+    @Nonnull
+    Config cacheFeatures(@Nonnegative long maxEntries);
+
     /**
      * Adds the {@code cache-containers} feature in this configuration.
      *
@@ -182,6 +211,18 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config cacheContainers();
 
+    /**
+     * Adds the {@code cache-containers} feature, with a defined maximum size, in this configuration.
+     *
+     * @param maxEntries the maximum number of entries in the cache
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code maxEntries} is {@code &lt; 0}
+     */
+    @Nonnull
+    Config cacheContainers(@Nonnegative long maxEntries);
+
     /**
      * Adds the {@code cache-metaclasses} feature in this configuration.
      *
@@ -190,6 +231,18 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config cacheMetaClasses();
 
+    /**
+     * Adds the {@code cache-metaclasses} feature, with a defined maximum size, in this configuration.
+     *
+     * @param maxEntries the maximum number of entries in the cache
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code maxEntries} is {@code &lt; 0}
+     */
+    @Nonnull
+    Config cacheMetaClasses(@Nonnegative long maxEntries);
+
     /**
      * Adds the {@code cache-sizes} feature in this configuration.
      *
@@ -198,6 +251,18 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config cacheSizes();
 
+    /**
+     * Adds the {@code cache-sizes} feature, with a defined maximum size, in this configuration.
+     *
+     * @param maxEntries the maximum number of entries in the cache
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code maxEntries} is {@code &lt; 0}
+     */
+    @Nonnull
+    Config cacheSizes(@Nonnegative long maxEntries);
+
     /**
      * Adds the {@code read-only} feature in this configuration.
      *
@@ -206,6 +271,17 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config readOnly();
 
+    /**
+     * Adds the {@code concurrent-reads} feature in this configuration.
+     * <p>
+     * This feature implies the {@code read-only} feature, and allows several threads to read the same resource at the
+     * same time.
+     *
+     * @return this configuration (for chaining)
+     */
+    @Nonnull
+    Config concurrentReads();
+
     /**
      * Adds the {@code autoSave} feature in this configuration.
      *
@@ -228,6 +304,68 @@ public interface Config extends ImmutableConfig {
     @Nonnull
     Config autoSave(@Nonnegative long chunk);
 
+    /**
+     * Adds the {@code batch-writes} feature in this configuration.
+     *
+     * @return this configuration (for chaining)
+     */
+    @Nonnull
+    Config batchWrites();
+
+    /**
+     * Adds the {@code batch-writes} feature, with defined thresholds, in this configuration.
+     * <p>
+     * <b>WARNING:</b> When {@code size} or {@code delay} is zero, the mutations will be written at each call.
+     *
+     * @param size  the maximum number of mutations to keep before writing them
+     * @param delay the maximum delay, in milliseconds, to keep a mutation before writing it
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code size} or the {@code delay} is {@code &lt; 0}
+     */
+    @Nonnull
+    Config batchWrites(@Nonnegative int size, @Nonnegative long delay);
+
+    /**
+     * Adds the {@code read-ahead} feature in this configuration.
+     *
+     * @return this configuration (for chaining)
+     */
+    @Nonnull
+    Config readAhead();
+
+    /**
+     * Adds the {@code read-ahead} feature, with defined settings, in this configuration.
+     * <p>
+     * When an element is visited during a traversal of the containment tree, the meta-classes and the containment lists
+     * of its {@code width} next siblings are loaded in background, as well as the ones of their contents, down to
+     * {@code depth} levels.
+     *
+     * @param depth   the number of containment levels to load ahead
+     * @param width   the number of elements to load ahead in each level
+     * @param threads the number of threads used to load the elements
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the {@code depth}, the {@code width} or the {@code threads} is {@code &lt; 1}
+     */
+    @Nonnull
+    Config readAhead(@Nonnegative int depth, @Nonnegative int width, @Nonnegative int threads);
+
+    /**
+     * Adds the {@code metrics} feature in this configuration.
+     * <p>
+     * The latency of each call is recorded, for the whole store chain and for the back-end alone, as well as the
+     * statistics of the caching stores. Use {@link StoreMetrics#register()} to expose them through JMX.
+     *
+     * @param metrics the metrics that will be updated
+     *
+     * @return this configuration (for chaining)
+     */
+    @Nonnull
+    Config recordMetrics(StoreMetrics metrics);
+
     // endregion
 
     // region Listeners
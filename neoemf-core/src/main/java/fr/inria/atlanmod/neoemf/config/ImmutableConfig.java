@@ -8,6 +8,8 @@
 
 package fr.inria.atlanmod.neoemf.config;
 
+import fr.inria.atlanmod.neoemf.core.IdProvider;
+import fr.inria.atlanmod.neoemf.core.IdProviders;
 import fr.inria.atlanmod.neoemf.data.store.ReadOnlyStore;
 import fr.inria.atlanmod.neoemf.data.store.Store;
 
@@ -133,6 +135,20 @@ public interface ImmutableConfig {
     @Nonnull
     Set<Store> getStores();
 
+    /**
+     * Returns the {@link IdProvider} defined in this configuration.
+     *
+     * @return the provider, or {@link IdProviders#getDefault()} if no provider is defined
+     *
+     * @throws IllegalArgumentException if the defined provider is unknown
+     */
+    @Nonnull
+    default IdProvider getIdProvider() {
+        return this.<String>getOption(BaseConfig.ID_PROVIDER)
+                .map(IdProviders::forName)
+                .orElseGet(IdProviders::getDefault);
+    }
+
     /**
      * Returns {@code true} if the "read-only" mode is defined.
      *
@@ -141,4 +157,13 @@ public interface ImmutableConfig {
     default boolean isReadOnly() {
         return getStores().stream().anyMatch(c -> ReadOnlyStore.class == c.getClass());
     }
+
+    /**
+     * Returns {@code true} if the "concurrent-reads" mode is defined.
+     *
+     * @return {@code true} if the "concurrent-reads" mode is defined
+     */
+    default boolean isConcurrentReads() {
+        return isReadOnly() && this.<Boolean>getOption(BaseConfig.STORE_CONCURRENT_READS).orElse(false);
+    }
 }
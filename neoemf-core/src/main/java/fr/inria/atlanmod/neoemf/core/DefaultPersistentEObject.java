@@ -70,12 +70,18 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
 
     /**
      * The {@link StoreAdapter} where this object is stored.
+     * <p>
+     * In the concurrent read-only mode, several threads may initialize this value at the same time: they all get the
+     * store of the resource, which has been published before the threads started, so the race is benign.
      */
     @Nonnull
     private final Lazy<StoreAdapter> lazyStore = Lazy.with(() -> getOrCreateStore(resource()));
 
     /**
      * The cached container of this object.
+     * <p>
+     * In the concurrent read-only mode, several threads may load this value at the same time: they all get the same
+     * instance from the thread-safe cache of the store, so the race is benign.
      */
     @Nonnull
     private final LazyReference<PersistentEObject> lazyContainer = LazyReference.soft(() -> eStore().getContainer(this));
@@ -88,9 +94,12 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
 
     /**
      * The resource containing this object.
+     * <p>
+     * This field is {@code volatile} to be safely published to the threads that read this object in the concurrent
+     * read-only mode.
      */
     @Nullable
-    private Resource.Internal resource;
+    private volatile Resource.Internal resource;
 
     /**
      * {@code true} if this object is being attached to a resource. This avoids an infinite loop when copying a fully
@@ -100,7 +109,7 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
      *
      * @see #resource(Resource.Internal)
      */
-    private boolean locked;
+    private volatile boolean locked;
 
     /**
      * Constructs a new {@code DefaultPersistentEObject} with an undefined {@link Id}.
@@ -8,7 +8,6 @@
 
 package fr.inria.atlanmod.neoemf.core;
 
-import fr.inria.atlanmod.neoemf.core.internal.LongIdProvider;
 import fr.inria.atlanmod.neoemf.core.internal.UndefinedId;
 
 import java.io.Serializable;
@@ -38,10 +37,12 @@ public interface Id extends Comparable<Id>, Serializable {
      * Returns the instance of the default {@link IdProvider}.
      *
      * @return the instance
+     *
+     * @see IdProviders#getDefault()
      */
     @Nonnull
     static IdProvider getProvider() {
-        return LongIdProvider.getInstance();
+        return IdProviders.getDefault();
     }
 
     /**
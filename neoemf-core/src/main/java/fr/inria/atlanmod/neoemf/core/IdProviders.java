@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.core;
+
+import fr.inria.atlanmod.neoemf.core.internal.LongIdProvider;
+import fr.inria.atlanmod.neoemf.core.internal.SequentialIdProvider;
+
+import org.atlanmod.commons.Throwables;
+import org.atlanmod.commons.annotation.Static;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A static factory that provides {@link IdProvider} instances, and defines the one returned by {@link
+ * Id#getProvider()}.
+ * <p>
+ * Identifiers are generated when objects are created, before they are attached to any resource: the provider is
+ * therefore defined for the whole application. The initial provider can be chosen with the {@value #PROVIDER_PROPERTY}
+ * system property, with {@code random} (the default) or {@code sequential}, and the provider defined in a configuration
+ * is returned by {@link fr.inria.atlanmod.neoemf.config.ImmutableConfig#getIdProvider()}.
+ */
+@Static
+@ParametersAreNonnullByDefault
+public final class IdProviders {
+
+    /**
+     * The name of the system property that defines the initial provider.
+     */
+    @Nonnull
+    public static final String PROVIDER_PROPERTY = "neoemf.id.provider";
+
+    /**
+     * The provider returned by {@link Id#getProvider()}.
+     */
+    @Nonnull
+    private static volatile IdProvider defaultProvider = forName(System.getProperty(PROVIDER_PROPERTY, "random"));
+
+    private IdProviders() {
+        throw Throwables.notInstantiableClass(getClass());
+    }
+
+    /**
+     * Returns the {@link IdProvider} that generates random identifiers.
+     *
+     * @return the provider
+     */
+    @Nonnull
+    public static IdProvider random() {
+        return LongIdProvider.getInstance();
+    }
+
+    /**
+     * Returns the {@link IdProvider} that generates sequential identifiers, in order to store the objects created
+     * together in nearby locations.
+     *
+     * @return the provider
+     *
+     * @see SequentialIdProvider
+     */
+    @Nonnull
+    public static IdProvider sequential() {
+        return SequentialIdProvider.getInstance();
+    }
+
+    /**
+     * Returns the {@link IdProvider} used to generate the identifiers of new objects.
+     *
+     * @return the provider
+     */
+    @Nonnull
+    public static IdProvider getDefault() {
+        return defaultProvider;
+    }
+
+    /**
+     * Defines the {@link IdProvider} used to generate the identifiers of new objects.
+     * <p>
+     * <b>NOTE:</b> Identifiers that have already been generated are not affected.
+     *
+     * @param provider the provider to use
+     */
+    public static void setDefault(IdProvider provider) {
+        defaultProvider = checkNotNull(provider, "provider");
+    }
+
+    /**
+     * Returns the {@link IdProvider} identified by the given {@code name}.
+     *
+     * @param name the name of the provider
+     *
+     * @return the provider
+     *
+     * @throws NullPointerException     if the {@code name} is {@code null}
+     * @throws IllegalArgumentException if no provider is identified by the {@code name}
+     */
+    @Nonnull
+    public static IdProvider forName(String name) {
+        checkNotNull(name, "name");
+
+        switch (name) {
+            case "random":
+                return random();
+            case "sequential":
+                return sequential();
+            default:
+                throw new IllegalArgumentException(String.format("Unknown identifier provider: %s", name));
+        }
+    }
+}
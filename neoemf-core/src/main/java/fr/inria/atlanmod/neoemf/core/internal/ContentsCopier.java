@@ -8,13 +8,20 @@
 
 package fr.inria.atlanmod.neoemf.core.internal;
 
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.BoundInMemoryBackend;
+import fr.inria.atlanmod.neoemf.data.store.Store;
 import fr.inria.atlanmod.neoemf.data.store.adapter.StoreAdapter;
 import fr.inria.atlanmod.neoemf.util.EFeatures;
 
 import org.atlanmod.commons.function.Copier;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +37,9 @@ import static org.atlanmod.commons.Preconditions.checkState;
 /**
  * A {@link org.atlanmod.commons.function.Copier} that recursively copies the content related to a {@link
  * fr.inria.atlanmod.neoemf.core.PersistentEObject}, from a {@link StoreAdapter} to another, by using the EMF methods.
+ * <p>
+ * When the source is a {@link BoundInMemoryBackend}, only the features that have a value are copied, and their values
+ * are written directly in the target {@link Store}, without being converted back and forth.
  */
 @ParametersAreNonnullByDefault
 public final class ContentsCopier implements Copier<StoreAdapter> {
@@ -53,7 +63,70 @@ public final class ContentsCopier implements Copier<StoreAdapter> {
     public void copy(StoreAdapter source, StoreAdapter target) {
         copyContainer(source, target);
 
-        object.eClass().getEAllStructuralFeatures().forEach(f -> copyFeature(f, source, target));
+        final Backend backend = source.store().backend();
+        if (backend instanceof BoundInMemoryBackend) {
+            copyBoundFeatures((BoundInMemoryBackend) backend, source, target);
+        }
+        else {
+            object.eClass().getEAllStructuralFeatures().forEach(f -> copyFeature(f, source, target));
+        }
+    }
+
+    /**
+     * Copies the values of all the features of the {@link #object} from the {@code backend} to the {@code target}.
+     * <p>
+     * The multi-valued features of the {@code target} are only cleared if they already have values: attaching a new
+     * object only appends its values.
+     *
+     * @param backend the transient back-end of the {@link #object}
+     * @param source  the source that owns the {@code backend}
+     * @param target  the target where to store the values
+     */
+    private void copyBoundFeatures(BoundInMemoryBackend backend, StoreAdapter source, StoreAdapter target) {
+        final EClass eClass = object.eClass();
+        final Store targetStore = target.store();
+
+        target.updateInstanceOf(object);
+
+        backend.features().forEach(featureId -> {
+            final EStructuralFeature feature = eClass.getEStructuralFeature(featureId);
+            final SingleFeatureBean bean = SingleFeatureBean.of(object.id(), featureId);
+
+            if (FeatureMapUtil.isFeatureMap(feature)) {
+                // Entries may refer to other objects: they need to be converted
+                copyFeature(feature, source, target);
+            }
+            else if (EFeatures.isAttribute(feature)) {
+                if (!feature.isMany()) {
+                    backend.valueOf(bean).ifPresent(v -> targetStore.setValue(bean, v));
+                }
+                else {
+                    if (targetStore.sizeOfValue(bean).isPresent()) {
+                        targetStore.removeAllValues(bean);
+                    }
+                    targetStore.appendAllValues(bean, backend.allValuesOf(bean).collect(Collectors.toList()));
+                }
+            }
+            else {
+                final boolean isContainment = requireAttachment(feature);
+
+                if (!feature.isMany()) {
+                    backend.referenceOf(bean)
+                            .map(r -> attachReference(r, isContainment, source, target))
+                            .ifPresent(r -> targetStore.setReference(bean, r));
+                }
+                else {
+                    List<Id> references = backend.allReferencesOf(bean)
+                            .map(r -> attachReference(r, isContainment, source, target))
+                            .collect(Collectors.toList());
+
+                    if (targetStore.sizeOfReference(bean).isPresent()) {
+                        targetStore.removeAllReferences(bean);
+                    }
+                    targetStore.appendAllReferences(bean, references);
+                }
+            }
+        });
     }
 
     /**
@@ -141,6 +214,30 @@ public final class ContentsCopier implements Copier<StoreAdapter> {
         return EFeatures.isReference(feature) && EFeatures.asReference(feature).isContainment();
     }
 
+    /**
+     * Registers the object identified by the {@code reference} in the {@code target}, and attachs it to {@link
+     * PersistentEObject#resource()} if necessary.
+     *
+     * @param reference     the identifier of the referenced object
+     * @param isContainment {@code true} if the referenced object must be attached
+     * @param source        the source where to resolve the referenced object
+     * @param target        the target where to register the referenced object
+     *
+     * @return the {@code reference}
+     *
+     * @see #attach(Object)
+     */
+    @Nonnull
+    private Id attachReference(Id reference, boolean isContainment, StoreAdapter source, StoreAdapter target) {
+        PersistentEObject referencedObject = source.resolve(reference);
+        if (isContainment) {
+            attach(referencedObject);
+        }
+
+        target.updateInstanceOf(referencedObject);
+        return reference;
+    }
+
     /**
      * Attachs the {@code value} to {@link PersistentEObject#resource()} if it is assignable to a {@link
      * PersistentEObject}.
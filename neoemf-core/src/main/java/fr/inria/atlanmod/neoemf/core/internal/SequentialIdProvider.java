@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.core.internal;
+
+import fr.inria.atlanmod.neoemf.core.AbstractIdProvider;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.IdProvider;
+
+import org.atlanmod.commons.annotation.Singleton;
+import org.atlanmod.commons.annotation.Static;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * An {@link IdProvider} that generates sequential {@link Id}s with a long representation.
+ * <p>
+ * Each thread reserves a block of consecutive identifiers and generates them in order: objects created together, such
+ * as siblings or the elements of a containment subtree, get nearby keys, which keeps the sorted structures of the
+ * back-ends local.
+ * <p>
+ * The high bits of each identifier are a random prefix drawn when the provider starts, and drawn again when its
+ * counter is exhausted. The counter of a new prefix also starts at a random block: identifiers generated in different
+ * sessions therefore fall in different ranges, unless they draw the same prefix and reach the same blocks.
+ *
+ * @see LongId
+ * @see LongIdProvider
+ */
+@Singleton
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class SequentialIdProvider extends AbstractIdProvider {
+
+    /**
+     * The number of low bits used by the counter of a prefix.
+     */
+    private static final int COUNTER_BITS = 32;
+
+    /**
+     * The mask of the counter bits.
+     */
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /**
+     * The number of identifiers reserved at once by a thread; must be a power of two.
+     */
+    private static final int BLOCK_SIZE = 1 << 12;
+
+    /**
+     * The first identifier of the next block to reserve.
+     */
+    @Nonnull
+    private final AtomicLong nextBlock = new AtomicLong(newStart());
+
+    /**
+     * The block of identifiers reserved by the current thread.
+     */
+    @Nonnull
+    private final ThreadLocal<Block> currentBlock = ThreadLocal.withInitial(Block::new);
+
+    /**
+     * Constructs a new {@code SequentialIdProvider}.
+     */
+    private SequentialIdProvider() {
+    }
+
+    /**
+     * Returns the instance of this class.
+     *
+     * @return the instance of this class
+     */
+    @Nonnull
+    public static IdProvider getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Draws a new random prefix, and a random block in its counter.
+     *
+     * @return the first identifier of the new block
+     */
+    private static long newStart() {
+        return ThreadLocalRandom.current().nextLong() & ~(BLOCK_SIZE - 1);
+    }
+
+    @Nonnull
+    @Override
+    public Id fromLong(long value) {
+        return new LongId(value);
+    }
+
+    @Nonnull
+    @Override
+    public Id fromHexString(String hexValue) {
+        checkNotNull(hexValue, "hexValue");
+
+        try {
+            return fromLong(Long.parseUnsignedLong(hexValue, 16));
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Id generate() {
+        final Block block = currentBlock.get();
+
+        if (block.next == block.end) {
+            block.next = reserveBlock();
+            block.end = block.next + BLOCK_SIZE;
+        }
+
+        return fromLong(block.next++);
+    }
+
+    /**
+     * Reserves the next block of identifiers, and draws a new start when the counter of the current prefix is
+     * exhausted.
+     *
+     * @return the first identifier of the reserved block
+     */
+    private long reserveBlock() {
+        long current;
+        long next;
+
+        do {
+            current = nextBlock.get();
+            next = current + BLOCK_SIZE;
+
+            if ((next & COUNTER_MASK) == 0) {
+                next = newStart();
+            }
+        }
+        while (!nextBlock.compareAndSet(current, next));
+
+        return current;
+    }
+
+    @Nonnull
+    @Override
+    public Id generate(String baseValue) {
+        checkNotNull(baseValue, "baseValue");
+
+        return fromLong(hasher().hash(baseValue).toLong());
+    }
+
+    /**
+     * A range of identifiers reserved by a thread.
+     */
+    private static final class Block {
+
+        /**
+         * The next identifier to generate.
+         */
+        long next;
+
+        /**
+         * The first identifier after this block.
+         */
+        long end;
+    }
+
+    /**
+     * The initialization-on-demand holder of the singleton of this class.
+     */
+    @Static
+    private static final class Holder {
+
+        /**
+         * The instance of the outer class.
+         */
+        static final IdProvider INSTANCE = new SequentialIdProvider();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.core.internal.collect;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A {@link Spliterator} that traverses recursively all the contents of an {@link Iterable} and its content, in the
+ * same order as an {@link AllContentsIterator}.
+ * <p>
+ * This spliterator holds the elements that remain to be visited, each of them with its whole sub-tree. It is split by
+ * dividing these elements in two halves: when only one element remains, its direct content is loaded, so a large
+ * containment list is shared between the resulting spliterators.
+ *
+ * @param <E> the type of elements contained in the root
+ */
+@ParametersAreNonnullByDefault
+public class AllContentsSpliterator<E extends Iterable<E>> implements Spliterator<E> {
+
+    /**
+     * The elements that remain to be visited, in their traversal order.
+     */
+    @Nonnull
+    private final Deque<Node<E>> nodes;
+
+    /**
+     * The estimated number of elements. It is unknown at first, and divided by 2 on each split.
+     */
+    @Nonnegative
+    private long estimatedSize;
+
+    /**
+     * Constructs a new {@code AllContentsSpliterator}.
+     *
+     * @param root the root of this spliterator; it is not part of the traversed elements
+     */
+    public AllContentsSpliterator(Iterable<E> root) {
+        checkNotNull(root, "root");
+
+        this.nodes = new ArrayDeque<>();
+        this.estimatedSize = Long.MAX_VALUE;
+
+        root.forEach(e -> nodes.offerLast(new Node<>(e, true)));
+    }
+
+    /**
+     * Constructs a new {@code AllContentsSpliterator} on the given {@code nodes}.
+     *
+     * @param nodes         the elements to visit
+     * @param estimatedSize the estimated number of elements
+     */
+    private AllContentsSpliterator(Deque<Node<E>> nodes, @Nonnegative long estimatedSize) {
+        this.nodes = nodes;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        checkNotNull(action, "action");
+
+        final Node<E> node = nodes.pollFirst();
+        if (node == null) {
+            return false;
+        }
+
+        if (node.withContents) {
+            // Visit the contents right after the element, in their order
+            final List<E> contents = contentsOf(node.element);
+            for (int i = contents.size() - 1; i >= 0; i--) {
+                nodes.offerFirst(new Node<>(contents.get(i), true));
+            }
+        }
+
+        action.accept(node.element);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        checkNotNull(action, "action");
+
+        // Use a sequential iteration on each remaining sub-tree
+        Node<E> node;
+        while ((node = nodes.pollFirst()) != null) {
+            action.accept(node.element);
+
+            if (node.withContents) {
+                new AllContentsIterator<>(node.element).forEachRemaining(action);
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<E> trySplit() {
+        // Expand the remaining element until there are enough elements to share
+        while (nodes.size() == 1 && nodes.peekFirst().withContents) {
+            final Node<E> node = nodes.pollFirst();
+            final List<E> contents = contentsOf(node.element);
+
+            nodes.offerLast(new Node<>(node.element, false));
+            contents.forEach(e -> nodes.offerLast(new Node<>(e, true)));
+        }
+
+        if (nodes.size() < 2) {
+            return null;
+        }
+
+        // The prefix contains the first half of the elements, with their sub-trees
+        final int prefixSize = nodes.size() / 2;
+
+        final Deque<Node<E>> prefix = new ArrayDeque<>(prefixSize);
+        for (int i = 0; i < prefixSize; i++) {
+            prefix.offerLast(nodes.pollFirst());
+        }
+
+        // The size of the sub-trees is unknown: assume that both halves are equivalent
+        estimatedSize >>>= 1;
+        return new AllContentsSpliterator<>(prefix, estimatedSize);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Returns the direct content of the {@code element}.
+     *
+     * @param element the element
+     *
+     * @return a new list
+     */
+    @Nonnull
+    private List<E> contentsOf(E element) {
+        final List<E> contents = new ArrayList<>();
+        for (Iterator<E> it = element.iterator(); it.hasNext(); ) {
+            contents.add(it.next());
+        }
+        return contents;
+    }
+
+    /**
+     * An element to visit.
+     *
+     * @param <E> the type of the element
+     */
+    @ParametersAreNonnullByDefault
+    private static final class Node<E> {
+
+        /**
+         * The element to visit.
+         */
+        @Nonnull
+        final E element;
+
+        /**
+         * {@code true} if the content of the element has to be visited after it.
+         */
+        final boolean withContents;
+
+        /**
+         * Constructs a new {@code Node}.
+         *
+         * @param element      the element to visit
+         * @param withContents {@code true} if the content of the element has to be visited after it
+         */
+        Node(E element, boolean withContents) {
+            this.element = element;
+            this.withContents = withContents;
+        }
+    }
+}
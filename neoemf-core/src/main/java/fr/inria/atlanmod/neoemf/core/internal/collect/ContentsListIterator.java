@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.core.internal.collect;
 
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.util.EFeatures;
 
 import org.eclipse.emf.ecore.EObject;
@@ -278,6 +279,11 @@ class ContentsListIterator<E extends EObject> implements EContentsEList.FeatureL
         currentFeature = nextResult.feature();
         cursor = direction.advanceCursor(cursor);
 
+        // Notify the store before preparing the next element, that may already be loaded ahead
+        if (direction == IterationDirection.FORWARD && nonNull(values) && !isFeatureMap) {
+            readAhead(values.previousIndex());
+        }
+
         // Reset and prepare the next/previous element
         nextResult = IterationResult.undefined();
         nextResult = prepare(direction);
@@ -353,6 +359,18 @@ class ContentsListIterator<E extends EObject> implements EContentsEList.FeatureL
         return IterationResult.empty(direction);
     }
 
+    /**
+     * Notifies the store of the owner that the element at the {@code position} of the current multi-valued feature is
+     * visited, so that it can load the next elements ahead.
+     *
+     * @param position the position of the visited element
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.Store#readAhead(ManyFeatureBean)
+     */
+    private void readAhead(@Nonnegative int position) {
+        owner.eStore().store().readAhead(ManyFeatureBean.from(owner, currentFeature, position));
+    }
+
     // region Value management of multi-valued features
 
     /**
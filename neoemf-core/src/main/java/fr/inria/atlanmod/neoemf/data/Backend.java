@@ -12,6 +12,9 @@ import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
 /**
  * A {@link fr.inria.atlanmod.neoemf.data.mapping.DataMapper} that stores all elements in a database and provides
  * specific methods for communicating with the database that it uses. Each {@code Backend} manage one single instance of
@@ -33,4 +36,58 @@ public interface Backend extends DataMapper {
      * @return {@code true} if the back-end is distributed.
      */
     boolean isDistributed();
+
+    /**
+     * Returns {@code true} if the back-end can be read from several threads at the same time, while no mutation is
+     * applied.
+     * <p>
+     * Back-ends whose transactions or internal state are bound to a thread must return {@code false}: the stores that
+     * read in background, such as {@link fr.inria.atlanmod.neoemf.data.store.ReadAheadStore}, are disabled for them.
+     *
+     * @return {@code true} if the back-end supports concurrent reads
+     */
+    default boolean isConcurrentReadSafe() {
+        return false;
+    }
+
+    /**
+     * Writes all the mutations of the {@code batch} in the database.
+     * <p>
+     * By default, the mutations are applied one by one: back-ends should override this method to send them in as few
+     * requests as possible.
+     *
+     * @param batch the mutations to write
+     */
+    default void writeAll(WriteBatch batch) {
+        checkNotNull(batch, "batch");
+
+        batch.metaClasses().forEach(this::metaClassFor);
+
+        batch.containers().forEach((id, c) -> {
+            if (nonNull(c)) {
+                containerFor(id, c);
+            }
+            else {
+                removeContainer(id);
+            }
+        });
+
+        batch.values().forEach((f, v) -> {
+            if (nonNull(v)) {
+                setValue(f, v);
+            }
+            else {
+                removeValue(f);
+            }
+        });
+
+        batch.references().forEach((f, r) -> {
+            if (nonNull(r)) {
+                setReference(f, r);
+            }
+            else {
+                removeReference(f);
+            }
+        });
+    }
 }
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A request to load the data of several elements at once, and its result.
+ * <p>
+ * The container and the meta-class of each element are always loaded, as well as the requested features, identified
+ * by their identifier. Only the existing data are present in the result: a requested element or feature that is absent
+ * from the result does not exist.
+ *
+ * @see DataMapper#prefetch(Prefetch)
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class Prefetch {
+
+    /**
+     * The identifiers of the elements to load.
+     */
+    @Nonnull
+    private final Set<Id> ids;
+
+    /**
+     * The identifiers of the single-valued attributes to load.
+     */
+    @Nonnull
+    private final Set<Integer> valueFeatures = new LinkedHashSet<>();
+
+    /**
+     * The identifiers of the single-valued references to load.
+     */
+    @Nonnull
+    private final Set<Integer> referenceFeatures = new LinkedHashSet<>();
+
+    /**
+     * The identifiers of the multi-valued attributes to load.
+     */
+    @Nonnull
+    private final Set<Integer> manyValueFeatures = new LinkedHashSet<>();
+
+    /**
+     * The identifiers of the multi-valued references to load.
+     */
+    @Nonnull
+    private final Set<Integer> manyReferenceFeatures = new LinkedHashSet<>();
+
+    /**
+     * The loaded containers, identified by the object {@link Id}.
+     */
+    @Nonnull
+    private final Map<Id, SingleFeatureBean> containers = new HashMap<>();
+
+    /**
+     * The loaded meta-classes, identified by the object {@link Id}.
+     */
+    @Nonnull
+    private final Map<Id, ClassBean> metaClasses = new HashMap<>();
+
+    /**
+     * The loaded single-valued attributes, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, Object> values = new HashMap<>();
+
+    /**
+     * The loaded single-valued references, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, Id> references = new HashMap<>();
+
+    /**
+     * The loaded multi-valued attributes, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, List<Object>> manyValues = new HashMap<>();
+
+    /**
+     * The loaded multi-valued references, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, List<Id>> manyReferences = new HashMap<>();
+
+    /**
+     * Constructs a new {@code Prefetch} for the given {@code ids}.
+     *
+     * @param ids the identifiers of the elements to load
+     */
+    private Prefetch(Collection<Id> ids) {
+        this.ids = Collections.unmodifiableSet(new LinkedHashSet<>(ids));
+    }
+
+    /**
+     * Creates a new {@code Prefetch} that loads the containers and the meta-classes of the {@code ids}.
+     *
+     * @param ids the identifiers of the elements to load
+     *
+     * @return a new prefetch
+     */
+    @Nonnull
+    public static Prefetch of(Collection<Id> ids) {
+        checkNotNull(ids, "ids");
+
+        return new Prefetch(ids);
+    }
+
+    /**
+     * Adds single-valued attributes to load.
+     *
+     * @param features the identifiers of the attributes
+     *
+     * @return this prefetch (for chaining)
+     */
+    @Nonnull
+    public Prefetch withValues(int... features) {
+        Arrays.stream(features).forEach(valueFeatures::add);
+        return this;
+    }
+
+    /**
+     * Adds single-valued references to load.
+     *
+     * @param features the identifiers of the references
+     *
+     * @return this prefetch (for chaining)
+     */
+    @Nonnull
+    public Prefetch withReferences(int... features) {
+        Arrays.stream(features).forEach(referenceFeatures::add);
+        return this;
+    }
+
+    /**
+     * Adds multi-valued attributes to load.
+     *
+     * @param features the identifiers of the attributes
+     *
+     * @return this prefetch (for chaining)
+     */
+    @Nonnull
+    public Prefetch withManyValues(int... features) {
+        Arrays.stream(features).forEach(manyValueFeatures::add);
+        return this;
+    }
+
+    /**
+     * Adds multi-valued references to load.
+     *
+     * @param features the identifiers of the references
+     *
+     * @return this prefetch (for chaining)
+     */
+    @Nonnull
+    public Prefetch withManyReferences(int... features) {
+        Arrays.stream(features).forEach(manyReferenceFeatures::add);
+        return this;
+    }
+
+    /**
+     * Returns the identifiers of the elements to load.
+     *
+     * @return an immutable set
+     */
+    @Nonnull
+    public Set<Id> ids() {
+        return ids;
+    }
+
+    /**
+     * Returns the identifiers of the single-valued attributes to load.
+     *
+     * @return an immutable set
+     */
+    @Nonnull
+    public Set<Integer> valueFeatures() {
+        return Collections.unmodifiableSet(valueFeatures);
+    }
+
+    /**
+     * Returns the identifiers of the single-valued references to load.
+     *
+     * @return an immutable set
+     */
+    @Nonnull
+    public Set<Integer> referenceFeatures() {
+        return Collections.unmodifiableSet(referenceFeatures);
+    }
+
+    /**
+     * Returns the identifiers of the multi-valued attributes to load.
+     *
+     * @return an immutable set
+     */
+    @Nonnull
+    public Set<Integer> manyValueFeatures() {
+        return Collections.unmodifiableSet(manyValueFeatures);
+    }
+
+    /**
+     * Returns the identifiers of the multi-valued references to load.
+     *
+     * @return an immutable set
+     */
+    @Nonnull
+    public Set<Integer> manyReferenceFeatures() {
+        return Collections.unmodifiableSet(manyReferenceFeatures);
+    }
+
+    /**
+     * Defines the loaded {@code container} of the {@code id}.
+     *
+     * @param id        the identifier of the contained element
+     * @param container the containing element
+     */
+    public void containerFor(Id id, SingleFeatureBean container) {
+        containers.put(checkNotNull(id, "id"), checkNotNull(container, "container"));
+    }
+
+    /**
+     * Defines the loaded {@code metaClass} of the {@code id}.
+     *
+     * @param id        the identifier of the element
+     * @param metaClass the meta-class of the element
+     */
+    public void metaClassFor(Id id, ClassBean metaClass) {
+        metaClasses.put(checkNotNull(id, "id"), checkNotNull(metaClass, "metaClass"));
+    }
+
+    /**
+     * Defines the loaded {@code value} of the single-valued {@code feature}.
+     *
+     * @param feature the bean identifying the attribute
+     * @param value   the value of the attribute
+     */
+    public void valueFor(SingleFeatureBean feature, Object value) {
+        values.put(checkNotNull(feature, "feature"), checkNotNull(value, "value"));
+    }
+
+    /**
+     * Defines the loaded {@code reference} of the single-valued {@code feature}.
+     *
+     * @param feature   the bean identifying the reference
+     * @param reference the reference
+     */
+    public void referenceFor(SingleFeatureBean feature, Id reference) {
+        references.put(checkNotNull(feature, "feature"), checkNotNull(reference, "reference"));
+    }
+
+    /**
+     * Defines all the loaded {@code values} of the multi-valued {@code feature}.
+     *
+     * @param feature the bean identifying the attribute
+     * @param values  the values of the attribute, in their order
+     */
+    public void allValuesFor(SingleFeatureBean feature, List<?> values) {
+        manyValues.put(checkNotNull(feature, "feature"), new ArrayList<>(checkNotNull(values, "values")));
+    }
+
+    /**
+     * Defines all the loaded {@code references} of the multi-valued {@code feature}.
+     *
+     * @param feature    the bean identifying the reference
+     * @param references the references, in their order
+     */
+    public void allReferencesFor(SingleFeatureBean feature, List<Id> references) {
+        manyReferences.put(checkNotNull(feature, "feature"), new ArrayList<>(checkNotNull(references, "references")));
+    }
+
+    /**
+     * Returns the loaded containers.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<Id, SingleFeatureBean> containers() {
+        return Collections.unmodifiableMap(containers);
+    }
+
+    /**
+     * Returns the loaded meta-classes.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<Id, ClassBean> metaClasses() {
+        return Collections.unmodifiableMap(metaClasses);
+    }
+
+    /**
+     * Returns the loaded single-valued attributes.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, Object> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the loaded single-valued references.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, Id> references() {
+        return Collections.unmodifiableMap(references);
+    }
+
+    /**
+     * Returns the loaded multi-valued attributes.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, List<Object>> manyValues() {
+        return Collections.unmodifiableMap(manyValues);
+    }
+
+    /**
+     * Returns the loaded multi-valued references.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, List<Id>> manyReferences() {
+        return Collections.unmodifiableMap(manyReferences);
+    }
+
+    /**
+     * Loads all the requested data from the {@code mapper}, one element at a time.
+     *
+     * @param mapper the mapper to read
+     */
+    public void loadFrom(DataMapper mapper) {
+        checkNotNull(mapper, "mapper");
+
+        for (Id id : ids) {
+            mapper.containerOf(id).ifPresent(c -> containerFor(id, c));
+            mapper.metaClassOf(id).ifPresent(c -> metaClassFor(id, c));
+
+            for (int i : valueFeatures) {
+                SingleFeatureBean feature = SingleFeatureBean.of(id, i);
+                mapper.valueOf(feature).ifPresent(v -> valueFor(feature, v));
+            }
+
+            for (int i : referenceFeatures) {
+                SingleFeatureBean feature = SingleFeatureBean.of(id, i);
+                mapper.referenceOf(feature).ifPresent(r -> referenceFor(feature, r));
+            }
+
+            for (int i : manyValueFeatures) {
+                SingleFeatureBean feature = SingleFeatureBean.of(id, i);
+                allValuesFor(feature, mapper.allValuesOf(feature).collect(Collectors.toList()));
+            }
+
+            for (int i : manyReferenceFeatures) {
+                SingleFeatureBean feature = SingleFeatureBean.of(id, i);
+                allReferencesFor(feature, mapper.allReferencesOf(feature).collect(Collectors.toList()));
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A set of mutations to write in a {@link Backend} at once.
+ * <p>
+ * Only the last mutation of each key is kept: writing a key several times, or removing it after writing it, replaces
+ * the previous mutation. A removal is represented by a {@code null} value.
+ *
+ * @see Backend#writeAll(WriteBatch)
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class WriteBatch {
+
+    /**
+     * The containers to write, identified by the object {@link Id}.
+     */
+    @Nonnull
+    private final Map<Id, SingleFeatureBean> containers = new LinkedHashMap<>();
+
+    /**
+     * The meta-classes to write, identified by the object {@link Id}.
+     */
+    @Nonnull
+    private final Map<Id, ClassBean> metaClasses = new LinkedHashMap<>();
+
+    /**
+     * The single-valued attributes to write, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, Object> values = new LinkedHashMap<>();
+
+    /**
+     * The single-valued references to write, identified by the associated {@link SingleFeatureBean}.
+     */
+    @Nonnull
+    private final Map<SingleFeatureBean, Id> references = new LinkedHashMap<>();
+
+    /**
+     * Defines the {@code container} of the {@code id}.
+     *
+     * @param id        the identifier of the contained element
+     * @param container the containing element
+     */
+    public void containerFor(Id id, SingleFeatureBean container) {
+        checkNotNull(id, "id");
+        checkNotNull(container, "container");
+
+        containers.put(id, container);
+    }
+
+    /**
+     * Removes the container of the {@code id}.
+     *
+     * @param id the identifier of the contained element
+     */
+    public void removeContainer(Id id) {
+        checkNotNull(id, "id");
+
+        containers.put(id, null);
+    }
+
+    /**
+     * Defines the {@code metaClass} of the {@code id}.
+     *
+     * @param id        the identifier of the element
+     * @param metaClass the meta-class of the element
+     */
+    public void metaClassFor(Id id, ClassBean metaClass) {
+        checkNotNull(id, "id");
+        checkNotNull(metaClass, "metaClass");
+
+        metaClasses.put(id, metaClass);
+    }
+
+    /**
+     * Defines the {@code value} of the {@code feature}.
+     *
+     * @param feature the bean identifying the attribute
+     * @param value   the value to set
+     */
+    public void valueFor(SingleFeatureBean feature, Object value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
+
+        values.put(feature, value);
+    }
+
+    /**
+     * Removes the value of the {@code feature}.
+     *
+     * @param feature the bean identifying the attribute
+     */
+    public void removeValue(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        values.put(feature, null);
+    }
+
+    /**
+     * Defines the {@code reference} of the {@code feature}.
+     *
+     * @param feature   the bean identifying the reference
+     * @param reference the reference to set
+     */
+    public void referenceFor(SingleFeatureBean feature, Id reference) {
+        checkNotNull(feature, "feature");
+        checkNotNull(reference, "reference");
+
+        references.put(feature, reference);
+    }
+
+    /**
+     * Removes the reference of the {@code feature}.
+     *
+     * @param feature the bean identifying the reference
+     */
+    public void removeReference(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        references.put(feature, null);
+    }
+
+    /**
+     * Returns the containers to write, in their insertion order. A {@code null} value means that the container must be
+     * removed.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<Id, SingleFeatureBean> containers() {
+        return Collections.unmodifiableMap(containers);
+    }
+
+    /**
+     * Returns the meta-classes to write, in their insertion order.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<Id, ClassBean> metaClasses() {
+        return Collections.unmodifiableMap(metaClasses);
+    }
+
+    /**
+     * Returns the single-valued attributes to write, in their insertion order. A {@code null} value means that the
+     * value must be removed.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, Object> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the single-valued references to write, in their insertion order. A {@code null} value means that the
+     * reference must be removed.
+     *
+     * @return an immutable map
+     */
+    @Nonnull
+    public Map<SingleFeatureBean, Id> references() {
+        return Collections.unmodifiableMap(references);
+    }
+
+    /**
+     * Returns the number of mutations in this batch.
+     *
+     * @return the number of mutations
+     */
+    @Nonnegative
+    public int size() {
+        return containers.size() + metaClasses.size() + values.size() + references.size();
+    }
+
+    /**
+     * Returns {@code true} if this batch does not contain any mutation.
+     *
+     * @return {@code true} if this batch does not contain any mutation
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all the mutations of this batch.
+     */
+    public void clear() {
+        containers.clear();
+        metaClasses.clear();
+        values.clear();
+        references.clear();
+    }
+}
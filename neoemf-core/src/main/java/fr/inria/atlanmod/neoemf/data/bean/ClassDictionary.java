@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.bean;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkArgument;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A dictionary that associates each {@link ClassBean} with a small integer identifier, in order to store a meta-class
+ * as a number instead of its name and its URI.
+ * <p>
+ * Identifiers are allocated sequentially, from {@code 0}, the first time a meta-class is registered. All {@link
+ * ClassBean}s retrieved from this dictionary are canonical: the same instance is always returned for a given
+ * identifier.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class ClassDictionary {
+
+    /**
+     * The identifiers of the registered meta-classes.
+     */
+    @Nonnull
+    private final Map<ClassBean, Integer> identifiers = new ConcurrentHashMap<>();
+
+    /**
+     * The function to call when a new meta-class is registered, to persist the association.
+     */
+    @Nonnull
+    private final BiConsumer<Integer, ClassBean> writer;
+
+    /**
+     * The registered meta-classes, indexed by their identifier.
+     */
+    @Nonnull
+    private volatile ClassBean[] metaClasses;
+
+    /**
+     * Constructs a new empty {@code ClassDictionary}, which is not persisted.
+     */
+    public ClassDictionary() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * Constructs a new {@code ClassDictionary} backed by the given {@code storage}. All existing associations are
+     * loaded from the {@code storage}, and new ones are put in it.
+     *
+     * @param storage the map where to load and save the associations
+     */
+    public ClassDictionary(Map<Integer, ClassBean> storage) {
+        this(storage, storage::put);
+    }
+
+    /**
+     * Constructs a new {@code ClassDictionary} with the existing {@code associations}.
+     *
+     * @param associations the existing associations
+     * @param writer       the function to call when a new meta-class is registered, to persist the association
+     */
+    public ClassDictionary(Map<Integer, ClassBean> associations, BiConsumer<Integer, ClassBean> writer) {
+        checkNotNull(associations, "associations");
+        checkNotNull(writer, "writer");
+
+        this.writer = writer;
+        this.metaClasses = new ClassBean[associations.size()];
+
+        associations.forEach((i, c) -> {
+            checkArgument(i >= 0 && i < metaClasses.length, "Non-sequential identifier %d for %s", i, c);
+            metaClasses[i] = c;
+            identifiers.put(c, i);
+        });
+    }
+
+    /**
+     * Returns the identifier of the {@code metaClass}, and registers it if it is not already defined.
+     *
+     * @param metaClass the meta-class
+     *
+     * @return the identifier of the {@code metaClass}
+     */
+    public int idOf(ClassBean metaClass) {
+        checkNotNull(metaClass, "metaClass");
+
+        Integer id = identifiers.get(metaClass);
+        return isNull(id) ? register(metaClass) : id;
+    }
+
+    /**
+     * Returns the identifier of the {@code metaClass}, without registering it.
+     *
+     * @param metaClass the meta-class
+     *
+     * @return an {@link Optional} containing the identifier, or {@link Optional#empty()} if the {@code metaClass} is
+     * not registered
+     */
+    @Nonnull
+    public Optional<Integer> findIdOf(ClassBean metaClass) {
+        checkNotNull(metaClass, "metaClass");
+
+        return Optional.ofNullable(identifiers.get(metaClass));
+    }
+
+    /**
+     * Returns the canonical meta-class associated with the {@code id}.
+     *
+     * @param id the identifier of the meta-class
+     *
+     * @return the meta-class
+     *
+     * @throws IllegalArgumentException if no meta-class is associated with the {@code id}
+     */
+    @Nonnull
+    public ClassBean classOf(int id) {
+        final ClassBean[] local = metaClasses;
+        checkArgument(id >= 0 && id < local.length, "Unknown meta-class identifier: %d", id);
+
+        return local[id];
+    }
+
+    /**
+     * Returns the number of registered meta-classes.
+     *
+     * @return the number of registered meta-classes
+     */
+    public int size() {
+        return metaClasses.length;
+    }
+
+    /**
+     * Registers the {@code metaClass} with the next available identifier.
+     *
+     * @param metaClass the meta-class to register
+     *
+     * @return the identifier of the {@code metaClass}
+     */
+    private synchronized int register(ClassBean metaClass) {
+        Integer existingId = identifiers.get(metaClass);
+        if (nonNull(existingId)) {
+            return existingId;
+        }
+
+        final int id = metaClasses.length;
+        writer.accept(id, metaClass);
+
+        ClassBean[] newMetaClasses = Arrays.copyOf(metaClasses, id + 1);
+        newMetaClasses[id] = metaClass;
+        metaClasses = newMetaClasses;
+
+        identifiers.put(metaClass, id);
+        return id;
+    }
+}
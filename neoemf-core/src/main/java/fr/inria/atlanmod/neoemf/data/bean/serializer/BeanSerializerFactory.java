@@ -10,6 +10,7 @@ package fr.inria.atlanmod.neoemf.data.bean.serializer;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
@@ -86,6 +87,19 @@ public class BeanSerializerFactory extends BinarySerializerFactory {
         return classSerializer;
     }
 
+    /**
+     * Creates a {@link org.atlanmod.commons.io.serializer.BinarySerializer} for {@link
+     * fr.inria.atlanmod.neoemf.data.bean.ClassBean}s, that writes their identifier in the given {@code dictionary}.
+     *
+     * @param dictionary the dictionary used to resolve the meta-classes
+     *
+     * @return a new serializer
+     */
+    @Nonnull
+    public BinarySerializer<ClassBean> forClass(ClassDictionary dictionary) {
+        return new IndexedClassSerializer(dictionary);
+    }
+
     /**
      * Gets the {@link org.atlanmod.commons.io.serializer.BinarySerializer} for {@link
      * fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean}s.
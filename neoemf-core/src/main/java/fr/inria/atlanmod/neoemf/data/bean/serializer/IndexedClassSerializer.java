@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.bean.serializer;
+
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
+
+import org.atlanmod.commons.io.serializer.AbstractBinarySerializer;
+import org.atlanmod.commons.io.serializer.BinarySerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.WillNotClose;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A {@link BinarySerializer} for {@link ClassBean}s, that writes the identifier of a meta-class in a {@link
+ * ClassDictionary} instead of its name and its URI.
+ * <p>
+ * Unknown meta-classes are registered in the dictionary during the serialization.
+ */
+@ParametersAreNonnullByDefault
+final class IndexedClassSerializer extends AbstractBinarySerializer<ClassBean> {
+
+    private static final long serialVersionUID = -3315047541406716862L;
+
+    /**
+     * The dictionary used to resolve the meta-classes.
+     */
+    @Nonnull
+    private final ClassDictionary dictionary;
+
+    /**
+     * Constructs a new {@code IndexedClassSerializer} on the specified {@code dictionary}.
+     *
+     * @param dictionary the dictionary used to resolve the meta-classes
+     */
+    public IndexedClassSerializer(ClassDictionary dictionary) {
+        this.dictionary = checkNotNull(dictionary, "dictionary");
+    }
+
+    @Nonnull
+    @Override
+    public byte[] serialize(ClassBean metaClass) throws IOException {
+        // Register the meta-class first: the dictionary may use another serializer to persist it
+        dictionary.idOf(metaClass);
+        return super.serialize(metaClass);
+    }
+
+    @Override
+    public void serialize(ClassBean metaClass, @WillNotClose OutputStream out) throws IOException {
+        dictionary.idOf(metaClass);
+        super.serialize(metaClass, out);
+    }
+
+    @Override
+    public void serialize(ClassBean metaClass, @WillNotClose DataOutput out) throws IOException {
+        out.writeInt(dictionary.idOf(metaClass));
+    }
+
+    @Nonnull
+    @Override
+    public ClassBean deserialize(@WillNotClose DataInput in) throws IOException {
+        return dictionary.classOf(in.readInt());
+    }
+}
@@ -188,6 +188,14 @@ public abstract class AbstractInMemoryBackend extends AbstractBackend implements
         return Optional.ofNullable(cast(features().put(feature, value)));
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        features().put(feature, value);
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         checkFeature(feature);
@@ -219,9 +227,10 @@ public abstract class AbstractInMemoryBackend extends AbstractBackend implements
         protected static final long ID = (long) Long.BYTES;
 
         /**
-         * The estimated size of a {@link ClassBean}.
+         * The estimated size of a {@link ClassBean}, stored as its identifier in a {@link
+         * fr.inria.atlanmod.neoemf.data.bean.ClassDictionary}.
          */
-        protected static final long CLASS = (long) Math.pow(2, 7);
+        protected static final long CLASS = (long) Integer.BYTES;
 
         /**
          * The estimated size of a {@link FeatureBean}.
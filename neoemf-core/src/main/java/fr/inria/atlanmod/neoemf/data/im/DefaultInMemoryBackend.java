@@ -10,6 +10,7 @@ package fr.inria.atlanmod.neoemf.data.im;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
 import net.openhft.chronicle.map.ChronicleMap;
@@ -82,7 +83,7 @@ public class DefaultInMemoryBackend extends AbstractInMemoryBackend {
                 .averageKeySize(Sizes.ID)
                 .averageValueSize(Sizes.CLASS)
                 .keyMarshaller(new BeanMarshaller<>(SERIALIZER_FACTORY.forId()))
-                .valueMarshaller(new BeanMarshaller<>(SERIALIZER_FACTORY.forClass()))
+                .valueMarshaller(new BeanMarshaller<>(SERIALIZER_FACTORY.forClass(new ClassDictionary())))
                 .create();
 
         features = ChronicleMapBuilder.of(SingleFeatureBean.class, Object.class)
@@ -94,6 +95,11 @@ public class DefaultInMemoryBackend extends AbstractInMemoryBackend {
                 .create();
     }
 
+    @Override
+    public boolean isConcurrentReadSafe() {
+        return true;
+    }
+
     @Override
     protected void internalClose() {
         containers.clear();
@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.im;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.AbstractBackend;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.FeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkNotContainsNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+import static org.atlanmod.commons.Preconditions.checkPositionIndex;
+
+/**
+ * A {@link InMemoryBackend} that stores all elements on the heap, without any serialization.
+ * <p>
+ * Each element is stored in a {@link Record}, identified by the {@code long} value of its {@link Id} in a primitive
+ * hash map. The values of its features are stored in an array indexed by the identifier of the feature: multi-valued
+ * features are stored as {@link List}s, and references are stored as {@link Id}s. Reading a feature does not create
+ * any bean or boxed key.
+ * <p>
+ * Unlike {@link DefaultInMemoryBackend}, this back-end does not support concurrent modifications.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.im.config.InMemoryConfig#onHeap()
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public class HeapInMemoryBackend extends AbstractBackend implements InMemoryBackend {
+
+    /**
+     * The records of all elements, identified by the {@code long} value of their {@link Id}.
+     */
+    @Nonnull
+    private final LongObjectHashMap<Record> records;
+
+    /**
+     * Constructs a new {@code HeapInMemoryBackend}.
+     */
+    public HeapInMemoryBackend() {
+        this(LongObjectHashMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code HeapInMemoryBackend} with the given initial {@code capacity}.
+     *
+     * @param capacity the expected number of elements
+     */
+    protected HeapInMemoryBackend(@Nonnegative int capacity) {
+        this.records = new LongObjectHashMap<>(capacity);
+    }
+
+    /**
+     * Casts the {@code value} as expected.
+     *
+     * @param value the value to be cast
+     * @param <V>   the expected type of the value
+     *
+     * @return the {@code value} after casting, or {@code null} if the {@code value} is {@code null}
+     *
+     * @throws ClassCastException if the {@code value} is not {@code null} and is not assignable to the type {@code V}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(@Nullable Object value) {
+        return (V) value;
+    }
+
+    @Override
+    protected void internalSave() {
+        // No need to save anything
+    }
+
+    @Override
+    protected void internalClose() {
+        records.clear();
+    }
+
+    /**
+     * Checks the specified {@code feature} before using it.
+     *
+     * @param feature the feature to check
+     */
+    protected void checkFeature(FeatureBean feature) {
+        checkNotNull(feature, "feature");
+    }
+
+    /**
+     * Returns the identifiers of all the features of the element identified by the {@code id} that have a value.
+     *
+     * @param id the identifier of the element
+     *
+     * @return a stream of feature identifiers, in ascending order
+     */
+    @Nonnull
+    protected IntStream featuresOf(Id id) {
+        final Record record = recordOf(id);
+        if (isNull(record)) {
+            return IntStream.empty();
+        }
+
+        final Object[] slots = record.slots;
+        return IntStream.range(0, slots.length).filter(i -> nonNull(slots[i]));
+    }
+
+    /**
+     * Returns the record of the element identified by the {@code id}.
+     *
+     * @param id the identifier of the element
+     *
+     * @return the record, or {@code null} if the element does not exist
+     */
+    @Nullable
+    private Record recordOf(Id id) {
+        return records.get(id.toLong());
+    }
+
+    /**
+     * Returns the record of the element identified by the {@code id}, and creates it if necessary.
+     *
+     * @param id the identifier of the element
+     *
+     * @return the record
+     */
+    @Nonnull
+    private Record getOrCreateRecord(Id id) {
+        Record record = records.get(id.toLong());
+
+        if (isNull(record)) {
+            record = new Record(id);
+            records.put(id.toLong(), record);
+        }
+        return record;
+    }
+
+    /**
+     * Returns the values of the multi-valued {@code feature}.
+     *
+     * @param feature the bean identifying the multi-valued feature
+     *
+     * @return the list of values, or {@code null} if the feature has no value
+     */
+    @Nullable
+    private List<Object> listOf(SingleFeatureBean feature) {
+        final Record record = recordOf(feature.owner());
+        return isNull(record) ? null : cast(record.get(feature.id()));
+    }
+
+    /**
+     * Returns the values of the multi-valued {@code feature}, and creates them if necessary.
+     *
+     * @param feature the bean identifying the multi-valued feature
+     *
+     * @return the list of values
+     */
+    @Nonnull
+    private List<Object> getOrCreateList(SingleFeatureBean feature) {
+        final Record record = getOrCreateRecord(feature.owner());
+
+        List<Object> values = cast(record.get(feature.id()));
+        if (isNull(values)) {
+            values = new ArrayList<>();
+            record.set(feature.id(), values);
+        }
+        return values;
+    }
+
+    // region Containers
+
+    @Nonnull
+    @Override
+    public Optional<SingleFeatureBean> containerOf(Id id) {
+        checkNotNull(id, "id");
+
+        final Record record = recordOf(id);
+        return isNull(record) ? Optional.empty() : Optional.ofNullable(record.container);
+    }
+
+    @Override
+    public void containerFor(Id id, SingleFeatureBean container) {
+        checkNotNull(id, "id");
+        checkNotNull(container, "container");
+
+        getOrCreateRecord(id).container = container;
+    }
+
+    @Override
+    public void removeContainer(Id id) {
+        checkNotNull(id, "id");
+
+        final Record record = recordOf(id);
+        if (nonNull(record)) {
+            record.container = null;
+        }
+    }
+
+    // endregion
+
+    // region Meta-classes
+
+    @Nonnull
+    @Override
+    public Optional<ClassBean> metaClassOf(Id id) {
+        checkNotNull(id, "id");
+
+        final Record record = recordOf(id);
+        return isNull(record) ? Optional.empty() : Optional.ofNullable(record.metaClass);
+    }
+
+    @Override
+    public boolean metaClassFor(Id id, ClassBean metaClass) {
+        checkNotNull(id, "id");
+        checkNotNull(metaClass, "metaClass");
+
+        final Record record = getOrCreateRecord(id);
+        if (nonNull(record.metaClass)) {
+            return false;
+        }
+
+        record.metaClass = metaClass;
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
+        return records.values()
+                .filter(r -> nonNull(r.metaClass) && metaClasses.contains(r.metaClass))
+                .map(r -> r.id);
+    }
+
+    // endregion
+
+    // region Single-valued features
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueOf(SingleFeatureBean feature) {
+        checkFeature(feature);
+
+        final Record record = recordOf(feature.owner());
+        return isNull(record) ? Optional.empty() : Optional.ofNullable(cast(record.get(feature.id())));
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(SingleFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        final Record record = getOrCreateRecord(feature.owner());
+        final V previousValue = cast(record.get(feature.id()));
+        record.set(feature.id(), value);
+
+        return Optional.ofNullable(previousValue);
+    }
+
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        getOrCreateRecord(feature.owner()).set(feature.id(), value);
+    }
+
+    @Override
+    public void removeValue(SingleFeatureBean feature) {
+        checkFeature(feature);
+
+        final Record record = recordOf(feature.owner());
+        if (nonNull(record)) {
+            record.set(feature.id(), null);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(SingleFeatureBean feature) {
+        return valueOf(feature);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(SingleFeatureBean feature, Id reference) {
+        return valueFor(feature, reference);
+    }
+
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        setValue(feature, reference);
+    }
+
+    @Override
+    public void removeReference(SingleFeatureBean feature) {
+        removeValue(feature);
+    }
+
+    // endregion
+
+    // region Multi-valued features
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueOf(ManyFeatureBean feature) {
+        checkFeature(feature);
+
+        final List<Object> values = listOf(feature.withoutPosition());
+        return isNull(values) || feature.position() >= values.size()
+                ? Optional.empty()
+                : Optional.of(cast(values.get(feature.position())));
+    }
+
+    @Nonnull
+    @Override
+    public <V> Stream<V> allValuesOf(SingleFeatureBean feature) {
+        checkFeature(feature);
+
+        // Stream a copy, so that the feature can be modified while the stream is consumed
+        final List<V> values = cast(listOf(feature));
+        return isNull(values) ? Stream.empty() : new ArrayList<>(values).stream();
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(ManyFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        final List<Object> values = listOf(feature.withoutPosition());
+        if (isNull(values) || feature.position() >= values.size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return Optional.of(cast(values.set(feature.position(), value)));
+    }
+
+    @Override
+    public <V> void addValue(ManyFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        final List<Object> values = getOrCreateList(feature.withoutPosition());
+        checkPositionIndex(feature.position(), values.size());
+
+        values.add(feature.position(), value);
+    }
+
+    @Override
+    public <V> void addAllValues(ManyFeatureBean feature, List<? extends V> collection) {
+        checkFeature(feature);
+        checkNotNull(collection, "collection");
+        checkNotContainsNull(collection, "collection");
+
+        if (collection.isEmpty()) {
+            return;
+        }
+
+        final List<Object> values = getOrCreateList(feature.withoutPosition());
+        checkPositionIndex(feature.position(), values.size());
+
+        values.addAll(feature.position(), collection);
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendValue(SingleFeatureBean feature, V value) {
+        checkFeature(feature);
+        checkNotNull(value, "value");
+
+        final List<Object> values = getOrCreateList(feature);
+        values.add(value);
+
+        return values.size() - 1;
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendAllValues(SingleFeatureBean feature, List<? extends V> collection) {
+        checkFeature(feature);
+        checkNotNull(collection, "collection");
+        checkNotContainsNull(collection, "collection");
+
+        final List<Object> values = listOf(feature);
+        final int firstPosition = isNull(values) ? 0 : values.size();
+
+        if (!collection.isEmpty()) {
+            getOrCreateList(feature).addAll(collection);
+        }
+
+        return firstPosition;
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> removeValue(ManyFeatureBean feature) {
+        checkFeature(feature);
+
+        final List<Object> values = listOf(feature.withoutPosition());
+        if (isNull(values) || feature.position() >= values.size()) {
+            return Optional.empty();
+        }
+
+        final V previousValue = cast(values.remove(feature.position()));
+        if (values.isEmpty()) {
+            removeAllValues(feature.withoutPosition());
+        }
+
+        return Optional.of(previousValue);
+    }
+
+    @Override
+    public void removeAllValues(SingleFeatureBean feature) {
+        removeValue(feature);
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    public Optional<Integer> sizeOfValue(SingleFeatureBean feature) {
+        checkFeature(feature);
+
+        final List<Object> values = listOf(feature);
+        return isNull(values) || values.isEmpty() ? Optional.empty() : Optional.of(values.size());
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(ManyFeatureBean feature) {
+        return valueOf(feature);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allReferencesOf(SingleFeatureBean feature) {
+        return allValuesOf(feature);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(ManyFeatureBean feature, Id reference) {
+        return valueFor(feature, reference);
+    }
+
+    @Override
+    public void addReference(ManyFeatureBean feature, Id reference) {
+        addValue(feature, reference);
+    }
+
+    @Override
+    public void addAllReferences(ManyFeatureBean feature, List<Id> collection) {
+        addAllValues(feature, collection);
+    }
+
+    @Nonnegative
+    @Override
+    public int appendReference(SingleFeatureBean feature, Id reference) {
+        return appendValue(feature, reference);
+    }
+
+    @Nonnegative
+    @Override
+    public int appendAllReferences(SingleFeatureBean feature, List<Id> collection) {
+        return appendAllValues(feature, collection);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> removeReference(ManyFeatureBean feature) {
+        return removeValue(feature);
+    }
+
+    @Override
+    public void removeAllReferences(SingleFeatureBean feature) {
+        removeAllValues(feature);
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    public Optional<Integer> sizeOfReference(SingleFeatureBean feature) {
+        return sizeOfValue(feature);
+    }
+
+    // endregion
+
+    /**
+     * The data of an element: its container, its meta-class and the values of its features.
+     */
+    @NotThreadSafe
+    @ParametersAreNonnullByDefault
+    private static final class Record {
+
+        /**
+         * The shared array of an element without any feature.
+         */
+        @Nonnull
+        private static final Object[] NO_SLOTS = new Object[0];
+
+        /**
+         * The identifier of the element.
+         */
+        @Nonnull
+        final Id id;
+
+        /**
+         * The container of the element.
+         */
+        @Nullable
+        SingleFeatureBean container;
+
+        /**
+         * The meta-class of the element.
+         */
+        @Nullable
+        ClassBean metaClass;
+
+        /**
+         * The values of the features, indexed by their identifier.
+         */
+        @Nonnull
+        private Object[] slots = NO_SLOTS;
+
+        /**
+         * Constructs a new {@code Record} for the given {@code id}.
+         *
+         * @param id the identifier of the element
+         */
+        Record(Id id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns the value of the feature identified by {@code featureId}.
+         *
+         * @param featureId the identifier of the feature
+         *
+         * @return the value, or {@code null} if the feature has no value
+         */
+        @Nullable
+        Object get(@Nonnegative int featureId) {
+            return featureId < slots.length ? slots[featureId] : null;
+        }
+
+        /**
+         * Defines the value of the feature identified by {@code featureId}.
+         *
+         * @param featureId the identifier of the feature
+         * @param value     the value, or {@code null} to remove it
+         */
+        void set(@Nonnegative int featureId, @Nullable Object value) {
+            if (featureId >= slots.length) {
+                if (isNull(value)) {
+                    return;
+                }
+                slots = Arrays.copyOf(slots, featureId + 1);
+            }
+            slots[featureId] = value;
+        }
+    }
+}
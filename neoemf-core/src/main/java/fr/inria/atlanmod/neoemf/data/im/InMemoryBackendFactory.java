@@ -38,6 +38,6 @@ public class InMemoryBackendFactory extends AbstractBackendFactory<InMemoryConfi
     @Nonnull
     @Override
     public Backend createBackend(URI uri, ImmutableConfig baseConfig) {
-        return new DefaultInMemoryBackend();
+        return createMapper(baseConfig.getMapping());
     }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.im;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A hash map with primitive {@code long} keys, using open addressing with linear probing.
+ * <p>
+ * Keys are never boxed, and no entry object is created: keys and values are stored in two parallel arrays. A slot is
+ * free when its value is {@code null}, so {@code null} values are not supported.
+ *
+ * @param <V> the type of mapped values
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+final class LongObjectHashMap<V> {
+
+    /**
+     * The default number of expected mappings.
+     */
+    @Nonnegative
+    static final int DEFAULT_CAPACITY = 1 << 9;
+
+    /**
+     * The maximum ratio of used slots before resizing.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * The keys, indexed by slot.
+     */
+    @Nonnull
+    private long[] keys;
+
+    /**
+     * The values, indexed by slot; {@code null} when the slot is free.
+     */
+    @Nonnull
+    private Object[] values;
+
+    /**
+     * The number of mappings in this map.
+     */
+    @Nonnegative
+    private int size;
+
+    /**
+     * The number of mappings that triggers a resize.
+     */
+    @Nonnegative
+    private int threshold;
+
+    /**
+     * Constructs a new {@code LongObjectHashMap} with the default capacity.
+     */
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code LongObjectHashMap} able to hold the given number of mappings without resizing.
+     *
+     * @param expectedSize the expected number of mappings
+     */
+    public LongObjectHashMap(@Nonnegative int expectedSize) {
+        final int minCapacity = Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+        allocate(Integer.highestOneBit(minCapacity - 1) << 1);
+    }
+
+    /**
+     * Spreads the bits of the {@code key}, to avoid clustering of sequential keys.
+     *
+     * @param key the key
+     *
+     * @return the hash of the key
+     */
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns the number of mappings in this map.
+     *
+     * @return the number of mappings
+     */
+    @Nonnegative
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value to which the {@code key} is mapped.
+     *
+     * @param key the key
+     *
+     * @return the value, or {@code null} if this map contains no mapping for the {@code key}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final int mask = values.length - 1;
+
+        for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Associates the {@code value} with the {@code key}.
+     *
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the previous value, or {@code null} if there was no mapping for the {@code key}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkNotNull(value, "value");
+
+        final int mask = values.length - 1;
+
+        int i = hash(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        if (++size > threshold) {
+            resize(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the {@code key}.
+     *
+     * @param key the key
+     *
+     * @return the previous value, or {@code null} if there was no mapping for the {@code key}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        final int mask = values.length - 1;
+
+        for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final V previous = (V) values[i];
+                shiftFrom(i);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all the mappings from this map.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a stream over the values of this map. The stream must not be used after a modification of this map.
+     *
+     * @return a new stream
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public Stream<V> values() {
+        return Arrays.stream(values)
+                .filter(Objects::nonNull)
+                .map(v -> (V) v);
+    }
+
+    /**
+     * Frees the slot at the {@code index}, and moves back the following entries of the same cluster, so that no entry
+     * becomes unreachable.
+     *
+     * @param index the index of the slot to free
+     */
+    private void shiftFrom(int index) {
+        final int mask = values.length - 1;
+
+        int free = index;
+        for (int i = (free + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            final int ideal = hash(keys[i]) & mask;
+
+            // The entry can be moved only if its ideal slot is not between the free slot and its current slot
+            if (((i - ideal) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        values[free] = null;
+    }
+
+    /**
+     * Allocates the arrays for the given {@code capacity}.
+     *
+     * @param capacity the number of slots; must be a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Resizes this map to the given {@code capacity}, and re-inserts all the mappings.
+     *
+     * @param capacity the new number of slots; must be a power of two
+     */
+    private void resize(int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+
+        allocate(capacity);
+
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.osgi.service.component.annotations.ServiceScope;
 
 import java.nio.file.Path;
 
+import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
@@ -33,11 +34,50 @@ public class InMemoryConfig extends BaseConfig<InMemoryConfig> {
 
     /**
      * Constructs a new {@code InMemoryConfig} with default settings.
+     *
+     * @see #offHeap()
+     * @see #onHeap()
      */
     public InMemoryConfig() {
-        // Don't set a default mapping for a multi-mapping configuration.
+        offHeap();
     }
 
+    // region Mapping
+
+    /**
+     * Defines the mapping to use for the created {@link fr.inria.atlanmod.neoemf.data.im.InMemoryBackend}.
+     * <p>
+     * This mapping stores the elements outside of the Java heap, in serialized form, and supports concurrent
+     * modifications.
+     * <p>
+     * <b>NOTE:</b> This is the default mapping.
+     *
+     * @return this configuration (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend
+     */
+    @Nonnull
+    public InMemoryConfig offHeap() {
+        return setMappingWithCheck("fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend", false);
+    }
+
+    /**
+     * Defines the mapping to use for the created {@link fr.inria.atlanmod.neoemf.data.im.InMemoryBackend}.
+     * <p>
+     * This mapping stores the elements on the Java heap, without serialization, and does not support concurrent
+     * modifications.
+     *
+     * @return this configuration (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.im.HeapInMemoryBackend
+     */
+    @Nonnull
+    public InMemoryConfig onHeap() {
+        return setMappingWithCheck("fr.inria.atlanmod.neoemf.data.im.HeapInMemoryBackend", false);
+    }
+
+    // endregion
+
     @Override
     public void save(Path directory) {
         throw new UnsupportedOperationException("An in-memory backend cannot be stored locally");
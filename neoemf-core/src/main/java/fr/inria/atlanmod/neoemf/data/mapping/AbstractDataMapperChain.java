@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.mapping;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
@@ -75,6 +76,12 @@ public abstract class AbstractDataMapperChain<M extends DataMapper> extends Abst
         next.copyTo(target);
     }
 
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public void prefetch(Prefetch prefetch) {
+        next.prefetch(prefetch);
+    }
+
     @Nonnull
     @Override
     @OverridingMethodsMustInvokeSuper
@@ -135,6 +142,12 @@ public abstract class AbstractDataMapperChain<M extends DataMapper> extends Abst
         return next.valueFor(feature, value);
     }
 
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        next.setValue(feature, value);
+    }
+
     @Override
     @OverridingMethodsMustInvokeSuper
     public void removeValue(SingleFeatureBean feature) {
@@ -155,6 +168,12 @@ public abstract class AbstractDataMapperChain<M extends DataMapper> extends Abst
         return next.referenceFor(feature, reference);
     }
 
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        next.setReference(feature, reference);
+    }
+
     @Override
     @OverridingMethodsMustInvokeSuper
     public void removeReference(SingleFeatureBean feature) {
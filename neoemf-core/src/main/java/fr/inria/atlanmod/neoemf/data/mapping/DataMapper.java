@@ -8,12 +8,15 @@
 
 package fr.inria.atlanmod.neoemf.data.mapping;
 
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.Saveable;
 
 import org.atlanmod.commons.Copiable;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
 /**
  * An object capable of mapping features, containers and meta-classes represented as a set of key/value pair.
  *
@@ -26,4 +29,19 @@ import javax.annotation.ParametersAreNonnullByDefault;
  */
 @ParametersAreNonnullByDefault
 public interface DataMapper extends Saveable, Copiable<DataMapper>, ContainerMapper, ClassMapper, ValueMapper, ManyValueMapper, ReferenceMapper, ManyReferenceMapper {
+
+    /**
+     * Loads the containers, the meta-classes and the requested features of all the elements of the {@code prefetch}
+     * at once, and defines them in the {@code prefetch}.
+     * <p>
+     * By default, the elements are loaded one by one: back-ends should override this method to load them in as few
+     * requests as possible. Stores can use the result to fill their caches.
+     *
+     * @param prefetch the elements and the features to load
+     */
+    default void prefetch(Prefetch prefetch) {
+        checkNotNull(prefetch, "prefetch");
+
+        prefetch.loadFrom(this);
+    }
 }
@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.mapping;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
@@ -50,6 +51,11 @@ public class InvalidDataMapper implements DataMapper {
         throw e.get();
     }
 
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        throw e.get();
+    }
+
     @Override
     public void close() {
         // Do nothing (see PersistentResource#unload())
@@ -111,6 +117,11 @@ public class InvalidDataMapper implements DataMapper {
         throw e.get();
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        throw e.get();
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         throw e.get();
@@ -128,6 +139,11 @@ public class InvalidDataMapper implements DataMapper {
         throw e.get();
     }
 
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        throw e.get();
+    }
+
     @Override
     public void removeReference(SingleFeatureBean feature) {
         throw e.get();
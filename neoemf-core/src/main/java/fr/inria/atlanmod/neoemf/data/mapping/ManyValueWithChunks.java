@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mapping;
+
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkGreaterThanOrEqualTo;
+import static org.atlanmod.commons.Preconditions.checkNotContainsNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+import static org.atlanmod.commons.Preconditions.checkPositionIndex;
+
+/**
+ * A {@link ManyValueMapper} that provides a default behavior to represent the "multi-valued" characteristic as
+ * fixed-size chunks of {@link List}s.
+ * <p>
+ * The number of values is stored as a header in the {@link SingleFeatureBean}, and the values are split in chunks of
+ * {@link #chunkSize()} elements, identified by a {@link ManyFeatureBean} whose position is the index of the chunk. All
+ * chunks are full, except the last one.
+ * <p>
+ * Compared to {@link ManyValueWithLists}, reading, replacing or appending a value only deserializes and rewrites a
+ * single chunk, and {@link #allValuesOf(SingleFeatureBean)} loads the chunks one by one. Inserting or removing a value
+ * at a given position only rewrites the chunks that follow it.
+ */
+@ParametersAreNonnullByDefault
+public interface ManyValueWithChunks extends ManyValueMapper {
+
+    /**
+     * The default number of values in a chunk.
+     */
+    @Nonnegative
+    int DEFAULT_CHUNK_SIZE = 256;
+
+    @Nonnull
+    @Override
+    default <V> Optional<V> valueOf(ManyFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        final int size = sizeOfValue(feature.withoutPosition()).orElse(0);
+        if (feature.position() >= size) {
+            return Optional.empty();
+        }
+
+        final int chunkSize = chunkSize();
+
+        return this.<V>chunkOf(feature.withPosition(feature.position() / chunkSize))
+                .map(values -> values.get(feature.position() % chunkSize));
+    }
+
+    @Nonnull
+    @Override
+    default <V> Stream<V> allValuesOf(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        final int chunkCount = chunkCount(sizeOfValue(feature).orElse(0));
+
+        return IntStream.range(0, chunkCount)
+                .mapToObj(i -> this.<V>chunkOf(feature.withPosition(i)).orElseThrow(IllegalStateException::new))
+                .flatMap(List::stream);
+    }
+
+    @Nonnull
+    @Override
+    default <V> Optional<V> valueFor(ManyFeatureBean feature, V value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
+
+        final int size = sizeOfValue(feature.withoutPosition()).orElse(0);
+        if (feature.position() >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final int chunkSize = chunkSize();
+        final ManyFeatureBean chunk = feature.withPosition(feature.position() / chunkSize);
+
+        List<V> values = this.<V>chunkOf(chunk).orElseThrow(IllegalStateException::new);
+        Optional<V> previousValue = Optional.of(values.set(feature.position() % chunkSize, value));
+
+        chunkFor(chunk, values);
+
+        return previousValue;
+    }
+
+    @Override
+    default <V> void addValue(ManyFeatureBean feature, V value) {
+        checkNotNull(value, "value");
+
+        addAllValues(feature, Collections.singletonList(value));
+    }
+
+    @Override
+    default <V> void addAllValues(ManyFeatureBean feature, List<? extends V> collection) {
+        checkNotNull(feature, "feature");
+        checkNotNull(collection, "collection");
+        checkNotContainsNull(collection, "collection");
+
+        if (collection.isEmpty()) {
+            return;
+        }
+
+        final int size = sizeOfValue(feature.withoutPosition()).orElse(0);
+        checkPositionIndex(feature.position(), size);
+
+        final int firstChunk = feature.position() / chunkSize();
+
+        List<V> values = this.<V>chunksFrom(feature.withoutPosition(), firstChunk, size);
+        values.addAll(feature.position() - firstChunk * chunkSize(), collection);
+
+        chunksFor(feature.withoutPosition(), firstChunk, values);
+
+        sizeForValue(feature.withoutPosition(), size + collection.size());
+    }
+
+    @Nonnull
+    @Override
+    default <V> Optional<V> removeValue(ManyFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        final int size = sizeOfValue(feature.withoutPosition()).orElse(0);
+        if (feature.position() >= size) {
+            return Optional.empty();
+        }
+
+        final int firstChunk = feature.position() / chunkSize();
+
+        List<V> values = this.<V>chunksFrom(feature.withoutPosition(), firstChunk, size);
+        Optional<V> previousValue = Optional.of(values.remove(feature.position() - firstChunk * chunkSize()));
+
+        chunksFor(feature.withoutPosition(), firstChunk, values);
+
+        // The last chunk is now empty
+        if (chunkCount(size - 1) < chunkCount(size)) {
+            chunkFor(feature.withPosition(chunkCount(size) - 1), null);
+        }
+
+        sizeForValue(feature.withoutPosition(), size - 1);
+
+        return previousValue;
+    }
+
+    @Override
+    default void removeAllValues(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        IntStream.range(0, chunkCount(sizeOfValue(feature).orElse(0)))
+                .forEachOrdered(i -> chunkFor(feature.withPosition(i), null));
+
+        removeValue(feature);
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    default Optional<Integer> sizeOfValue(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        return this.<Integer>valueOf(feature)
+                .filter(s -> s > 0);
+    }
+
+    /**
+     * Defines the number of values of the specified {@code feature}.
+     *
+     * @param feature the bean identifying the multi-valued attribute
+     * @param size    the number of values
+     *
+     * @throws NullPointerException     if the {@code feature} is {@code null}
+     * @throws IllegalArgumentException if {@code size < 0}
+     */
+    default void sizeForValue(SingleFeatureBean feature, @Nonnegative int size) {
+        checkNotNull(feature, "feature");
+        checkGreaterThanOrEqualTo(size, 0, "size (%d) must not be negative", size);
+
+        if (size > 0) {
+            setValue(feature, size);
+        }
+        else {
+            removeValue(feature);
+        }
+    }
+
+    /**
+     * Returns the maximum number of values in a chunk.
+     *
+     * @return the size of a chunk
+     */
+    @Nonnegative
+    default int chunkSize() {
+        return DEFAULT_CHUNK_SIZE;
+    }
+
+    /**
+     * Returns the number of chunks needed to store {@code size} values.
+     *
+     * @param size the number of values
+     *
+     * @return the number of chunks
+     */
+    @Nonnegative
+    default int chunkCount(@Nonnegative int size) {
+        return (size + chunkSize() - 1) / chunkSize();
+    }
+
+    /**
+     * Retrieves all the values stored in the chunks of the {@code feature}, from the chunk at index {@code firstChunk}
+     * to the last one.
+     *
+     * @param feature    the bean identifying the multi-valued attribute
+     * @param firstChunk the index of the first chunk to read
+     * @param size       the number of values of the {@code feature}
+     * @param <V>        the type of values
+     *
+     * @return a new mutable list of values
+     */
+    @Nonnull
+    default <V> List<V> chunksFrom(SingleFeatureBean feature, @Nonnegative int firstChunk, @Nonnegative int size) {
+        final int chunkCount = chunkCount(size);
+
+        List<V> values = new ArrayList<>(size - Math.min(size, firstChunk * chunkSize()) + 1);
+        for (int i = firstChunk; i < chunkCount; i++) {
+            values.addAll(this.<V>chunkOf(feature.withPosition(i)).orElseThrow(IllegalStateException::new));
+        }
+        return values;
+    }
+
+    /**
+     * Splits the {@code values} into chunks, and defines them from the chunk at index {@code firstChunk}.
+     *
+     * @param feature    the bean identifying the multi-valued attribute
+     * @param firstChunk the index of the first chunk to write
+     * @param values     the values to write
+     * @param <V>        the type of values
+     */
+    default <V> void chunksFor(SingleFeatureBean feature, @Nonnegative int firstChunk, List<V> values) {
+        final int chunkSize = chunkSize();
+
+        for (int i = 0; i * chunkSize < values.size(); i++) {
+            List<V> chunk = new ArrayList<>(values.subList(i * chunkSize, Math.min(values.size(), (i + 1) * chunkSize)));
+            chunkFor(feature.withPosition(firstChunk + i), chunk);
+        }
+    }
+
+    /**
+     * Retrieves the values of a chunk.
+     *
+     * @param chunk the bean identifying the chunk, where the position is the index of the chunk
+     * @param <V>   the type of values
+     *
+     * @return an {@link Optional} containing the mutable list of values of the chunk, or {@link Optional#empty()} if the
+     * chunk doesn't exist
+     *
+     * @throws NullPointerException if the {@code chunk} is {@code null}
+     */
+    @Nonnull
+    <V> Optional<List<V>> chunkOf(ManyFeatureBean chunk);
+
+    /**
+     * Defines the values of a chunk. If {@code values == null}, the chunk is removed.
+     *
+     * @param chunk  the bean identifying the chunk, where the position is the index of the chunk
+     * @param values the values of the chunk
+     * @param <V>    the type of values
+     *
+     * @throws NullPointerException if the {@code chunk} is {@code null}
+     */
+    <V> void chunkFor(ManyFeatureBean chunk, @Nullable List<V> values);
+}
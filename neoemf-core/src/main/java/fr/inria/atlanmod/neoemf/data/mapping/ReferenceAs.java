@@ -44,6 +44,13 @@ public interface ReferenceAs<M> extends ValueMapper, ReferenceMapper {
                 .map(converter::revert);
     }
 
+    @Override
+    default void setReference(SingleFeatureBean feature, Id reference) {
+        Converter<Id, M> converter = referenceConverter();
+
+        this.setValue(feature, converter.convert(reference));
+    }
+
     @Override
     default void removeReference(SingleFeatureBean feature) {
         this.removeValue(feature);
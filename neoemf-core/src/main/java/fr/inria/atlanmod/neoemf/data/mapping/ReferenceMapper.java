@@ -49,6 +49,21 @@ public interface ReferenceMapper {
     @Nonnull
     Optional<Id> referenceFor(SingleFeatureBean feature, Id reference);
 
+    /**
+     * Defines the reference of the specified {@code feature}, without retrieving its previous reference.
+     * <p>
+     * This method should be preferred to {@link #referenceFor(SingleFeatureBean, Id)} when the previous reference is
+     * not needed: back-ends can then avoid a read before the write.
+     *
+     * @param feature   the bean identifying the reference
+     * @param reference the reference to set
+     *
+     * @throws NullPointerException if any parameter is {@code null}
+     */
+    default void setReference(SingleFeatureBean feature, Id reference) {
+        referenceFor(feature, reference);
+    }
+
     /**
      * Removes the reference of the specified {@code feature}.
      *
@@ -50,6 +50,22 @@ public interface ValueMapper {
     @Nonnull
     <V> Optional<V> valueFor(SingleFeatureBean feature, V value);
 
+    /**
+     * Defines the {@code value} of the specified {@code feature}, without retrieving its previous value.
+     * <p>
+     * This method should be preferred to {@link #valueFor(SingleFeatureBean, Object)} when the previous value is not
+     * needed: back-ends can then avoid a read before the write.
+     *
+     * @param feature the bean identifying the value
+     * @param value   the value to set
+     * @param <V>     the type of value
+     *
+     * @throws NullPointerException if any parameter is {@code null}
+     */
+    default <V> void setValue(SingleFeatureBean feature, V value) {
+        valueFor(feature, value);
+    }
+
     /**
      * Removes the value of the specified {@code feature}.
      *
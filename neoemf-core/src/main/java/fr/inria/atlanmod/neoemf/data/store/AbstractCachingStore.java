@@ -10,11 +10,18 @@ package fr.inria.atlanmod.neoemf.data.store;
 
 import org.atlanmod.commons.cache.Cache;
 import org.atlanmod.commons.cache.CacheBuilder;
+import org.atlanmod.commons.cache.CacheStats;
 
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
  * An abstract {@link Store} that provides a pre-loaded {@link org.atlanmod.commons.cache.Cache}.
+ * <p>
+ * The cache is bounded: when its maximum size is reached, the entries that are the least likely to be used again are
+ * evicted, according to their frequency and their recency of use. The size of the cache is the sum of the weights of
+ * its entries, as defined by {@link #weightOf(Object, Object)}.
  *
  * @param <K> the type of keys maintained by the cache
  * @param <V> the type of cached values
@@ -22,18 +29,64 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public abstract class AbstractCachingStore<K, V> extends AbstractStore {
 
+    /**
+     * The default maximum number of entries in the cache.
+     */
+    @Nonnegative
+    public static final long DEFAULT_CACHE_SIZE = 100_000;
+
     /**
      * In-memory cache that holds loaded values, identified by their key.
      */
-    protected final Cache<K, V> cache = CacheBuilder.builder()
-            .softValues()
-            .build();
+    protected final Cache<K, V> cache;
 
     /**
-     * Constructs a new {@code AbstractCachingStore}.
+     * Constructs a new {@code AbstractCachingStore} with the default maximum size.
      */
     protected AbstractCachingStore() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code AbstractCachingStore} with the given maximum size.
+     *
+     * @param maximumSize the maximum total weight of the entries in the cache
+     */
+    @SuppressWarnings("unchecked")
+    protected AbstractCachingStore(@Nonnegative long maximumSize) {
         super(100);
+
+        this.cache = CacheBuilder.builder()
+                .maximumWeight(maximumSize)
+                .weigher((k, v) -> weightOf((K) k, (V) v))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the weight of a cached entry, that is the number of values it holds. The weight of an entry is computed
+     * when it is written in the cache.
+     * <p>
+     * By default, each entry weighs {@code 1}.
+     *
+     * @param key   the key of the entry
+     * @param value the cached value
+     *
+     * @return the weight of the entry
+     */
+    @Nonnegative
+    protected int weightOf(K key, V value) {
+        return 1;
+    }
+
+    /**
+     * Returns the statistics of the cache of this store, such as the number of hits, misses and evictions.
+     *
+     * @return the statistics
+     */
+    @Nonnull
+    public CacheStats stats() {
+        return cache.stats();
     }
 
     @Override
@@ -9,6 +9,8 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperChain;
 
 import java.util.Objects;
@@ -51,6 +53,16 @@ public abstract class AbstractStore extends AbstractDataMapperChain<Store> imple
         return next().backend();
     }
 
+    @Override
+    public void readAhead(ManyFeatureBean feature) {
+        next().readAhead(feature);
+    }
+
+    @Override
+    public void writeAll(WriteBatch batch) {
+        next().writeAll(batch);
+    }
+
     @Override
     public int compareTo(AbstractStore o) {
         return order - o.order;
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link Store} wrapper that buffers the single-valued mutations, and writes them in the back-end at once with {@link
+ * Store#writeAll(WriteBatch)}.
+ * <p>
+ * The pending mutations are visible to all read operations of this store. They are written when their number reaches
+ * the maximum size of a batch, when the first of them is older than the maximum delay (checked on each mutation), and
+ * when the store is saved or closed.
+ * <p>
+ * Mutations of multi-valued features are not buffered, and are immediately sent to the underlying store.
+ */
+@ParametersAreNonnullByDefault
+public class BatchingStore extends AbstractStore {
+
+    /**
+     * The default maximum number of pending mutations.
+     */
+    @Nonnegative
+    public static final int DEFAULT_SIZE = 10_000;
+
+    /**
+     * The default maximum delay, in milliseconds, before writing the pending mutations.
+     */
+    @Nonnegative
+    public static final long DEFAULT_DELAY = 1_000;
+
+    /**
+     * The maximum number of pending mutations.
+     */
+    @Nonnegative
+    private final int size;
+
+    /**
+     * The maximum delay, in nanoseconds, before writing the pending mutations.
+     */
+    @Nonnegative
+    private final long delay;
+
+    /**
+     * The pending mutations.
+     */
+    @Nonnull
+    private final WriteBatch batch = new WriteBatch();
+
+    /**
+     * The time, in nanoseconds, when the first pending mutation has been added.
+     */
+    private long firstMutationTime;
+
+    /**
+     * Constructs a new {@code BatchingStore} with the given thresholds.
+     *
+     * @param size  the maximum number of pending mutations
+     * @param delay the maximum delay, in milliseconds, before writing the pending mutations
+     */
+    public BatchingStore(int size, long delay) {
+        // Must be the last store before the back-end: the batches are directly written in the back-end
+        super(200);
+        this.size = size;
+        this.delay = TimeUnit.MILLISECONDS.toNanos(delay);
+    }
+
+    /**
+     * Constructs a new {@code BatchingStore} with the default thresholds.
+     */
+    public BatchingStore() {
+        this(DEFAULT_SIZE, DEFAULT_DELAY);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        super.close();
+    }
+
+    @Override
+    public void save() {
+        flush();
+        super.save();
+    }
+
+    @Override
+    public void copyTo(DataMapper target) {
+        flush();
+        super.copyTo(target);
+    }
+
+    @Override
+    public void writeAll(WriteBatch batch) {
+        flush();
+        super.writeAll(batch);
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        flush();
+        super.prefetch(prefetch);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<SingleFeatureBean> containerOf(Id id) {
+        synchronized (batch) {
+            if (batch.containers().containsKey(id)) {
+                return Optional.ofNullable(batch.containers().get(id));
+            }
+        }
+        return super.containerOf(id);
+    }
+
+    @Override
+    public void containerFor(Id id, SingleFeatureBean container) {
+        mutate(b -> b.containerFor(id, container));
+    }
+
+    @Override
+    public void removeContainer(Id id) {
+        mutate(b -> b.removeContainer(id));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<ClassBean> metaClassOf(Id id) {
+        synchronized (batch) {
+            final ClassBean metaClass = batch.metaClasses().get(id);
+            if (nonNull(metaClass)) {
+                return Optional.of(metaClass);
+            }
+        }
+        return super.metaClassOf(id);
+    }
+
+    @Override
+    public boolean metaClassFor(Id id, ClassBean metaClass) {
+        synchronized (batch) {
+            if (batch.metaClasses().containsKey(id) || super.metaClassOf(id).isPresent()) {
+                return false;
+            }
+
+            mutate(b -> b.metaClassFor(id, metaClass));
+            return true;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allInstancesOf(ClassBean metaClass, boolean strict) {
+        flush();
+        return super.allInstancesOf(metaClass, strict);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
+        flush();
+        return super.allInstancesOf(metaClasses);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> Optional<V> valueOf(SingleFeatureBean feature) {
+        synchronized (batch) {
+            if (batch.values().containsKey(feature)) {
+                return Optional.ofNullable((V) batch.values().get(feature));
+            }
+        }
+        return super.valueOf(feature);
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(SingleFeatureBean feature, V value) {
+        synchronized (batch) {
+            Optional<V> previousValue = valueOf(feature);
+            mutate(b -> b.valueFor(feature, value));
+            return previousValue;
+        }
+    }
+
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        mutate(b -> b.valueFor(feature, value));
+    }
+
+    @Override
+    public void removeValue(SingleFeatureBean feature) {
+        mutate(b -> b.removeValue(feature));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(SingleFeatureBean feature) {
+        synchronized (batch) {
+            if (batch.references().containsKey(feature)) {
+                return Optional.ofNullable(batch.references().get(feature));
+            }
+        }
+        return super.referenceOf(feature);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(SingleFeatureBean feature, Id reference) {
+        synchronized (batch) {
+            Optional<Id> previousReference = referenceOf(feature);
+            mutate(b -> b.referenceFor(feature, reference));
+            return previousReference;
+        }
+    }
+
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        mutate(b -> b.referenceFor(feature, reference));
+    }
+
+    @Override
+    public void removeReference(SingleFeatureBean feature) {
+        mutate(b -> b.removeReference(feature));
+    }
+
+    /**
+     * Adds a mutation to the pending mutations, and writes them if their number or their age exceeds the thresholds of
+     * this store.
+     *
+     * @param mutation the function that adds the mutation to the batch
+     */
+    private void mutate(Consumer<WriteBatch> mutation) {
+        synchronized (batch) {
+            if (batch.isEmpty()) {
+                firstMutationTime = System.nanoTime();
+            }
+
+            mutation.accept(batch);
+
+            if (batch.size() >= size || System.nanoTime() - firstMutationTime >= delay) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes all the pending mutations in the back-end, through the underlying stores.
+     */
+    private void flush() {
+        synchronized (batch) {
+            if (!batch.isEmpty()) {
+                next().writeAll(batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -9,10 +9,12 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 
 import java.util.Optional;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -22,6 +24,29 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class ClassCachingStore extends AbstractCachingStore<Id, Optional<ClassBean>> {
 
+    /**
+     * Constructs a new {@code ClassCachingStore} with the default maximum size.
+     */
+    public ClassCachingStore() {
+        super();
+    }
+
+    /**
+     * Constructs a new {@code ClassCachingStore} with the given maximum size.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    public ClassCachingStore(@Nonnegative long maximumSize) {
+        super(maximumSize);
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        super.prefetch(prefetch);
+
+        prefetch.ids().forEach(id -> cache.put(id, Optional.ofNullable(prefetch.metaClasses().get(id))));
+    }
+
     @Nonnull
     @Override
     public Optional<ClassBean> metaClassOf(Id id) {
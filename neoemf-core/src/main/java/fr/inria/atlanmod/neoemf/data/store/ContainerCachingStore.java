@@ -9,10 +9,12 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
 import java.util.Optional;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -24,6 +26,29 @@ import static java.util.Objects.nonNull;
 @ParametersAreNonnullByDefault
 public class ContainerCachingStore extends AbstractCachingStore<Id, Optional<SingleFeatureBean>> {
 
+    /**
+     * Constructs a new {@code ContainerCachingStore} with the default maximum size.
+     */
+    public ContainerCachingStore() {
+        super();
+    }
+
+    /**
+     * Constructs a new {@code ContainerCachingStore} with the given maximum size.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    public ContainerCachingStore(@Nonnegative long maximumSize) {
+        super(maximumSize);
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        super.prefetch(prefetch);
+
+        prefetch.ids().forEach(id -> cache.put(id, Optional.ofNullable(prefetch.containers().get(id))));
+    }
+
     @Nonnull
     @Override
     public Optional<SingleFeatureBean> containerOf(Id id) {
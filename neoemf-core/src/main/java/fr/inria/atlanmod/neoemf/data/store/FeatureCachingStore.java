@@ -9,29 +9,72 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
-import fr.inria.atlanmod.neoemf.data.bean.FeatureBean;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static java.util.Objects.isNull;
 
 /**
  * A {@link Store} wrapper that caches {@link org.eclipse.emf.ecore.EStructuralFeature} values.
+ * <p>
+ * The values of a multi-valued feature are cached in a single entry, identified by the feature without position. This
+ * entry follows the insertions and the removals by shifting its values in memory, and is invalidated at once.
  */
 @ParametersAreNonnullByDefault
-public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Object> {
+public class FeatureCachingStore extends AbstractCachingStore<SingleFeatureBean, Object> {
+
+    /**
+     * Constructs a new {@code FeatureCachingStore} with the default maximum size.
+     */
+    public FeatureCachingStore() {
+        super();
+    }
+
+    /**
+     * Constructs a new {@code FeatureCachingStore} with the given maximum size.
+     *
+     * @param maximumSize the maximum number of values in the cache, where each cached position of a multi-valued
+     *                    feature counts as one value
+     */
+    public FeatureCachingStore(@Nonnegative long maximumSize) {
+        super(maximumSize);
+    }
+
+    @Override
+    protected int weightOf(SingleFeatureBean key, Object value) {
+        return value instanceof CachedValues ? Math.max(1, ((CachedValues) value).size()) : 1;
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        super.prefetch(prefetch);
+
+        cache.putAll(prefetch.values());
+        cache.putAll(prefetch.references());
+
+        prefetch.manyValues().forEach((f, l) -> cache.put(f, new CachedValues(l)));
+        prefetch.manyReferences().forEach((f, l) -> cache.put(f, new CachedValues(l)));
+    }
 
     @Nonnull
     @Override
     @SuppressWarnings("unchecked")
     public <V> Optional<V> valueOf(SingleFeatureBean feature) {
-        return Optional.ofNullable((V) cache.get(feature, k -> super.valueOf((SingleFeatureBean) k).orElse(null)));
+        return Optional.ofNullable((V) cache.get(feature, k -> super.valueOf(k).orElse(null)));
     }
 
     @Nonnull
@@ -42,6 +85,13 @@ public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Objec
         return super.valueFor(feature, value);
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        cache.put(feature, value);
+
+        super.setValue(feature, value);
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         cache.invalidate(feature);
@@ -52,7 +102,7 @@ public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Objec
     @Nonnull
     @Override
     public Optional<Id> referenceOf(SingleFeatureBean feature) {
-        return Optional.ofNullable((Id) cache.get(feature, k -> super.referenceOf((SingleFeatureBean) k).orElse(null)));
+        return Optional.ofNullable((Id) cache.get(feature, k -> super.referenceOf(k).orElse(null)));
     }
 
     @Nonnull
@@ -63,6 +113,13 @@ public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Objec
         return super.referenceFor(feature, reference);
     }
 
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        cache.put(feature, reference);
+
+        super.setReference(feature, reference);
+    }
+
     @Override
     public void removeReference(SingleFeatureBean feature) {
         cache.invalidate(feature);
@@ -72,76 +129,47 @@ public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Objec
 
     @Nonnull
     @Override
-    @SuppressWarnings("unchecked")
     public <V> Optional<V> valueOf(ManyFeatureBean feature) {
-        return Optional.ofNullable((V) cache.get(feature, k -> super.valueOf((ManyFeatureBean) k).orElse(null)));
+        return get(feature, super::valueOf);
     }
 
     @Nonnull
     @Override
     public <V> Optional<V> valueFor(ManyFeatureBean feature, V value) {
-        cache.put(feature, value);
-
-        return super.valueFor(feature, value);
+        return set(feature, value, () -> super.valueFor(feature, value));
     }
 
     @Override
     public <V> void addValue(ManyFeatureBean feature, V value) {
-        cache.put(feature, value);
-
-        IntStream.range(feature.position() + 1, sizeOfValue(feature.withoutPosition()).orElseGet(() -> feature.position() + 1))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        super.addValue(feature, value);
+        insert(feature, Collections.singletonList(value), () -> super.addValue(feature, value));
     }
 
     @Override
     public <V> void addAllValues(ManyFeatureBean feature, List<? extends V> collection) {
-        int firstPosition = feature.position();
-
-        IntStream.range(0, collection.size())
-                .forEachOrdered(i -> cache.put(feature.withPosition(firstPosition + i), collection.get(i)));
-
-        IntStream.range(firstPosition + collection.size(), sizeOfValue(feature.withoutPosition()).orElseGet(() -> firstPosition + collection.size()))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        super.addAllValues(feature, collection);
+        insert(feature, collection, () -> super.addAllValues(feature, collection));
     }
 
     @Nonnegative
     @Override
     public <V> int appendValue(SingleFeatureBean feature, V value) {
-        int position = super.appendValue(feature, value);
-
-        cache.put(feature.withPosition(position), value);
-
-        return position;
+        return append(feature, Collections.singletonList(value), () -> super.appendValue(feature, value));
     }
 
     @Nonnegative
     @Override
     public <V> int appendAllValues(SingleFeatureBean feature, List<? extends V> collection) {
-        int firstPosition = super.appendAllValues(feature, collection);
-
-        IntStream.range(0, collection.size())
-                .forEachOrdered(i -> cache.put(feature.withPosition(firstPosition + i), collection.get(i)));
-
-        return firstPosition;
+        return append(feature, collection, () -> super.appendAllValues(feature, collection));
     }
 
     @Nonnull
     @Override
     public <V> Optional<V> removeValue(ManyFeatureBean feature) {
-        IntStream.range(feature.position(), sizeOfValue(feature.withoutPosition()).orElseGet(feature::position))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        return super.removeValue(feature);
+        return remove(feature, () -> super.removeValue(feature));
     }
 
     @Override
     public void removeAllValues(SingleFeatureBean feature) {
-        IntStream.range(0, sizeOfValue(feature).orElse(0))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
+        cache.invalidate(feature);
 
         super.removeAllValues(feature);
     }
@@ -149,75 +177,362 @@ public class FeatureCachingStore extends AbstractCachingStore<FeatureBean, Objec
     @Nonnull
     @Override
     public Optional<Id> referenceOf(ManyFeatureBean feature) {
-        return Optional.ofNullable((Id) cache.get(feature, k -> super.referenceOf((ManyFeatureBean) k).orElse(null)));
+        return get(feature, super::referenceOf);
     }
 
     @Nonnull
     @Override
     public Optional<Id> referenceFor(ManyFeatureBean feature, Id reference) {
-        cache.put(feature, reference);
-
-        return super.referenceFor(feature, reference);
+        return set(feature, reference, () -> super.referenceFor(feature, reference));
     }
 
     @Override
     public void addReference(ManyFeatureBean feature, Id reference) {
-        cache.put(feature, reference);
-
-        IntStream.range(feature.position() + 1, sizeOfReference(feature.withoutPosition()).orElseGet(() -> feature.position() + 1))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        super.addReference(feature, reference);
+        insert(feature, Collections.singletonList(reference), () -> super.addReference(feature, reference));
     }
 
     @Override
     public void addAllReferences(ManyFeatureBean feature, List<Id> collection) {
-        int firstPosition = feature.position();
-
-        IntStream.range(0, collection.size())
-                .forEachOrdered(i -> cache.put(feature.withPosition(firstPosition + i), collection.get(i)));
-
-        IntStream.range(firstPosition + collection.size(), sizeOfReference(feature.withoutPosition()).orElseGet(() -> firstPosition + collection.size()))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        super.addAllReferences(feature, collection);
+        insert(feature, collection, () -> super.addAllReferences(feature, collection));
     }
 
     @Nonnegative
     @Override
     public int appendReference(SingleFeatureBean feature, Id reference) {
-        int position = super.appendReference(feature, reference);
-
-        cache.put(feature.withPosition(position), reference);
-
-        return position;
+        return append(feature, Collections.singletonList(reference), () -> super.appendReference(feature, reference));
     }
 
     @Nonnegative
     @Override
     public int appendAllReferences(SingleFeatureBean feature, List<Id> collection) {
-        int firstPosition = super.appendAllReferences(feature, collection);
-
-        IntStream.range(0, collection.size())
-                .forEachOrdered(i -> cache.put(feature.withPosition(firstPosition + i), collection.get(i)));
-
-        return firstPosition;
+        return append(feature, collection, () -> super.appendAllReferences(feature, collection));
     }
 
     @Nonnull
     @Override
     public Optional<Id> removeReference(ManyFeatureBean feature) {
-        IntStream.range(feature.position(), sizeOfReference(feature.withoutPosition()).orElseGet(feature::position))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
-
-        return super.removeReference(feature);
+        return remove(feature, () -> super.removeReference(feature));
     }
 
     @Override
     public void removeAllReferences(SingleFeatureBean feature) {
-        IntStream.range(0, sizeOfReference(feature).orElse(0))
-                .forEachOrdered(i -> cache.invalidate(feature.withPosition(i)));
+        cache.invalidate(feature);
 
         super.removeAllReferences(feature);
     }
+
+    /**
+     * Returns the cached values of the multi-valued {@code feature}, or creates them.
+     *
+     * @param feature the bean identifying the multi-valued feature, without position
+     *
+     * @return the cached values
+     */
+    @Nonnull
+    private CachedValues valuesOf(SingleFeatureBean feature) {
+        return (CachedValues) cache.get(feature, k -> new CachedValues());
+    }
+
+    /**
+     * Writes the cached values of the multi-valued {@code feature} again, so that the cache takes their new weight
+     * into account.
+     *
+     * @param feature the bean identifying the multi-valued feature, without position
+     * @param values  the cached values
+     */
+    private void reweigh(SingleFeatureBean feature, CachedValues values) {
+        cache.put(feature, values);
+    }
+
+    /**
+     * Returns the value at the position of the {@code feature}, and loads it with the {@code loader} if it is not
+     * cached.
+     *
+     * @param feature the bean identifying the multi-valued feature
+     * @param loader  the function to load the value from the underlying store
+     * @param <V>     the type of the value
+     *
+     * @return an {@link Optional} containing the value, or {@link Optional#empty()} if the value does not exist
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private <V> Optional<V> get(ManyFeatureBean feature, Function<ManyFeatureBean, Optional<V>> loader) {
+        final CachedValues values = valuesOf(feature.withoutPosition());
+
+        synchronized (values) {
+            V value = (V) values.get(feature.position());
+            if (isNull(value)) {
+                Optional<V> loadedValue = loader.apply(feature);
+                loadedValue.ifPresent(v -> {
+                    values.set(feature.position(), v);
+                    reweigh(feature.withoutPosition(), values);
+                });
+                return loadedValue;
+            }
+            return Optional.of(value);
+        }
+    }
+
+    /**
+     * Replaces the value at the position of the {@code feature} in the underlying store, then in the cache.
+     *
+     * @param feature the bean identifying the multi-valued feature
+     * @param value   the new value
+     * @param writer  the function to write the value in the underlying store
+     * @param <V>     the type of the value
+     *
+     * @return the result of the {@code writer}
+     */
+    @Nonnull
+    private <V> Optional<V> set(ManyFeatureBean feature, Object value, Supplier<Optional<V>> writer) {
+        final CachedValues values = valuesOf(feature.withoutPosition());
+
+        synchronized (values) {
+            Optional<V> previousValue = writer.get();
+            values.set(feature.position(), value);
+            reweigh(feature.withoutPosition(), values);
+            return previousValue;
+        }
+    }
+
+    /**
+     * Inserts the {@code collection} at the position of the {@code feature} in the underlying store, then in the
+     * cache.
+     *
+     * @param feature    the bean identifying the multi-valued feature
+     * @param collection the values to insert
+     * @param writer     the function to write the values in the underlying store
+     */
+    private void insert(ManyFeatureBean feature, List<?> collection, Runnable writer) {
+        final CachedValues values = valuesOf(feature.withoutPosition());
+
+        synchronized (values) {
+            writer.run();
+            values.insert(feature.position(), collection);
+            reweigh(feature.withoutPosition(), values);
+        }
+    }
+
+    /**
+     * Appends the {@code collection} to the multi-valued {@code feature} in the underlying store, then in the cache.
+     *
+     * @param feature    the bean identifying the multi-valued feature
+     * @param collection the values to append
+     * @param writer     the function to write the values in the underlying store, that returns the position of the
+     *                   first appended value
+     *
+     * @return the position of the first appended value
+     */
+    @Nonnegative
+    private int append(SingleFeatureBean feature, List<?> collection, Supplier<Integer> writer) {
+        final CachedValues values = valuesOf(feature);
+
+        synchronized (values) {
+            int firstPosition = writer.get();
+            values.insert(firstPosition, collection);
+            reweigh(feature, values);
+            return firstPosition;
+        }
+    }
+
+    /**
+     * Removes the value at the position of the {@code feature} in the underlying store, then in the cache.
+     *
+     * @param feature the bean identifying the multi-valued feature
+     * @param writer  the function to remove the value from the underlying store
+     * @param <V>     the type of the value
+     *
+     * @return the result of the {@code writer}
+     */
+    @Nonnull
+    private <V> Optional<V> remove(ManyFeatureBean feature, Supplier<Optional<V>> writer) {
+        final CachedValues values = valuesOf(feature.withoutPosition());
+
+        synchronized (values) {
+            Optional<V> previousValue = writer.get();
+            values.remove(feature.position());
+            reweigh(feature.withoutPosition(), values);
+            return previousValue;
+        }
+    }
+
+    /**
+     * The cached values of a multi-valued feature, indexed by their position.
+     * <p>
+     * Values are loaded lazily, and only the loaded positions are kept: reading a single value at a high position does
+     * not allocate the positions before it. The positions are kept sorted in an array, next to their values, so that
+     * an insertion or a removal shifts the following positions in place. This class must be synchronized externally.
+     */
+    @NotThreadSafe
+    @ParametersAreNonnullByDefault
+    private static final class CachedValues {
+
+        /**
+         * The cached positions, in ascending order. Only the {@link #size} first elements are used.
+         */
+        @Nonnull
+        private int[] positions;
+
+        /**
+         * The cached values, in the order of their position in {@link #positions}.
+         */
+        @Nonnull
+        private Object[] values;
+
+        /**
+         * The number of cached values.
+         */
+        @Nonnegative
+        private int size;
+
+        /**
+         * Constructs a new {@code CachedValues} without any value.
+         */
+        public CachedValues() {
+            this.positions = new int[0];
+            this.values = new Object[0];
+        }
+
+        /**
+         * Constructs a new {@code CachedValues} with all the values of a feature.
+         *
+         * @param values all the values of the feature, in their order
+         */
+        public CachedValues(List<?> values) {
+            this.values = values.toArray();
+            this.size = this.values.length;
+            this.positions = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                positions[i] = i;
+            }
+        }
+
+        /**
+         * Returns the number of cached values.
+         *
+         * @return the number of values
+         */
+        @Nonnegative
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the cached value at the {@code position}.
+         *
+         * @param position the position of the value
+         *
+         * @return the value, or {@code null} if it is not cached
+         */
+        @Nullable
+        public Object get(@Nonnegative int position) {
+            final int index = indexOf(position);
+            return index >= 0 ? values[index] : null;
+        }
+
+        /**
+         * Defines the cached value at the {@code position}.
+         *
+         * @param position the position of the value
+         * @param value    the value
+         */
+        public void set(@Nonnegative int position, Object value) {
+            int index = indexOf(position);
+
+            if (index < 0) {
+                index = -(index + 1);
+                openGap(index, 1);
+                positions[index] = position;
+            }
+
+            values[index] = value;
+        }
+
+        /**
+         * Inserts the {@code collection} at the {@code position}, and shifts the following values.
+         *
+         * @param position   the position of the first value
+         * @param collection the values to insert
+         */
+        public void insert(@Nonnegative int position, List<?> collection) {
+            final int count = collection.size();
+
+            int index = indexOf(position);
+            if (index < 0) {
+                index = -(index + 1);
+            }
+
+            shift(index, count);
+            openGap(index, count);
+
+            for (int i = 0; i < count; i++) {
+                positions[index + i] = position + i;
+                values[index + i] = collection.get(i);
+            }
+        }
+
+        /**
+         * Removes the value at the {@code position}, and shifts the following values.
+         *
+         * @param position the position of the value
+         */
+        public void remove(@Nonnegative int position) {
+            int index = indexOf(position);
+
+            if (index >= 0) {
+                System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                values[--size] = null;
+            }
+            else {
+                index = -(index + 1);
+            }
+
+            shift(index, -1);
+        }
+
+        /**
+         * Returns the index of the {@code position} in {@link #positions}.
+         *
+         * @param position the position to look for
+         *
+         * @return the index of the position if it is cached, or {@code -(insertion point) - 1} otherwise
+         */
+        private int indexOf(@Nonnegative int position) {
+            return Arrays.binarySearch(positions, 0, size, position);
+        }
+
+        /**
+         * Moves all the cached positions from the {@code index} by {@code offset}.
+         *
+         * @param index  the index of the first position to move
+         * @param offset the number of positions to move the values by
+         */
+        private void shift(@Nonnegative int index, int offset) {
+            for (int i = index; i < size; i++) {
+                positions[i] += offset;
+            }
+        }
+
+        /**
+         * Makes room for {@code count} values at the {@code index}, by moving the following ones.
+         *
+         * @param index the index of the first new value
+         * @param count the number of new values
+         */
+        private void openGap(@Nonnegative int index, @Nonnegative int count) {
+            final int minCapacity = size + count;
+
+            if (minCapacity > positions.length) {
+                final int newCapacity = Math.max(minCapacity, positions.length + (positions.length >> 1));
+                positions = Arrays.copyOf(positions, newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+
+            System.arraycopy(positions, index, positions, index + count, size - index);
+            System.arraycopy(values, index, values, index + count, size - index);
+            size += count;
+        }
+    }
 }
@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
@@ -94,6 +95,11 @@ public class ListeningStore extends AbstractStore {
         onCall(super::copyTo, target);
     }
 
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        onCall(super::prefetch, prefetch);
+    }
+
     @Nonnull
     @Override
     public Optional<SingleFeatureBean> containerOf(Id id) {
@@ -133,6 +139,11 @@ public class ListeningStore extends AbstractStore {
         return onCallResult(super::valueFor, feature, value);
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        onCall(super::setValue, feature, value);
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         onCall(super::removeValue, feature);
@@ -150,6 +161,11 @@ public class ListeningStore extends AbstractStore {
         return onCallResult(super::referenceFor, feature, reference);
     }
 
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        onCall(super::setReference, feature, reference);
+    }
+
     @Override
     public void removeReference(SingleFeatureBean feature) {
         onCall(super::removeReference, feature);
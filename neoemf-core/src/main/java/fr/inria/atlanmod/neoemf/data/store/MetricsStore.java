@@ -0,0 +1,750 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
+import fr.inria.atlanmod.neoemf.data.store.metrics.BackendMetrics;
+import fr.inria.atlanmod.neoemf.data.store.metrics.StoreMetrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A {@link Store} that measures the latency of each call made on this store chain, and records them in
+ * {@link StoreMetrics}.
+ * <p>
+ * Unlike the {@link ListeningStore}, this store does not allocate anything per call: it is intended to be used in
+ * production. When it is defined, the {@link StoreFactory} also places a second instance right in front of the
+ * {@link fr.inria.atlanmod.neoemf.data.Backend}, so that the latency of the back-end can be distinguished from the
+ * latency of the whole chain, and registers the statistics of the caching stores. The metrics of the chain are removed
+ * from the {@link StoreMetrics} when it is closed.
+ * <p>
+ * <b>NOTE:</b> The latency of the methods that return a {@link Stream} only covers the creation of the stream, not
+ * its consumption.
+ *
+ * @see StoreMetrics
+ */
+@ParametersAreNonnullByDefault
+public class MetricsStore extends AbstractStore {
+
+    /**
+     * The metrics to update.
+     */
+    @Nonnull
+    private final StoreMetrics storeMetrics;
+
+    /**
+     * The measured layer.
+     */
+    @Nonnull
+    private final BackendMetrics.Layer layer;
+
+    /**
+     * The metrics of the back-end of this store chain.
+     */
+    private BackendMetrics metrics;
+
+    /**
+     * The store that measures the back-end of this store chain, or {@code null} if this store measures the back-end
+     * or if there is no such store.
+     */
+    @Nullable
+    private MetricsStore backendStore;
+
+    /**
+     * Constructs a new {@code MetricsStore}.
+     *
+     * @param metrics the metrics to update
+     */
+    public MetricsStore(StoreMetrics metrics) {
+        this(metrics, BackendMetrics.Layer.STORE, 5);
+    }
+
+    /**
+     * Constructs a new {@code MetricsStore} for the given {@code layer}.
+     *
+     * @param metrics the metrics to update
+     * @param layer   the measured layer
+     * @param order   the order of this store in the chain
+     */
+    private MetricsStore(StoreMetrics metrics, BackendMetrics.Layer layer, int order) {
+        super(order);
+        this.storeMetrics = checkNotNull(metrics, "metrics");
+        this.layer = layer;
+    }
+
+    /**
+     * Returns the metrics updated by this store.
+     *
+     * @return the metrics
+     */
+    @Nonnull
+    public StoreMetrics metrics() {
+        return storeMetrics;
+    }
+
+    /**
+     * Creates a new {@code MetricsStore} that measures the back-end, with the same metrics as this store.
+     *
+     * @return a new store
+     */
+    @Nonnull
+    MetricsStore onBackend() {
+        backendStore = new MetricsStore(storeMetrics, BackendMetrics.Layer.BACKEND, Integer.MAX_VALUE);
+        return backendStore;
+    }
+
+    /**
+     * Registers the statistics of the given caching {@code store} in the metrics of this store.
+     *
+     * @param store the caching store to watch
+     */
+    void watchCache(AbstractCachingStore<?, ?> store) {
+        metrics.watchCache(store.getClass().getSimpleName(), store::stats);
+    }
+
+    @Override
+    public void next(Store next) {
+        super.next(next);
+
+        // Both layers of a chain share the same metrics: the store of the back-end is chained first
+        metrics = nonNull(backendStore) && nonNull(backendStore.metrics)
+                ? backendStore.metrics
+                : storeMetrics.newBackend(next.backend().getClass().getSimpleName());
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        }
+        finally {
+            if (nonNull(metrics)) {
+                storeMetrics.remove(metrics);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " [" + layer.name().toLowerCase(Locale.ROOT) + ']';
+    }
+
+    @Override
+    public void save() {
+        final long start = System.nanoTime();
+        try {
+            super.save();
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("save", start);
+        }
+    }
+
+    @Override
+    public void writeAll(WriteBatch batch) {
+        final long start = System.nanoTime();
+        try {
+            super.writeAll(batch);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("writeAll", start);
+        }
+    }
+
+    @Override
+    public void copyTo(DataMapper target) {
+        final long start = System.nanoTime();
+        try {
+            super.copyTo(target);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("copyTo", start);
+        }
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        final long start = System.nanoTime();
+        try {
+            super.prefetch(prefetch);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("prefetch", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<SingleFeatureBean> containerOf(Id id) {
+        final long start = System.nanoTime();
+        try {
+            return super.containerOf(id);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("containerOf", start);
+        }
+    }
+
+    @Override
+    public void containerFor(Id id, SingleFeatureBean container) {
+        final long start = System.nanoTime();
+        try {
+            super.containerFor(id, container);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("containerFor", start);
+        }
+    }
+
+    @Override
+    public void removeContainer(Id id) {
+        final long start = System.nanoTime();
+        try {
+            super.removeContainer(id);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeContainer", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<ClassBean> metaClassOf(Id id) {
+        final long start = System.nanoTime();
+        try {
+            return super.metaClassOf(id);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("metaClassOf", start);
+        }
+    }
+
+    @Override
+    public boolean metaClassFor(Id id, ClassBean metaClass) {
+        final long start = System.nanoTime();
+        try {
+            return super.metaClassFor(id, metaClass);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("metaClassFor", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueOf(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.valueOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("valueOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(SingleFeatureBean feature, V value) {
+        final long start = System.nanoTime();
+        try {
+            return super.valueFor(feature, value);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("valueFor", start);
+        }
+    }
+
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        final long start = System.nanoTime();
+        try {
+            super.setValue(feature, value);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("setValue", start);
+        }
+    }
+
+    @Override
+    public void removeValue(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            super.removeValue(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeValue", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.referenceOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("referenceOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(SingleFeatureBean feature, Id reference) {
+        final long start = System.nanoTime();
+        try {
+            return super.referenceFor(feature, reference);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("referenceFor", start);
+        }
+    }
+
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        final long start = System.nanoTime();
+        try {
+            super.setReference(feature, reference);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("setReference", start);
+        }
+    }
+
+    @Override
+    public void removeReference(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            super.removeReference(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeReference", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueOf(ManyFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.valueOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("valueOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Stream<V> allValuesOf(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.allValuesOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("allValuesOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(ManyFeatureBean feature, V value) {
+        final long start = System.nanoTime();
+        try {
+            return super.valueFor(feature, value);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("valueFor", start);
+        }
+    }
+
+    @Override
+    public <V> void addValue(ManyFeatureBean feature, V value) {
+        final long start = System.nanoTime();
+        try {
+            super.addValue(feature, value);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("addValue", start);
+        }
+    }
+
+    @Override
+    public <V> void addAllValues(ManyFeatureBean feature, List<? extends V> collection) {
+        final long start = System.nanoTime();
+        try {
+            super.addAllValues(feature, collection);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("addAllValues", start);
+        }
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendValue(SingleFeatureBean feature, V value) {
+        final long start = System.nanoTime();
+        try {
+            return super.appendValue(feature, value);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("appendValue", start);
+        }
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendAllValues(SingleFeatureBean feature, List<? extends V> collection) {
+        final long start = System.nanoTime();
+        try {
+            return super.appendAllValues(feature, collection);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("appendAllValues", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> removeValue(ManyFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.removeValue(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeValue", start);
+        }
+    }
+
+    @Override
+    public void removeAllValues(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            super.removeAllValues(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeAllValues", start);
+        }
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    public Optional<Integer> sizeOfValue(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.sizeOfValue(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("sizeOfValue", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(ManyFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.referenceOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("referenceOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allReferencesOf(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.allReferencesOf(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("allReferencesOf", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(ManyFeatureBean feature, Id reference) {
+        final long start = System.nanoTime();
+        try {
+            return super.referenceFor(feature, reference);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("referenceFor", start);
+        }
+    }
+
+    @Override
+    public void addReference(ManyFeatureBean feature, Id reference) {
+        final long start = System.nanoTime();
+        try {
+            super.addReference(feature, reference);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("addReference", start);
+        }
+    }
+
+    @Override
+    public void addAllReferences(ManyFeatureBean feature, List<Id> collection) {
+        final long start = System.nanoTime();
+        try {
+            super.addAllReferences(feature, collection);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("addAllReferences", start);
+        }
+    }
+
+    @Nonnegative
+    @Override
+    public int appendReference(SingleFeatureBean feature, Id reference) {
+        final long start = System.nanoTime();
+        try {
+            return super.appendReference(feature, reference);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("appendReference", start);
+        }
+    }
+
+    @Nonnegative
+    @Override
+    public int appendAllReferences(SingleFeatureBean feature, List<Id> collection) {
+        final long start = System.nanoTime();
+        try {
+            return super.appendAllReferences(feature, collection);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("appendAllReferences", start);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> removeReference(ManyFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.removeReference(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeReference", start);
+        }
+    }
+
+    @Override
+    public void removeAllReferences(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            super.removeAllReferences(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("removeAllReferences", start);
+        }
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    public Optional<Integer> sizeOfReference(SingleFeatureBean feature) {
+        final long start = System.nanoTime();
+        try {
+            return super.sizeOfReference(feature);
+        }
+        catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+        finally {
+            record("sizeOfReference", start);
+        }
+    }
+
+    /**
+     * Records the latency of a call.
+     *
+     * @param method the name of the called method
+     * @param start  the time when the call started, in nanoseconds
+     */
+    private void record(String method, long start) {
+        metrics.latency(layer, method).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a failed call. Failures are only counted once, by the store that measures the whole chain.
+     */
+    private void failed() {
+        if (layer == BackendMetrics.Layer.STORE) {
+            metrics.hasFailed();
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+
+import org.atlanmod.commons.cache.Cache;
+import org.atlanmod.commons.cache.CacheBuilder;
+import org.atlanmod.commons.log.Log;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link Store} wrapper that loads ahead the elements that follow a visited element during a traversal of the
+ * containment tree.
+ * <p>
+ * When an element of a multi-valued containment is visited, the meta-classes and the containment lists of the next
+ * siblings are loaded in background with {@link #prefetch(Prefetch)}, as well as the ones of their contents, down to
+ * the configured depth. The loaded data are kept by the caching stores placed after this store: without them, reading
+ * ahead has no effect.
+ * <p>
+ * Mutations wait for the running loads to complete, so that a load started before a mutation cannot cache a value that
+ * has been modified since. Reading ahead is disabled if the back-end does not support concurrent reads.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.Backend#isConcurrentReadSafe()
+ * @see fr.inria.atlanmod.neoemf.config.Config#readAhead(int, int, int)
+ */
+@ParametersAreNonnullByDefault
+public class ReadAheadStore extends AbstractStore {
+
+    /**
+     * The default number of containment levels to load ahead.
+     */
+    @Nonnegative
+    public static final int DEFAULT_DEPTH = 1;
+
+    /**
+     * The default number of elements to load ahead in each level.
+     */
+    @Nonnegative
+    public static final int DEFAULT_WIDTH = 32;
+
+    /**
+     * The default number of threads used to load the elements.
+     */
+    @Nonnegative
+    public static final int DEFAULT_THREADS = 1;
+
+    /**
+     * The maximum number of multi-valued containments whose loaded positions are remembered.
+     */
+    @Nonnegative
+    private static final long MAX_TRACKED_FEATURES = 10_000;
+
+    /**
+     * The number of containment levels to load ahead.
+     */
+    @Nonnegative
+    private final int depth;
+
+    /**
+     * The number of elements to load ahead in each level.
+     */
+    @Nonnegative
+    private final int width;
+
+    /**
+     * The number of threads used to load the elements.
+     */
+    @Nonnegative
+    private final int threads;
+
+    /**
+     * The position following the last element that has been scheduled, identified by the multi-valued containment.
+     */
+    @Nonnull
+    private final Cache<SingleFeatureBean, Integer> scheduled = CacheBuilder.builder()
+            .maximumSize(MAX_TRACKED_FEATURES)
+            .build();
+
+    /**
+     * The lock that prevents mutations while elements are loaded.
+     */
+    @Nonnull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Whether the back-end can be read by the threads of the {@link #executor}; resolved on the first read-ahead.
+     */
+    @Nullable
+    private volatile Boolean enabled;
+
+    /**
+     * The executor that loads the elements; created on the first read-ahead.
+     */
+    @Nullable
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Constructs a new {@code ReadAheadStore} with the given settings.
+     *
+     * @param depth   the number of containment levels to load ahead
+     * @param width   the number of elements to load ahead in each level
+     * @param threads the number of threads used to load the elements
+     */
+    public ReadAheadStore(int depth, int width, int threads) {
+        // Must be placed before the caching stores: they are filled with the loaded elements
+        super(50);
+        this.depth = depth;
+        this.width = width;
+        this.threads = threads;
+    }
+
+    /**
+     * Constructs a new {@code ReadAheadStore} with the default settings.
+     */
+    public ReadAheadStore() {
+        this(DEFAULT_DEPTH, DEFAULT_WIDTH, DEFAULT_THREADS);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (nonNull(executor)) {
+                // Pending loads are useless, but running loads must not be interrupted during an I/O operation
+                executor.getQueue().clear();
+                executor.shutdown();
+
+                try {
+                    executor.awaitTermination(1, TimeUnit.MINUTES);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        super.close();
+    }
+
+    @Override
+    public void readAhead(ManyFeatureBean feature) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final SingleFeatureBean list = feature.withoutPosition();
+        final int position = feature.position();
+
+        // Only schedule a new load when half of the previous one has been visited
+        final Integer end = scheduled.get(list);
+        final boolean isScheduled = nonNull(end) && position < end && end <= position + 1 + width;
+        if (isScheduled && position + width / 2 < end) {
+            return;
+        }
+
+        final int from = isScheduled ? end : position + 1;
+        final int to = position + 1 + width;
+        scheduled.put(list, to);
+
+        executor().execute(() -> load(list, from, to - from));
+    }
+
+    /**
+     * Loads the {@code count} elements of the multi-valued containment {@code list} from the position {@code from}, and
+     * their contents down to the configured depth.
+     *
+     * @param list  the multi-valued containment
+     * @param from  the position of the first element to load
+     * @param count the number of elements to load
+     */
+    private void load(SingleFeatureBean list, int from, int count) {
+        lock.readLock().lock();
+        try {
+            // Only the positions to load are read, not the whole list
+            final int to = Math.min(from + count, next().sizeOfReference(list).orElse(0));
+
+            List<Id> ids = new ArrayList<>(Math.max(to - from, 0));
+            for (int position = from; position < to; position++) {
+                next().referenceOf(list.withPosition(position)).ifPresent(ids::add);
+            }
+
+            for (int level = 0; level < depth && !ids.isEmpty(); level++) {
+                ids = loadLevel(ids);
+            }
+        }
+        catch (RuntimeException e) {
+            Log.warn(e, "Unable to read ahead the elements of {0}", list);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the meta-classes and the containment lists of the {@code ids}.
+     *
+     * @param ids the identifiers of the elements to load
+     *
+     * @return the identifiers of the first elements contained in the {@code ids}, in their order, that can be loaded in
+     * the next level
+     */
+    @Nonnull
+    private List<Id> loadLevel(List<Id> ids) {
+        final Prefetch classes = Prefetch.of(ids);
+        next().prefetch(classes);
+
+        // The feature identifiers depend on the meta-class: elements are loaded by meta-class
+        final Map<ClassBean, List<Id>> idsByClass = ids.stream()
+                .filter(id -> classes.metaClasses().containsKey(id))
+                .collect(Collectors.groupingBy(id -> classes.metaClasses().get(id)));
+
+        final Map<Id, Prefetch> contentsById = new HashMap<>();
+        final Map<ClassBean, List<EReference>> containmentsByClass = new HashMap<>();
+
+        idsByClass.forEach((c, l) -> {
+            final EClass eClass = c.get();
+            final List<EReference> containments = eClass.getEAllContainments().stream()
+                    .filter(r -> !r.isDerived())
+                    .collect(Collectors.toList());
+
+            if (!containments.isEmpty()) {
+                final Prefetch contents = Prefetch.of(l);
+                for (EReference r : containments) {
+                    if (r.isMany()) {
+                        contents.withManyReferences(eClass.getFeatureID(r));
+                    }
+                    else {
+                        contents.withReferences(eClass.getFeatureID(r));
+                    }
+                }
+                next().prefetch(contents);
+
+                containmentsByClass.put(c, containments);
+                l.forEach(id -> contentsById.put(id, contents));
+            }
+        });
+
+        // Collect the contents in the order of their traversal
+        final List<Id> children = new ArrayList<>();
+        for (Id id : ids) {
+            final Prefetch contents = contentsById.get(id);
+            if (isNull(contents)) {
+                continue;
+            }
+
+            final ClassBean metaClass = classes.metaClasses().get(id);
+            final EClass eClass = metaClass.get();
+            for (EReference r : containmentsByClass.get(metaClass)) {
+                final SingleFeatureBean bean = SingleFeatureBean.of(id, eClass.getFeatureID(r));
+
+                Optional.ofNullable(contents.references().get(bean)).ifPresent(children::add);
+                Optional.ofNullable(contents.manyReferences().get(bean)).ifPresent(children::addAll);
+
+                if (children.size() >= width) {
+                    return children.subList(0, width);
+                }
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Returns {@code true} if the back-end can be read in background, while the traversal continues in the calling
+     * thread.
+     *
+     * @return {@code true} if reading ahead is enabled
+     */
+    private boolean isEnabled() {
+        Boolean isEnabled = enabled;
+        if (isNull(isEnabled)) {
+            isEnabled = backend().isConcurrentReadSafe();
+            if (!isEnabled) {
+                Log.warn("Read-ahead is disabled: {0} does not support concurrent reads", backend().getClass().getSimpleName());
+            }
+            enabled = isEnabled;
+        }
+        return isEnabled;
+    }
+
+    /**
+     * Returns the executor that loads the elements, and creates it if necessary.
+     *
+     * @return the executor
+     */
+    @Nonnull
+    private synchronized ThreadPoolExecutor executor() {
+        if (isNull(executor)) {
+            // Read-ahead is a best effort: the oldest loads are discarded when the traversal goes faster
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * 4),
+                    new DaemonThreadFactory(),
+                    new ThreadPoolExecutor.DiscardOldestPolicy());
+        }
+        return executor;
+    }
+
+    // region Mutators
+
+    /**
+     * Executes the {@code operation} when no element is being loaded.
+     *
+     * @param operation the operation to execute
+     * @param <T>       the type of the result
+     *
+     * @return the result of the operation
+     */
+    private <T> T exclusive(Supplier<T> operation) {
+        lock.writeLock().lock();
+        try {
+            return operation.get();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Executes the {@code operation} when no element is being loaded.
+     *
+     * @param operation the operation to execute
+     */
+    private void exclusive(Runnable operation) {
+        lock.writeLock().lock();
+        try {
+            operation.run();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void containerFor(Id id, SingleFeatureBean container) {
+        exclusive(() -> super.containerFor(id, container));
+    }
+
+    @Override
+    public void removeContainer(Id id) {
+        exclusive(() -> super.removeContainer(id));
+    }
+
+    @Override
+    public boolean metaClassFor(Id id, ClassBean metaClass) {
+        return exclusive(() -> super.metaClassFor(id, metaClass));
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(SingleFeatureBean feature, V value) {
+        return exclusive(() -> super.valueFor(feature, value));
+    }
+
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        exclusive(() -> super.setValue(feature, value));
+    }
+
+    @Override
+    public void removeValue(SingleFeatureBean feature) {
+        exclusive(() -> super.removeValue(feature));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(SingleFeatureBean feature, Id reference) {
+        return exclusive(() -> super.referenceFor(feature, reference));
+    }
+
+    @Override
+    public void setReference(SingleFeatureBean feature, Id reference) {
+        exclusive(() -> super.setReference(feature, reference));
+    }
+
+    @Override
+    public void removeReference(SingleFeatureBean feature) {
+        exclusive(() -> super.removeReference(feature));
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> valueFor(ManyFeatureBean feature, V value) {
+        return exclusive(() -> super.valueFor(feature, value));
+    }
+
+    @Override
+    public <V> void addValue(ManyFeatureBean feature, V value) {
+        exclusive(() -> super.addValue(feature, value));
+    }
+
+    @Override
+    public <V> void addAllValues(ManyFeatureBean feature, List<? extends V> collection) {
+        exclusive(() -> super.addAllValues(feature, collection));
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendValue(SingleFeatureBean feature, V value) {
+        return exclusive(() -> super.appendValue(feature, value));
+    }
+
+    @Nonnegative
+    @Override
+    public <V> int appendAllValues(SingleFeatureBean feature, List<? extends V> collection) {
+        return exclusive(() -> super.appendAllValues(feature, collection));
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<V> removeValue(ManyFeatureBean feature) {
+        return exclusive(() -> super.removeValue(feature));
+    }
+
+    @Override
+    public void removeAllValues(SingleFeatureBean feature) {
+        exclusive(() -> super.removeAllValues(feature));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(ManyFeatureBean feature, Id reference) {
+        return exclusive(() -> super.referenceFor(feature, reference));
+    }
+
+    @Override
+    public void addReference(ManyFeatureBean feature, Id reference) {
+        exclusive(() -> super.addReference(feature, reference));
+    }
+
+    @Override
+    public void addAllReferences(ManyFeatureBean feature, List<Id> collection) {
+        exclusive(() -> super.addAllReferences(feature, collection));
+    }
+
+    @Nonnegative
+    @Override
+    public int appendReference(SingleFeatureBean feature, Id reference) {
+        return exclusive(() -> super.appendReference(feature, reference));
+    }
+
+    @Nonnegative
+    @Override
+    public int appendAllReferences(SingleFeatureBean feature, List<Id> collection) {
+        return exclusive(() -> super.appendAllReferences(feature, collection));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> removeReference(ManyFeatureBean feature) {
+        return exclusive(() -> super.removeReference(feature));
+    }
+
+    @Override
+    public void removeAllReferences(SingleFeatureBean feature) {
+        exclusive(() -> super.removeAllReferences(feature));
+    }
+
+    // endregion
+
+    /**
+     * A {@link ThreadFactory} that creates daemon threads, so that a store that is not closed does not prevent the JVM
+     * from exiting.
+     */
+    @ParametersAreNonnullByDefault
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        /**
+         * The number of created threads.
+         */
+        @Nonnull
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Nonnull
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, "neoemf-read-ahead-" + COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
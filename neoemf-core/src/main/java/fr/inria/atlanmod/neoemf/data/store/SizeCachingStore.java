@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
@@ -25,6 +26,30 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class SizeCachingStore extends AbstractCachingStore<SingleFeatureBean, Optional<Integer>> {
 
+    /**
+     * Constructs a new {@code SizeCachingStore} with the default maximum size.
+     */
+    public SizeCachingStore() {
+        super();
+    }
+
+    /**
+     * Constructs a new {@code SizeCachingStore} with the given maximum size.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    public SizeCachingStore(@Nonnegative long maximumSize) {
+        super(maximumSize);
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        super.prefetch(prefetch);
+
+        prefetch.manyValues().forEach((f, l) -> cacheSize(f, l.size()));
+        prefetch.manyReferences().forEach((f, l) -> cacheSize(f, l.size()));
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         cacheSize(feature, 0);
@@ -9,6 +9,8 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
 
 import javax.annotation.Nonnull;
@@ -28,4 +30,31 @@ public interface Store extends DataMapper {
      */
     @Nonnull
     Backend backend();
+
+    /**
+     * Notifies this store that the element at the {@code feature} is visited during a traversal of the containment
+     * tree. The store may load the elements that follow it, before they are visited.
+     * <p>
+     * By default, this method does nothing.
+     *
+     * @param feature the bean identifying the multi-valued containment and the position of the visited element
+     *
+     * @see ReadAheadStore
+     */
+    default void readAhead(ManyFeatureBean feature) {
+        // Do nothing
+    }
+
+    /**
+     * Writes all the mutations of the {@code batch} through this store chain.
+     * <p>
+     * By default, this method calls {@link Backend#writeAll(WriteBatch)}.
+     *
+     * @param batch the mutations to write
+     *
+     * @see BatchingStore
+     */
+    default void writeAll(WriteBatch batch) {
+        backend().writeAll(batch);
+    }
 }
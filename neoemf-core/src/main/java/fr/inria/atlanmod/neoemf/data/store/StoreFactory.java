@@ -16,6 +16,7 @@ import org.atlanmod.commons.annotation.Static;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -57,12 +58,21 @@ public final class StoreFactory {
      * @return a new store
      *
      * @throws NullPointerException  if the {@code store} or the {@code baseConfig} are {@code null}
-     * @throws InvalidStoreException if an error occurs during the creation of the store
+     * @throws InvalidStoreException if an error occurs during the creation of the store, or if the concurrent
+     *                               read-only mode is defined on a back-end that doesn't support it
+     *
+     * @see Backend#isConcurrentReadSafe()
      */
     @Nonnull
     public Store createStore(Backend backend, ImmutableConfig baseConfig) {
         checkNotNull(baseConfig, "baseConfig");
 
+        if (baseConfig.isConcurrentReads() && !backend.isConcurrentReadSafe()) {
+            // The store would be the only owner of the back-end
+            backend.close();
+            throw new InvalidStoreException(String.format("%s does not support concurrent reads", backend.getClass().getSimpleName()));
+        }
+
         try {
             // The tail of the store chain
             Store currentStore = new NoopStore(backend);
@@ -71,12 +81,29 @@ public final class StoreFactory {
                     .sorted(Collections.reverseOrder())
                     .collect(Collectors.toList());
 
+            final Optional<MetricsStore> metricsStore = reverseStores.stream()
+                    .filter(MetricsStore.class::isInstance)
+                    .map(MetricsStore.class::cast)
+                    .findAny();
+
+            // Measure the back-end itself, behind all other stores
+            if (metricsStore.isPresent()) {
+                final MetricsStore backendStore = metricsStore.get().onBackend();
+                backendStore.next(currentStore);
+                currentStore = backendStore;
+            }
+
             for (Store s : reverseStores) {
                 final AbstractStore as = (AbstractStore) s;
                 as.next(currentStore);
                 currentStore = s;
             }
 
+            metricsStore.ifPresent(ms -> reverseStores.stream()
+                    .filter(AbstractCachingStore.class::isInstance)
+                    .map(s -> (AbstractCachingStore<?, ?>) s)
+                    .forEach(ms::watchCache));
+
             return currentStore;
         }
         catch (Exception e) {
@@ -154,7 +154,13 @@ public abstract class AbstractStoreAdapter implements StoreAdapter {
     public final PersistentEObject resolve(Id id) {
         checkNotNull(id, "id");
 
-        PersistentEObject object = getCache().get(id, this::rebuild);
+        // Define the resource of a rebuilt object before it is cached, so that it is fully attached when another thread
+        // retrieves it from the cache
+        PersistentEObject object = getCache().get(id, i -> {
+            PersistentEObject o = rebuild(i);
+            Optional.ofNullable(resource).ifPresent(o::resource);
+            return o;
+        });
 
         // Define the resource of the object
         Optional.ofNullable(resource).ifPresent(object::resource);
@@ -13,9 +13,9 @@ import fr.inria.atlanmod.neoemf.data.store.Store;
 import org.atlanmod.commons.primitive.Strings;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -29,10 +29,11 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public final class StoreStats {
 
     /**
-     * A map of the method calls made in a {@link Store} chain with their number of invocation.
+     * A map of the method calls made in a {@link Store} chain with their number of invocation. Calls can be recorded
+     * from several threads.
      */
     @Nonnull
-    private final Map<String, AtomicLong> methodInvocations = new HashMap<>();
+    private final Map<String, AtomicLong> methodInvocations = new ConcurrentHashMap<>();
 
     /**
      * TODO
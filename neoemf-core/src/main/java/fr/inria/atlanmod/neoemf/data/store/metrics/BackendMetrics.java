@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store.metrics;
+
+import org.atlanmod.commons.cache.CacheStats;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The metrics of a {@link fr.inria.atlanmod.neoemf.data.store.Store} chain in front of a single
+ * {@link fr.inria.atlanmod.neoemf.data.Backend}.
+ *
+ * @see StoreMetrics
+ */
+@ParametersAreNonnullByDefault
+public final class BackendMetrics {
+
+    /**
+     * The name of the back-end.
+     */
+    @Nonnull
+    private final String name;
+
+    /**
+     * The latency histograms of each layer, identified by the name of the measured method.
+     */
+    @Nonnull
+    private final Map<Layer, ConcurrentMap<String, LatencyHistogram>> latencies = new EnumMap<>(Layer.class);
+
+    /**
+     * The statistics of the caching stores of the chain, identified by the name of the store.
+     */
+    @Nonnull
+    private final ConcurrentMap<String, Supplier<CacheStats>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * The number of failed calls.
+     */
+    @Nonnull
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Constructs a new {@code BackendMetrics}.
+     *
+     * @param name the name of the back-end
+     */
+    BackendMetrics(String name) {
+        this.name = name;
+
+        for (Layer layer : Layer.values()) {
+            latencies.put(layer, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the name of the back-end.
+     *
+     * @return the name
+     */
+    @Nonnull
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the latency histogram of the {@code method} in the given {@code layer}, creating it if necessary.
+     *
+     * @param layer  the measured layer
+     * @param method the name of the measured method
+     *
+     * @return the histogram
+     */
+    @Nonnull
+    public LatencyHistogram latency(Layer layer, String method) {
+        final ConcurrentMap<String, LatencyHistogram> histograms = latencies.get(layer);
+
+        // Avoid the locking of `computeIfAbsent` on the hot path
+        final LatencyHistogram histogram = histograms.get(method);
+        return histogram != null ? histogram : histograms.computeIfAbsent(method, m -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns all the latency histograms of the given {@code layer}.
+     *
+     * @param layer the measured layer
+     *
+     * @return an immutable map view, identified by the name of the measured method
+     */
+    @Nonnull
+    public Map<String, LatencyHistogram> latencies(Layer layer) {
+        return Collections.unmodifiableMap(latencies.get(layer));
+    }
+
+    /**
+     * Registers the statistics of a caching store.
+     *
+     * @param store the name of the caching store
+     * @param stats the supplier of the current statistics of the store
+     */
+    public void watchCache(String store, Supplier<CacheStats> stats) {
+        caches.put(store, stats);
+    }
+
+    /**
+     * Returns the current statistics of the caching stores.
+     *
+     * @return an immutable map, identified by the name of the store
+     */
+    @Nonnull
+    public Map<String, CacheStats> caches() {
+        final Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+        caches.forEach((k, v) -> stats.put(k, v.get()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Increments the number of failed calls.
+     */
+    public void hasFailed() {
+        failures.increment();
+    }
+
+    /**
+     * Returns the number of failed calls.
+     *
+     * @return the number of failures
+     */
+    @Nonnegative
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * Removes all recorded values. The statistics of the caches are not affected.
+     */
+    public void reset() {
+        latencies.values().forEach(m -> m.values().forEach(LatencyHistogram::reset));
+        failures.reset();
+    }
+
+    /**
+     * A measured layer of a {@link fr.inria.atlanmod.neoemf.data.store.Store} chain.
+     */
+    public enum Layer {
+
+        /**
+         * The whole chain, as seen by the caller, including the caches.
+         */
+        STORE,
+
+        /**
+         * The back-end only, behind all the stores of the chain.
+         */
+        BACKEND
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A lock-free histogram of latencies, in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is divided in {@value #SUB_BUCKET_COUNT} buckets, so
+ * the relative error of a percentile is lower than {@code 1/}{@value #SUB_BUCKET_COUNT}, whatever the magnitude of
+ * the recorded values. The memory footprint is constant, and recording a value never allocates.
+ * <p>
+ * The recorded values can be read while being updated: the results are then approximate, but always consistent with a
+ * state between the start and the end of the reading.
+ */
+@ParametersAreNonnullByDefault
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits used to divide each power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of buckets in each power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The total number of buckets, able to count any positive {@code long}.
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * The number of values in each bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The number of recorded values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * The highest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Returns the index of the bucket that counts the given {@code value}.
+     *
+     * @param value the value
+     *
+     * @return the index of the bucket
+     */
+    @Nonnegative
+    static int indexOf(@Nonnegative long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value counted by the bucket at the given {@code index}.
+     *
+     * @param index the index of the bucket
+     *
+     * @return the highest value of the bucket
+     */
+    @Nonnegative
+    static long highestValueOf(@Nonnegative int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Records a new latency.
+     *
+     * @param nanos the latency, in nanoseconds; a negative value is recorded as {@code 0}
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    @Nonnegative
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values, in nanoseconds.
+     *
+     * @return the mean, or {@code 0} if no value has been recorded
+     */
+    @Nonnegative
+    public long mean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : total.sum() / n;
+    }
+
+    /**
+     * Returns the highest recorded value, in nanoseconds.
+     *
+     * @return the highest value, or {@code 0} if no value has been recorded
+     */
+    @Nonnegative
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below which the given {@code percentile} of the recorded values fall, in nanoseconds.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     *
+     * @return the value at the percentile, or {@code 0} if no value has been recorded
+     */
+    @Nonnegative
+    public long percentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "percentile (%s) must be between 0 and 100", percentile);
+
+        final long[] snapshot = new long[BUCKET_COUNT];
+        long n = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+
+        if (n == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+
+        long cumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulated += snapshot[i];
+            if (cumulated >= rank) {
+                return Math.min(highestValueOf(i), max());
+            }
+        }
+
+        return max();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+}
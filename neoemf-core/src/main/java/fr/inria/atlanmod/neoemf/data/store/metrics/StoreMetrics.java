@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store.metrics;
+
+import org.atlanmod.commons.cache.CacheStats;
+import org.atlanmod.commons.log.Log;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics about the usage of one or several {@link fr.inria.atlanmod.neoemf.data.store.Store} chains, such as the
+ * latency of each method or the efficiency of the caches.
+ * <p>
+ * Metrics are recorded from several threads without locking, and can be exposed through JMX with {@link #register()},
+ * or dumped as JSON with {@link #toJson()}.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.store.MetricsStore
+ */
+@ParametersAreNonnullByDefault
+public final class StoreMetrics implements StoreMetricsMXBean {
+
+    /**
+     * The domain of the registered MBeans.
+     */
+    @Nonnull
+    private static final String DOMAIN = "fr.inria.atlanmod.neoemf";
+
+    /**
+     * The name of these metrics.
+     */
+    @Nonnull
+    private final String name;
+
+    /**
+     * The metrics of each open back-end, identified by their name.
+     */
+    @Nonnull
+    private final ConcurrentMap<String, BackendMetrics> backends = new ConcurrentHashMap<>();
+
+    /**
+     * The number of back-ends measured since the creation of these metrics.
+     */
+    @Nonnull
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The name of the registered MBean, or {@code null} if these metrics are not registered.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Constructs a new {@code StoreMetrics} with a default name.
+     */
+    public StoreMetrics() {
+        this("default");
+    }
+
+    /**
+     * Constructs a new {@code StoreMetrics}.
+     *
+     * @param name the name of these metrics, used to identify the MBean
+     */
+    public StoreMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates the metrics of a new back-end. They are named after the {@code type} of the back-end and their order of
+     * creation, such as {@code DefaultInMemoryBackend-1}.
+     *
+     * @param type the type of the back-end
+     *
+     * @return the metrics of the back-end
+     *
+     * @see #remove(BackendMetrics)
+     */
+    @Nonnull
+    public BackendMetrics newBackend(String type) {
+        final BackendMetrics metrics = new BackendMetrics(type + '-' + sequence.incrementAndGet());
+        backends.put(metrics.name(), metrics);
+        return metrics;
+    }
+
+    /**
+     * Removes the metrics of a back-end, once it has been closed.
+     *
+     * @param metrics the metrics of the back-end
+     */
+    public void remove(BackendMetrics metrics) {
+        backends.remove(metrics.name(), metrics);
+    }
+
+    /**
+     * Returns the metrics of all the back-ends.
+     *
+     * @return an immutable collection
+     */
+    @Nonnull
+    public Collection<BackendMetrics> backends() {
+        return Collections.unmodifiableCollection(backends.values());
+    }
+
+    /**
+     * Registers these metrics as a MBean in the platform MBean server. Does nothing if they are already registered.
+     *
+     * @return these metrics (for chaining)
+     */
+    @Nonnull
+    public synchronized StoreMetrics register() {
+        if (objectName == null) {
+            try {
+                final ObjectName on = new ObjectName(DOMAIN + ":type=StoreMetrics,name=" + ObjectName.quote(name));
+
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (!server.isRegistered(on)) {
+                    server.registerMBean(this, on);
+                    objectName = on;
+                }
+                else {
+                    Log.warn("Metrics named {0} are already registered", name);
+                }
+            }
+            catch (JMException e) {
+                Log.warn(e, "Unable to register the metrics {0}", name);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server. Does nothing if they are not registered.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+            catch (JMException e) {
+                Log.warn(e, "Unable to unregister the metrics {0}", name);
+            }
+            objectName = null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getInvocations() {
+        return collectLatencies(LatencyHistogram::count);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getMeanLatencies() {
+        return collectLatencies(LatencyHistogram::mean);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getP50Latencies() {
+        return collectLatencies(h -> h.percentile(50));
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getP99Latencies() {
+        return collectLatencies(h -> h.percentile(99));
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getMaxLatencies() {
+        return collectLatencies(LatencyHistogram::max);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getFailures() {
+        final Map<String, Long> map = new TreeMap<>();
+        backends.values().forEach(b -> map.put(b.name(), b.failures()));
+        return map;
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getCacheHits() {
+        return collectCaches(CacheStats::hitCount);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> getCacheMisses() {
+        return collectCaches(CacheStats::missCount);
+    }
+
+    @Nonnull
+    @Override
+    public String toJson() {
+        final StringBuilder sb = new StringBuilder(1024);
+
+        sb.append("{\"name\":").append(quote(name)).append(",\"backends\":[");
+
+        boolean first = true;
+        for (BackendMetrics b : backends.values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+
+            sb.append("{\"name\":").append(quote(b.name()))
+                    .append(",\"failures\":").append(b.failures());
+
+            for (BackendMetrics.Layer layer : BackendMetrics.Layer.values()) {
+                sb.append(',').append(quote(layer.name().toLowerCase(Locale.ROOT))).append(":{");
+                appendEntries(sb, new TreeMap<>(b.latencies(layer)), (s, h) -> s
+                        .append("{\"count\":").append(h.count())
+                        .append(",\"mean\":").append(h.mean())
+                        .append(",\"p50\":").append(h.percentile(50))
+                        .append(",\"p99\":").append(h.percentile(99))
+                        .append(",\"max\":").append(h.max())
+                        .append('}'));
+                sb.append('}');
+            }
+
+            sb.append(",\"caches\":{");
+            appendEntries(sb, new TreeMap<>(b.caches()), (s, c) -> s
+                    .append("{\"hits\":").append(c.hitCount())
+                    .append(",\"misses\":").append(c.missCount())
+                    .append('}'));
+            sb.append("}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    @Override
+    public void reset() {
+        backends.values().forEach(BackendMetrics::reset);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Collects a value from each latency histogram.
+     *
+     * @param func the function to retrieve the value from a histogram
+     *
+     * @return a sorted map, identified by {@code <backend>/<layer>/<method>}
+     */
+    @Nonnull
+    private Map<String, Long> collectLatencies(ToLongFunction<LatencyHistogram> func) {
+        final Map<String, Long> map = new TreeMap<>();
+
+        for (BackendMetrics b : backends.values()) {
+            for (BackendMetrics.Layer layer : BackendMetrics.Layer.values()) {
+                final String prefix = b.name() + '/' + layer.name().toLowerCase(Locale.ROOT) + '/';
+                b.latencies(layer).forEach((m, h) -> map.put(prefix + m, func.applyAsLong(h)));
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * Collects a value from the statistics of each caching store.
+     *
+     * @param func the function to retrieve the value from the statistics
+     *
+     * @return a sorted map, identified by {@code <backend>/<store>}
+     */
+    @Nonnull
+    private Map<String, Long> collectCaches(ToLongFunction<CacheStats> func) {
+        final Map<String, Long> map = new TreeMap<>();
+
+        for (BackendMetrics b : backends.values()) {
+            b.caches().forEach((s, c) -> map.put(b.name() + '/' + s, func.applyAsLong(c)));
+        }
+
+        return map;
+    }
+
+    /**
+     * Appends the {@code entries} as the members of a JSON object.
+     *
+     * @param sb      the builder to append to
+     * @param entries the entries to append
+     * @param writer  the function that appends the value of an entry
+     * @param <V>     the type of values
+     */
+    private static <V> void appendEntries(StringBuilder sb, Map<String, V> entries, ValueWriter<V> writer) {
+        boolean first = true;
+        for (Map.Entry<String, V> e : entries.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+
+            writer.write(sb.append(quote(e.getKey())).append(':'), e.getValue());
+        }
+    }
+
+    /**
+     * Quotes and escapes the given {@code value} as a JSON string.
+     *
+     * @param value the value to quote
+     *
+     * @return the quoted value
+     */
+    @Nonnull
+    private static String quote(String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+
+        return sb.append('"').toString();
+    }
+
+    /**
+     * A function that appends a value to a JSON document.
+     *
+     * @param <V> the type of the value
+     */
+    @FunctionalInterface
+    private interface ValueWriter<V> {
+
+        /**
+         * Appends the {@code value} to the {@code sb}.
+         *
+         * @param sb    the builder to append to
+         * @param value the value to append
+         */
+        void write(StringBuilder sb, V value);
+    }
+}
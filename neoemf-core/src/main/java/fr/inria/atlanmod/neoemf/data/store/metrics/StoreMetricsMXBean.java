@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store.metrics;
+
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The management interface of {@link StoreMetrics}, exposed through JMX.
+ * <p>
+ * The latencies are expressed in nanoseconds, and identified by {@code <backend>/<layer>/<method>}. The statistics of
+ * the caches are identified by {@code <backend>/<store>}.
+ */
+public interface StoreMetricsMXBean {
+
+    /**
+     * Returns the number of calls of each method.
+     *
+     * @return a map of the number of calls
+     */
+    @Nonnull
+    Map<String, Long> getInvocations();
+
+    /**
+     * Returns the mean latency of each method.
+     *
+     * @return a map of latencies
+     */
+    @Nonnull
+    Map<String, Long> getMeanLatencies();
+
+    /**
+     * Returns the median latency of each method.
+     *
+     * @return a map of latencies
+     */
+    @Nonnull
+    Map<String, Long> getP50Latencies();
+
+    /**
+     * Returns the 99th percentile of the latency of each method.
+     *
+     * @return a map of latencies
+     */
+    @Nonnull
+    Map<String, Long> getP99Latencies();
+
+    /**
+     * Returns the highest latency of each method.
+     *
+     * @return a map of latencies
+     */
+    @Nonnull
+    Map<String, Long> getMaxLatencies();
+
+    /**
+     * Returns the number of failed calls for each back-end.
+     *
+     * @return a map of the number of failures
+     */
+    @Nonnull
+    Map<String, Long> getFailures();
+
+    /**
+     * Returns the number of hits of each caching store.
+     *
+     * @return a map of the number of hits
+     */
+    @Nonnull
+    Map<String, Long> getCacheHits();
+
+    /**
+     * Returns the number of misses of each caching store.
+     *
+     * @return a map of the number of misses
+     */
+    @Nonnull
+    Map<String, Long> getCacheMisses();
+
+    /**
+     * Returns all the metrics as a JSON document.
+     *
+     * @return a JSON string
+     */
+    @Nonnull
+    String toJson();
+
+    /**
+     * Removes all recorded values.
+     */
+    void reset();
+}
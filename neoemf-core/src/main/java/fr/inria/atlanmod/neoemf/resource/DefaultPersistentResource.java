@@ -13,13 +13,17 @@ import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.core.internal.collect.AllContentsIterator;
+import fr.inria.atlanmod.neoemf.core.internal.collect.AllContentsSpliterator;
 import fr.inria.atlanmod.neoemf.data.Backend;
 import fr.inria.atlanmod.neoemf.data.BackendFactory;
 import fr.inria.atlanmod.neoemf.data.BackendFactoryRegistry;
 import fr.inria.atlanmod.neoemf.data.InvalidBackend;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.im.InMemoryBackendFactory;
 import fr.inria.atlanmod.neoemf.data.im.config.InMemoryConfig;
+import fr.inria.atlanmod.neoemf.data.store.ClassCachingStore;
+import fr.inria.atlanmod.neoemf.data.store.ContainerCachingStore;
 import fr.inria.atlanmod.neoemf.data.store.Store;
 import fr.inria.atlanmod.neoemf.data.store.StoreFactory;
 import fr.inria.atlanmod.neoemf.data.store.adapter.PersistentStoreAdapter;
@@ -39,13 +43,17 @@ import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -62,6 +70,11 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class DefaultPersistentResource extends ResourceImpl implements PersistentResource {
 
+    /**
+     * The number of instances resolved at once by {@link #streamInstancesOf(EClass, boolean)}.
+     */
+    private static final int PAGE_SIZE = 1_000;
+
     /**
      * The {@link BackendFactory} associated to the {@link #uri}.
      */
@@ -74,6 +87,17 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     @Nonnull
     private StoreAdapter eStore;
 
+    /**
+     * Whether the {@link #eStore} caches the meta-classes or the containers it prefetches: otherwise the prefetched
+     * elements would be loaded and immediately discarded.
+     */
+    private boolean isPrefetchCached;
+
+    /**
+     * Whether the {@link #eStore} is in the concurrent read-only mode, and can be read from several threads.
+     */
+    private boolean isConcurrentReads;
+
     /**
      * Constructs a new {@code DefaultPersistentResource} with the given {@code uri}.
      *
@@ -103,6 +127,13 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
         return (TreeIterator) new AllContentsIterator<>(this);
     }
 
+    @Nonnull
+    @Override
+    public Stream<EObject> parallelAllContents() {
+        return StreamSupport.stream(new AllContentsSpliterator<PersistentEObject>(this), isConcurrentReads)
+                .map(EObject.class::cast);
+    }
+
     @Nonnull
     @Override
     public String getURIFragment(EObject eObject) {
@@ -176,7 +207,7 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
             isLoading = true;
 
             if (uri.isFile() && new File(uri.toFileString()).exists() || uri.hasAuthority()) {
-                eSetStore(createStore(config));
+                eSetStore(createStore(config), config);
             }
             else {
                 throw new FileNotFoundException(uri.toFileString());
@@ -193,17 +224,29 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
 
     @Nonnull
     @Override
-    @SuppressWarnings("unchecked")
     public <T extends EObject> Iterable<T> allInstancesOf(EClass eClass, boolean strict) {
+        try (Stream<T> allInstancesOf = streamInstancesOf(eClass, strict)) {
+            return allInstancesOf.collect(Collectors.toSet());
+        }
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends EObject> Stream<T> streamInstancesOf(EClass eClass, boolean strict) {
         // There is no strict instance of an abstract class
         if ((eClass.isAbstract() || eClass.isInterface()) && strict) {
-            return Collections.emptyList();
+            return Stream.empty();
         }
 
         Stream<EObject> allInstancesOf;
 
         try {
-            allInstancesOf = eStore.store().allInstancesOf(ClassBean.from(eClass), strict).map(id -> eStore.resolve(id));
+            final Stream<Id> ids = eStore.store().allInstancesOf(ClassBean.from(eClass), strict);
+
+            allInstancesOf = MoreIterables.stream(() -> new PageIterator(ids.iterator(), PAGE_SIZE))
+                    .onClose(ids::close)
+                    .flatMap(this::resolveAll);
         }
         catch (UnsupportedOperationException e) {
             Log.debug("This mapper doesn't support the lookup of all instances: using standard EMF API instead");
@@ -213,9 +256,24 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
                     .filter(o -> !strict || Objects.equals(o.eClass(), eClass));
         }
 
-        return allInstancesOf
-                .map(o -> (T) o)
-                .collect(Collectors.toSet());
+        return allInstancesOf.map(o -> (T) o);
+    }
+
+    /**
+     * Resolves all the elements of the {@code page}, after loading their meta-class at once if the {@link #eStore} can
+     * keep them.
+     *
+     * @param page the identifiers of the elements to resolve
+     *
+     * @return a stream of the resolved objects
+     */
+    @Nonnull
+    private Stream<EObject> resolveAll(List<Id> page) {
+        if (isPrefetchCached) {
+            eStore.store().prefetch(Prefetch.of(page));
+        }
+
+        return page.stream().map(id -> eStore.resolve(id));
     }
 
     @Nonnull
@@ -228,12 +286,16 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
      * Closes the previous store of this resource and defines the new.
      *
      * @param newStore the new store of this resource
+     * @param config   the configuration of the new store
      *
      * @see StoreAdapter#close()
      */
-    private void eSetStore(StoreAdapter newStore) {
+    private void eSetStore(StoreAdapter newStore, ImmutableConfig config) {
         eStore.close();
         eStore = newStore;
+        isPrefetchCached = config.getStores().stream()
+                .anyMatch(s -> s instanceof ClassCachingStore || s instanceof ContainerCachingStore);
+        isConcurrentReads = config.isConcurrentReads();
     }
 
     /**
@@ -245,7 +307,7 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     private void mergeStore(ImmutableConfig config) {
         StoreAdapter newStore = createStore(config);
         eStore.copyTo(newStore);
-        eSetStore(newStore);
+        eSetStore(newStore, config);
     }
 
     /**
@@ -312,4 +374,51 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     private void logState(String state) {
         Log.info("PersistentResource {0} : {1}", String.format("%1$-7s", state), uri);
     }
+
+    /**
+     * An {@link Iterator} that groups the elements of another iterator in pages of a fixed size.
+     */
+    @ParametersAreNonnullByDefault
+    private static final class PageIterator implements Iterator<List<Id>> {
+
+        /**
+         * The iterator of all the elements.
+         */
+        @Nonnull
+        private final Iterator<Id> iterator;
+
+        /**
+         * The maximum number of elements in a page.
+         */
+        private final int pageSize;
+
+        /**
+         * Constructs a new {@code PageIterator}.
+         *
+         * @param iterator the iterator of all the elements
+         * @param pageSize the maximum number of elements in a page
+         */
+        PageIterator(Iterator<Id> iterator, int pageSize) {
+            this.iterator = iterator;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public List<Id> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            List<Id> page = new ArrayList<>(pageSize);
+            while (page.size() < pageSize && iterator.hasNext()) {
+                page.add(iterator.next());
+            }
+            return page;
+        }
+    }
 }
@@ -20,6 +20,7 @@ import org.eclipse.emf.ecore.resource.Resource;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -117,6 +118,52 @@ public interface PersistentResource extends Resource, Resource.Internal, Storabl
     @Nonnull
     <T extends EObject> Iterable<T> allInstancesOf(EClass eClass, boolean strict);
 
+    /**
+     * Lazily retrieves the instances of the given {@link EClass} (including its sub-types).
+     * <p>
+     * This method behaves like: {@code streamInstancesOf(EClass, false)}.
+     *
+     * @param eClass the {@link EClass} for which look for instances
+     *
+     * @return a stream of all the instances of the given {@link EClass} from the resource
+     *
+     * @see #streamInstancesOf(EClass, boolean)
+     */
+    @Nonnull
+    default <T extends EObject> Stream<T> streamInstancesOf(EClass eClass) {
+        return streamInstancesOf(eClass, false);
+    }
+
+    /**
+     * Lazily retrieves the instances of the given {@link EClass}.
+     * <p>
+     * Unlike {@link #allInstancesOf(EClass, boolean)}, the instances are resolved on demand, while the returned stream
+     * is consumed: the whole result is never held in memory. The returned stream should be closed after use.
+     *
+     * @param eClass the {@link EClass} for which look for instances
+     * @param strict {@code true} if the lookup searches for strict instances
+     *
+     * @return a stream of the instances of the given {@link EClass}; if {@code strict} is {@code false}, it also
+     * contains the instances of the sub-types of {@code eClass}
+     */
+    @Nonnull
+    <T extends EObject> Stream<T> streamInstancesOf(EClass eClass, boolean strict);
+
+    /**
+     * Returns a parallel stream over all the contents of this resource, in the same order as {@link
+     * #getAllContents()}.
+     * <p>
+     * The containment tree is split at its containment lists, so that several sub-trees are traversed at the same
+     * time. The resource must be readable from several threads, so it must be loaded in the concurrent read-only mode:
+     * otherwise, the returned stream is sequential.
+     *
+     * @return a parallel stream, or a sequential stream if the resource is not in the concurrent read-only mode
+     *
+     * @see fr.inria.atlanmod.neoemf.config.Config#concurrentReads()
+     */
+    @Nonnull
+    Stream<EObject> parallelAllContents();
+
     /**
      * Returns an iterator on the direct content of this resource.
      *
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.OverridingMethodsMustInvokeSuper;
@@ -217,6 +218,27 @@ public class PersistentResourceDecorator implements PersistentResource {
         return resource.allInstancesOf(eClass, strict);
     }
 
+    @Nonnull
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public <T extends EObject> Stream<T> streamInstancesOf(EClass eClass) {
+        return resource.streamInstancesOf(eClass);
+    }
+
+    @Nonnull
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public <T extends EObject> Stream<T> streamInstancesOf(EClass eClass, boolean strict) {
+        return resource.streamInstancesOf(eClass, strict);
+    }
+
+    @Nonnull
+    @Override
+    @OverridingMethodsMustInvokeSuper
+    public Stream<EObject> parallelAllContents() {
+        return resource.parallelAllContents();
+    }
+
     @Nonnull
     @Override
     @OverridingMethodsMustInvokeSuper
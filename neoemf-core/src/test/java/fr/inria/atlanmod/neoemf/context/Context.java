@@ -90,6 +90,18 @@ public interface Context {
         return true;
     }
 
+    /**
+     * Returns {@code true} if the back-end of this context can be read from several threads in the concurrent
+     * read-only mode.
+     *
+     * @return {@code true} if the back-end of this context supports concurrent reads
+     *
+     * @see fr.inria.atlanmod.neoemf.data.Backend#isConcurrentReadSafe()
+     */
+    default boolean isConcurrentReadSafe() {
+        return true;
+    }
+
     /**
      * Creates a new {@link URI} from the given {@code uri}, according to this context.
      *
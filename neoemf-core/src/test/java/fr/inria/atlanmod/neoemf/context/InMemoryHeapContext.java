@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.context;
+
+import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.data.im.config.InMemoryConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link AbstractInMemoryContext} that stores the elements on the heap.
+ */
+@ParametersAreNonnullByDefault
+public class InMemoryHeapContext extends AbstractInMemoryContext {
+
+    @Nonnull
+    @Override
+    public ImmutableConfig config() {
+        return new InMemoryConfig().onHeap();
+    }
+
+    @Override
+    public boolean isConcurrentReadSafe() {
+        return false;
+    }
+}
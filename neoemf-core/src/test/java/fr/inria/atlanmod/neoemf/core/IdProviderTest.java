@@ -8,9 +8,16 @@
 
 package fr.inria.atlanmod.neoemf.core;
 
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+
 import org.atlanmod.commons.AbstractTest;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,6 +52,36 @@ class IdProviderTest extends AbstractTest {
         assertThat(id0).isNotEqualTo(id1);
     }
 
+    @Test
+    void testGenerateSequential() throws Exception {
+        IdProvider provider = IdProviders.sequential();
+
+        // A new thread starts with a new block, whatever the identifiers generated before in this thread
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<Id> ids = executor.submit(() -> Arrays.asList(provider.generate(), provider.generate(), provider.generate())).get();
+
+            assertThat(ids.get(1).toLong()).isEqualTo(ids.get(0).toLong() + 1);
+            assertThat(ids.get(2).toLong()).isEqualTo(ids.get(1).toLong() + 1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConfig() {
+        assertThat(new BaseConfig<>().getIdProvider()).isSameAs(IdProviders.getDefault());
+        assertThat(new BaseConfig<>().sequentialIds().getIdProvider()).isSameAs(IdProviders.sequential());
+    }
+
+    @Test
+    void testGenerateSequentialFromBase() {
+        String value = "ROOT";
+
+        assertThat(IdProviders.sequential().generate(value)).isEqualTo(IdProviders.random().generate(value));
+    }
+
     @Test
     void testCompareTo() {
         Id id0 = Id.getProvider().fromLong(42);
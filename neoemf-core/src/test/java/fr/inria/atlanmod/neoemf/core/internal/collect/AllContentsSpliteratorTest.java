@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.core.internal.collect;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link AllContentsSpliterator}.
+ */
+@ParametersAreNonnullByDefault
+class AllContentsSpliteratorTest extends AbstractTest {
+
+    /**
+     * The root of the tree: {@code root -> [a -> [a0, a1 -> [a10]], b, c -> [c0]]}.
+     */
+    private final Tree root = new Tree("root",
+            new Tree("a", new Tree("a0"), new Tree("a1", new Tree("a10"))),
+            new Tree("b"),
+            new Tree("c", new Tree("c0")));
+
+    @Test
+    void testTryAdvance() {
+        Spliterator<Tree> spliterator = new AllContentsSpliterator<>(root);
+
+        List<String> names = new ArrayList<>();
+        while (spliterator.tryAdvance(t -> names.add(t.name))) {
+            // Continue until the end
+        }
+
+        assertThat(names).containsExactly("a", "a0", "a1", "a10", "b", "c", "c0");
+    }
+
+    @Test
+    void testTrySplit() {
+        Spliterator<Tree> suffix = new AllContentsSpliterator<>(root);
+        Spliterator<Tree> prefix = suffix.trySplit();
+
+        assertThat(prefix).isNotNull();
+        assertThat(namesOf(prefix)).containsExactly("a", "a0", "a1", "a10");
+        assertThat(namesOf(suffix)).containsExactly("b", "c", "c0");
+    }
+
+    @Test
+    void testTrySplitSingleElement() {
+        Spliterator<Tree> suffix = new AllContentsSpliterator<>(new Tree("root", root));
+        Spliterator<Tree> prefix = suffix.trySplit();
+
+        // The single element is expanded, then its content is shared between both spliterators
+        assertThat(prefix).isNotNull();
+        assertThat(namesOf(prefix)).containsExactly("root", "a", "a0", "a1", "a10");
+        assertThat(namesOf(suffix)).containsExactly("b", "c", "c0");
+    }
+
+    @Test
+    void testTrySplitLeaf() {
+        Spliterator<Tree> spliterator = new AllContentsSpliterator<>(new Tree("root", new Tree("a")));
+
+        assertThat(spliterator.trySplit()).isNull();
+        assertThat(namesOf(spliterator)).containsExactly("a");
+    }
+
+    @Test
+    void testTrySplitEmpty() {
+        Spliterator<Tree> spliterator = new AllContentsSpliterator<>(new Tree("root"));
+
+        assertThat(spliterator.trySplit()).isNull();
+        assertThat(spliterator.tryAdvance(t -> {})).isFalse();
+    }
+
+    @Test
+    void testEstimateSize() {
+        Spliterator<Tree> suffix = new AllContentsSpliterator<>(root);
+        assertThat(suffix.estimateSize()).isEqualTo(Long.MAX_VALUE);
+
+        Spliterator<Tree> prefix = suffix.trySplit();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.estimateSize()).isEqualTo(Long.MAX_VALUE >>> 1);
+        assertThat(suffix.estimateSize()).isEqualTo(Long.MAX_VALUE >>> 1);
+
+        Spliterator<Tree> subPrefix = suffix.trySplit();
+        assertThat(subPrefix).isNotNull();
+        assertThat(subPrefix.estimateSize()).isEqualTo(Long.MAX_VALUE >>> 2);
+        assertThat(suffix.estimateSize()).isEqualTo(Long.MAX_VALUE >>> 2);
+        assertThat(prefix.estimateSize()).isEqualTo(Long.MAX_VALUE >>> 1);
+    }
+
+    @Test
+    void testEstimateSizeWithoutSplit() {
+        Spliterator<Tree> spliterator = new AllContentsSpliterator<>(new Tree("root", new Tree("a")));
+
+        assertThat(spliterator.trySplit()).isNull();
+        assertThat(spliterator.estimateSize()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testParallelStream() {
+        List<String> names = StreamSupport.stream(new AllContentsSpliterator<>(root), true)
+                .map(t -> t.name)
+                .collect(Collectors.toList());
+
+        assertThat(names).containsExactly("a", "a0", "a1", "a10", "b", "c", "c0");
+    }
+
+    /**
+     * Returns the names of the remaining elements of the {@code spliterator}.
+     *
+     * @param spliterator the spliterator to consume
+     *
+     * @return the names, in their traversal order
+     */
+    @Nonnull
+    private List<String> namesOf(Spliterator<Tree> spliterator) {
+        List<String> names = new ArrayList<>();
+        spliterator.forEachRemaining(t -> names.add(t.name));
+        return names;
+    }
+
+    /**
+     * A simple element that contains other elements.
+     */
+    @ParametersAreNonnullByDefault
+    private static final class Tree implements Iterable<Tree> {
+
+        @Nonnull
+        private final String name;
+
+        @Nonnull
+        private final List<Tree> contents;
+
+        Tree(String name, Tree... contents) {
+            this.name = name;
+            this.contents = Collections.unmodifiableList(Arrays.asList(contents));
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<Tree> iterator() {
+            return contents.iterator();
+        }
+    }
+}
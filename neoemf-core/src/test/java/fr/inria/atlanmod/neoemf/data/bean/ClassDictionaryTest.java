@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.bean;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * A test-case about {@link ClassDictionary}.
+ */
+@ParametersAreNonnullByDefault
+class ClassDictionaryTest extends AbstractTest {
+
+    /**
+     * Checks that identifiers are allocated sequentially, and only once for each meta-class.
+     */
+    @Test
+    void testIdOf() {
+        ClassDictionary dictionary = new ClassDictionary();
+
+        assertThat(dictionary.idOf(ClassBean.of("name0", "uri0"))).isEqualTo(0);
+        assertThat(dictionary.idOf(ClassBean.of("name1", "uri0"))).isEqualTo(1);
+        assertThat(dictionary.idOf(ClassBean.of("name0", "uri0"))).isEqualTo(0);
+
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    /**
+     * Checks that looking for the identifier of an unknown meta-class does not register it.
+     */
+    @Test
+    void testFindIdOf() {
+        ClassDictionary dictionary = new ClassDictionary();
+        dictionary.idOf(ClassBean.of("name0", "uri0"));
+
+        assertThat(dictionary.findIdOf(ClassBean.of("name0", "uri0"))).contains(0);
+        assertThat(dictionary.findIdOf(ClassBean.of("name1", "uri0"))).isNotPresent();
+
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+
+    /**
+     * Checks that the same instance is always returned for a given identifier.
+     */
+    @Test
+    void testClassOf() {
+        ClassDictionary dictionary = new ClassDictionary();
+        ClassBean bean0 = ClassBean.of("name0", "uri0");
+
+        int id = dictionary.idOf(bean0);
+        dictionary.idOf(ClassBean.of("name0", "uri0"));
+
+        assertThat(dictionary.classOf(id)).isSameAs(bean0);
+        assertThat(dictionary.classOf(id)).isSameAs(dictionary.classOf(id));
+
+        assertThat(catchThrowable(() -> dictionary.classOf(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Checks that associations are loaded from, and saved to, the storage.
+     */
+    @Test
+    void testStorage() {
+        Map<Integer, ClassBean> storage = new HashMap<>();
+        storage.put(0, ClassBean.of("name0", "uri0"));
+
+        ClassDictionary dictionary = new ClassDictionary(storage);
+        assertThat(dictionary.findIdOf(ClassBean.of("name0", "uri0"))).contains(0);
+
+        dictionary.idOf(ClassBean.of("name1", "uri0"));
+        assertThat(storage).containsEntry(1, ClassBean.of("name1", "uri0"));
+
+        ClassDictionary reloaded = new ClassDictionary(storage);
+        assertThat(reloaded.idOf(ClassBean.of("name1", "uri0"))).isEqualTo(1);
+    }
+}
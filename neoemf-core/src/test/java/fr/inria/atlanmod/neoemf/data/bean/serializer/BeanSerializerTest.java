@@ -10,6 +10,7 @@ package fr.inria.atlanmod.neoemf.data.bean.serializer;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 
@@ -69,6 +70,18 @@ class BeanSerializerTest extends AbstractSerializerTest {
         assertThat(result).isEqualTo(object);
     }
 
+    @Test
+    void testSerializeDeserializeIndexedClass() throws IOException {
+        ClassDictionary dictionary = new ClassDictionary();
+        BinarySerializer<ClassBean> serializer = BeanSerializerFactory.getInstance().forClass(dictionary);
+
+        ClassBean object = ClassBean.of("name0", "uri0");
+        ClassBean result = process(object, serializer);
+
+        assertThat(result).isSameAs(dictionary.classOf(0)).isEqualTo(object);
+        assertThat(serializer.serialize(object)).hasSizeLessThanOrEqualTo(Integer.BYTES);
+    }
+
     @Test
     void testSerializeDeserializeFeatureKey() throws IOException {
         BinarySerializer<SingleFeatureBean> serializer = BeanSerializerFactory.getInstance().forSingleFeature();
@@ -10,11 +10,19 @@ package fr.inria.atlanmod.neoemf.data.im;
 
 import fr.inria.atlanmod.neoemf.context.Context;
 import fr.inria.atlanmod.neoemf.context.InMemoryBoundContext;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * A test-case about {@link BoundInMemoryBackend}.
  */
@@ -26,4 +34,22 @@ class BoundInMemoryBackendTest extends AbstractDataMapperTest {
     protected Context context() {
         return new InMemoryBoundContext(idBase);
     }
+
+    /**
+     * Checks the behavior of {@link BoundInMemoryBackend#features()}: only the features that have a value are returned.
+     */
+    @Test
+    void testFeatures() {
+        final Id reference = Id.getProvider().fromLong(43);
+
+        try (BoundInMemoryBackend backend = new BoundInMemoryBackend(idBase)) {
+            backend.valueFor(SingleFeatureBean.of(idBase, 7), "value0");
+            backend.valueFor(SingleFeatureBean.of(idBase, 2), "value1");
+            backend.appendAllReferences(SingleFeatureBean.of(idBase, 4), Arrays.asList(reference, reference));
+            backend.valueFor(SingleFeatureBean.of(idBase, 9), "value2");
+            backend.removeValue(SingleFeatureBean.of(idBase, 9));
+
+            assertThat(backend.features()).containsExactly(2, 4, 7);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.im;
+
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.context.InMemoryHeapContext;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link HeapInMemoryBackend}.
+ */
+@ParametersAreNonnullByDefault
+class HeapInMemoryBackendTest extends AbstractDataMapperTest {
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new InMemoryHeapContext();
+    }
+
+    /**
+     * Checks that a multi-valued feature can be modified while its values are streamed.
+     */
+    @Test
+    void testModifyWhileStreaming() {
+        SingleFeatureBean feature = SingleFeatureBean.of(idBase, 5);
+        mapper.appendAllValues(feature, Arrays.asList("Value0", "Value1"));
+
+        List<String> values = mapper.<String>allValuesOf(feature)
+                .peek(v -> mapper.appendValue(feature, v))
+                .collect(Collectors.toList());
+
+        assertThat(values).containsExactly("Value0", "Value1");
+        assertThat(mapper.sizeOfValue(feature)).contains(4);
+    }
+}
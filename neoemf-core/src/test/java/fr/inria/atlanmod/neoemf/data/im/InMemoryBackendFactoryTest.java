@@ -40,7 +40,9 @@ class InMemoryBackendFactoryTest extends AbstractBackendFactoryTest {
     @Override
     protected Stream<Arguments> allMappings() {
         return Stream.of(
-                Arguments.of(new InMemoryConfig(), DefaultInMemoryBackend.class)
+                Arguments.of(new InMemoryConfig(), DefaultInMemoryBackend.class),
+                Arguments.of(new InMemoryConfig().offHeap(), DefaultInMemoryBackend.class),
+                Arguments.of(new InMemoryConfig().onHeap(), HeapInMemoryBackend.class)
         );
     }
 }
@@ -10,9 +10,13 @@ package fr.inria.atlanmod.neoemf.data.mapping;
 
 import fr.inria.atlanmod.neoemf.AbstractUnitTest;
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.store.Store;
 
 import org.eclipse.emf.ecore.EcorePackage;
 import org.junit.jupiter.api.AfterEach;
@@ -27,7 +31,9 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +43,7 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import static java.util.Objects.nonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * An abstract test-case about {@link DataMapper} and its implementations.
@@ -282,6 +289,32 @@ public abstract class AbstractDataMapperTest extends AbstractUnitTest {
         )).isInstanceOf(NullPointerException.class);
     }
 
+    /**
+     * Checks the behavior of {@link ClassMapper#allInstancesOf(Set)}.
+     */
+    @Test
+    public void testAllInstancesOf() {
+        Id id0 = Id.getProvider().fromLong(40);
+        Id id1 = Id.getProvider().fromLong(41);
+        Id id2 = Id.getProvider().fromLong(43);
+
+        ClassBean metaClass0 = ClassBean.of("Metaclass1", "Uri1");
+        ClassBean metaClass1 = ClassBean.of("Metaclass10", "Uri1");
+        ClassBean metaClass2 = ClassBean.of("Metaclass2", "Uri1");
+
+        mapper.metaClassFor(id0, metaClass0);
+        mapper.metaClassFor(id1, metaClass1);
+        mapper.metaClassFor(id2, metaClass0);
+
+        assumeFalse(catchThrowable(() -> mapper.allInstancesOf(Collections.singleton(metaClass0))) instanceof UnsupportedOperationException,
+                "The mapper doesn't support the lookup of all instances");
+
+        assertThat(mapper.allInstancesOf(Collections.singleton(metaClass0))).containsExactlyInAnyOrder(id0, id2);
+        assertThat(mapper.allInstancesOf(Collections.singleton(metaClass1))).containsExactlyInAnyOrder(id1);
+        assertThat(mapper.allInstancesOf(new HashSet<>(Arrays.asList(metaClass0, metaClass1)))).containsExactlyInAnyOrder(id0, id1, id2);
+        assertThat(mapper.allInstancesOf(Collections.singleton(metaClass2))).isEmpty();
+    }
+
     //endregion
 
     //region Single-value features
@@ -840,6 +873,27 @@ public abstract class AbstractDataMapperTest extends AbstractUnitTest {
         assertThat(m.sizeOf(sfBase)).isNotPresent();
     }
 
+    /**
+     * Checks that {@link ManyValueMapper#removeAllValues(SingleFeatureBean)} doesn't remove the other multi-valued
+     * features of the owner.
+     */
+    @ParameterizedTest(name = TEST_NAME_PATTERN)
+    @ArgumentsSource(ParametersProvider.class)
+    public void testRemoveAll_Many_OtherFeature(RedirectionType type, Object value0, Object value1, Object value2) {
+        DataMapperRedirector m = new DataMapperRedirector(mapper, type);
+
+        final SingleFeatureBean otherFeature = SingleFeatureBean.of(idBase, sfBase.id() + 1);
+
+        m.appendAll(sfBase, Arrays.asList(value0, value1));
+        m.appendAll(otherFeature, Collections.singletonList(value2));
+
+        m.removeAll(sfBase);
+
+        assertThat(m.sizeOf(sfBase)).isNotPresent();
+        assertThat(m.sizeOf(otherFeature)).contains(1);
+        assertThat(m.get(otherFeature.withPosition(0))).contains(value2);
+    }
+
     /**
      * Checks the behavior of {@link ManyValueMapper#removeAllValues(SingleFeatureBean)} when the value doesn't exist.
      */
@@ -883,6 +937,85 @@ public abstract class AbstractDataMapperTest extends AbstractUnitTest {
 
     //endregion
 
+    //region Batch
+
+    /**
+     * Checks the behavior of {@link Backend#writeAll(WriteBatch)}.
+     */
+    @Test
+    public void testWriteAll() {
+        Backend backend = mapper instanceof Store ? ((Store) mapper).backend() : (Backend) mapper;
+
+        Id id0 = Id.getProvider().fromLong(40);
+        Id id1 = Id.getProvider().fromLong(41);
+
+        ClassBean metaClass = ClassBean.of("Metaclass0", "Uri0");
+        SingleFeatureBean container = SingleFeatureBean.of(id1, 2);
+        SingleFeatureBean value = SingleFeatureBean.of(idBase, 3);
+        SingleFeatureBean reference = SingleFeatureBean.of(idBase, 4);
+        SingleFeatureBean removedValue = SingleFeatureBean.of(idBase, 5);
+
+        backend.containerFor(id1, SingleFeatureBean.of(id0, 1));
+        backend.valueFor(removedValue, "Value0");
+
+        WriteBatch batch = new WriteBatch();
+        batch.metaClassFor(id0, metaClass);
+        batch.containerFor(id0, container);
+        batch.valueFor(value, "Value1");
+        batch.referenceFor(reference, id1);
+        batch.removeContainer(id1);
+        batch.removeValue(removedValue);
+
+        backend.writeAll(batch);
+
+        assertThat(backend.metaClassOf(id0)).contains(metaClass);
+        assertThat(backend.containerOf(id0)).contains(container);
+        assertThat(backend.<String>valueOf(value)).contains("Value1");
+        assertThat(backend.referenceOf(reference)).contains(id1);
+        assertThat(backend.containerOf(id1)).isNotPresent();
+        assertThat(backend.<String>valueOf(removedValue)).isNotPresent();
+    }
+
+    //endregion
+
+    //region Prefetch
+
+    /**
+     * Checks the behavior of {@link DataMapper#prefetch(Prefetch)}.
+     */
+    @Test
+    public void testPrefetch() {
+        SingleFeatureBean container = SingleFeatureBean.of(id1, 1);
+        SingleFeatureBean value = SingleFeatureBean.of(idBase, 2);
+        SingleFeatureBean reference = SingleFeatureBean.of(idBase, 3);
+        SingleFeatureBean manyValue = SingleFeatureBean.of(idBase, 4);
+        SingleFeatureBean manyReference = SingleFeatureBean.of(idBase, 5);
+        SingleFeatureBean absentValue = SingleFeatureBean.of(idBase, 6);
+
+        mapper.containerFor(idBase, container);
+        mapper.valueFor(value, "Value0");
+        mapper.referenceFor(reference, id1);
+        mapper.appendAllValues(manyValue, Arrays.asList("Value1", "Value2"));
+        mapper.appendAllReferences(manyReference, Arrays.asList(id0, id1));
+
+        Prefetch prefetch = Prefetch.of(Collections.singletonList(idBase))
+                .withValues(2, 6)
+                .withReferences(3)
+                .withManyValues(4)
+                .withManyReferences(5);
+
+        mapper.prefetch(prefetch);
+
+        assertThat(prefetch.metaClasses()).containsEntry(idBase, cBase);
+        assertThat(prefetch.containers()).containsEntry(idBase, container);
+        assertThat(prefetch.values()).containsEntry(value, "Value0").doesNotContainKey(absentValue);
+        assertThat(prefetch.references()).containsEntry(reference, id1);
+        assertThat(prefetch.manyValues()).containsEntry(manyValue, Arrays.asList("Value1", "Value2"));
+        assertThat(prefetch.manyReferences()).containsEntry(manyReference, Arrays.asList(id0, id1));
+    }
+
+    //endregion
+
     /**
      * An {@link ArgumentsProvider} that with values defined by {@link RedirectionType type}.
      */
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A test-case about {@link BatchingStore}.
+ */
+@ParametersAreNonnullByDefault
+class BatchingStoreTest extends AbstractTest {
+
+    private final Id id0 = Id.getProvider().fromLong(42);
+
+    private final Id id1 = Id.getProvider().fromLong(43);
+
+    private Backend backend;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        backend = new DefaultInMemoryBackend();
+        store = StoreFactory.getInstance().createStore(backend, new BaseConfig<>().batchWrites(3, Long.MAX_VALUE / 1_000_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    /**
+     * Checks that the pending mutations are visible from the store, but not from the back-end.
+     */
+    @Test
+    void testReadYourWrites() {
+        SingleFeatureBean feature = SingleFeatureBean.of(id0, 1);
+        SingleFeatureBean container = SingleFeatureBean.of(id1, 2);
+
+        assertThat(store.valueFor(feature, "Value0")).isNotPresent();
+        assertThat(store.valueFor(feature, "Value1")).contains("Value0");
+        store.containerFor(id0, container);
+
+        assertThat(store.<String>valueOf(feature)).contains("Value1");
+        assertThat(store.containerOf(id0)).contains(container);
+
+        assertThat(backend.<String>valueOf(feature)).isNotPresent();
+        assertThat(backend.containerOf(id0)).isNotPresent();
+
+        store.removeValue(feature);
+        assertThat(store.<String>valueOf(feature)).isNotPresent();
+    }
+
+    /**
+     * Checks that the blind writes are written without reading the previous values.
+     */
+    @Test
+    void testBlindWrites() {
+        Backend spiedBackend = spy(new DefaultInMemoryBackend());
+        Store blindStore = StoreFactory.getInstance().createStore(spiedBackend, new BaseConfig<>().batchWrites(2, Long.MAX_VALUE / 1_000_000));
+
+        blindStore.setValue(SingleFeatureBean.of(id0, 1), "Value0");
+        blindStore.setReference(SingleFeatureBean.of(id0, 2), id1);
+
+        assertThat(spiedBackend.<String>valueOf(SingleFeatureBean.of(id0, 1))).contains("Value0");
+        assertThat(spiedBackend.referenceOf(SingleFeatureBean.of(id0, 2))).contains(id1);
+
+        verify(spiedBackend).setValue(SingleFeatureBean.of(id0, 1), "Value0");
+        verify(spiedBackend).setReference(SingleFeatureBean.of(id0, 2), id1);
+        verify(spiedBackend, never()).valueFor(any(SingleFeatureBean.class), any());
+        verify(spiedBackend, never()).referenceFor(any(SingleFeatureBean.class), any(Id.class));
+
+        blindStore.close();
+    }
+
+    /**
+     * Checks that the pending mutations are written when their number reaches the size of a batch.
+     */
+    @Test
+    void testFlushOnSize() {
+        ClassBean metaClass = ClassBean.of("Metaclass0", "Uri0");
+
+        assertThat(store.metaClassFor(id0, metaClass)).isTrue();
+        assertThat(store.metaClassFor(id0, metaClass)).isFalse();
+        store.referenceFor(SingleFeatureBean.of(id0, 1), id1);
+
+        assertThat(backend.metaClassOf(id0)).isNotPresent();
+
+        store.valueFor(SingleFeatureBean.of(id0, 2), "Value0");
+
+        assertThat(backend.metaClassOf(id0)).contains(metaClass);
+        assertThat(backend.referenceOf(SingleFeatureBean.of(id0, 1))).contains(id1);
+        assertThat(backend.<String>valueOf(SingleFeatureBean.of(id0, 2))).contains("Value0");
+    }
+
+    /**
+     * Checks that the pending mutations are written when the store is saved.
+     */
+    @Test
+    void testFlushOnSave() {
+        store.containerFor(id0, SingleFeatureBean.of(id1, 2));
+        store.save();
+
+        assertThat(backend.containerOf(id0)).contains(SingleFeatureBean.of(id1, 2));
+    }
+
+    /**
+     * Checks that the pending meta-classes are visible when looking for all instances.
+     */
+    @Test
+    void testAllInstancesOf() {
+        ClassBean metaClass = ClassBean.of("Metaclass0", "Uri0");
+        store.metaClassFor(id0, metaClass);
+
+        assertThat(store.allInstancesOf(Collections.singleton(metaClass))).containsExactly(id0);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend;
+
+import org.atlanmod.commons.AbstractTest;
+import org.atlanmod.commons.cache.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link FeatureCachingStore}.
+ */
+@ParametersAreNonnullByDefault
+class FeatureCachingStoreTest extends AbstractTest {
+
+    private final Id id0 = Id.getProvider().fromLong(42);
+
+    private final SingleFeatureBean feature = SingleFeatureBean.of(id0, 1);
+
+    private Backend backend;
+
+    private FeatureCachingStore store;
+
+    @BeforeEach
+    void setUp() {
+        backend = new DefaultInMemoryBackend();
+        store = (FeatureCachingStore) StoreFactory.getInstance().createStore(backend, new BaseConfig<>().cacheFeatures());
+
+        store.appendAllValues(feature, Arrays.asList("Value0", "Value1", "Value2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    /**
+     * Checks that the cached values are shifted after an insertion.
+     */
+    @Test
+    void testAddValue() {
+        store.addValue(feature.withPosition(0), "Value3");
+
+        assertThat(store.<String>valueOf(feature.withPosition(0))).contains("Value3");
+        assertThat(store.<String>valueOf(feature.withPosition(1))).contains("Value0");
+        assertThat(store.<String>valueOf(feature.withPosition(3))).contains("Value2");
+        assertThat(store.<String>valueOf(feature.withPosition(4))).isNotPresent();
+    }
+
+    /**
+     * Checks that the cached values are shifted after a removal.
+     */
+    @Test
+    void testRemoveValue() {
+        assertThat(store.<String>removeValue(feature.withPosition(1))).contains("Value1");
+
+        assertThat(store.<String>valueOf(feature.withPosition(0))).contains("Value0");
+        assertThat(store.<String>valueOf(feature.withPosition(1))).contains("Value2");
+        assertThat(store.<String>valueOf(feature.withPosition(2))).isNotPresent();
+    }
+
+    /**
+     * Checks that the values that are not cached are loaded from the back-end.
+     */
+    @Test
+    void testLoadValue() {
+        ManyFeatureBean head = feature.withPosition(0);
+        store.cache.invalidateAll();
+        backend.valueFor(head, "Value3");
+
+        CacheStats initialStats = store.stats();
+
+        assertThat(store.<String>valueOf(head)).contains("Value3");
+        assertThat(store.stats().minus(initialStats).missCount()).isEqualTo(1);
+
+        assertThat(store.<String>valueOf(feature.withPosition(2))).contains("Value2");
+        assertThat(store.stats().minus(initialStats).hitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Checks that the values cached at sparse positions are shifted after the removal of a value that is not cached.
+     */
+    @Test
+    void testRemoveNotCachedValue() {
+        store.cache.invalidateAll();
+        assertThat(store.<String>valueOf(feature.withPosition(2))).contains("Value2");
+
+        assertThat(store.<String>removeValue(feature.withPosition(0))).contains("Value0");
+
+        CacheStats initialStats = store.stats();
+
+        assertThat(store.<String>valueOf(feature.withPosition(1))).contains("Value2");
+        assertThat(store.<String>valueOf(feature.withPosition(2))).isNotPresent();
+        assertThat(store.stats().minus(initialStats).hitCount()).isEqualTo(2);
+    }
+
+    /**
+     * Checks that the size of the cache counts each cached position of a multi-valued feature.
+     */
+    @Test
+    void testWeight() {
+        FeatureCachingStore smallStore = (FeatureCachingStore) StoreFactory.getInstance().createStore(new DefaultInMemoryBackend(), new BaseConfig<>().cacheFeatures(2));
+
+        try {
+            smallStore.appendAllValues(feature, Arrays.asList("Value0", "Value1"));
+            smallStore.cache.cleanUp();
+            assertThat(smallStore.cache.contains(feature)).isTrue();
+
+            smallStore.appendValue(feature, "Value2");
+            smallStore.cache.cleanUp();
+            assertThat(smallStore.cache.contains(feature)).isFalse();
+        }
+        finally {
+            smallStore.close();
+        }
+    }
+
+    /**
+     * Checks that the prefetched values are cached.
+     */
+    @Test
+    void testPrefetch() {
+        store.cache.invalidateAll();
+
+        store.prefetch(Prefetch.of(Collections.singletonList(id0)).withManyValues(feature.id()));
+
+        CacheStats initialStats = store.stats();
+
+        assertThat(store.<String>valueOf(feature.withPosition(1))).contains("Value1");
+        assertThat(store.<String>valueOf(feature.withPosition(2))).contains("Value2");
+        assertThat(store.stats().minus(initialStats).hitCount()).isEqualTo(2);
+    }
+
+    /**
+     * Checks that all the cached values are invalidated at once.
+     */
+    @Test
+    void testRemoveAllValues() {
+        store.removeAllValues(feature);
+
+        assertThat(store.cache.contains(feature)).isFalse();
+        assertThat(store.<String>valueOf(feature.withPosition(0))).isNotPresent();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend;
+import fr.inria.atlanmod.neoemf.data.store.metrics.BackendMetrics;
+import fr.inria.atlanmod.neoemf.data.store.metrics.StoreMetrics;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A test-case about {@link MetricsStore}.
+ */
+@ParametersAreNonnullByDefault
+class MetricsStoreTest extends AbstractTest {
+
+    private final Id id = Id.getProvider().fromLong(42);
+
+    private StoreMetrics metrics;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new StoreMetrics(getClass().getSimpleName());
+        ImmutableConfig config = new BaseConfig<>().cacheFeatures().recordMetrics(metrics);
+
+        store = StoreFactory.getInstance().createStore(new DefaultInMemoryBackend(), config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (nonNull(store)) {
+            store.close();
+        }
+        metrics.unregister();
+    }
+
+    /**
+     * Checks that the calls are measured for the whole chain and for the back-end alone.
+     */
+    @Test
+    void testLatencies() {
+        assertThat(store).isInstanceOf(MetricsStore.class);
+
+        store.valueFor(SingleFeatureBean.of(id, 0), "Value0");
+        store.valueOf(SingleFeatureBean.of(id, 0));
+        store.valueOf(SingleFeatureBean.of(id, 0));
+
+        assertThat(metrics.backends()).hasSize(1);
+        BackendMetrics backendMetrics = metrics.backends().iterator().next();
+
+        Map<String, ?> storeLatencies = backendMetrics.latencies(BackendMetrics.Layer.STORE);
+        assertThat(storeLatencies).containsOnlyKeys("valueFor", "valueOf");
+        assertThat(backendMetrics.latency(BackendMetrics.Layer.STORE, "valueOf").count()).isEqualTo(2);
+        assertThat(backendMetrics.latency(BackendMetrics.Layer.STORE, "valueFor").count()).isEqualTo(1);
+
+        // The reads are served by the cache
+        Map<String, ?> backendLatencies = backendMetrics.latencies(BackendMetrics.Layer.BACKEND);
+        assertThat(backendLatencies).containsOnlyKeys("valueFor");
+
+        assertThat(backendMetrics.caches()).containsOnlyKeys("FeatureCachingStore");
+        assertThat(backendMetrics.caches().get("FeatureCachingStore").hitCount()).isEqualTo(2);
+    }
+
+    /**
+     * Checks that the batched writes are measured on the back-end.
+     */
+    @Test
+    void testBatchedWrites() {
+        StoreMetrics batchMetrics = new StoreMetrics();
+        Store batchStore = StoreFactory.getInstance().createStore(new DefaultInMemoryBackend(), new BaseConfig<>().batchWrites().recordMetrics(batchMetrics));
+
+        batchStore.valueFor(SingleFeatureBean.of(id, 0), "Value0");
+        batchStore.valueFor(SingleFeatureBean.of(id, 1), "Value1");
+        batchStore.save();
+
+        BackendMetrics backendMetrics = batchMetrics.backends().iterator().next();
+        assertThat(backendMetrics.name()).isEqualTo("DefaultInMemoryBackend-1");
+        assertThat(backendMetrics.latencies(BackendMetrics.Layer.BACKEND)).containsKey("writeAll").doesNotContainKey("valueFor");
+        assertThat(backendMetrics.latency(BackendMetrics.Layer.BACKEND, "writeAll").count()).isEqualTo(1);
+
+        batchStore.close();
+    }
+
+    /**
+     * Checks that the metrics of a store chain are removed when it is closed.
+     */
+    @Test
+    void testClose() {
+        store.valueOf(SingleFeatureBean.of(id, 0));
+        assertThat(metrics.backends()).hasSize(1);
+
+        store.close();
+        store = null;
+
+        assertThat(metrics.backends()).isEmpty();
+        assertThat(metrics.getInvocations()).isEmpty();
+    }
+
+    /**
+     * Checks that the failed calls are counted once.
+     */
+    @Test
+    void testFailures() {
+        Backend backend = mock(Backend.class);
+        when(backend.valueOf(any(SingleFeatureBean.class))).thenThrow(new IllegalStateException());
+
+        StoreMetrics failingMetrics = new StoreMetrics();
+        Store failingStore = StoreFactory.getInstance().createStore(backend, new BaseConfig<>().recordMetrics(failingMetrics));
+
+        assertThat(catchThrowable(() -> failingStore.valueOf(SingleFeatureBean.of(id, 0)))).isInstanceOf(IllegalStateException.class);
+        assertThat(failingMetrics.getFailures()).containsValue(1L);
+        assertThat(failingMetrics.getInvocations()).hasSize(2);
+    }
+
+    /**
+     * Checks the export of the metrics as JSON.
+     */
+    @Test
+    void testJson() {
+        store.valueOf(SingleFeatureBean.of(id, 0));
+
+        assertThat(metrics.toJson())
+                .startsWith("{\"name\":\"MetricsStoreTest\",\"backends\":[")
+                .contains("\"store\":{\"valueOf\":{\"count\":1,")
+                .contains("\"caches\":{\"FeatureCachingStore\":{\"hits\":0,\"misses\":1}}");
+    }
+
+    /**
+     * Checks the registration of the metrics as a MBean.
+     */
+    @Test
+    void testRegister() throws Exception {
+        store.valueOf(SingleFeatureBean.of(id, 0));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("fr.inria.atlanmod.neoemf:type=StoreMetrics,name=\"MetricsStoreTest\"");
+
+        metrics.register();
+        assertThat(server.isRegistered(name)).isTrue();
+        assertThat(server.getAttribute(name, "Invocations")).isNotNull();
+
+        metrics.unregister();
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend;
+import fr.inria.atlanmod.neoemf.data.im.HeapInMemoryBackend;
+
+import org.atlanmod.commons.AbstractTest;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A test-case about {@link ReadAheadStore}.
+ */
+@ParametersAreNonnullByDefault
+class ReadAheadStoreTest extends AbstractTest {
+
+    private final Id parent = Id.getProvider().fromLong(42);
+
+    private final Id id0 = Id.getProvider().fromLong(43);
+
+    private final Id id1 = Id.getProvider().fromLong(44);
+
+    private final Id id2 = Id.getProvider().fromLong(45);
+
+    private final Id id3 = Id.getProvider().fromLong(46);
+
+    private final SingleFeatureBean contents = SingleFeatureBean.of(parent, 0);
+
+    private Backend backend;
+
+    private ClassCachingStore cachingStore;
+
+    private ReadAheadStore store;
+
+    @BeforeEach
+    void setUp() {
+        init(spy(new DefaultInMemoryBackend()));
+    }
+
+    /**
+     * Fills the {@code backend} with a list of elements, and creates the stores on it.
+     *
+     * @param backend the back-end to use
+     */
+    private void init(Backend backend) {
+        this.backend = backend;
+
+        ClassBean metaClass = ClassBean.from(EcorePackage.Literals.EPACKAGE);
+        for (Id id : Arrays.asList(id0, id1, id2, id3)) {
+            backend.metaClassFor(id, metaClass);
+        }
+        backend.appendAllReferences(contents, Arrays.asList(id0, id1, id2, id3));
+
+        cachingStore = new ClassCachingStore();
+        cachingStore.next(new NoopStore(backend));
+
+        store = new ReadAheadStore(1, 2, 1);
+        store.next(cachingStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    /**
+     * Checks that the next siblings of a visited element are loaded, within the configured width.
+     */
+    @Test
+    void testReadAhead() throws InterruptedException {
+        store.readAhead(ManyFeatureBean.of(parent, contents.id(), 0));
+        awaitLoaded(id2);
+
+        assertThat(cachingStore.cache.contains(id0)).isFalse();
+        assertThat(cachingStore.cache.contains(id1)).isTrue();
+        assertThat(cachingStore.cache.contains(id2)).isTrue();
+        assertThat(cachingStore.cache.contains(id3)).isFalse();
+
+        verify(backend, never()).allReferencesOf(any(SingleFeatureBean.class));
+    }
+
+    /**
+     * Checks that nothing is loaded when the back-end does not support concurrent reads.
+     */
+    @Test
+    void testReadAheadWithoutConcurrentReads() throws InterruptedException {
+        store.close();
+        init(new HeapInMemoryBackend());
+
+        store.readAhead(ManyFeatureBean.of(parent, contents.id(), 0));
+        awaitLoaded(id1);
+
+        assertThat(cachingStore.cache.contains(id1)).isFalse();
+    }
+
+    /**
+     * Checks that the mutations are applied after a read-ahead.
+     */
+    @Test
+    void testMutationAfterReadAhead() throws InterruptedException {
+        store.readAhead(ManyFeatureBean.of(parent, contents.id(), 0));
+        store.containerFor(id1, contents);
+        awaitLoaded(id2);
+
+        assertThat(store.containerOf(id1)).contains(contents);
+        assertThat(backend.containerOf(id1)).contains(contents);
+    }
+
+    /**
+     * Waits until the meta-class of the {@code id} is cached.
+     *
+     * @param id the identifier of the element
+     */
+    private void awaitLoaded(Id id) throws InterruptedException {
+        for (int i = 0; i < 100 && !cachingStore.cache.contains(id); i++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -11,8 +11,11 @@ package fr.inria.atlanmod.neoemf.data.store;
 import fr.inria.atlanmod.neoemf.config.BaseConfig;
 import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
 import fr.inria.atlanmod.neoemf.config.InvalidConfigException;
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.Backend;
 import fr.inria.atlanmod.neoemf.data.BackendFactory;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.im.DefaultInMemoryBackend;
 import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperChain;
 import fr.inria.atlanmod.neoemf.data.store.listener.RecordingStoreListener;
 import fr.inria.atlanmod.neoemf.data.store.listener.StoreStats;
@@ -23,6 +26,7 @@ import org.atlanmod.commons.log.Level;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -31,6 +35,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.atlanmod.commons.Preconditions.checkInstanceOf;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * A test-case about {@link StoreFactory}.
@@ -80,6 +85,34 @@ class StoreFactoryTest extends AbstractTest {
         assertThat(store).isExactlyInstanceOf(NoopStore.class);
     }
 
+    /**
+     * Checks that the concurrent read-only mode is accepted on a back-end that supports it.
+     */
+    @Test
+    void testConcurrentReads() {
+        ImmutableConfig config = new BaseConfig<>().concurrentReads();
+
+        Store store = StoreFactory.getInstance().createStore(new DefaultInMemoryBackend(), config);
+        assertThat(store).isExactlyInstanceOf(ReadOnlyStore.class);
+
+        store.close();
+    }
+
+    /**
+     * Checks that the concurrent read-only mode is refused on a back-end that doesn't support it, and that the
+     * back-end is closed.
+     */
+    @Test
+    void testConcurrentReadsUnsupported() {
+        ImmutableConfig config = new BaseConfig<>().concurrentReads();
+        Backend backend = mock(Backend.class);
+
+        Throwable thrown = catchThrowable(() -> StoreFactory.getInstance().createStore(backend, config));
+        assertThat(thrown).isInstanceOf(InvalidStoreException.class);
+
+        verify(backend).close();
+    }
+
     /**
      * Checks the setup of the {@link fr.inria.atlanmod.neoemf.data.store.listener.LoggingStoreListener}.
      */
@@ -150,6 +183,42 @@ class StoreFactoryTest extends AbstractTest {
         assertThat(store).isExactlyInstanceOf(NoopStore.class);
     }
 
+    /**
+     * Checks the setup of the {@link FeatureCachingStore} with a maximum size.
+     */
+    @Test
+    void testFeatureCachingWithSize() {
+        final long expectedSize = 2;
+
+        ImmutableConfig config = new BaseConfig<>().cacheFeatures(expectedSize);
+
+        Store store = StoreFactory.getInstance().createStore(new DefaultInMemoryBackend(), config);
+        assertThat(store).isInstanceOf(FeatureCachingStore.class);
+
+        FeatureCachingStore cachingStore = (FeatureCachingStore) store;
+
+        Id id = Id.getProvider().fromLong(42);
+        IntStream.range(0, 10).forEach(i -> store.valueFor(SingleFeatureBean.of(id, i), "Value" + i));
+        assertThat(store.<String>valueOf(SingleFeatureBean.of(id, 9))).contains("Value9");
+
+        cachingStore.cache.cleanUp();
+        assertThat(cachingStore.cache.size()).isLessThanOrEqualTo(expectedSize);
+        assertThat(cachingStore.stats().requestCount()).isEqualTo(1);
+
+        store.close();
+    }
+
+    /**
+     * Checks the setup of the caching stores with a negative maximum size.
+     */
+    @Test
+    void testCachingWithNegativeSize() {
+        assertThat(catchThrowable(() -> new BaseConfig<>().cacheFeatures(-2))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().cacheContainers(-2))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().cacheMetaClasses(-2))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().cacheSizes(-2))).isExactlyInstanceOf(InvalidConfigException.class);
+    }
+
     /**
      * Checks the setup of the {@link RecordingStoreListener}.
      */
@@ -205,6 +274,91 @@ class StoreFactoryTest extends AbstractTest {
         assertThat(catchThrowable(() -> new BaseConfig<>().autoSave(-2))).isExactlyInstanceOf(InvalidConfigException.class);
     }
 
+    /**
+     * Checks the setup of the {@link BatchingStore} without thresholds.
+     */
+    @Test
+    void testBatchWrites() {
+        ImmutableConfig config = new BaseConfig<>().batchWrites();
+
+        Store store = StoreFactory.getInstance().createStore(mock(Backend.class), config);
+        assertThat(store).isInstanceOf(BatchingStore.class);
+
+        store = getInnerStore(store);
+        assertThat(store).isExactlyInstanceOf(NoopStore.class);
+    }
+
+    /**
+     * Checks the setup of the {@link BatchingStore} with thresholds.
+     */
+    @Test
+    void testBatchWritesWithThresholds() {
+        final int expectedSize = 123;
+
+        ImmutableConfig config = new BaseConfig<>().batchWrites(expectedSize, 456);
+
+        Store store = StoreFactory.getInstance().createStore(mock(Backend.class), config);
+        assertThat(store).isInstanceOf(BatchingStore.class);
+
+        int actualSize = getValue(store, "size", BatchingStore.class, Integer.class);
+        assertThat(actualSize).isEqualTo(expectedSize);
+
+        store = getInnerStore(store);
+        assertThat(store).isExactlyInstanceOf(NoopStore.class);
+    }
+
+    /**
+     * Checks the setup of the {@link BatchingStore} with negative thresholds.
+     */
+    @Test
+    void testBatchWritesWithNegativeThresholds() {
+        assertThat(catchThrowable(() -> new BaseConfig<>().batchWrites(-2, 0))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().batchWrites(0, -2))).isExactlyInstanceOf(InvalidConfigException.class);
+    }
+
+    /**
+     * Checks the setup of the {@link ReadAheadStore} without settings.
+     */
+    @Test
+    void testReadAhead() {
+        ImmutableConfig config = new BaseConfig<>().readAhead();
+
+        Store store = StoreFactory.getInstance().createStore(mock(Backend.class), config);
+        assertThat(store).isInstanceOf(ReadAheadStore.class);
+
+        store = getInnerStore(store);
+        assertThat(store).isExactlyInstanceOf(NoopStore.class);
+    }
+
+    /**
+     * Checks the setup of the {@link ReadAheadStore} with settings.
+     */
+    @Test
+    void testReadAheadWithSettings() {
+        final int expectedWidth = 123;
+
+        ImmutableConfig config = new BaseConfig<>().readAhead(2, expectedWidth, 4);
+
+        Store store = StoreFactory.getInstance().createStore(mock(Backend.class), config);
+        assertThat(store).isInstanceOf(ReadAheadStore.class);
+
+        int actualWidth = getValue(store, "width", ReadAheadStore.class, Integer.class);
+        assertThat(actualWidth).isEqualTo(expectedWidth);
+
+        store = getInnerStore(store);
+        assertThat(store).isExactlyInstanceOf(NoopStore.class);
+    }
+
+    /**
+     * Checks the setup of the {@link ReadAheadStore} with invalid settings.
+     */
+    @Test
+    void testReadAheadWithInvalidSettings() {
+        assertThat(catchThrowable(() -> new BaseConfig<>().readAhead(0, 1, 1))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().readAhead(1, 0, 1))).isExactlyInstanceOf(InvalidConfigException.class);
+        assertThat(catchThrowable(() -> new BaseConfig<>().readAhead(1, 1, 0))).isExactlyInstanceOf(InvalidConfigException.class);
+    }
+
     /**
      * Checks store containment order (depend on the instantiation policy defined in {@link BackendFactory}.
      */
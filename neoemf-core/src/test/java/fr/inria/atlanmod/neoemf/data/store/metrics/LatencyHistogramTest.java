@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.store.metrics;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * A test-case about {@link LatencyHistogram}.
+ */
+@ParametersAreNonnullByDefault
+class LatencyHistogramTest extends AbstractTest {
+
+    /**
+     * Checks that each value is counted by the bucket that contains it.
+     */
+    @Test
+    void testBuckets() {
+        long previous = -1;
+        for (int i = 0; i < 200; i++) {
+            long highest = LatencyHistogram.highestValueOf(i);
+
+            assertThat(LatencyHistogram.indexOf(previous + 1)).isEqualTo(i);
+            assertThat(LatencyHistogram.indexOf(highest)).isEqualTo(i);
+
+            previous = highest;
+        }
+
+        assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.mean()).isZero();
+        assertThat(histogram.percentile(99)).isZero();
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 10_000).forEach(i -> histogram.record(i * 1_000L));
+
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.max()).isEqualTo(10_000_000);
+        assertThat(histogram.mean()).isEqualTo(5_000_500);
+
+        // The relative error is lower than 1/8
+        assertThat((double) histogram.percentile(50)).isCloseTo(5_000_000, within(625_000d));
+        assertThat((double) histogram.percentile(99)).isCloseTo(9_900_000, within(1_237_500d));
+        assertThat(histogram.percentile(100)).isEqualTo(10_000_000);
+    }
+
+    @Test
+    void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.max()).isZero();
+        assertThat(histogram.percentile(50)).isZero();
+    }
+}
@@ -15,12 +15,16 @@ import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.Environment;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.SecondaryConfig;
+import com.sleepycat.je.SecondaryCursor;
+import com.sleepycat.je.SecondaryDatabase;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.IdConverters;
 import fr.inria.atlanmod.neoemf.data.AbstractBackend;
 import fr.inria.atlanmod.neoemf.data.DatabaseException;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.serializer.BeanSerializerFactory;
 import fr.inria.atlanmod.neoemf.data.mapping.AllReferenceAs;
@@ -28,16 +32,25 @@ import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
 
 import org.atlanmod.commons.function.Converter;
 import org.atlanmod.commons.io.serializer.BinarySerializer;
+import org.atlanmod.commons.primitive.Bytes;
+import org.atlanmod.commons.primitive.Ints;
+import org.atlanmod.commons.primitive.Strings;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.atlanmod.commons.Preconditions.checkNotNull;
 
 /**
@@ -52,6 +65,26 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
     @Nonnull
     protected static final BeanSerializerFactory SERIALIZER_FACTORY = BeanSerializerFactory.getInstance();
 
+    /**
+     * The version of the layout of the databases created by this class.
+     * <p>
+     * Environments without version have been created by previous versions: the meta-classes of their instances are
+     * stored by name and URI, instead of by identifier in the dictionary of meta-classes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The name of the database that stores the metadata of the environment.
+     */
+    @Nonnull
+    private static final String METADATA = "metadata";
+
+    /**
+     * The key of the version of the layout in the {@link #METADATA} database.
+     */
+    @Nonnull
+    private static final byte[] KEY_FORMAT = Strings.toBytes("format");
+
     /**
      * The BerkeleyDB environment.
      */
@@ -65,13 +98,52 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
     @Nonnull
     private final Database containers;
 
+    /**
+     * A persistent map that stores all meta-classes, identified by their identifier in {@link #dictionary}.
+     * <p>
+     * It is {@code null} if the environment is read-only and has been created by a previous version: in this case, the
+     * dictionary is transient.
+     */
+    @Nullable
+    private final Database classes;
+
+    /**
+     * The dictionary of all meta-classes, persisted in {@link #classes}.
+     */
+    @Nonnull
+    private final ClassDictionary dictionary;
+
+    /**
+     * Whether the environment has been created by a previous version, and stores the meta-classes of its instances by
+     * name and URI.
+     */
+    private final boolean isLegacy;
+
+    /**
+     * The serializer of the meta-classes of the instances, as their identifier in {@link #dictionary}, or as their name
+     * and URI if the environment has been created by a previous version.
+     */
+    @Nonnull
+    private final BinarySerializer<ClassBean> classSerializer;
+
     /**
      * A persistent map that stores the meta-class for {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s,
-     * identified by the object {@link Id}.
+     * identified by the object {@link Id}. Meta-classes are stored as their identifier in {@link #dictionary}.
      */
     @Nonnull
     private final Database instances;
 
+    /**
+     * A persistent index that stores the {@link Id} of {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s,
+     * identified by their meta-class. This is a secondary database of {@link #instances}, automatically maintained by
+     * BerkeleyDB.
+     * <p>
+     * It is {@code null} if the environment is read-only and has been created without this index: in this case, the
+     * lookup of all instances falls back to a full scan of {@link #instances}.
+     */
+    @Nullable
+    private final SecondaryDatabase instancesIndex;
+
     /**
      * A persistent map that stores single-feature values for {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s,
      * identified by the associated {@link SingleFeatureBean}. Depending on the mapping used, it can also contain
@@ -92,14 +164,36 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
 
         this.environment = environment;
 
+        this.isLegacy = formatOf(environment, databaseConfig) < FORMAT_VERSION;
+
         this.containers = environment.openDatabase(null, "containers", databaseConfig);
+
+        if (databaseConfig.getReadOnly() && !environment.getDatabaseNames().contains("classes")) {
+            this.classes = null;
+            this.dictionary = new ClassDictionary();
+        }
+        else {
+            this.classes = environment.openDatabase(null, "classes", databaseConfig);
+            this.dictionary = new ClassDictionary(loadClasses(classes), this::saveClass);
+        }
+
+        // An environment created by a previous version keeps storing the meta-classes of its instances by name and URI
+        this.classSerializer = isLegacy ? SERIALIZER_FACTORY.forClass() : SERIALIZER_FACTORY.forClass(dictionary);
+
         this.instances = environment.openDatabase(null, "instances", databaseConfig);
+        this.instancesIndex = openInstancesIndex(environment, databaseConfig);
         this.features = environment.openDatabase(null, "features/single", databaseConfig);
     }
 
     @Override
     protected void internalClose() {
         containers.close();
+        if (nonNull(classes)) {
+            classes.close();
+        }
+        if (nonNull(instancesIndex)) {
+            instancesIndex.close();
+        }
         instances.close();
         features.close();
 
@@ -116,7 +210,7 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
         AbstractBerkeleyDbBackend to = (AbstractBerkeleyDbBackend) target;
 
         copy(containers, to.containers);
-        copy(instances, to.instances);
+        copyInstances(to);
         copy(features, to.features);
     }
 
@@ -148,7 +242,7 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
     public Optional<ClassBean> metaClassOf(Id id) {
         checkNotNull(id, "id");
 
-        return get(instances, id, SERIALIZER_FACTORY.forId(), SERIALIZER_FACTORY.forClass());
+        return get(instances, id, SERIALIZER_FACTORY.forId(), classSerializer);
     }
 
     @Override
@@ -156,21 +250,68 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
         checkNotNull(id, "id");
         checkNotNull(metaClass, "metaClass");
 
-        return putIfAbsent(instances, id, metaClass, SERIALIZER_FACTORY.forId(), SERIALIZER_FACTORY.forClass());
+        return putIfAbsent(instances, id, metaClass, SERIALIZER_FACTORY.forId(), classSerializer);
     }
 
     @Nonnull
     @Override
     public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
+        if (isNull(instancesIndex)) {
+            return allInstancesOfByScan(metaClasses);
+        }
+
+        try (SecondaryCursor cursor = instancesIndex.openCursor(null, null)) {
+            DatabaseEntry dbKey = new DatabaseEntry();
+            DatabaseEntry dbPrimaryKey = new DatabaseEntry();
+
+            // Only the primary key is needed: don't read the primary record
+            DatabaseEntry dbValue = new DatabaseEntry();
+            dbValue.setPartial(0, 0, true);
+
+            // The instances are collected before the cursor is closed: a cursor left open while the stream is consumed
+            // would keep a lock on its current record, and block the modifications of this record
+            Set<Id> instancesOf = new HashSet<>();
+
+            for (ClassBean metaClass : metaClasses) {
+                // An unknown meta-class has no instance: don't register it
+                if (!isLegacy && !dictionary.findIdOf(metaClass).isPresent()) {
+                    continue;
+                }
+
+                dbKey.setData(classSerializer.serialize(metaClass));
+
+                OperationStatus status = cursor.getSearchKey(dbKey, dbPrimaryKey, dbValue, LockMode.DEFAULT);
+                while (status == OperationStatus.SUCCESS) {
+                    instancesOf.add(SERIALIZER_FACTORY.forId().deserialize(dbPrimaryKey.getData()));
+                    status = cursor.getNextDup(dbKey, dbPrimaryKey, dbValue, LockMode.DEFAULT);
+                }
+            }
+
+            return instancesOf.stream();
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Retrieves all instances of the given {@code metaClasses} by scanning all the {@link #instances}.
+     *
+     * @param metaClasses the meta-classes to compute the instances of
+     *
+     * @return a {@link Stream} containing the instances of the {@code metaClasses}
+     */
+    @Nonnull
+    private Stream<Id> allInstancesOfByScan(Set<ClassBean> metaClasses) {
         try (Cursor cursor = instances.openCursor(null, null)) {
             DatabaseEntry dbKey = new DatabaseEntry();
             DatabaseEntry dbValue = new DatabaseEntry();
 
-            // TODO Dynamically load content with an Iterator
+            // The instances are collected before the cursor is closed, as in allInstancesOf(Set)
             Set<Id> instancesOf = new HashSet<>();
 
             while (cursor.getNext(dbKey, dbValue, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
-                if (metaClasses.contains(SERIALIZER_FACTORY.forClass().deserialize(dbValue.getData()))) {
+                if (metaClasses.contains(classSerializer.deserialize(dbValue.getData()))) {
                     instancesOf.add(SERIALIZER_FACTORY.forId().deserialize(dbKey.getData()));
                 }
             }
@@ -201,6 +342,14 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
         return previousValue;
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
+
+        put(features, feature, value, SERIALIZER_FACTORY.forSingleFeature(), SERIALIZER_FACTORY.forAny());
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         checkNotNull(feature, "feature");
@@ -214,6 +363,137 @@ abstract class AbstractBerkeleyDbBackend extends AbstractBackend implements Berk
         return IdConverters.withLong();
     }
 
+    /**
+     * Opens the index of {@link #instances}, and populates it if it has just been created on an existing database.
+     *
+     * @param environment    the database environment
+     * @param databaseConfig the configuration of the primary database
+     *
+     * @return the index, or {@code null} if the {@code environment} is read-only and has no index
+     */
+    @Nullable
+    private SecondaryDatabase openInstancesIndex(Environment environment, DatabaseConfig databaseConfig) {
+        final String name = "instances/index";
+
+        if (databaseConfig.getReadOnly() && !environment.getDatabaseNames().contains(name)) {
+            return null;
+        }
+
+        SecondaryConfig indexConfig = new SecondaryConfig();
+        indexConfig.setAllowCreate(databaseConfig.getAllowCreate())
+                .setReadOnly(databaseConfig.getReadOnly())
+                .setDeferredWrite(databaseConfig.getDeferredWrite())
+                .setSortedDuplicates(true);
+        indexConfig.setAllowPopulate(true)
+                .setImmutableSecondaryKey(true)
+                // The identifier of the meta-class is used as is as the key of the index
+                .setKeyCreator((db, key, data, result) -> {
+                    result.setData(data.getData(), data.getOffset(), data.getSize());
+                    return true;
+                });
+
+        return environment.openSecondaryDatabase(null, name, instances, indexConfig);
+    }
+
+    /**
+     * Returns the version of the layout of the {@code environment}, and records the current version in a new
+     * environment.
+     *
+     * @param environment    the database environment
+     * @param databaseConfig the configuration of the databases
+     *
+     * @return the version of the layout, or {@code 0} if the environment has been created by a previous version
+     */
+    private static int formatOf(Environment environment, DatabaseConfig databaseConfig) {
+        final List<String> names = environment.getDatabaseNames();
+
+        // An existing environment without version has been created by a previous version
+        if (!names.contains(METADATA) && (names.contains("instances") || databaseConfig.getReadOnly())) {
+            return 0;
+        }
+
+        final Database metadata = environment.openDatabase(null, METADATA, databaseConfig);
+        try {
+            DatabaseEntry dbKey = new DatabaseEntry(KEY_FORMAT);
+            DatabaseEntry dbValue = new DatabaseEntry();
+
+            if (metadata.get(null, dbKey, dbValue, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                return Bytes.toInt(dbValue.getData());
+            }
+
+            metadata.put(null, dbKey, new DatabaseEntry(Ints.toBytes(FORMAT_VERSION)));
+            return FORMAT_VERSION;
+        }
+        finally {
+            metadata.close();
+        }
+    }
+
+    /**
+     * Loads all the meta-classes stored in the {@code classes} database.
+     *
+     * @param classes the database that stores the meta-classes
+     *
+     * @return a map containing all the meta-classes, identified by their identifier in the dictionary
+     */
+    @Nonnull
+    private static Map<Integer, ClassBean> loadClasses(Database classes) {
+        try (Cursor cursor = classes.openCursor(null, null)) {
+            DatabaseEntry dbKey = new DatabaseEntry();
+            DatabaseEntry dbValue = new DatabaseEntry();
+
+            Map<Integer, ClassBean> associations = new HashMap<>();
+
+            while (cursor.getNext(dbKey, dbValue, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                associations.put(
+                        Bytes.toInt(dbKey.getData()),
+                        SERIALIZER_FACTORY.forClass().deserialize(dbValue.getData()));
+            }
+
+            return associations;
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Saves the {@code metaClass} identified by {@code id} in {@link #classes}.
+     *
+     * @param id        the identifier of the meta-class in the dictionary
+     * @param metaClass the meta-class to save
+     */
+    private void saveClass(int id, ClassBean metaClass) {
+        try {
+            classes.put(null, new DatabaseEntry(Ints.toBytes(id)), new DatabaseEntry(SERIALIZER_FACTORY.forClass().serialize(metaClass)));
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Copies all the {@link #instances} to the {@code target}. Unlike {@link #copy(Database, Database)}, the
+     * meta-classes are re-encoded with the dictionary of the {@code target}.
+     *
+     * @param target the backend to copy the instances to
+     */
+    private void copyInstances(AbstractBerkeleyDbBackend target) {
+        try (Cursor cursor = instances.openCursor(null, null)) {
+            DatabaseEntry dbKey = new DatabaseEntry();
+            DatabaseEntry dbValue = new DatabaseEntry();
+
+            while (cursor.getNext(dbKey, dbValue, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                ClassBean metaClass = classSerializer.deserialize(dbValue.getData());
+                target.instances.put(null, dbKey, new DatabaseEntry(target.classSerializer.serialize(metaClass)));
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+        target.instances.sync();
+    }
+
     /**
      * Retrieves the value of the {@code key} from the {@code database}.
      *
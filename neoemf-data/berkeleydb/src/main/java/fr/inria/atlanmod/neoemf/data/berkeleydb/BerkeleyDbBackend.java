@@ -34,4 +34,9 @@ public interface BerkeleyDbBackend extends Backend {
     default boolean isDistributed() {
         return true;
     }
+
+    @Override
+    default boolean isConcurrentReadSafe() {
+        return true;
+    }
 }
@@ -52,6 +52,11 @@ public class BerkeleyDbBackendFactory extends AbstractBackendFactory<BerkeleyDbC
                 .setAllowCreate(!isReadOnly)
                 .setReadOnly(isReadOnly);
 
+        if (config.isConcurrentReads()) {
+            // Without any writer, concurrent readers don't need to lock records
+            environmentConfig.setLocking(false);
+        }
+
         DatabaseConfig databaseConfig = new DatabaseConfig()
                 .setAllowCreate(!isReadOnly)
                 .setReadOnly(isReadOnly)
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.berkeleydb;
+
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.EnvironmentConfig;
+
+import fr.inria.atlanmod.neoemf.AbstractUnitTest;
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.serializer.BeanSerializerFactory;
+import fr.inria.atlanmod.neoemf.data.berkeleydb.context.BerkeleyDbIndicesContext;
+import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
+
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about the environments created by previous versions of {@link AbstractBerkeleyDbBackend}, that store the
+ * meta-classes of their instances by name and URI.
+ */
+@ParametersAreNonnullByDefault
+class BerkeleyDbLegacyFormatTest extends AbstractUnitTest {
+
+    private final ClassBean metaClass = ClassBean.of("Metaclass0", EcorePackage.eNS_URI);
+
+    private final Id id0 = Id.getProvider().fromLong(42);
+
+    private final Id id1 = Id.getProvider().fromLong(43);
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new BerkeleyDbIndicesContext();
+    }
+
+    /**
+     * Checks that the instances of a legacy environment are readable and indexed, and that new instances are stored in
+     * the same format.
+     */
+    @Test
+    void testOpenLegacyEnvironment() throws IOException {
+        final File directory = currentTempFile();
+        Files.createDirectories(directory.toPath());
+
+        final BeanSerializerFactory factory = BeanSerializerFactory.getInstance();
+
+        Environment environment = new Environment(directory, new EnvironmentConfig().setAllowCreate(true));
+        Database instances = environment.openDatabase(null, "instances", new DatabaseConfig().setAllowCreate(true));
+        instances.put(null, new DatabaseEntry(factory.forId().serialize(id0)), new DatabaseEntry(factory.forClass().serialize(metaClass)));
+        instances.close();
+        environment.close();
+
+        DataMapper mapper = context().createMapper(directory);
+        try {
+            assertThat(mapper.metaClassOf(id0)).contains(metaClass);
+            assertThat(mapper.allInstancesOf(Collections.singleton(metaClass))).containsExactly(id0);
+
+            mapper.metaClassFor(id1, metaClass);
+        }
+        finally {
+            mapper.close();
+        }
+
+        mapper = context().createMapper(directory);
+        try {
+            assertThat(mapper.metaClassOf(id0)).contains(metaClass);
+            assertThat(mapper.metaClassOf(id1)).contains(metaClass);
+            assertThat(mapper.allInstancesOf(Collections.singleton(metaClass))).containsExactlyInAnyOrder(id0, id1);
+        }
+        finally {
+            mapper.close();
+        }
+    }
+}
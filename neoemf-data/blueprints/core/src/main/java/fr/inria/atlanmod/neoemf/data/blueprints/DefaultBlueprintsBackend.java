@@ -19,7 +19,7 @@ import fr.inria.atlanmod.neoemf.data.blueprints.internal.graph.ElementVertex;
 import org.atlanmod.commons.collect.MoreIterables;
 import org.atlanmod.commons.collect.MoreStreams;
 
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
@@ -275,8 +275,7 @@ class DefaultBlueprintsBackend extends AbstractBlueprintsBackend {
         checkNotNull(feature, "feature");
 
         return graph.getVertex(feature.owner())
-                .map(v -> MoreIterables.stream(v.getReferenceEdges(feature))
-                        .sorted(Comparator.comparingInt(ElementEdge::getPosition))
+                .map(v -> v.getReferenceEdges(feature).stream()
                         .map(ElementEdge::getReferencedVertex)
                         .map(ElementVertex::getElementId))
                 .orElseGet(Stream::empty);
@@ -310,12 +309,7 @@ class DefaultBlueprintsBackend extends AbstractBlueprintsBackend {
         final int size = vertex.getSize(feature);
         checkPositionIndex(firstPosition, size);
 
-        if (firstPosition < size) {
-            vertex.getReferenceEdges(feature, firstPosition, size + 1)
-                    .forEach(e -> e.updatePosition(p -> p + 1));
-        }
-
-        vertex.setReference(feature, firstPosition, reference);
+        vertex.addReferences(feature, firstPosition, Collections.singletonList(reference));
         vertex.setSize(feature, size + 1);
     }
 
@@ -335,17 +329,8 @@ class DefaultBlueprintsBackend extends AbstractBlueprintsBackend {
         final int size = vertex.getSize(feature);
         checkPositionIndex(firstPosition, size);
 
-        final int additionCount = collection.size();
-
-        if (firstPosition < size) {
-            vertex.getReferenceEdges(feature, firstPosition, size + additionCount)
-                    .forEach(e -> e.updatePosition(p -> p + additionCount));
-        }
-
-        IntStream.range(0, additionCount)
-                .forEachOrdered(i -> vertex.setReference(feature, firstPosition + i, collection.get(i)));
-
-        vertex.setSize(feature, size + additionCount);
+        vertex.addReferences(feature, firstPosition, collection);
+        vertex.setSize(feature, size + collection.size());
     }
 
     @Nonnull
@@ -366,20 +351,12 @@ class DefaultBlueprintsBackend extends AbstractBlueprintsBackend {
             return Optional.empty();
         }
 
-        Optional<Id> previousId = Optional.empty();
-
-        for (ElementEdge edge : vertex.getReferenceEdges(feature, firstPosition, size)) {
-            int position = edge.getPosition();
-            if (position != firstPosition) {
-                edge.updatePosition(p -> p - 1);
-            }
-            else {
-                previousId = Optional.of(edge.getReferencedVertex().getElementId());
-                edge.remove();
-            }
-        }
+        Optional<Id> previousId = vertex.removeReference(feature, firstPosition)
+                .map(ElementVertex::getElementId);
 
-        vertex.setSize(feature, size - 1);
+        if (previousId.isPresent()) {
+            vertex.setSize(feature, size - 1);
+        }
 
         return previousId;
     }
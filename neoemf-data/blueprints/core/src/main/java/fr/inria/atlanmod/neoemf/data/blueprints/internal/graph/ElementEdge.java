@@ -14,14 +14,12 @@ import com.tinkerpop.blueprints.Edge;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.blueprints.internal.graph.wrapper.IdEdge;
 
-import org.atlanmod.commons.LazyInt;
-
-import java.util.function.IntUnaryOperator;
-
-import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static java.util.Objects.isNull;
+
 /**
  * An {@link com.tinkerpop.blueprints.Edge} representing the relation between an element and another.
  */
@@ -29,15 +27,15 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class ElementEdge extends IdEdge<ModelGraph> {
 
     /**
-     * The property key used to define the position of an edge.
+     * The property key used to define the sort key of an edge.
      */
-    protected static final String PROPERTY_POSITION = "_p";
+    protected static final String PROPERTY_KEY = "_p";
 
     /**
-     * The position of this edge.
+     * The sort key of this edge, lazily loaded.
      */
-    @Nonnull
-    private final LazyInt lazyPosition = LazyInt.with(() -> getProperty(PROPERTY_POSITION));
+    @Nullable
+    private Long key;
 
     /**
      * Constructs a new {@code ElementEdge}.
@@ -79,19 +77,19 @@ public class ElementEdge extends IdEdge<ModelGraph> {
     }
 
     /**
-     * Creates a new {@code ElementEdge} between the {@code referencing} vertex and its positionned reference.
+     * Creates a new {@code ElementEdge} between the {@code referencing} vertex and its ordered reference.
      *
      * @param graph       the graph that owns the edge
      * @param referencing the referencing vertex
      * @param referenced  the identifier of the referenced vertex
      * @param label       the label to identify the relation
-     * @param position    the index of the relation for the referencing vertex (for multi-valud references)
+     * @param key         the sort key of the relation for the referencing vertex (for multi-valued references)
      *
      * @return the element edge that has been added in the graph
      */
     @Nonnull
-    protected static ElementEdge create(ModelGraph graph, ElementVertex referencing, Id referenced, String label, @Nonnegative int position) {
-        return create(graph, referencing, referenced, label).setPosition(position);
+    protected static ElementEdge create(ModelGraph graph, ElementVertex referencing, Id referenced, String label, long key) {
+        return create(graph, referencing, referenced, label).setKey(key);
     }
 
     /**
@@ -115,35 +113,32 @@ public class ElementEdge extends IdEdge<ModelGraph> {
     }
 
     /**
-     * Returns the position of this relation for the referencing vertex.
+     * Returns the sort key of this relation for the referencing vertex.
+     * <p>
+     * Sort keys are sparse: they only define the order of the relations with the same label, and the position of a
+     * relation is its index in this order.
      *
-     * @return the position
+     * @return the sort key
      */
-    @Nonnegative
-    public int getPosition() {
-        return lazyPosition.getAsInt();
+    public long getKey() {
+        if (isNull(key)) {
+            // Positions were stored as integers in previous versions
+            key = this.<Number>getProperty(PROPERTY_KEY).longValue();
+        }
+        return key;
     }
 
     /**
-     * Defines the {@code position} of this relation for the referencing vertex.
+     * Defines the sort {@code key} of this relation for the referencing vertex.
      *
-     * @param position the new position
+     * @param key the new sort key
      *
      * @return this edge (for chaining)
      */
-    @Nonnegative
-    private ElementEdge setPosition(@Nonnegative int position) {
-        setProperty(PROPERTY_POSITION, position);
-        lazyPosition.update(position);
+    @Nonnull
+    ElementEdge setKey(long key) {
+        setProperty(PROPERTY_KEY, key);
+        this.key = key;
         return this;
     }
-
-    /**
-     * Updates the position of this relation for the referencing vertex with the specified function.
-     *
-     * @param updateFunc the function to update the current position
-     */
-    public void updatePosition(IntUnaryOperator updateFunc) {
-        setPosition(updateFunc.applyAsInt(getPosition()));
-    }
 }
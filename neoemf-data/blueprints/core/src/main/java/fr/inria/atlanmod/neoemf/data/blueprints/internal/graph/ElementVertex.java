@@ -20,9 +20,15 @@ import fr.inria.atlanmod.neoemf.data.blueprints.internal.graph.wrapper.IdVertex;
 
 import org.atlanmod.commons.Lazy;
 import org.atlanmod.commons.LazyReference;
+import org.atlanmod.commons.collect.MoreIterables;
 import org.atlanmod.commons.collect.SizedIterator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -46,6 +52,13 @@ public class ElementVertex extends IdVertex<ModelGraph> {
      */
     protected static final String PROPERTY_SIZE = "s";
 
+    /**
+     * The gap between the sort keys of two consecutive references, when they are appended or rebalanced.
+     *
+     * @see ElementEdge#getKey()
+     */
+    protected static final long KEY_GAP = 1L << 20;
+
     /**
      * The unique identifier of this vertex.
      */
@@ -410,12 +423,13 @@ public class ElementVertex extends IdVertex<ModelGraph> {
         });
 
         ElementEdge.create(graph, this, reference, label);
+        graph.getOrderedEdges(this).remove(label);
 
         return oldReference;
     }
 
     /**
-     * Removes the current reference of the {@code feature}.
+     * Removes all the references of the {@code feature}.
      *
      * @param feature the feature
      */
@@ -423,6 +437,7 @@ public class ElementVertex extends IdVertex<ModelGraph> {
         final String label = format(feature);
 
         getEdges(Direction.OUT, label).forEach(Edge::remove);
+        graph.getOrderedEdges(this).remove(label);
     }
 
     /**
@@ -435,9 +450,11 @@ public class ElementVertex extends IdVertex<ModelGraph> {
      */
     @Nonnull
     public Optional<ElementVertex> getReference(FeatureBean feature, @Nonnegative int position) {
-        final String label = format(feature);
+        final List<ElementEdge> edges = getOrderedEdges(format(feature));
 
-        return query().labels(label).direction(Direction.OUT).hasPosition(position).vertex(ElementVertex::from);
+        return position < edges.size()
+                ? Optional.of(edges.get(position).getReferencedVertex())
+                : Optional.empty();
     }
 
     /**
@@ -445,44 +462,59 @@ public class ElementVertex extends IdVertex<ModelGraph> {
      *
      * @param feature the feature
      *
-     * @return an ordered iterable of incident edges
+     * @return an ordered and immutable list of incident edges
      */
     @Nonnull
-    public Iterable<ElementEdge> getReferenceEdges(FeatureBean feature) {
-        final String label = format(feature);
-
-        return getEdges(Direction.OUT, toArray(label), ElementEdge::from);
+    public List<ElementEdge> getReferenceEdges(FeatureBean feature) {
+        return Collections.unmodifiableList(getOrderedEdges(format(feature)));
     }
 
     /**
-     * Returns all references of the {@code feature} between the {@code startPosition} and the {@code endPosition}.
-     *
-     * @param feature       the feature
-     * @param startPosition the start position
-     * @param endPosition   the end position
+     * Inserts the {@code references} of the {@code feature} at the defined {@code position}.
+     * <p>
+     * The new references take sort keys between the keys of their neighbours, so the following references are not
+     * updated. If there is no more room between the neighbours, all the references of the {@code feature} are
+     * rebalanced.
      *
-     * @return an ordered iterable of incident edges
-     *
-     * @see ElementVertexQuery#hasPositionBetween(int, int)
+     * @param feature    the feature
+     * @param position   the position of the first reference
+     * @param references the references to insert
      */
-    @Nonnull
-    public Iterable<ElementEdge> getReferenceEdges(FeatureBean feature, int startPosition, int endPosition) {
+    public void addReferences(FeatureBean feature, @Nonnegative int position, List<Id> references) {
         final String label = format(feature);
+        final List<ElementEdge> edges = getOrderedEdges(label);
+        final int count = references.size();
+
+        final long lowerKey;
+        final long upperKey;
+        if (edges.isEmpty()) {
+            lowerKey = 0;
+            upperKey = KEY_GAP * (count + 1);
+        }
+        else if (position == edges.size()) {
+            lowerKey = edges.get(position - 1).getKey();
+            upperKey = lowerKey + KEY_GAP * (count + 1);
+        }
+        else if (position == 0) {
+            upperKey = edges.get(0).getKey();
+            lowerKey = upperKey - KEY_GAP * (count + 1);
+        }
+        else {
+            lowerKey = edges.get(position - 1).getKey();
+            upperKey = edges.get(position).getKey();
+        }
 
-        return query().labels(label).direction(Direction.OUT).hasPositionBetween(startPosition, endPosition).edges(ElementEdge::from);
-    }
+        final long step = (upperKey - lowerKey) / (count + 1);
 
-    /**
-     * Defines the current reference of the {@code feature} at the defined {@code position}.
-     *
-     * @param feature   the feature
-     * @param position  the position of the reference
-     * @param reference the new reference
-     */
-    public void setReference(FeatureBean feature, @Nonnegative int position, Id reference) {
-        final String label = format(feature);
+        List<ElementEdge> newEdges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            newEdges.add(ElementEdge.create(graph, this, references.get(i), label, lowerKey + step * (i + 1)));
+        }
+        edges.addAll(position, newEdges);
 
-        ElementEdge.create(graph, this, reference, label, position);
+        if (step == 0) {
+            rebalance(edges);
+        }
     }
 
     /**
@@ -498,18 +530,77 @@ public class ElementVertex extends IdVertex<ModelGraph> {
     @Nonnull
     public Optional<ElementVertex> replaceReference(FeatureBean feature, @Nonnegative int position, Id reference) {
         final String label = format(feature);
+        final List<ElementEdge> edges = getOrderedEdges(label);
 
-        Optional<ElementVertex> oldReference = query().labels(label).direction(Direction.OUT).hasPosition(position).edge(ElementEdge::from).map(e -> {
-            ElementVertex v = e.getReferencedVertex();
-            e.remove();
-            return v;
-        });
+        if (position >= edges.size()) {
+            return Optional.empty();
+        }
+
+        final ElementEdge oldEdge = edges.get(position);
+        final ElementVertex oldReference = oldEdge.getReferencedVertex();
+
+        edges.set(position, ElementEdge.create(graph, this, reference, label, oldEdge.getKey()));
+        oldEdge.remove();
+
+        return Optional.of(oldReference);
+    }
 
-        if (oldReference.isPresent()) {
-            ElementEdge.create(graph, this, reference, label, position);
+    /**
+     * Removes the current reference of the {@code feature} at the defined {@code position}. The following references
+     * are not updated.
+     *
+     * @param feature  the feature
+     * @param position the position of the reference
+     *
+     * @return an {@link Optional} containing the removed reference
+     */
+    @Nonnull
+    public Optional<ElementVertex> removeReference(FeatureBean feature, @Nonnegative int position) {
+        final List<ElementEdge> edges = getOrderedEdges(format(feature));
+
+        if (position >= edges.size()) {
+            return Optional.empty();
         }
 
-        return oldReference;
+        final ElementEdge oldEdge = edges.remove(position);
+        final ElementVertex oldReference = oldEdge.getReferencedVertex();
+        oldEdge.remove();
+
+        return Optional.of(oldReference);
+    }
+
+    /**
+     * Returns the ordered view of the references with the given {@code label}, and loads it if necessary.
+     * <p>
+     * The position of a reference is its index in the view: it is never stored, so that inserting or removing a
+     * reference doesn't require to update the following ones. Views are cached by the {@link ModelGraph}, and are
+     * shared by all the instances that wrap this vertex.
+     *
+     * @param label the label of the references
+     *
+     * @return a mutable list of edges, sorted by key
+     *
+     * @see ModelGraph#getOrderedEdges(ElementVertex)
+     */
+    @Nonnull
+    private List<ElementEdge> getOrderedEdges(String label) {
+        return graph.getOrderedEdges(this).computeIfAbsent(label, l -> MoreIterables.stream(getEdges(Direction.OUT, toArray(l), ElementEdge::from))
+                .sorted(Comparator.comparingLong(ElementEdge::getKey))
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Spreads the sort keys of the {@code edges} with a regular gap. Only the edges whose key changes are updated.
+     *
+     * @param edges the ordered edges
+     */
+    private void rebalance(List<ElementEdge> edges) {
+        for (int i = 0; i < edges.size(); i++) {
+            final long key = KEY_GAP * (i + 1);
+            if (edges.get(i).getKey() != key) {
+                edges.get(i).setKey(key);
+            }
+        }
     }
 
     // endregion
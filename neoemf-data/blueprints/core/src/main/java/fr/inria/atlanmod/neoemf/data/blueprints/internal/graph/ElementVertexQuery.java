@@ -12,7 +12,6 @@ import com.tinkerpop.blueprints.VertexQuery;
 
 import fr.inria.atlanmod.neoemf.data.blueprints.internal.graph.wrapper.IdVertexQuery;
 
-import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
@@ -32,28 +31,4 @@ public class ElementVertexQuery extends IdVertexQuery<ElementVertexQuery, ModelG
         super(base, graph);
     }
 
-    /**
-     * Filter out elements that have a different position from the provided value.
-     *
-     * @param position the expected position
-     *
-     * @return this query
-     */
-    @Nonnull
-    public ElementVertexQuery hasPosition(int position) {
-        return has(ElementEdge.PROPERTY_POSITION, position).limit(1);
-    }
-
-    /**
-     * Filter out elements that have a position that is not within the provided interval.
-     *
-     * @param start the start position
-     * @param end   the end position
-     *
-     * @return this query
-     */
-    @Nonnull
-    public ElementVertexQuery hasPositionBetween(int start, int end) {
-        return interval(ElementEdge.PROPERTY_POSITION, start, end).limit(end - start);
-    }
 }
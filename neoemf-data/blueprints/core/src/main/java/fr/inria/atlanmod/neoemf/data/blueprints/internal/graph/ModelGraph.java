@@ -33,12 +33,15 @@ import org.atlanmod.commons.function.Converter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -49,6 +52,18 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class ModelGraph extends IdGraph<ModelGraph> implements Copiable<ModelGraph> {
 
+    /**
+     * The maximum number of {@link ElementVertex}s in the cache.
+     */
+    @Nonnegative
+    private static final long CACHE_SIZE = 100_000;
+
+    /**
+     * The maximum number of {@link ElementVertex}s whose ordered references are cached.
+     */
+    @Nonnegative
+    private static final long ORDERED_EDGES_CACHE_SIZE = 10_000;
+
     /**
      * An index that holds all meta-class vertices, identified by their name.
      * <p>
@@ -64,7 +79,19 @@ public class ModelGraph extends IdGraph<ModelGraph> implements Copiable<ModelGra
      */
     @Nonnull
     private final Cache<Object, ElementVertex> elementCache = CacheBuilder.builder()
-            .softValues()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    /**
+     * In-memory cache that holds the ordered views of the multi-valued references of recently used
+     * {@link ElementVertex}s, identified by the identifier of the vertex, then by the label of the references.
+     * <p>
+     * Views are shared by all the instances that wrap a same vertex, and can be loaded by several threads in read-only
+     * mode.
+     */
+    @Nonnull
+    private final Cache<Object, Map<String, List<ElementEdge>>> orderedEdgesCache = CacheBuilder.builder()
+            .maximumSize(ORDERED_EDGES_CACHE_SIZE)
             .build();
 
     /**
@@ -189,10 +216,26 @@ public class ModelGraph extends IdGraph<ModelGraph> implements Copiable<ModelGra
     @Override
     public void removeVertex(Vertex vertex) {
         elementCache.invalidate(vertex.getId());
+        orderedEdgesCache.invalidate(vertex.getId());
+
+        // Removing the vertex also removes the references to it
+        vertex.getEdges(Direction.IN).forEach(e -> orderedEdgesCache.invalidate(e.getVertex(Direction.OUT).getId()));
 
         super.removeVertex(vertex);
     }
 
+    /**
+     * Returns the ordered views of the multi-valued references of the {@code vertex}, identified by their label.
+     *
+     * @param vertex the vertex that owns the references
+     *
+     * @return a mutable map
+     */
+    @Nonnull
+    Map<String, List<ElementEdge>> getOrderedEdges(ElementVertex vertex) {
+        return orderedEdgesCache.get(vertex.getId(), id -> new ConcurrentHashMap<>());
+    }
+
     /**
      * Retrieves the {@code ElementVertex} that wraps the specified {@code vertex}, or creates it.
      *
@@ -9,12 +9,21 @@
 package fr.inria.atlanmod.neoemf.data.blueprints;
 
 import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.blueprints.context.BlueprintsTinkerContext;
 import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * A test-case about {@link DefaultBlueprintsBackend} with a TinkerGraph implementation.
  */
@@ -26,4 +35,31 @@ class DefaultBlueprintsBackendTest extends AbstractDataMapperTest {
     protected Context context() {
         return new BlueprintsTinkerContext();
     }
+
+    /**
+     * Checks the order of references that are repeatedly inserted at the same position, until the sort keys have to
+     * be rebalanced.
+     */
+    @Test
+    void testAddReferencesWithRebalancing() {
+        SingleFeatureBean feature = SingleFeatureBean.of(idBase, 10);
+
+        List<Id> references = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Id reference = Id.getProvider().fromLong(100 + i);
+
+            final int position = Math.min(i, 1);
+            mapper.addReference(feature.withPosition(position), reference);
+            references.add(position, reference);
+        }
+
+        assertThat(mapper.allReferencesOf(feature)).containsExactlyElementsOf(references);
+        assertThat(mapper.referenceOf(feature.withPosition(32))).contains(references.get(32));
+
+        assertThat(mapper.removeReference(feature.withPosition(1))).contains(references.remove(1));
+        assertThat(mapper.referenceFor(feature.withPosition(0), idBase)).contains(references.set(0, idBase));
+
+        assertThat(mapper.allReferencesOf(feature)).containsExactlyElementsOf(references);
+        assertThat(mapper.sizeOfReference(feature)).contains(references.size());
+    }
 }
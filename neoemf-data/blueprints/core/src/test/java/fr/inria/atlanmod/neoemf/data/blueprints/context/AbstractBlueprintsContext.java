@@ -33,4 +33,9 @@ public abstract class AbstractBlueprintsContext extends AbstractLocalContext {
     public BackendFactory factory() {
         return new BlueprintsBackendFactory();
     }
+
+    @Override
+    public boolean isConcurrentReadSafe() {
+        return false;
+    }
 }
@@ -9,17 +9,21 @@
 package fr.inria.atlanmod.neoemf.data.hbase;
 
 import fr.inria.atlanmod.neoemf.core.Id;
-import fr.inria.atlanmod.neoemf.core.IdConverters;
 import fr.inria.atlanmod.neoemf.data.AbstractBackend;
 import fr.inria.atlanmod.neoemf.data.DatabaseException;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.serializer.BeanSerializerFactory;
 
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.atlanmod.commons.function.Converter;
 import org.atlanmod.commons.io.serializer.BinarySerializer;
@@ -28,14 +32,25 @@ import org.atlanmod.commons.primitive.Ints;
 import org.atlanmod.commons.primitive.Strings;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.atlanmod.commons.Preconditions.checkNotNull;
 
 /**
@@ -59,6 +74,11 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
      */
     protected static final byte[] FAMILY_CONTAINMENT = Strings.toBytes("c");
 
+    /**
+     * The column family holding the index of instances.
+     */
+    protected static final byte[] FAMILY_INDEX = Strings.toBytes("i");
+
     /**
      * The column qualifier holding the URI of meta-models.
      */
@@ -79,6 +99,21 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
      */
     private static final byte[] QUALIFIER_CONTAINING_FEATURE = Strings.toBytes("g");
 
+    /**
+     * The column qualifier holding the presence of an instance in the index of instances.
+     */
+    private static final byte[] QUALIFIER_INSTANCE = Strings.toBytes("i");
+
+    /**
+     * The byte used to delimit the parts of the prefixes of the index of instances.
+     */
+    private static final byte INDEX_DELIMITER = 0;
+
+    /**
+     * The number of rows fetched by each call to the server, when scanning the index of instances.
+     */
+    private static final int INDEX_SCAN_CACHING = 1_000;
+
     /**
      * The {@link BeanSerializerFactory} to use for creating the {@link BinarySerializer} instances.
      */
@@ -86,26 +121,76 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
     private static final BeanSerializerFactory SERIALIZER_FACTORY = BeanSerializerFactory.getInstance();
 
     /**
-     * A converter to use {@code byte[]} instead of {@link Id}.
+     * The HBase table used to access the model.
      */
     @Nonnull
-    private static final Converter<Id, byte[]> AS_BYTES = Converter.compose(IdConverters.withHexString(), Converter.from(Strings::toBytes, Bytes::toString));
+    protected final Table table;
 
     /**
-     * The HBase table used to access the model.
+     * The layout of the row keys of the {@link #table}, and of the identifiers stored in its cells.
      */
     @Nonnull
-    protected final Table table;
+    protected final RowKeys rowKeys;
+
+    /**
+     * The rows loaded by the current prefetch of each thread, identified by their element.
+     */
+    @Nonnull
+    private final ThreadLocal<Map<Id, Result>> prefetchedRows = new ThreadLocal<>();
+
+    /**
+     * Whether the index of instances of the {@link #table} is complete.
+     * <p>
+     * It is {@code false} if the table is read-only and has been created without this index, or if the index has not
+     * been fully built: in this case, the lookup of all instances falls back to a full scan of the meta-classes.
+     *
+     * @see #disableInstancesIndex()
+     */
+    private boolean isIndexed = true;
 
     /**
      * Constructs a new {@code AbstractHBaseBackend} on the given {@code table}.
      *
-     * @param table the HBase table
+     * @param table   the HBase table
+     * @param rowKeys the layout of the row keys of the table
      */
-    protected AbstractHBaseBackend(Table table) {
+    protected AbstractHBaseBackend(Table table, RowKeys rowKeys) {
         checkNotNull(table, "table");
+        checkNotNull(rowKeys, "rowKeys");
 
         this.table = table;
+        this.rowKeys = rowKeys;
+    }
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        checkNotNull(prefetch, "prefetch");
+
+        final List<Id> ids = new ArrayList<>(prefetch.ids());
+        final List<Get> gets = ids.stream()
+                .map(i -> new Get(rowKeys.toRow(i)))
+                .collect(Collectors.toList());
+
+        try {
+            final Result[] results = table.get(gets);
+
+            final Map<Id, Result> rows = new HashMap<>(ids.size());
+            for (int i = 0; i < results.length; i++) {
+                rows.put(ids.get(i), results[i]);
+            }
+
+            // All the reads of the prefetch are answered from the loaded rows, without querying the table
+            prefetchedRows.set(rows);
+            try {
+                prefetch.loadFrom(this);
+            }
+            finally {
+                prefetchedRows.remove();
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
     }
 
     @Override
@@ -124,8 +209,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(id, "id");
 
         try {
-            Get get = new Get(AS_BYTES.convert(id));
-            Result result = table.get(get);
+            Result result = rowOf(id);
 
             if (result.isEmpty()) {
                 return Optional.empty();
@@ -138,7 +222,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
                 return Optional.empty();
             }
 
-            return Optional.of(SingleFeatureBean.of(AS_BYTES.revert(byteId), Bytes.toInt(byteName)));
+            return Optional.of(SingleFeatureBean.of(rowKeys.fromValue(byteId), Bytes.toInt(byteName)));
         }
         catch (IOException e) {
             throw new DatabaseException(e);
@@ -151,8 +235,8 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(container, "container");
 
         try {
-            Put put = new Put(AS_BYTES.convert(id))
-                    .addColumn(FAMILY_CONTAINMENT, QUALIFIER_CONTAINER, AS_BYTES.convert(container.owner()))
+            Put put = new Put(rowKeys.toRow(id))
+                    .addColumn(FAMILY_CONTAINMENT, QUALIFIER_CONTAINER, rowKeys.toValue(container.owner()))
                     .addColumn(FAMILY_CONTAINMENT, QUALIFIER_CONTAINING_FEATURE, Ints.toBytes(container.id()));
 
             table.put(put);
@@ -167,7 +251,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(id, "id");
 
         try {
-            Delete delete = new Delete(AS_BYTES.convert(id))
+            Delete delete = new Delete(rowKeys.toRow(id))
                     .addColumns(FAMILY_CONTAINMENT, QUALIFIER_CONTAINER)
                     .addColumns(FAMILY_CONTAINMENT, QUALIFIER_CONTAINING_FEATURE);
 
@@ -184,21 +268,13 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(id, "id");
 
         try {
-            Get get = new Get(AS_BYTES.convert(id));
-            Result result = table.get(get);
+            Result result = rowOf(id);
 
             if (result.isEmpty()) {
                 return Optional.empty();
             }
 
-            byte[] byteName = result.getValue(FAMILY_TYPE, QUALIFIER_CLASS_NAME);
-            byte[] byteUri = result.getValue(FAMILY_TYPE, QUALIFIER_CLASS_URI);
-
-            if (isNull(byteName) || isNull(byteUri)) {
-                return Optional.empty();
-            }
-
-            return Optional.of(ClassBean.of(Bytes.toString(byteName), Bytes.toString(byteUri)));
+            return Optional.ofNullable(classOf(result));
         }
         catch (IOException e) {
             throw new DatabaseException(e);
@@ -211,7 +287,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(metaClass, "metaClass");
 
         try {
-            byte[] row = AS_BYTES.convert(id);
+            byte[] row = rowKeys.toRow(id);
 
             Get get = new Get(row).addColumn(FAMILY_TYPE, QUALIFIER_CLASS_NAME);
             if (table.exists(get)) {
@@ -222,7 +298,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
                     .addColumn(FAMILY_TYPE, QUALIFIER_CLASS_NAME, Strings.toBytes(metaClass.name()))
                     .addColumn(FAMILY_TYPE, QUALIFIER_CLASS_URI, Strings.toBytes(metaClass.uri()));
 
-            table.put(put);
+            table.put(Arrays.asList(put, indexPutOf(metaClass, id)));
             return true;
         }
         catch (IOException e) {
@@ -233,7 +309,206 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
     @Nonnull
     @Override
     public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
-        throw new UnsupportedOperationException();
+        checkNotNull(metaClasses, "metaClasses");
+
+        if (!isIndexed) {
+            try {
+                return scanAllInstancesOf(metaClasses);
+            }
+            catch (IOException e) {
+                throw new DatabaseException(e);
+            }
+        }
+
+        // Open all scanners before consuming them, so that the range scans are processed in parallel by the servers
+        List<Stream<Id>> allInstances = new ArrayList<>(metaClasses.size());
+
+        try {
+            for (ClassBean metaClass : metaClasses) {
+                allInstances.add(scanInstancesOf(metaClass));
+            }
+        }
+        catch (IOException e) {
+            allInstances.forEach(Stream::close);
+            throw new DatabaseException(e);
+        }
+
+        // The scanners that are not fully consumed are only released when the returned stream is closed
+        return allInstances.stream()
+                .flatMap(Function.identity())
+                .onClose(() -> allInstances.forEach(Stream::close));
+    }
+
+    /**
+     * Rebuilds the index of instances from the meta-classes stored in the table.
+     * <p>
+     * This method is used to index the elements of a table created without index of instances.
+     *
+     * @throws IOException if an I/O error occurs when accessing the table
+     */
+    void indexInstances() throws IOException {
+        Scan scan = new Scan()
+                .addFamily(FAMILY_TYPE)
+                .setCaching(INDEX_SCAN_CACHING);
+
+        try (ResultScanner scanner = table.getScanner(scan)) {
+            List<Put> puts = new ArrayList<>(INDEX_SCAN_CACHING);
+
+            for (Result result : scanner) {
+                ClassBean metaClass = classOf(result);
+
+                if (isNull(metaClass)) {
+                    continue;
+                }
+
+                puts.add(indexPutOf(metaClass, rowKeys.fromRow(result.getRow(), 0)));
+
+                if (puts.size() == INDEX_SCAN_CACHING) {
+                    table.put(puts);
+                    puts.clear();
+                }
+            }
+
+            table.put(puts);
+        }
+    }
+
+    /**
+     * Disables the index of instances, because it is missing or incomplete and cannot be built on a read-only table.
+     * The lookup of all instances then falls back to a full scan of the meta-classes.
+     */
+    void disableInstancesIndex() {
+        isIndexed = false;
+    }
+
+    /**
+     * Scans the meta-classes of all the elements of the table to retrieve all the instances of the given {@code
+     * metaClasses}, without using the index of instances.
+     * <p>
+     * The rows are lazily fetched page by page, while the returned stream is consumed.
+     *
+     * @param metaClasses the meta-classes to compute the instances of
+     *
+     * @return a {@link Stream} containing the instances of the {@code metaClasses}
+     *
+     * @throws IOException if an I/O error occurs when opening the scanner
+     */
+    @Nonnull
+    private Stream<Id> scanAllInstancesOf(Set<ClassBean> metaClasses) throws IOException {
+        Scan scan = new Scan()
+                .addFamily(FAMILY_TYPE)
+                .setCaching(INDEX_SCAN_CACHING)
+                .setAsyncPrefetch(true);
+
+        ResultScanner scanner = table.getScanner(scan);
+
+        return StreamSupport.stream(scanner.spliterator(), false)
+                .onClose(scanner::close)
+                .filter(r -> {
+                    ClassBean metaClass = classOf(r);
+                    return nonNull(metaClass) && metaClasses.contains(metaClass);
+                })
+                .map(Result::getRow)
+                .map(r -> rowKeys.fromRow(r, 0));
+    }
+
+    /**
+     * Returns the meta-class stored in the {@code result}.
+     *
+     * @param result the row of an element
+     *
+     * @return the meta-class, or {@code null} if the {@code result} has no meta-class
+     */
+    @Nullable
+    private ClassBean classOf(Result result) {
+        byte[] byteName = result.getValue(FAMILY_TYPE, QUALIFIER_CLASS_NAME);
+        byte[] byteUri = result.getValue(FAMILY_TYPE, QUALIFIER_CLASS_URI);
+
+        if (isNull(byteName) || isNull(byteUri)) {
+            return null;
+        }
+
+        return ClassBean.of(Bytes.toString(byteName), Bytes.toString(byteUri));
+    }
+
+    /**
+     * Scans the index of instances to retrieve all the instances of the given {@code metaClass}.
+     * <p>
+     * The rows are lazily fetched page by page, while the returned stream is consumed. When the rows are salted, a
+     * scanner is opened for each salt bucket.
+     *
+     * @param metaClass the meta-class to compute the instances of
+     *
+     * @return a {@link Stream} containing the instances of the {@code metaClass}
+     *
+     * @throws IOException if an I/O error occurs when opening the scanners
+     */
+    @Nonnull
+    private Stream<Id> scanInstancesOf(ClassBean metaClass) throws IOException {
+        final byte[] prefix = indexPrefixOf(metaClass);
+        final byte[][] scannedPrefixes = rowKeys.indexPrefixes(prefix);
+
+        List<ResultScanner> scanners = new ArrayList<>(scannedPrefixes.length);
+
+        try {
+            for (byte[] scannedPrefix : scannedPrefixes) {
+                Scan scan = new Scan()
+                        .setRowPrefixFilter(scannedPrefix)
+                        .addFamily(FAMILY_INDEX)
+                        .setCaching(INDEX_SCAN_CACHING)
+                        .setAsyncPrefetch(true);
+
+                scanners.add(table.getScanner(scan));
+            }
+        }
+        catch (IOException e) {
+            scanners.forEach(ResultScanner::close);
+            throw e;
+        }
+
+        return scanners.stream()
+                .flatMap(s -> StreamSupport.stream(s.spliterator(), false))
+                .onClose(() -> scanners.forEach(ResultScanner::close))
+                .map(Result::getRow)
+                .map(r -> rowKeys.fromIndexRow(r, prefix));
+    }
+
+    /**
+     * Creates the {@link Put} that registers the element identified by the given {@code id} in the index of
+     * instances.
+     *
+     * @param metaClass the meta-class of the element
+     * @param id        the identifier of the element
+     *
+     * @return a new put
+     */
+    @Nonnull
+    private Put indexPutOf(ClassBean metaClass, Id id) {
+        return new Put(rowKeys.toIndexRow(indexPrefixOf(metaClass), id))
+                .addColumn(FAMILY_INDEX, QUALIFIER_INSTANCE, HConstants.EMPTY_BYTE_ARRAY);
+    }
+
+    /**
+     * Returns the prefix of the rows holding the instances of the {@code metaClass} in the index of instances, as
+     * {@code [0, uri, 0, name, 0]}.
+     *
+     * @param metaClass the meta-class
+     *
+     * @return the prefix
+     */
+    @Nonnull
+    private byte[] indexPrefixOf(ClassBean metaClass) {
+        byte[] uri = Strings.toBytes(metaClass.uri());
+        byte[] name = Strings.toBytes(metaClass.name());
+
+        byte[] prefix = new byte[uri.length + name.length + 3];
+        prefix[0] = INDEX_DELIMITER;
+        System.arraycopy(uri, 0, prefix, 1, uri.length);
+        prefix[uri.length + 1] = INDEX_DELIMITER;
+        System.arraycopy(name, 0, prefix, uri.length + 2, name.length);
+        prefix[prefix.length - 1] = INDEX_DELIMITER;
+
+        return prefix;
     }
 
     @Nonnull
@@ -242,8 +517,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(feature, "feature");
 
         try {
-            Get get = new Get(AS_BYTES.convert(feature.owner()));
-            Result result = table.get(get);
+            Result result = rowOf(feature.owner());
 
             if (result.isEmpty()) {
                 return Optional.empty();
@@ -269,9 +543,17 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(value, "value");
 
         Optional<V> previousValue = valueOf(feature);
+        setValue(feature, value);
+        return previousValue;
+    }
+
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
 
         try {
-            Put put = new Put(AS_BYTES.convert(feature.owner()))
+            Put put = new Put(rowKeys.toRow(feature.owner()))
                     .addColumn(FAMILY_PROPERTY, Ints.toBytes(feature.id()), SERIALIZER_FACTORY.<V>forAny().serialize(value));
 
             table.put(put);
@@ -279,8 +561,6 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         catch (IOException e) {
             throw new DatabaseException(e);
         }
-
-        return previousValue;
     }
 
     @Override
@@ -288,7 +568,7 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
         checkNotNull(feature, "feature");
 
         try {
-            Delete delete = new Delete(AS_BYTES.convert(feature.owner()))
+            Delete delete = new Delete(rowKeys.toRow(feature.owner()))
                     .addColumns(FAMILY_PROPERTY, Ints.toBytes(feature.id()));
 
             table.delete(delete);
@@ -297,4 +577,124 @@ abstract class AbstractHBaseBackend extends AbstractBackend implements HBaseBack
             throw new DatabaseException(e);
         }
     }
+
+    /**
+     * Returns the converter used to store references as values.
+     *
+     * @return the converter
+     */
+    @Nonnull
+    public abstract Converter<Id, ?> referenceConverter();
+
+    @Override
+    public void writeAll(WriteBatch batch) {
+        checkNotNull(batch, "batch");
+
+        // All mutations of an element are grouped in a single Put and a single Delete
+        final Map<Id, Put> puts = new LinkedHashMap<>();
+        final Map<Id, Delete> deletes = new LinkedHashMap<>();
+        final List<Put> indexPuts = new ArrayList<>(batch.metaClasses().size());
+
+        batch.metaClasses().forEach((id, c) -> {
+            Put put = puts.computeIfAbsent(id, i -> new Put(rowKeys.toRow(i)))
+                    .addColumn(FAMILY_TYPE, QUALIFIER_CLASS_NAME, Strings.toBytes(c.name()))
+                    .addColumn(FAMILY_TYPE, QUALIFIER_CLASS_URI, Strings.toBytes(c.uri()));
+
+            indexPuts.add(indexPutOf(c, put.getRow()));
+        });
+
+        batch.containers().forEach((id, c) -> {
+            if (nonNull(c)) {
+                puts.computeIfAbsent(id, i -> new Put(rowKeys.toRow(i)))
+                        .addColumn(FAMILY_CONTAINMENT, QUALIFIER_CONTAINER, rowKeys.toValue(c.owner()))
+                        .addColumn(FAMILY_CONTAINMENT, QUALIFIER_CONTAINING_FEATURE, Ints.toBytes(c.id()));
+            }
+            else {
+                deletes.computeIfAbsent(id, i -> new Delete(rowKeys.toRow(i)))
+                        .addColumns(FAMILY_CONTAINMENT, QUALIFIER_CONTAINER)
+                        .addColumns(FAMILY_CONTAINMENT, QUALIFIER_CONTAINING_FEATURE);
+            }
+        });
+
+        try {
+            final BinarySerializer<Object> serializer = SERIALIZER_FACTORY.forAny();
+
+            for (Map.Entry<SingleFeatureBean, Object> e : batch.values().entrySet()) {
+                writeValue(puts, deletes, e.getKey(), nonNull(e.getValue()) ? serializer.serialize(e.getValue()) : null);
+            }
+
+            for (Map.Entry<SingleFeatureBean, Id> e : batch.references().entrySet()) {
+                writeValue(puts, deletes, e.getKey(), nonNull(e.getValue()) ? serializer.serialize(referenceConverter().convert(e.getValue())) : null);
+            }
+
+            final List<Put> allPuts = new ArrayList<>(puts.values());
+            allPuts.addAll(indexPuts);
+
+            table.put(allPuts);
+            table.delete(new ArrayList<>(deletes.values()));
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Adds the mutation of the {@code feature} to the {@link Put} or to the {@link Delete} of its owner.
+     *
+     * @param puts      the puts, identified by the element they modify
+     * @param deletes   the deletes, identified by the element they modify
+     * @param feature   the bean identifying the feature
+     * @param byteValue the serialized value of the feature, or {@code null} to remove the value
+     */
+    private void writeValue(Map<Id, Put> puts, Map<Id, Delete> deletes, SingleFeatureBean feature, @Nullable byte[] byteValue) {
+        if (nonNull(byteValue)) {
+            puts.computeIfAbsent(feature.owner(), i -> new Put(rowKeys.toRow(i)))
+                    .addColumn(FAMILY_PROPERTY, Ints.toBytes(feature.id()), byteValue);
+        }
+        else {
+            deletes.computeIfAbsent(feature.owner(), i -> new Delete(rowKeys.toRow(i)))
+                    .addColumns(FAMILY_PROPERTY, Ints.toBytes(feature.id()));
+        }
+    }
+
+    /**
+     * Returns the row of the {@code id}, from the rows loaded by the current prefetch if present.
+     *
+     * @param id the identifier of the element
+     *
+     * @return the row
+     *
+     * @throws IOException if an I/O error occurs when reading the table
+     */
+    @Nonnull
+    private Result rowOf(Id id) throws IOException {
+        return rowOf(id, new Get(rowKeys.toRow(id)));
+    }
+
+    /**
+     * Returns the row of the {@code id}, from the rows loaded by the current prefetch if present, or by executing the
+     * {@code get} otherwise.
+     * <p>
+     * A prefetched row contains all the columns of the element: the {@code get} can be restricted to the columns that
+     * are needed by the caller.
+     *
+     * @param id  the identifier of the element
+     * @param get the query to execute if the row has not been prefetched
+     *
+     * @return the row
+     *
+     * @throws IOException if an I/O error occurs when reading the table
+     */
+    @Nonnull
+    protected Result rowOf(Id id, Get get) throws IOException {
+        final Map<Id, Result> rows = prefetchedRows.get();
+        if (nonNull(rows)) {
+            final Result result = rows.get(id);
+            if (nonNull(result)) {
+                return result;
+            }
+        }
+
+        return table.get(get);
+    }
 }
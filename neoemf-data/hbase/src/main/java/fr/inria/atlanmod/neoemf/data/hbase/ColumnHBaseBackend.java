@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.IdConverters;
+import fr.inria.atlanmod.neoemf.data.DatabaseException;
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.ManyReferenceMapper;
+import fr.inria.atlanmod.neoemf.data.mapping.ManyValueWithArrays;
+import fr.inria.atlanmod.neoemf.data.mapping.ReferenceAs;
+
+import org.apache.hadoop.hbase.client.CheckAndMutate;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.RowMutations;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.ColumnRangeFilter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.atlanmod.commons.function.Converter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkNotContainsNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+import static org.atlanmod.commons.Preconditions.checkPositionIndex;
+
+/**
+ * A {@link HBaseBackend} that use a {@link ManyValueWithArrays} mapping for storing attributes and {@link
+ * ReferenceAs} mapping for storing single-valued references, and that stores each element of a multi-valued reference
+ * in its own column.
+ * <p>
+ * In the property family, the size of a multi-valued reference is stored in the column {@code [feature]}, and its
+ * element at {@code position} is stored in the column {@code [feature, position]}. All the columns of a feature are
+ * contiguous, so a range of elements is read with a single {@link ColumnRangeFilter}. Appending elements only reads
+ * the size and puts the new columns: the existing elements are never read nor rewritten.
+ * <p>
+ * Each modification of a multi-valued reference is applied with a single atomic row mutation, on the condition that
+ * its size has not changed since it has been read: the concurrent modifications of a same reference are retried
+ * instead of overwriting each other. However, an element is only compared to its previous value when it is replaced,
+ * so a reference modified by several clients at the same time has no guaranteed order.
+ *
+ * @see HBaseBackendFactory
+ */
+@ParametersAreNonnullByDefault
+class ColumnHBaseBackend extends AbstractHBaseBackend implements ReferenceAs<String>, ManyValueWithArrays, ManyReferenceMapper {
+
+    /**
+     * Constructs a new {@code ColumnHBaseBackend} on the given {@code table}.
+     *
+     * @param table   the HBase table
+     * @param rowKeys the layout of the row keys of the table
+     */
+    protected ColumnHBaseBackend(Table table, RowKeys rowKeys) {
+        super(table, rowKeys);
+    }
+
+    @Nonnull
+    @Override
+    public Converter<Id, String> referenceConverter() {
+        return IdConverters.withHexString();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceOf(ManyFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        final byte[] qualifier = elementQualifierOf(feature.id(), feature.position());
+
+        try {
+            Get get = new Get(rowKeys.toRow(feature.owner()))
+                    .addColumn(FAMILY_PROPERTY, qualifier);
+
+            return Optional.ofNullable(rowOf(feature.owner(), get).getValue(FAMILY_PROPERTY, qualifier))
+                    .map(rowKeys::fromValue);
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Id> allReferencesOf(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        try {
+            Result result = rowOf(feature.owner(), rangeOf(feature.withPosition(0)));
+
+            final int size = sizeOf(result, feature.id());
+
+            List<Id> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                byte[] value = result.getValue(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i));
+
+                // A position without element is skipped, rather than failing the whole reading
+                if (nonNull(value)) {
+                    ids.add(rowKeys.fromValue(value));
+                }
+            }
+            return ids.stream();
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> referenceFor(ManyFeatureBean feature, Id reference) {
+        checkNotNull(feature, "feature");
+        checkNotNull(reference, "reference");
+
+        final byte[] qualifier = elementQualifierOf(feature.id(), feature.position());
+
+        try {
+            byte[] row = rowKeys.toRow(feature.owner());
+
+            while (true) {
+                byte[] previousValue = table.get(new Get(row).addColumn(FAMILY_PROPERTY, qualifier))
+                        .getValue(FAMILY_PROPERTY, qualifier);
+
+                if (isNull(previousValue)) {
+                    throw new IndexOutOfBoundsException();
+                }
+
+                CheckAndMutate mutation = CheckAndMutate.newBuilder(row)
+                        .ifEquals(FAMILY_PROPERTY, qualifier, previousValue)
+                        .build(new Put(row).addColumn(FAMILY_PROPERTY, qualifier, rowKeys.toValue(reference)));
+
+                if (table.checkAndMutate(mutation).isSuccess()) {
+                    return Optional.of(rowKeys.fromValue(previousValue));
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Override
+    public void addReference(ManyFeatureBean feature, Id reference) {
+        checkNotNull(reference, "reference");
+
+        addAllReferences(feature, Collections.singletonList(reference));
+    }
+
+    @Override
+    public void addAllReferences(ManyFeatureBean feature, List<Id> collection) {
+        checkNotNull(feature, "feature");
+        checkNotNull(collection, "collection");
+        checkNotContainsNull(collection, "collection");
+
+        if (collection.isEmpty()) {
+            return;
+        }
+
+        final int firstPosition = feature.position();
+        final int count = collection.size();
+
+        try {
+            byte[] row = rowKeys.toRow(feature.owner());
+
+            while (true) {
+                // Only the elements after the insertion point are read, to be shifted
+                Result result = table.get(rangeOf(feature));
+
+                byte[] sizeValue = result.getValue(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+                final int size = sizeOf(sizeValue);
+                checkPositionIndex(firstPosition, size);
+
+                Put put = new Put(row);
+
+                for (int i = size - 1; i >= firstPosition; i--) {
+                    byte[] value = result.getValue(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i));
+                    if (nonNull(value)) {
+                        put.addColumn(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i + count), value);
+                    }
+                }
+
+                for (int i = 0; i < count; i++) {
+                    put.addColumn(FAMILY_PROPERTY, elementQualifierOf(feature.id(), firstPosition + i), rowKeys.toValue(collection.get(i)));
+                }
+
+                put.addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id()), Bytes.toBytes((long) size + count));
+
+                if (mutateIfSizeIs(row, feature.id(), sizeValue, new RowMutations(row).add(put))) {
+                    return;
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Nonnegative
+    @Override
+    public int appendReference(SingleFeatureBean feature, Id reference) {
+        checkNotNull(reference, "reference");
+
+        return appendAllReferences(feature, Collections.singletonList(reference));
+    }
+
+    @Nonnegative
+    @Override
+    public int appendAllReferences(SingleFeatureBean feature, List<Id> collection) {
+        checkNotNull(feature, "feature");
+        checkNotNull(collection, "collection");
+        checkNotContainsNull(collection, "collection");
+
+        if (collection.isEmpty()) {
+            return sizeOfReference(feature).orElse(0);
+        }
+
+        final int count = collection.size();
+
+        try {
+            byte[] row = rowKeys.toRow(feature.owner());
+
+            while (true) {
+                // Only the size is read: the existing elements are left untouched
+                byte[] sizeValue = table.get(new Get(row).addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id())))
+                        .getValue(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+
+                final int firstPosition = sizeOf(sizeValue);
+
+                Put put = new Put(row);
+                for (int i = 0; i < count; i++) {
+                    put.addColumn(FAMILY_PROPERTY, elementQualifierOf(feature.id(), firstPosition + i), rowKeys.toValue(collection.get(i)));
+                }
+
+                put.addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id()), Bytes.toBytes((long) firstPosition + count));
+
+                if (mutateIfSizeIs(row, feature.id(), sizeValue, new RowMutations(row).add(put))) {
+                    return firstPosition;
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Id> removeReference(ManyFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        final int position = feature.position();
+
+        try {
+            byte[] row = rowKeys.toRow(feature.owner());
+
+            while (true) {
+                // Only the elements after the removed one are read, to be shifted
+                Result result = table.get(rangeOf(feature));
+
+                byte[] sizeValue = result.getValue(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+                final int size = sizeOf(sizeValue);
+                if (position >= size) {
+                    return Optional.empty();
+                }
+
+                byte[] previousValue = result.getValue(FAMILY_PROPERTY, elementQualifierOf(feature.id(), position));
+
+                Delete delete = new Delete(row)
+                        .addColumns(FAMILY_PROPERTY, elementQualifierOf(feature.id(), size - 1));
+
+                RowMutations mutations = new RowMutations(row);
+
+                if (size == 1) {
+                    mutations.add(delete.addColumns(FAMILY_PROPERTY, sizeQualifierOf(feature.id())));
+                }
+                else {
+                    Put put = new Put(row);
+
+                    for (int i = position + 1; i < size; i++) {
+                        byte[] value = result.getValue(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i));
+                        if (nonNull(value)) {
+                            put.addColumn(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i - 1), value);
+                        }
+                    }
+
+                    put.addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id()), Bytes.toBytes((long) size - 1));
+
+                    mutations.add(put);
+                    mutations.add(delete);
+                }
+
+                if (mutateIfSizeIs(row, feature.id(), sizeValue, mutations)) {
+                    return Optional.ofNullable(previousValue).map(rowKeys::fromValue);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Override
+    public void removeAllReferences(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        try {
+            byte[] row = rowKeys.toRow(feature.owner());
+
+            while (true) {
+                byte[] sizeValue = table.get(new Get(row).addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id())))
+                        .getValue(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+
+                if (isNull(sizeValue)) {
+                    return;
+                }
+
+                Delete delete = new Delete(row)
+                        .addColumns(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+
+                final int size = sizeOf(sizeValue);
+                for (int i = 0; i < size; i++) {
+                    delete.addColumns(FAMILY_PROPERTY, elementQualifierOf(feature.id(), i));
+                }
+
+                if (mutateIfSizeIs(row, feature.id(), sizeValue, new RowMutations(row).add(delete))) {
+                    return;
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Nonnull
+    @Nonnegative
+    @Override
+    public Optional<Integer> sizeOfReference(SingleFeatureBean feature) {
+        checkNotNull(feature, "feature");
+
+        try {
+            Get get = new Get(rowKeys.toRow(feature.owner()))
+                    .addColumn(FAMILY_PROPERTY, sizeQualifierOf(feature.id()));
+
+            return Optional.of(sizeOf(rowOf(feature.owner(), get), feature.id()))
+                    .filter(s -> s > 0);
+        }
+        catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Applies the {@code mutations} to the {@code row}, if the size of the multi-valued reference identified by the
+     * {@code featureId} is still the given {@code size}.
+     *
+     * @param row       the row of the owner of the reference
+     * @param featureId the identifier of the feature
+     * @param size      the value of the size, as it has been read, or {@code null} if the reference was not defined
+     * @param mutations the mutations to apply atomically
+     *
+     * @return {@code true} if the mutations have been applied, {@code false} if the reference has been modified since
+     * its size has been read
+     *
+     * @throws IOException if an I/O error occurs when writing the table
+     */
+    private boolean mutateIfSizeIs(byte[] row, int featureId, @Nullable byte[] size, RowMutations mutations) throws IOException {
+        CheckAndMutate.Builder builder = CheckAndMutate.newBuilder(row);
+
+        builder = isNull(size)
+                ? builder.ifNotExists(FAMILY_PROPERTY, sizeQualifierOf(featureId))
+                : builder.ifEquals(FAMILY_PROPERTY, sizeQualifierOf(featureId), size);
+
+        return table.checkAndMutate(builder.build(mutations)).isSuccess();
+    }
+
+    /**
+     * Creates a query of the size of the multi-valued reference identified by the {@code feature}, and of all its
+     * elements from the position of the {@code feature} to the end.
+     *
+     * @param feature the bean identifying the first element to read
+     *
+     * @return the query, restricted to the size and to the elements to read
+     */
+    @Nonnull
+    Get rangeOf(ManyFeatureBean feature) {
+        final byte[] sizeQualifier = sizeQualifierOf(feature.id());
+
+        // The columns of the next feature start right after the last element of this one
+        FilterList filter = new FilterList(FilterList.Operator.MUST_PASS_ONE,
+                new ColumnRangeFilter(sizeQualifier, true, sizeQualifier, true),
+                new ColumnRangeFilter(elementQualifierOf(feature.id(), feature.position()), true, sizeQualifierOf(feature.id() + 1), false));
+
+        return new Get(rowKeys.toRow(feature.owner()))
+                .addFamily(FAMILY_PROPERTY)
+                .setFilter(filter);
+    }
+
+    /**
+     * Returns the size of the multi-valued reference identified by the {@code featureId}, as stored in the
+     * {@code result}.
+     *
+     * @param result    the row of the owner of the reference
+     * @param featureId the identifier of the feature
+     *
+     * @return the size, or {@code 0} if the reference is not defined
+     */
+    @Nonnegative
+    private static int sizeOf(Result result, int featureId) {
+        return sizeOf(result.getValue(FAMILY_PROPERTY, sizeQualifierOf(featureId)));
+    }
+
+    /**
+     * Decodes the size of a multi-valued reference.
+     *
+     * @param value the value of the size column
+     *
+     * @return the size, or {@code 0} if the reference is not defined
+     */
+    @Nonnegative
+    private static int sizeOf(@Nullable byte[] value) {
+        return isNull(value) ? 0 : Math.toIntExact(Bytes.toLong(value));
+    }
+
+    /**
+     * Returns the column holding the size of a multi-valued reference.
+     *
+     * @param featureId the identifier of the feature
+     *
+     * @return the column qualifier
+     */
+    @Nonnull
+    static byte[] sizeQualifierOf(int featureId) {
+        return Bytes.toBytes(featureId);
+    }
+
+    /**
+     * Returns the column holding an element of a multi-valued reference.
+     * <p>
+     * The identifier and the position are stored in big-endian order, so the elements of a feature are sorted by their
+     * position, right after its size.
+     *
+     * @param featureId the identifier of the feature
+     * @param position  the position of the element
+     *
+     * @return the column qualifier
+     */
+    @Nonnull
+    static byte[] elementQualifierOf(int featureId, @Nonnegative int position) {
+        return Bytes.add(Bytes.toBytes(featureId), Bytes.toBytes(position));
+    }
+}
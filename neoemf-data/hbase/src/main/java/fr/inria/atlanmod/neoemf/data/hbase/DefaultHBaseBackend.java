@@ -70,10 +70,11 @@ class DefaultHBaseBackend extends AbstractHBaseBackend implements ReferenceAs<St
     /**
      * Constructs a new {@code HBaseBackendArrays} on the given {@code table}.
      *
-     * @param table the HBase table
+     * @param table   the HBase table
+     * @param rowKeys the layout of the row keys of the table
      */
-    protected DefaultHBaseBackend(Table table) {
-        super(table);
+    protected DefaultHBaseBackend(Table table, RowKeys rowKeys) {
+        super(table, rowKeys);
     }
 
     @Nonnull
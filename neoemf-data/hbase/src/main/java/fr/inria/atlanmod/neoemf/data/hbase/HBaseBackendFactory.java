@@ -19,6 +19,7 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.*;
+import org.atlanmod.commons.log.Log;
 import org.osgi.service.component.annotations.Component;
 
 import java.io.IOException;
@@ -38,6 +39,13 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class HBaseBackendFactory extends AbstractBackendFactory<HBaseConfig> {
 
+    /**
+     * The key, in the descriptor of a table, that records that its index of instances is complete. A table created by
+     * a previous version, or whose index has not been fully built, does not define it.
+     */
+    @Nonnull
+    private static final String INDEXED_KEY = "neoemf.instances-index";
+
     /**
      * Constructs a new {@code HBaseBackendFactory}.
      */
@@ -55,32 +63,118 @@ public class HBaseBackendFactory extends AbstractBackendFactory<HBaseConfig> {
         final Connection connection = ConnectionFactory.createConnection(configuration);
         final TableName tableName = TableName.valueOf(url.getPath().substring(1));
 
-        if (!config.isReadOnly()) {
-            createTables(tableName, connection.getAdmin());
+        final RowKeys configuredRowKeys = rowKeysOf(config);
+
+        try (Admin admin = connection.getAdmin()) {
+            if (!config.isReadOnly()) {
+                createTables(tableName, admin, configuredRowKeys);
+            }
+
+            RowKeys rowKeys = configuredRowKeys;
+            boolean isIndexed = true;
+
+            // An existing table keeps the layout it has been created with
+            if (admin.tableExists(tableName)) {
+                TableDescriptor tableDescriptor = admin.getDescriptor(tableName);
+                rowKeys = RowKeys.parse(tableDescriptor.getValue(RowKeys.DESCRIPTOR_KEY));
+                isIndexed = Boolean.parseBoolean(tableDescriptor.getValue(INDEXED_KEY));
+
+                if (!rowKeys.equals(configuredRowKeys)) {
+                    Log.warn("The table {0} uses the row keys \"{1}\" instead of the configured ones \"{2}\"", tableName, rowKeys, configuredRowKeys);
+                }
+            }
+
+            Table table = connection.getTable(tableName);
+
+            AbstractHBaseBackend backend = createMapper(config.getMapping(), table, rowKeys);
+            // The index of a table created by a previous version, or whose indexing has been interrupted, is incomplete
+            if (!isIndexed) {
+                if (config.isReadOnly()) {
+                    backend.disableInstancesIndex();
+                }
+                else {
+                    backend.indexInstances();
+                    markIndexed(tableName, admin);
+                }
+            }
+
+            return backend;
+        }
+    }
+
+    /**
+     * Returns the layout of the row keys defined in the {@code config}.
+     *
+     * @param config the configuration of the backend
+     *
+     * @return the layout of the row keys
+     */
+    @Nonnull
+    private RowKeys rowKeysOf(HBaseConfig config) {
+        if (!config.getOption(HBaseConfig.ROW_KEYS).map(RowKeys.BINARY::equals).orElse(false)) {
+            return RowKeys.hex();
         }
 
-        Table table = connection.getTable(tableName);
+        // The options read from a file are strings
+        final int saltBuckets = config.getOption(HBaseConfig.SALT_BUCKETS)
+                .map(String::valueOf)
+                .map(Integer::parseInt)
+                .orElse(0);
 
-        return createMapper(config.getMapping(), table);
+        return RowKeys.binary(saltBuckets);
     }
 
     /**
      * Creates all required tables.
+     * <p>
+     * A new table records the layout of its row keys in its descriptor, and is pre-split in one region per salt
+     * bucket, that holds both the elements and the index of instances of the bucket. An existing table created without
+     * index of instances gets the index family.
      *
      * @param tableName the name of the table
      * @param admin     the administrator of the tables
+     * @param rowKeys   the layout of the row keys of a new table
+     *
      * @throws IOException if an I/O occurs when creating tables
      */
-    private void createTables(TableName tableName, Admin admin) throws IOException {
+    private void createTables(TableName tableName, Admin admin, RowKeys rowKeys) throws IOException {
         if (!admin.tableExists(tableName)) {
 
             TableDescriptor tableDescriptor = TableDescriptorBuilder.newBuilder(tableName)
                     .setColumnFamily(ColumnFamilyDescriptorBuilder.of(AbstractHBaseBackend.FAMILY_PROPERTY))
                     .setColumnFamily(ColumnFamilyDescriptorBuilder.of(AbstractHBaseBackend.FAMILY_TYPE))
                     .setColumnFamily(ColumnFamilyDescriptorBuilder.of(AbstractHBaseBackend.FAMILY_CONTAINMENT))
+                    .setColumnFamily(ColumnFamilyDescriptorBuilder.of(AbstractHBaseBackend.FAMILY_INDEX))
+                    .setValue(RowKeys.DESCRIPTOR_KEY, rowKeys.toString())
+                    .setValue(INDEXED_KEY, Boolean.toString(true))
                     .build();
 
-            admin.createTable(tableDescriptor);
+            final byte[][] splitKeys = rowKeys.splitKeys();
+            if (splitKeys.length > 0) {
+                admin.createTable(tableDescriptor, splitKeys);
+            }
+            else {
+                admin.createTable(tableDescriptor);
+            }
+        }
+        else if (!admin.getDescriptor(tableName).hasColumnFamily(AbstractHBaseBackend.FAMILY_INDEX)) {
+            admin.addColumnFamily(tableName, ColumnFamilyDescriptorBuilder.of(AbstractHBaseBackend.FAMILY_INDEX));
         }
     }
+
+    /**
+     * Records in the descriptor of the table that its index of instances is complete.
+     *
+     * @param tableName the name of the table
+     * @param admin     the administrator of the tables
+     *
+     * @throws IOException if an I/O occurs when modifying the table
+     */
+    private void markIndexed(TableName tableName, Admin admin) throws IOException {
+        TableDescriptor tableDescriptor = TableDescriptorBuilder.newBuilder(admin.getDescriptor(tableName))
+                .setValue(INDEXED_KEY, Boolean.toString(true))
+                .build();
+
+        admin.modifyTable(tableDescriptor);
+    }
 }
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.IdConverters;
+import fr.inria.atlanmod.neoemf.data.hbase.config.HBaseConfig;
+
+import org.atlanmod.commons.function.Converter;
+import org.atlanmod.commons.primitive.Bytes;
+import org.atlanmod.commons.primitive.Strings;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.isNull;
+import static org.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * The layout of the row keys of a HBase table, and of the identifiers stored in its cells.
+ * <p>
+ * The {@code hex} layout stores each {@link Id} as its 16-character hexadecimal representation. It is the layout of the
+ * tables created by previous versions.
+ * <p>
+ * The {@code binary} layout stores each {@link Id} as its 8-byte value. The rows can be prefixed by a salt byte,
+ * computed from a hash of the identifier, to spread sequential identifiers over several pre-split regions instead of
+ * writing them all in the last one. The salt bytes are in {@code [1, buckets]}.
+ * <p>
+ * The rows of the index of instances are the prefix of a meta-class followed by the identifier of an instance, as
+ * stored in a row. When the rows are salted, the salt of the instance is moved before the prefix, so that the index is
+ * spread over the same regions as the elements. The first byte of a row does not tell whether it belongs to the index
+ * or to an element, because an unsalted binary identifier can start with any byte: the rows of the index are longer
+ * than the rows of elements, and only hold the index family, that the rows of elements never hold.
+ * <p>
+ * The layout of a table is recorded in its descriptor when the table is created.
+ */
+@ParametersAreNonnullByDefault
+final class RowKeys {
+
+    /**
+     * The key of the layout in the descriptor of a table.
+     */
+    @Nonnull
+    static final String DESCRIPTOR_KEY = "neoemf.row-keys";
+
+    /**
+     * The name of the hexadecimal layout.
+     */
+    @Nonnull
+    static final String HEX = "hex";
+
+    /**
+     * The name of the binary layout.
+     */
+    @Nonnull
+    static final String BINARY = "binary";
+
+    /**
+     * The converter of the hexadecimal layout.
+     */
+    @Nonnull
+    private static final Converter<Id, byte[]> AS_HEX_BYTES = Converter.compose(IdConverters.withHexString(), Converter.from(Strings::toBytes, Bytes::toString));
+
+    /**
+     * The golden ratio, used to mix the bits of the identifiers before computing their salt.
+     */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Whether the identifiers are stored in binary.
+     */
+    private final boolean binary;
+
+    /**
+     * The number of salt buckets, or {@code 0} if the rows are not salted.
+     */
+    @Nonnegative
+    private final int buckets;
+
+    /**
+     * Constructs a new {@code RowKeys}.
+     *
+     * @param binary  whether the identifiers are stored in binary
+     * @param buckets the number of salt buckets, or {@code 0} if the rows are not salted
+     */
+    private RowKeys(boolean binary, @Nonnegative int buckets) {
+        this.binary = binary;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Returns the hexadecimal layout.
+     *
+     * @return the layout
+     */
+    @Nonnull
+    static RowKeys hex() {
+        return new RowKeys(false, 0);
+    }
+
+    /**
+     * Returns the binary layout.
+     *
+     * @param buckets the number of salt buckets, or {@code 0} to disable salting
+     *
+     * @return the layout
+     */
+    @Nonnull
+    static RowKeys binary(@Nonnegative int buckets) {
+        checkArgument(buckets >= 0 && buckets <= HBaseConfig.MAX_SALT_BUCKETS, "buckets (%d) must be in [0, %d]", buckets, HBaseConfig.MAX_SALT_BUCKETS);
+
+        return new RowKeys(true, buckets);
+    }
+
+    /**
+     * Parses the representation of a layout, as returned by {@link #toString()}.
+     *
+     * @param value the representation of the layout, or {@code null} for a table created by a previous version
+     *
+     * @return the layout
+     *
+     * @throws IllegalArgumentException if the {@code value} is not a valid layout
+     */
+    @Nonnull
+    static RowKeys parse(@Nullable String value) {
+        if (isNull(value) || HEX.equals(value)) {
+            return hex();
+        }
+
+        final String[] parts = value.split(":");
+        checkArgument(parts.length == 2 && BINARY.equals(parts[0]), "Unknown row key layout: %s", value);
+
+        return binary(Integer.parseInt(parts[1]));
+    }
+
+    /**
+     * Returns the row key of the {@code id}.
+     *
+     * @param id the identifier of the element
+     *
+     * @return the row key
+     */
+    @Nonnull
+    byte[] toRow(Id id) {
+        if (!binary) {
+            return AS_HEX_BYTES.convert(id);
+        }
+
+        final long value = id.toLong();
+
+        if (buckets == 0) {
+            return toBytes(value, new byte[Long.BYTES], 0);
+        }
+
+        final byte[] row = toBytes(value, new byte[Long.BYTES + 1], 1);
+        row[0] = (byte) (1 + Math.floorMod(Long.hashCode(value * MIX), buckets));
+        return row;
+    }
+
+    /**
+     * Returns the identifier of the row key stored in {@code bytes}, starting at {@code offset}.
+     *
+     * @param bytes  the bytes containing the row key
+     * @param offset the position of the row key in {@code bytes}
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    Id fromRow(byte[] bytes, @Nonnegative int offset) {
+        if (!binary) {
+            return AS_HEX_BYTES.revert(offset == 0 ? bytes : Arrays.copyOfRange(bytes, offset, bytes.length));
+        }
+
+        return Id.getProvider().fromLong(toLong(bytes, buckets == 0 ? offset : offset + 1));
+    }
+
+    /**
+     * Returns the row of the {@code id} in the index of instances, under the {@code prefix} of its meta-class.
+     * <p>
+     * When the rows are salted, the index row starts with the salt of the element, followed by the {@code prefix} and
+     * the unsalted identifier.
+     *
+     * @param prefix the prefix of the meta-class of the element
+     * @param id     the identifier of the element
+     *
+     * @return the row key
+     *
+     * @see #indexPrefixes(byte[])
+     */
+    @Nonnull
+    byte[] toIndexRow(byte[] prefix, Id id) {
+        final byte[] row = toRow(id);
+        final int salt = buckets == 0 ? 0 : 1;
+
+        final byte[] indexRow = new byte[prefix.length + row.length];
+        System.arraycopy(row, 0, indexRow, 0, salt);
+        System.arraycopy(prefix, 0, indexRow, salt, prefix.length);
+        System.arraycopy(row, salt, indexRow, prefix.length + salt, row.length - salt);
+        return indexRow;
+    }
+
+    /**
+     * Returns the identifier stored in a row of the index of instances by {@link #toIndexRow(byte[], Id)}.
+     *
+     * @param indexRow the row of the index
+     * @param prefix   the prefix of the meta-class of the element
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    Id fromIndexRow(byte[] indexRow, byte[] prefix) {
+        // The salt is before the prefix, and is skipped with it
+        return fromRow(indexRow, prefix.length);
+    }
+
+    /**
+     * Returns the prefixes of the rows of the index of instances under the {@code prefix} of a meta-class: one per
+     * salt bucket, or only the {@code prefix} if the rows are not salted.
+     *
+     * @param prefix the prefix of the meta-class
+     *
+     * @return the prefixes to scan
+     *
+     * @see #toIndexRow(byte[], Id)
+     */
+    @Nonnull
+    byte[][] indexPrefixes(byte[] prefix) {
+        if (buckets == 0) {
+            return new byte[][]{prefix};
+        }
+
+        final byte[][] prefixes = new byte[buckets][];
+        for (int i = 0; i < buckets; i++) {
+            prefixes[i] = new byte[prefix.length + 1];
+            prefixes[i][0] = (byte) (i + 1);
+            System.arraycopy(prefix, 0, prefixes[i], 1, prefix.length);
+        }
+        return prefixes;
+    }
+
+    /**
+     * Returns the representation of the {@code id} when stored in a cell.
+     * <p>
+     * Cells are never salted: only the rows have to be spread over the regions.
+     *
+     * @param id the identifier
+     *
+     * @return the value of the cell
+     */
+    @Nonnull
+    byte[] toValue(Id id) {
+        return binary
+                ? toBytes(id.toLong(), new byte[Long.BYTES], 0)
+                : AS_HEX_BYTES.convert(id);
+    }
+
+    /**
+     * Returns the identifier stored in a cell by {@link #toValue(Id)}.
+     *
+     * @param value the value of the cell
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    Id fromValue(byte[] value) {
+        return binary
+                ? Id.getProvider().fromLong(toLong(value, 0))
+                : AS_HEX_BYTES.revert(value);
+    }
+
+    /**
+     * Returns the keys where to split a new table, so that each salt bucket starts in its own region.
+     *
+     * @return the split keys, or an empty array if the rows are not salted
+     */
+    @Nonnull
+    byte[][] splitKeys() {
+        if (buckets < 2) {
+            return new byte[0][];
+        }
+
+        final byte[][] keys = new byte[buckets - 1][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new byte[]{(byte) (i + 2)};
+        }
+        return keys;
+    }
+
+    /**
+     * Writes the {@code value} in big-endian order in {@code bytes}, starting at {@code offset}.
+     *
+     * @param value  the value to write
+     * @param bytes  the destination
+     * @param offset the position of the first byte
+     *
+     * @return the {@code bytes}
+     */
+    @Nonnull
+    private static byte[] toBytes(long value, byte[] bytes, @Nonnegative int offset) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a big-endian {@code long} from {@code bytes}, starting at {@code offset}.
+     *
+     * @param bytes  the source
+     * @param offset the position of the first byte
+     *
+     * @return the value
+     */
+    private static long toLong(byte[] bytes, @Nonnegative int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << Byte.SIZE) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        RowKeys that = (RowKeys) o;
+        return binary == that.binary && buckets == that.buckets;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(binary, buckets);
+    }
+
+    @Override
+    public String toString() {
+        return binary ? BINARY + ':' + buckets : HEX;
+    }
+}
@@ -11,11 +11,15 @@ package fr.inria.atlanmod.neoemf.data.hbase.config;
 import fr.inria.atlanmod.neoemf.bind.FactoryBinding;
 import fr.inria.atlanmod.neoemf.config.BaseConfig;
 import fr.inria.atlanmod.neoemf.config.Config;
+import fr.inria.atlanmod.neoemf.config.InvalidConfigException;
 import fr.inria.atlanmod.neoemf.data.hbase.HBaseBackendFactory;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ServiceScope;
 
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -29,6 +33,26 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 public class HBaseConfig extends BaseConfig<HBaseConfig> {
 
+    /**
+     * The base prefix for all options related to HBase.
+     */
+    public static final String HBASE_PREFIX = "hbase";
+
+    /**
+     * The key identifying the layout of the row keys.
+     */
+    public static final String ROW_KEYS = createKey(HBASE_PREFIX, "row-keys");
+
+    /**
+     * The key identifying the number of salt buckets of binary row keys.
+     */
+    public static final String SALT_BUCKETS = createKey(HBASE_PREFIX, "salt-buckets");
+
+    /**
+     * The maximum number of salt buckets.
+     */
+    public static final int MAX_SALT_BUCKETS = 255;
+
     /**
      * Constructs a new {@code HBaseConfig} with default settings.
      */
@@ -55,4 +79,79 @@ public class HBaseConfig extends BaseConfig<HBaseConfig> {
     protected HBaseConfig withDefault() {
         return setMappingWithCheck("fr.inria.atlanmod.neoemf.data.hbase.DefaultHBaseBackend", false);
     }
+
+    /**
+     * Defines the mapping to use for the created {@link fr.inria.atlanmod.neoemf.data.hbase.HBaseBackend}.
+     * <p>
+     * This mapping corresponds to: <ul> <li>an {@link Object}[] representation of multi-valued attributes</li> <li>a
+     * {@link String} representation for single-valued references</li> <li>a column per element for multi-valued
+     * references, with their size in a separate counter</li> </ul>
+     * <p>
+     * Appending to a multi-valued reference does not read nor rewrite its existing elements: this mapping is preferable
+     * for models with large multi-valued references.
+     *
+     * @return this configuration (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.mapping.ReferenceAs
+     * @see fr.inria.atlanmod.neoemf.data.mapping.ManyValueWithArrays
+     */
+    @Nonnull
+    public HBaseConfig withColumns() {
+        return setMappingWithCheck("fr.inria.atlanmod.neoemf.data.hbase.ColumnHBaseBackend", false);
+    }
+
+    /**
+     * Stores the identifiers as 8-byte binary values, in the row keys and in the cells, instead of their 16-character
+     * hexadecimal representation.
+     * <p>
+     * This option only applies to the tables created with this configuration: an existing table keeps the layout it
+     * has been created with.
+     *
+     * @return this configuration (for chaining)
+     *
+     * @see #withBinaryRowKeys(int)
+     */
+    @Nonnull
+    public HBaseConfig withBinaryRowKeys() {
+        return withBinaryRowKeys(0);
+    }
+
+    /**
+     * Stores the identifiers as 8-byte binary values, and prefixes each row key by a salt byte computed from a hash of
+     * the identifier. The created table is pre-split in one region per salt bucket, so that sequential identifiers are
+     * written in all regions instead of the last one.
+     * <p>
+     * This option only applies to the tables created with this configuration: an existing table keeps the layout it
+     * has been created with.
+     *
+     * @param saltBuckets the number of salt buckets, between {@code 2} and {@code 255}, or {@code 0} to disable salting
+     *
+     * @return this configuration (for chaining)
+     *
+     * @throws InvalidConfigException if the number of salt buckets is not valid
+     */
+    @Nonnull
+    public HBaseConfig withBinaryRowKeys(@Nonnegative int saltBuckets) {
+        if (saltBuckets == 1 || saltBuckets < 0 || saltBuckets > MAX_SALT_BUCKETS) {
+            throw new InvalidConfigException(String.format("The number of salt buckets must be 0 or in [2, %d] (but it was %d)", MAX_SALT_BUCKETS, saltBuckets));
+        }
+
+        addOption(ROW_KEYS, "binary");
+        return addOption(SALT_BUCKETS, saltBuckets);
+    }
+
+    @Nonnull
+    @Override
+    protected Predicate<String> isPersistentKey() {
+        return super.isPersistentKey()
+                .or(s -> s.startsWith(HBASE_PREFIX));
+    }
+
+    @Nonnull
+    @Override
+    protected Predicate<String> isReadOnlyKey() {
+        return super.isReadOnlyKey()
+                .or(ROW_KEYS::equals)
+                .or(SALT_BUCKETS::equals);
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase;
+
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.hbase.context.HBaseColumnsContext;
+import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
+
+import org.apache.hadoop.hbase.client.CheckAndMutate;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static fr.inria.atlanmod.neoemf.data.hbase.AbstractHBaseBackend.FAMILY_PROPERTY;
+import static fr.inria.atlanmod.neoemf.data.hbase.ColumnHBaseBackend.elementQualifierOf;
+import static fr.inria.atlanmod.neoemf.data.hbase.ColumnHBaseBackend.sizeQualifierOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link ColumnHBaseBackend}.
+ */
+@ParametersAreNonnullByDefault
+class ColumnHBaseBackendTest extends AbstractDataMapperTest {
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new HBaseColumnsContext();
+    }
+
+    /**
+     * Creates a new {@link ColumnHBaseBackend} on the table of the current test.
+     *
+     * @return a new back-end
+     */
+    @Nonnull
+    private ColumnHBaseBackend createBackend() throws IOException {
+        return (ColumnHBaseBackend) context().factory().createBackend(context().createUri(currentTempFile()), context().config());
+    }
+
+    /**
+     * Checks that the elements of several multi-valued references of a same element, stored in the same row, are
+     * read and modified independently.
+     */
+    @Test
+    public void testManyReferencesInSameRow() throws IOException {
+        Id owner = Id.getProvider().fromLong(40);
+        Id id0 = Id.getProvider().fromLong(10);
+        Id id1 = Id.getProvider().fromLong(11);
+        Id id2 = Id.getProvider().fromLong(12);
+
+        SingleFeatureBean feature0 = SingleFeatureBean.of(owner, 5);
+        SingleFeatureBean feature1 = SingleFeatureBean.of(owner, 6);
+
+        try (ColumnHBaseBackend backend = createBackend()) {
+            assertThat(backend.appendAllReferences(feature0, Arrays.asList(id0, id1))).isEqualTo(0);
+            assertThat(backend.appendAllReferences(feature1, Arrays.asList(id2, id1, id0))).isEqualTo(0);
+            assertThat(backend.appendReference(feature0, id2)).isEqualTo(2);
+
+            backend.addReference(feature1.withPosition(0), id0);
+            assertThat(backend.removeReference(feature0.withPosition(0))).contains(id0);
+
+            assertThat(backend.allReferencesOf(feature0)).containsExactly(id1, id2);
+            assertThat(backend.sizeOfReference(feature0)).contains(2);
+            assertThat(backend.referenceOf(feature0.withPosition(1))).contains(id2);
+
+            assertThat(backend.allReferencesOf(feature1)).containsExactly(id0, id2, id1, id0);
+            assertThat(backend.sizeOfReference(feature1)).contains(4);
+            assertThat(backend.referenceOf(feature1.withPosition(3))).contains(id0);
+
+            backend.removeAllReferences(feature0);
+            assertThat(backend.sizeOfReference(feature0)).isNotPresent();
+            assertThat(backend.allReferencesOf(feature1)).containsExactly(id0, id2, id1, id0);
+        }
+    }
+
+    /**
+     * Checks that reading a range of elements only returns the size and the elements of the feature, and stops before
+     * the columns of the next feature.
+     */
+    @Test
+    public void testRangeStopsAtNextFeature() throws IOException {
+        Id owner = Id.getProvider().fromLong(40);
+        Id id0 = Id.getProvider().fromLong(10);
+        Id id1 = Id.getProvider().fromLong(11);
+        Id id2 = Id.getProvider().fromLong(12);
+
+        SingleFeatureBean previousFeature = SingleFeatureBean.of(owner, 4);
+        SingleFeatureBean feature = SingleFeatureBean.of(owner, 5);
+        SingleFeatureBean nextFeature = SingleFeatureBean.of(owner, 6);
+
+        try (ColumnHBaseBackend backend = createBackend()) {
+            backend.appendAllReferences(previousFeature, Arrays.asList(id0, id1, id2, id0));
+            backend.appendAllReferences(feature, Arrays.asList(id0, id1, id2));
+            backend.appendAllReferences(nextFeature, Arrays.asList(id2, id1, id0, id2));
+
+            Result result = backend.table.get(backend.rangeOf(feature.withPosition(1)));
+
+            assertThat(result.size()).isEqualTo(3);
+            assertThat(result.containsColumn(FAMILY_PROPERTY, sizeQualifierOf(5))).isTrue();
+            assertThat(result.containsColumn(FAMILY_PROPERTY, elementQualifierOf(5, 1))).isTrue();
+            assertThat(result.containsColumn(FAMILY_PROPERTY, elementQualifierOf(5, 2))).isTrue();
+        }
+    }
+
+    /**
+     * Checks that a modification whose {@code checkAndMutate} conflicts with a concurrent modification of the same
+     * reference is retried, without losing any of the two.
+     */
+    @Test
+    public void testConflictingAppend() throws IOException {
+        Id owner = Id.getProvider().fromLong(40);
+        Id id0 = Id.getProvider().fromLong(10);
+        Id id1 = Id.getProvider().fromLong(11);
+        Id id2 = Id.getProvider().fromLong(12);
+
+        SingleFeatureBean feature = SingleFeatureBean.of(owner, 5);
+
+        try (ColumnHBaseBackend backend = createBackend()) {
+            backend.appendReference(feature, id0);
+
+            // Appends another element just before the first `checkAndMutate`, as another client would do
+            AtomicInteger attempts = new AtomicInteger();
+            Table conflictingTable = (Table) Proxy.newProxyInstance(Table.class.getClassLoader(), new Class<?>[]{Table.class}, (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    return null;
+                }
+                if (method.getName().equals("checkAndMutate") && args.length == 1 && args[0] instanceof CheckAndMutate && attempts.getAndIncrement() == 0) {
+                    backend.appendReference(feature, id1);
+                }
+                try {
+                    return method.invoke(backend.table, args);
+                }
+                catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+
+            try (ColumnHBaseBackend conflictingBackend = new ColumnHBaseBackend(conflictingTable, backend.rowKeys)) {
+                assertThat(conflictingBackend.appendReference(feature, id2)).isEqualTo(2);
+                assertThat(attempts).hasValue(2);
+            }
+
+            assertThat(backend.allReferencesOf(feature)).containsExactly(id0, id1, id2);
+            assertThat(backend.sizeOfReference(feature)).contains(3);
+        }
+    }
+}
@@ -9,18 +9,29 @@
 package fr.inria.atlanmod.neoemf.data.hbase;
 
 import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.AbstractBackendFactoryTest;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
 import fr.inria.atlanmod.neoemf.data.hbase.config.HBaseConfig;
 import fr.inria.atlanmod.neoemf.data.hbase.context.HBaseDefaultContext;
 
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * A test-case about {@link HBaseBackendFactory}.
  */
@@ -38,11 +49,64 @@ class HBaseBackendFactoryTest extends AbstractBackendFactoryTest {
     public void testCopyBackend() {
     }
 
+    /**
+     * Checks the rebuilding of the index of instances, as done when opening a table created without index.
+     */
+    @Test
+    public void testIndexInstances() throws IOException {
+        Id id0 = Id.getProvider().fromLong(40);
+        ClassBean metaClass0 = ClassBean.of("Metaclass0", "Uri0");
+
+        try (AbstractHBaseBackend backend = (AbstractHBaseBackend) context().factory().createBackend(context().createUri(currentTempFile()), context().config())) {
+            backend.metaClassFor(id0, metaClass0);
+
+            // Drop the index of instances
+            try (ResultScanner scanner = backend.table.getScanner(new Scan().addFamily(AbstractHBaseBackend.FAMILY_INDEX))) {
+                for (Result result : scanner) {
+                    backend.table.delete(new Delete(result.getRow()));
+                }
+            }
+            assertThat(backend.allInstancesOf(Collections.singleton(metaClass0))).isEmpty();
+
+            backend.indexInstances();
+            assertThat(backend.allInstancesOf(Collections.singleton(metaClass0))).containsExactly(id0);
+            assertThat(backend.metaClassOf(id0)).contains(metaClass0);
+        }
+    }
+
+    /**
+     * Checks the lookup of all instances without index, as done when opening a read-only table created without index.
+     */
+    @Test
+    public void testAllInstancesWithoutIndex() throws IOException {
+        Id id0 = Id.getProvider().fromLong(40);
+        Id id1 = Id.getProvider().fromLong(41);
+        ClassBean metaClass0 = ClassBean.of("Metaclass0", "Uri0");
+        ClassBean metaClass1 = ClassBean.of("Metaclass1", "Uri1");
+
+        try (AbstractHBaseBackend backend = (AbstractHBaseBackend) context().factory().createBackend(context().createUri(currentTempFile()), context().config())) {
+            backend.metaClassFor(id0, metaClass0);
+            backend.metaClassFor(id1, metaClass1);
+
+            // Drop the index of instances
+            try (ResultScanner scanner = backend.table.getScanner(new Scan().addFamily(AbstractHBaseBackend.FAMILY_INDEX))) {
+                for (Result result : scanner) {
+                    backend.table.delete(new Delete(result.getRow()));
+                }
+            }
+
+            backend.disableInstancesIndex();
+            assertThat(backend.allInstancesOf(Collections.singleton(metaClass0))).containsExactly(id0);
+            assertThat(backend.allInstancesOf(Collections.singleton(metaClass1))).containsExactly(id1);
+        }
+    }
+
     @Nonnull
     @Override
     protected Stream<Arguments> allMappings() {
         return Stream.of(
-                Arguments.of(new HBaseConfig(), DefaultHBaseBackend.class)
+                Arguments.of(new HBaseConfig(), DefaultHBaseBackend.class),
+                Arguments.of(new HBaseConfig().withColumns(), ColumnHBaseBackend.class)
         );
     }
 }
\ No newline at end of file
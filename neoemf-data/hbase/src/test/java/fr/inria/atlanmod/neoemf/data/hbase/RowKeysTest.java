@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * A test-case about {@link RowKeys}.
+ */
+@ParametersAreNonnullByDefault
+class RowKeysTest extends AbstractTest {
+
+    @Test
+    void testHex() {
+        RowKeys rowKeys = RowKeys.hex();
+        Id id = Id.getProvider().fromLong(42);
+
+        assertThat(rowKeys.toRow(id)).hasSize(16);
+        assertThat(rowKeys.fromRow(rowKeys.toRow(id), 0)).isEqualTo(id);
+        assertThat(rowKeys.fromValue(rowKeys.toValue(id))).isEqualTo(id);
+        assertThat(rowKeys.splitKeys()).isEmpty();
+    }
+
+    @Test
+    void testBinary() {
+        RowKeys rowKeys = RowKeys.binary(0);
+
+        for (long value : new long[]{0, 42, -1, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            Id id = Id.getProvider().fromLong(value);
+
+            assertThat(rowKeys.toRow(id)).hasSize(8);
+            assertThat(rowKeys.fromRow(rowKeys.toRow(id), 0)).isEqualTo(id);
+            assertThat(rowKeys.fromValue(rowKeys.toValue(id))).isEqualTo(id);
+        }
+
+        assertThat(rowKeys.splitKeys()).isEmpty();
+    }
+
+    @Test
+    void testSalted() {
+        RowKeys rowKeys = RowKeys.binary(16);
+        Set<Byte> salts = new HashSet<>();
+
+        LongStream.range(0, 1_000).mapToObj(Id.getProvider()::fromLong).forEach(id -> {
+            byte[] row = rowKeys.toRow(id);
+
+            assertThat(row).hasSize(9);
+            assertThat(row[0] & 0xFF).isBetween(1, 16);
+            assertThat(rowKeys.fromRow(row, 0)).isEqualTo(id);
+            assertThat(rowKeys.toValue(id)).hasSize(8);
+
+            salts.add(row[0]);
+        });
+
+        // Sequential identifiers are spread over all buckets
+        assertThat(salts).hasSize(16);
+    }
+
+    @Test
+    void testSaltedWithOffset() {
+        RowKeys rowKeys = RowKeys.binary(16);
+        Id id = Id.getProvider().fromLong(42);
+
+        byte[] row = rowKeys.toRow(id);
+        byte[] prefixed = new byte[row.length + 3];
+        System.arraycopy(row, 0, prefixed, 3, row.length);
+
+        assertThat(rowKeys.fromRow(prefixed, 3)).isEqualTo(id);
+    }
+
+    @Test
+    void testIndexRows() {
+        byte[] prefix = {0, 'u', 0, 'n', 0};
+        Id id = Id.getProvider().fromLong(42);
+
+        for (RowKeys rowKeys : new RowKeys[]{RowKeys.hex(), RowKeys.binary(0)}) {
+            byte[] indexRow = rowKeys.toIndexRow(prefix, id);
+
+            assertThat(rowKeys.indexPrefixes(prefix)).containsExactly(prefix);
+            assertThat(Arrays.copyOf(indexRow, prefix.length)).isEqualTo(prefix);
+            assertThat(rowKeys.fromIndexRow(indexRow, prefix)).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void testSaltedIndexRows() {
+        RowKeys rowKeys = RowKeys.binary(16);
+        byte[] prefix = {0, 'u', 0, 'n', 0};
+        byte[][] prefixes = rowKeys.indexPrefixes(prefix);
+        Set<Byte> salts = new HashSet<>();
+
+        assertThat(prefixes).hasSize(16);
+
+        LongStream.range(0, 1_000).mapToObj(Id.getProvider()::fromLong).forEach(id -> {
+            byte[] indexRow = rowKeys.toIndexRow(prefix, id);
+
+            // The index row is stored in the same bucket as the element
+            assertThat(indexRow[0]).isEqualTo(rowKeys.toRow(id)[0]);
+            assertThat(Arrays.copyOf(indexRow, prefix.length + 1)).isEqualTo(prefixes[indexRow[0] - 1]);
+            assertThat(rowKeys.fromIndexRow(indexRow, prefix)).isEqualTo(id);
+
+            salts.add(indexRow[0]);
+        });
+
+        assertThat(salts).hasSize(16);
+    }
+
+    @Test
+    void testSplitKeys() {
+        byte[][] splitKeys = RowKeys.binary(4).splitKeys();
+
+        assertThat(splitKeys).hasSize(3);
+        assertThat(Arrays.asList(splitKeys)).containsExactly(new byte[]{2}, new byte[]{3}, new byte[]{4});
+    }
+
+    @Test
+    void testParse() {
+        assertThat(RowKeys.parse(null)).isEqualTo(RowKeys.hex());
+        assertThat(RowKeys.parse(RowKeys.hex().toString())).isEqualTo(RowKeys.hex());
+        assertThat(RowKeys.parse(RowKeys.binary(0).toString())).isEqualTo(RowKeys.binary(0));
+        assertThat(RowKeys.parse(RowKeys.binary(16).toString())).isEqualTo(RowKeys.binary(16));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> RowKeys.parse("unknown"));
+        assertThatIllegalArgumentException().isThrownBy(() -> RowKeys.binary(256));
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase;
+
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.data.hbase.context.HBaseSaltedContext;
+import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A test-case about {@link DefaultHBaseBackend}, with binary and salted row keys.
+ */
+@ParametersAreNonnullByDefault
+class SaltedHBaseBackendTest extends AbstractDataMapperTest {
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new HBaseSaltedContext();
+    }
+}
@@ -45,6 +45,11 @@ public abstract class AbstractHBaseContext extends AbstractRemoteContext {
         return new HBaseBackendFactory();
     }
 
+    @Override
+    public boolean isConcurrentReadSafe() {
+        return false;
+    }
+
     @Nonnull
     @Override
     protected String getHost() {
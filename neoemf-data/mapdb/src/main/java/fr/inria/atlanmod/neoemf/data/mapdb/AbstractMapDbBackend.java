@@ -12,6 +12,7 @@ import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.IdConverters;
 import fr.inria.atlanmod.neoemf.data.AbstractBackend;
 import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.ClassDictionary;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.serializer.BeanSerializerFactory;
 import fr.inria.atlanmod.neoemf.data.mapping.AllReferenceAs;
@@ -24,20 +25,26 @@ import org.mapdb.DataInput2;
 import org.mapdb.DataOutput2;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
+import org.mapdb.serializer.SerializerArrayTuple;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.Immutable;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.atlanmod.commons.Preconditions.checkNotNull;
 
 /**
@@ -53,6 +60,26 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
     @Nonnull
     protected static final BeanSerializerFactory SERIALIZER_FACTORY = BeanSerializerFactory.getInstance();
 
+    /**
+     * The version of the layout of the databases created by this class.
+     * <p>
+     * Databases without version have been created by previous versions: the meta-classes of their instances are
+     * stored by name and URI, instead of by identifier in the dictionary of meta-classes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The name of the variable that holds the version of the layout of the database.
+     */
+    @Nonnull
+    private static final String FORMAT = "format";
+
+    /**
+     * The names of the collections that are not copied as is by {@link #copyTo(DataMapper)}.
+     */
+    @Nonnull
+    private static final List<String> NOT_COPIED = Arrays.asList(FORMAT, "classes", "instances/index");
+
     /**
      * The MapDB database.
      */
@@ -66,13 +93,31 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
     @Nonnull
     private final HTreeMap<Id, SingleFeatureBean> containers;
 
+    /**
+     * The dictionary of all meta-classes, persisted as a map that stores each meta-class, identified by its identifier in
+     * the dictionary.
+     */
+    @Nonnull
+    private final ClassDictionary classes;
+
     /**
      * A persistent map that stores the meta-class for {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s,
-     * identified by the object {@link Id}.
+     * identified by the object {@link Id}. Meta-classes are stored as their identifier in {@link #classes}.
      */
     @Nonnull
     private final HTreeMap<Id, ClassBean> instances;
 
+    /**
+     * A persistent sorted set that indexes the {@link Id} of {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s
+     * by meta-class, as {@code [class, id]} tuples, where {@code class} is the identifier of the meta-class in {@link
+     * #classes}. This is a secondary index of {@link #instances}.
+     * <p>
+     * It is {@code null} if the database is read-only and has been created without this index: in this case, the
+     * lookup of all instances falls back to a full scan of {@link #instances}.
+     */
+    @Nullable
+    private final NavigableSet<Object[]> instancesIndex;
+
     /**
      * A persistent map that stores single-feature values for {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s,
      * identified by the associated {@link SingleFeatureBean}. Depending on the mapping used, it can also contain
@@ -94,16 +139,41 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
 
         this.database = database;
 
+        final boolean isReadOnly = database.getStore().isReadOnly();
+        final boolean isLegacy = formatOf(database) < FORMAT_VERSION;
+
         this.containers = database.hashMap("containers")
                 .keySerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forId()))
                 .valueSerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forSingleFeature()))
                 .createOrOpen();
 
+        // A read-only database created by a previous version has no dictionary: it is only used by the index
+        this.classes = isReadOnly && !database.exists("classes")
+                ? new ClassDictionary()
+                : new ClassDictionary(database.hashMap("classes")
+                .keySerializer(Serializer.INTEGER)
+                .valueSerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forClass()))
+                .createOrOpen());
+
+        // A database created by a previous version keeps storing the meta-classes of its instances by name and URI
         this.instances = database.hashMap("instances")
                 .keySerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forId()))
-                .valueSerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forClass()))
+                .valueSerializer(new SerializerDecorator<>(isLegacy ? SERIALIZER_FACTORY.forClass() : SERIALIZER_FACTORY.forClass(classes)))
                 .createOrOpen();
 
+        if (!isReadOnly || database.exists("instances/index")) {
+            this.instancesIndex = database.treeSet("instances/index")
+                    .serializer(new SerializerArrayTuple(Serializer.INTEGER, Serializer.LONG))
+                    .createOrOpen();
+
+            if (!isReadOnly) {
+                rebuildInstancesIndexIfNeeded();
+            }
+        }
+        else {
+            this.instancesIndex = null;
+        }
+
         this.singleFeatures = database.hashMap("features/single")
                 .keySerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forSingleFeature()))
                 .valueSerializer(Serializer.ELSA)
@@ -130,6 +200,11 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
         Objects.requireNonNull(to);
 
         for (Map.Entry<String, Object> entry : database.getAll().entrySet()) {
+            // The dictionary of the target is filled while copying the instances, and its index is rebuilt afterwards
+            if (NOT_COPIED.contains(entry.getKey())) {
+                continue;
+            }
+
             Object collection = entry.getValue();
             if (collection instanceof Map) {
                 Map fromMap = (Map) collection;
@@ -141,6 +216,8 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
                 throw new UnsupportedOperationException(String.format("Cannot copy MapDB backend: store type %s is not supported", collection.getClass().getSimpleName()));
             }
         }
+
+        to.indexInstances();
     }
 
     @Nonnull
@@ -179,16 +256,31 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
         checkNotNull(id, "id");
         checkNotNull(metaClass, "metaClass");
 
-        return putIfAbsent(instances, id, metaClass);
+        boolean isDefined = putIfAbsent(instances, id, metaClass);
+
+        if (isDefined && nonNull(instancesIndex)) {
+            instancesIndex.add(indexKeyOf(metaClass, id));
+        }
+
+        return isDefined;
     }
 
     @Nonnull
     @Override
     public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
-        return instances.getEntries().stream()
-                .filter(e -> metaClasses.contains(e.getValue()))
-                .map(Map.Entry::getKey)
-                .distinct();
+        if (isNull(instancesIndex)) {
+            return instances.getEntries().stream()
+                    .filter(e -> metaClasses.contains(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .distinct();
+        }
+
+        return metaClasses.stream()
+                .map(classes::findIdOf)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .flatMap(c -> instancesIndex.subSet(indexKeyOf(c), true, indexUpperKeyOf(c), false).stream())
+                .map(k -> Id.getProvider().fromLong((Long) k[1]));
     }
 
     @Nonnull
@@ -208,6 +300,14 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
         return put(singleFeatures, feature, value);
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
+
+        putOnly(singleFeatures, feature, value);
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         checkNotNull(feature, "feature");
@@ -221,6 +321,84 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
         return IdConverters.withLong();
     }
 
+    /**
+     * Returns the version of the layout of the {@code database}, and records the current version in a new database.
+     *
+     * @param database the database
+     *
+     * @return the version of the layout, or {@code 0} if the database has been created by a previous version
+     */
+    private static int formatOf(DB database) {
+        if (database.exists(FORMAT)) {
+            return database.atomicInteger(FORMAT).open().get();
+        }
+
+        // An existing database without version has been created by a previous version
+        if (database.exists("instances") || database.getStore().isReadOnly()) {
+            return 0;
+        }
+
+        database.atomicInteger(FORMAT, FORMAT_VERSION).create();
+        return FORMAT_VERSION;
+    }
+
+    /**
+     * Rebuilds the index of instances from the primary map of instances, if the index is empty whereas the primary map
+     * is not. This happens when the database has been created without index.
+     */
+    private void rebuildInstancesIndexIfNeeded() {
+        if (nonNull(instancesIndex) && instancesIndex.isEmpty() && !instances.isEmpty()) {
+            indexInstances();
+        }
+    }
+
+    /**
+     * Adds all the {@link #instances} to the index of instances.
+     */
+    private void indexInstances() {
+        if (nonNull(instancesIndex)) {
+            instances.forEach((id, metaClass) -> instancesIndex.add(indexKeyOf(metaClass, id)));
+        }
+    }
+
+    /**
+     * Returns the key of the {@code id} in the index of instances.
+     *
+     * @param metaClass the meta-class of the element
+     * @param id        the identifier of the element
+     *
+     * @return the key
+     */
+    @Nonnull
+    private Object[] indexKeyOf(ClassBean metaClass, Id id) {
+        return new Object[]{classes.idOf(metaClass), id.toLong()};
+    }
+
+    /**
+     * Returns the lower bound (inclusive) of the instances of a meta-class in the index of instances.
+     *
+     * @param metaClass the identifier of the meta-class in {@link #classes}
+     *
+     * @return the key
+     */
+    @Nonnull
+    private Object[] indexKeyOf(int metaClass) {
+        return new Object[]{metaClass};
+    }
+
+    /**
+     * Returns the upper bound (exclusive) of the instances of a meta-class in the index of instances.
+     *
+     * @param metaClass the identifier of the meta-class in {@link #classes}
+     *
+     * @return the key
+     */
+    @Nonnull
+    private Object[] indexUpperKeyOf(int metaClass) {
+        // A `null` element is greater than any other value
+        return new Object[]{metaClass, null};
+    }
+
     /**
      * Retrieves the value of the {@code key} from the {@code database}.
      *
@@ -256,6 +434,20 @@ abstract class AbstractMapDbBackend extends AbstractBackend implements MapDbBack
         return Optional.ofNullable((V) database.put(key, value));
     }
 
+    /**
+     * Saves the {@code value} identified by the {@code key} in the {@code database}, without deserializing the previous
+     * value.
+     *
+     * @param database the database where to save the value
+     * @param key      the key of the element to save
+     * @param value    the value to save
+     * @param <K>      the type of the key
+     * @param <V>      the type of the value
+     */
+    protected <K, V> void putOnly(HTreeMap<K, ? super V> database, K key, V value) {
+        database.putOnly(key, value);
+    }
+
     /**
      * Saves a {@code value} identified by the {@code key} in the {@code database}, only if the {@code key} is not
      * already defined
@@ -34,4 +34,9 @@ public interface MapDbBackend extends Backend {
     default boolean isDistributed() {
         return false;
     }
+
+    @Override
+    default boolean isConcurrentReadSafe() {
+        return true;
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mapdb;
+
+import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapping.ManyValueWithChunks;
+
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A {@link MapDbBackend} that use a {@link ManyValueWithChunks} mapping for storing features.
+ *
+ * @see MapDbBackendFactory
+ */
+@ParametersAreNonnullByDefault
+class MapDbBackendChunks extends AbstractMapDbBackend implements ManyValueWithChunks {
+
+    /**
+     * A persistent map that stores the chunks of many-feature values for {@link
+     * fr.inria.atlanmod.neoemf.core.PersistentEObject}s, identified by the associated {@link ManyFeatureBean}, where the
+     * position is the index of the chunk.
+     */
+    @Nonnull
+    private final HTreeMap<ManyFeatureBean, Object> chunks;
+
+    /**
+     * Constructs a new {@code MapDbBackendChunks} wrapping the provided {@code database}.
+     *
+     * @param database the {@link org.mapdb.DB} used to creates the used {@link org.mapdb.HTreeMap}s and manage the
+     *                 database
+     *
+     * @see MapDbBackendFactory
+     */
+    @SuppressWarnings("unchecked")
+    protected MapDbBackendChunks(DB database) {
+        super(database);
+
+        chunks = database.hashMap("features/chunks")
+                .keySerializer(new SerializerDecorator<>(SERIALIZER_FACTORY.forManyFeature()))
+                .valueSerializer(Serializer.ELSA)
+                .createOrOpen();
+    }
+
+    @Nonnull
+    @Override
+    public <V> Optional<List<V>> chunkOf(ManyFeatureBean chunk) {
+        checkNotNull(chunk, "chunk");
+
+        return get(chunks, chunk);
+    }
+
+    @Override
+    public <V> void chunkFor(ManyFeatureBean chunk, @Nullable List<V> values) {
+        checkNotNull(chunk, "chunk");
+
+        if (nonNull(values)) {
+            put(chunks, chunk, values);
+        }
+        else {
+            delete(chunks, chunk);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mapdb;
+
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mapdb.context.MapDbChunksContext;
+import fr.inria.atlanmod.neoemf.data.mapping.AbstractDataMapperTest;
+import fr.inria.atlanmod.neoemf.data.mapping.ManyValueWithChunks;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link MapDbBackendChunks}.
+ */
+@ParametersAreNonnullByDefault
+class MapDbBackendChunksTest extends AbstractDataMapperTest {
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new MapDbChunksContext();
+    }
+
+    /**
+     * Checks the insertion and the removal of values across several chunks.
+     */
+    @Test
+    void testAddRemoveAcrossChunks() {
+        final int size = ManyValueWithChunks.DEFAULT_CHUNK_SIZE * 2 + 10;
+        SingleFeatureBean feature = SingleFeatureBean.of(idBase, 10);
+
+        List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        mapper.appendAllValues(feature, values);
+        assertThat(mapper.sizeOfValue(feature)).contains(size);
+
+        mapper.addValue(feature.withPosition(1), -1);
+        values.add(1, -1);
+
+        assertThat(mapper.removeValue(feature.withPosition(size - 5))).contains(values.remove(size - 5));
+        assertThat(mapper.removeValue(feature.withPosition(0))).contains(values.remove(0));
+
+        assertThat(mapper.valueOf(feature.withPosition(ManyValueWithChunks.DEFAULT_CHUNK_SIZE)))
+                .contains(values.get(ManyValueWithChunks.DEFAULT_CHUNK_SIZE));
+        assertThat(mapper.<Integer>allValuesOf(feature)).containsExactlyElementsOf(values);
+
+        mapper.removeAllValues(feature);
+        assertThat(mapper.sizeOfValue(feature)).isNotPresent();
+        assertThat(mapper.allValuesOf(feature)).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mapdb;
+
+import fr.inria.atlanmod.neoemf.AbstractUnitTest;
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.data.bean.serializer.BeanSerializerFactory;
+import fr.inria.atlanmod.neoemf.data.mapdb.context.MapDbIndicesContext;
+import fr.inria.atlanmod.neoemf.data.mapping.DataMapper;
+
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.jupiter.api.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about the databases created by previous versions of {@link AbstractMapDbBackend}, that store the
+ * meta-classes of their instances by name and URI.
+ */
+@ParametersAreNonnullByDefault
+class MapDbLegacyFormatTest extends AbstractUnitTest {
+
+    private final ClassBean metaClass = ClassBean.of("Metaclass0", EcorePackage.eNS_URI);
+
+    private final Id id0 = Id.getProvider().fromLong(42);
+
+    private final Id id1 = Id.getProvider().fromLong(43);
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new MapDbIndicesContext();
+    }
+
+    /**
+     * Checks that the instances of a legacy database are readable and indexed, and that new instances are stored in
+     * the same format.
+     */
+    @Test
+    void testOpenLegacyDatabase() throws IOException {
+        final File directory = currentTempFile();
+        Files.createDirectories(directory.toPath());
+
+        final BeanSerializerFactory factory = BeanSerializerFactory.getInstance();
+
+        DB database = DBMaker.fileDB(directory.toPath().resolve("data").toFile()).make();
+        database.hashMap("instances")
+                .keySerializer(new AbstractMapDbBackend.SerializerDecorator<>(factory.forId()))
+                .valueSerializer(new AbstractMapDbBackend.SerializerDecorator<>(factory.forClass()))
+                .create()
+                .put(id0, metaClass);
+        database.commit();
+        database.close();
+
+        DataMapper mapper = context().createMapper(directory);
+        try {
+            assertThat(mapper.metaClassOf(id0)).contains(metaClass);
+            assertThat(mapper.allInstancesOf(Collections.singleton(metaClass))).containsExactly(id0);
+
+            mapper.metaClassFor(id1, metaClass);
+        }
+        finally {
+            mapper.close();
+        }
+
+        mapper = context().createMapper(directory);
+        try {
+            assertThat(mapper.metaClassOf(id0)).contains(metaClass);
+            assertThat(mapper.metaClassOf(id1)).contains(metaClass);
+            assertThat(mapper.allInstancesOf(Collections.singleton(metaClass))).containsExactlyInAnyOrder(id0, id1);
+        }
+        finally {
+            mapper.close();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.UpdateOptions;
 
 import fr.inria.atlanmod.neoemf.core.Id;
@@ -85,6 +86,8 @@ abstract class AbstractMongoDbBackend extends AbstractBackend implements MongoDb
         this.database = database;
 
         this.documents = getOrCreateCollection("instances", ModelDocument.class);
+
+        createIndexes();
     }
 
     @Nonnull
@@ -101,8 +104,7 @@ abstract class AbstractMongoDbBackend extends AbstractBackend implements MongoDb
      * @return the corresponding {@link MongoCollection} instance
      */
     @Nonnull
-    @SuppressWarnings("SameParameterValue")
-    private <D> MongoCollection<D> getOrCreateCollection(String name, Class<D> documentClass) {
+    protected <D> MongoCollection<D> getOrCreateCollection(String name, Class<D> documentClass) {
         if (MoreIterables.stream(database.listCollectionNames()).noneMatch(name::equals)) {
             database.createCollection(name);
         }
@@ -110,6 +112,19 @@ abstract class AbstractMongoDbBackend extends AbstractBackend implements MongoDb
         return database.getCollection(name, documentClass);
     }
 
+    /**
+     * Creates the indexes of the {@link #documents}, if they do not already exist.
+     * <p>
+     * The meta-class index also contains the identifier of the documents, so that {@link #allInstancesOf(Set)} is
+     * answered from the index only, without reading any document.
+     */
+    private void createIndexes() {
+        documents.createIndex(Indexes.ascending(
+                concat(ModelDocument.F_METACLASS, ClassDocument.F_URI),
+                concat(ModelDocument.F_METACLASS, ClassDocument.F_NAME),
+                ModelDocument.F_ID));
+    }
+
     @Override
     protected void internalClose() {
         client.close();
@@ -211,6 +226,12 @@ abstract class AbstractMongoDbBackend extends AbstractBackend implements MongoDb
     @Nonnull
     @Override
     public Stream<Id> allInstancesOf(Set<ClassBean> metaClasses) {
+        checkNotNull(metaClasses, "metaClasses");
+
+        if (metaClasses.isEmpty()) {
+            return Stream.empty();
+        }
+
         final Iterable<Bson> andFilters = metaClasses.stream()
                 .map(c -> and(
                         eq(concat(ModelDocument.F_METACLASS, ClassDocument.F_NAME), c.name()),
@@ -221,11 +242,11 @@ abstract class AbstractMongoDbBackend extends AbstractBackend implements MongoDb
         final Bson filter = or(andFilters);
         final Bson projection = include(ModelDocument.F_ID);
 
+        // Each document matches at most once: the result is made of distinct identifiers
         final FindIterable<ModelDocument> find = documents.find(filter).projection(projection);
 
         return MoreIterables.stream(find)
                 .map(ModelDocument::getId)
-                .map(idConverter::revert)
-                .distinct();
+                .map(idConverter::revert);
     }
 }
@@ -8,59 +8,73 @@
 
 package fr.inria.atlanmod.neoemf.data.mongodb;
 
-import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClient;
-import com.mongodb.MongoCommandException;
-import com.mongodb.QueryOperators;
-import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Field;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.PushOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.Prefetch;
+import fr.inria.atlanmod.neoemf.data.WriteBatch;
 import fr.inria.atlanmod.neoemf.data.bean.ManyFeatureBean;
 import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
 import fr.inria.atlanmod.neoemf.data.mapping.AllReferenceAs;
+import fr.inria.atlanmod.neoemf.data.mongodb.document.ClassDocument;
+import fr.inria.atlanmod.neoemf.data.mongodb.document.ContainerDocument;
 import fr.inria.atlanmod.neoemf.data.mongodb.document.ModelDocument;
+import fr.inria.atlanmod.neoemf.data.mongodb.document.ValueFormat;
 
-import org.atlanmod.commons.collect.MoreIterables;
 import org.atlanmod.commons.function.Converter;
-import org.atlanmod.commons.io.serializer.BinarySerializerFactory;
-import org.atlanmod.commons.io.serializer.StringSerializer;
-import org.atlanmod.commons.io.serializer.StringSerializerFactory;
+import org.atlanmod.commons.log.Log;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
-import static com.mongodb.client.model.Aggregates.limit;
-import static com.mongodb.client.model.Aggregates.match;
-import static com.mongodb.client.model.Aggregates.project;
+import static com.mongodb.client.model.Aggregates.addFields;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Projections.computed;
 import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Projections.slice;
+import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.pushEach;
 import static com.mongodb.client.model.Updates.set;
 import static com.mongodb.client.model.Updates.unset;
-import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.atlanmod.commons.Preconditions.checkNotContainsNull;
 import static org.atlanmod.commons.Preconditions.checkNotNull;
+import static org.atlanmod.commons.Preconditions.checkState;
 
 /**
  * The default {@link MongoDbBackend} mapping.
+ * <p>
+ * <b>NOTE:</b> This mapping relies on update pipelines and on aggregation expressions in projections, which require
+ * MongoDB 4.4 or later.
  *
  * @see MongoDbBackendFactory
  */
@@ -68,11 +82,49 @@ import static org.atlanmod.commons.Preconditions.checkNotNull;
 class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferenceAs<String> {
 
     /**
-     * A {@link org.atlanmod.commons.io.serializer.Serializer} that converts feature values in a Base64 representation.
+     * The identifier of the metadata document that records the {@link ValueFormat} of the feature values.
      */
     @Nonnull
-    // FIXME Id are converted twice (long -> hexa-string -> base64-string)
-    private final StringSerializer<Object> serializer = StringSerializerFactory.base64(BinarySerializerFactory.getInstance().forAny());
+    private static final String K_VALUE_FORMAT = "valueFormat";
+
+    /**
+     * The field name of the content of a metadata document.
+     */
+    @Nonnull
+    private static final String F_CONTENT = "value";
+
+    /**
+     * The field name that marks a model document whose values have been migrated, while a migration is in progress.
+     */
+    @Nonnull
+    private static final String F_MIGRATED = "migrated";
+
+    /**
+     * The number of documents updated at once during a migration.
+     */
+    @Nonnegative
+    private static final int MIGRATION_BATCH_SIZE = 1000;
+
+    /**
+     * The MongoDB collection where to store the metadata of the model.
+     */
+    @Nonnull
+    private final MongoCollection<Document> metadata;
+
+    /**
+     * The format of the feature values stored in {@link #documents}.
+     */
+    @Nonnull
+    private ValueFormat format;
+
+    /**
+     * Whether a migration of the values has been started but not completed. In this case, some documents are in the
+     * {@link ValueFormat#LEGACY} format and others in the {@link ValueFormat#TYPED} format, so no value can be read or
+     * written until the migration is resumed.
+     *
+     * @see #migrateValues()
+     */
+    private boolean isMigrating;
 
     /**
      * Constructs a new {@code DefaultMongoDbBackend}.
@@ -81,6 +133,14 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
      */
     protected DefaultMongoDbBackend(MongoClient client, MongoDatabase database) {
         super(client, database);
+
+        this.metadata = getOrCreateCollection("metadata", Document.class);
+        this.format = readFormat();
+        this.isMigrating = format == ValueFormat.LEGACY && nonNull(documents.find(exists(F_MIGRATED)).projection(include(ModelDocument.F_ID)).first());
+
+        if (isMigrating) {
+            Log.warn("The migration of the values of this database has been interrupted: call MongoDbBackend#migrateValues() to resume it");
+        }
     }
 
     @Nonnull
@@ -135,6 +195,20 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
                 .map(this::deserializeValue);
     }
 
+    @Override
+    public <V> void setValue(SingleFeatureBean feature, V value) {
+        checkNotNull(feature, "feature");
+        checkNotNull(value, "value");
+
+        final String ownerId = idConverter.convert(feature.owner());
+        final String fieldName = concat(ModelDocument.F_SINGLE_FEATURE, Integer.toString(feature.id()));
+
+        final Bson filter = eq(ModelDocument.F_ID, ownerId);
+        final Bson update = set(fieldName, serializeValue(value));
+
+        documents.updateOne(filter, update, new UpdateOptions().upsert(true));
+    }
+
     @Override
     public void removeValue(SingleFeatureBean feature) {
         checkNotNull(feature, "feature");
@@ -260,7 +334,7 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
             throw new IndexOutOfBoundsException();
         }
 
-        List<String> newValues = collection.stream().map(this::serializeValue).collect(Collectors.toList());
+        List<BsonValue> newValues = collection.stream().map(this::serializeValue).collect(Collectors.toList());
 
         final String fieldName = concat(ModelDocument.F_MANY_FEATURE, featureId);
 
@@ -277,29 +351,30 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
 
         final String ownerId = idConverter.convert(feature.owner());
         final String featureId = Integer.toString(feature.id());
+        final int position = feature.position();
 
         final String fieldName = concat(ModelDocument.F_MANY_FEATURE, featureId);
-        final String fieldNameWithPos = concat(fieldName, Integer.toString(feature.position()));
-
-        final Bson baseFilter = eq(ModelDocument.F_ID, ownerId);
-        final Bson getFilter = and(baseFilter, exists(fieldNameWithPos));
-        final Bson projection = include(fieldName);
-
-        final ModelDocument instance = documents.find(getFilter).projection(projection).first();
+        final String fieldNameWithPos = concat(fieldName, Integer.toString(position));
 
-        if (isNull(instance)) {
-            return Optional.empty();
-        }
+        // The array is rebuilt by the server from the elements around the removed position
+        final String array = '$' + fieldName;
+        final Document tail = new Document("$slice", Arrays.asList(array, position + 1, new Document("$size", array)));
+        final Document newValues = position == 0
+                ? tail
+                : new Document("$concatArrays", Arrays.asList(new Document("$slice", Arrays.asList(array, position)), tail));
 
-        final List<String> values = instance.getManyFeatures().get(featureId);
-        final Optional<V> previousValue = Optional.of(values.remove(feature.position())).map(this::deserializeValue);
-
-        final Bson updateFilter = and(baseFilter, exists(fieldName));
-        final Bson update = set(fieldName, values);
+        final Bson filter = and(eq(ModelDocument.F_ID, ownerId), exists(fieldNameWithPos));
+        final Bson projection = slice(fieldName, position, 1);
+        final List<Bson> update = Collections.singletonList(addFields(new Field<>(fieldName, newValues)));
 
-        documents.updateOne(updateFilter, update);
+        final ModelDocument instance = documents.findOneAndUpdate(filter, update, new FindOneAndUpdateOptions().projection(projection));
 
-        return previousValue;
+        return Optional.ofNullable(instance)
+                .map(ModelDocument::getManyFeatures)
+                .map(m -> m.get(featureId))
+                .filter(l -> !l.isEmpty())
+                .map(l -> l.get(0))
+                .map(this::deserializeValue);
     }
 
     @Override
@@ -308,7 +383,7 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
 
         final String ownerId = idConverter.convert(feature.owner());
 
-        final String fieldName = ModelDocument.F_MANY_FEATURE;
+        final String fieldName = concat(ModelDocument.F_MANY_FEATURE, Integer.toString(feature.id()));
 
         final Bson filter = and(eq(ModelDocument.F_ID, ownerId), exists(fieldName));
         final Bson update = unset(fieldName);
@@ -324,28 +399,156 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
 
         final String ownerId = idConverter.convert(feature.owner());
 
-        final String fieldName = ModelDocument.F_MANY_FEATURE;
+        final String fieldName = concat(ModelDocument.F_MANY_FEATURE, Integer.toString(feature.id()));
         final String fieldSize = "size";
 
+        // The size is computed by the server, without sending the values
         final Bson filter = and(eq(ModelDocument.F_ID, ownerId), exists(fieldName));
-        final Bson projection = computed(fieldSize, new Document(QueryOperators.SIZE, concat('$' + fieldName, Integer.toString(feature.id()))));
+        final Bson projection = computed(fieldSize, new Document("$size", '$' + fieldName));
+
+        final Document instance = documents.find(filter, Document.class).projection(projection).first();
+
+        return Optional.ofNullable(instance)
+                .map(d -> d.getInteger(fieldSize))
+                .filter(s -> s > 0);
+    }
+
+    //endregion
+
+    //region Batch
 
-        final List<Bson> pipeline = Arrays.asList(
-                match(filter),
-                limit(1),
-                project(projection)
-        );
+    @Override
+    public void writeAll(WriteBatch batch) {
+        checkNotNull(batch, "batch");
+
+        // All mutations of an element are grouped in a single update
+        final Map<Id, List<Bson>> sets = new LinkedHashMap<>();
+        final Map<Id, List<Bson>> unsets = new LinkedHashMap<>();
+
+        batch.metaClasses().forEach((id, c) -> {
+            final ClassDocument newMetaClass = ClassDocument.fromBean(c);
+
+            List<Bson> updates = sets.computeIfAbsent(id, i -> new ArrayList<>());
+            updates.add(set(concat(ModelDocument.F_METACLASS, ClassDocument.F_NAME), newMetaClass.getName()));
+            updates.add(set(concat(ModelDocument.F_METACLASS, ClassDocument.F_URI), newMetaClass.getUri()));
+        });
+
+        batch.containers().forEach((id, c) -> {
+            if (nonNull(c)) {
+                final ContainerDocument newContainer = ContainerDocument.fromBean(c);
+
+                List<Bson> updates = sets.computeIfAbsent(id, i -> new ArrayList<>());
+                updates.add(set(concat(ModelDocument.F_CONTAINER, ContainerDocument.F_OWNER), newContainer.getOwner()));
+                updates.add(set(concat(ModelDocument.F_CONTAINER, ContainerDocument.F_ID), newContainer.getId()));
+            }
+            else {
+                unsets.computeIfAbsent(id, i -> new ArrayList<>()).add(unset(ModelDocument.F_CONTAINER));
+            }
+        });
+
+        batch.values().forEach((f, v) -> writeValue(sets, unsets, f, nonNull(v) ? serializeValue(v) : null));
+        batch.references().forEach((f, r) -> writeValue(sets, unsets, f, nonNull(r) ? serializeValue(referenceConverter().convert(r)) : null));
+
+        final List<UpdateOneModel<ModelDocument>> models = new ArrayList<>(sets.size() + unsets.size());
+
+        sets.forEach((id, updates) -> {
+            Optional.ofNullable(unsets.remove(id)).ifPresent(updates::addAll);
+
+            final Bson filter = eq(ModelDocument.F_ID, idConverter.convert(id));
+            models.add(new UpdateOneModel<>(filter, combine(updates), new UpdateOptions().upsert(true)));
+        });
+
+        // Don't create an element only to remove some of its features
+        unsets.forEach((id, updates) -> {
+            final Bson filter = eq(ModelDocument.F_ID, idConverter.convert(id));
+            models.add(new UpdateOneModel<>(filter, combine(updates)));
+        });
+
+        if (!models.isEmpty()) {
+            documents.bulkWrite(models, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Adds the update of the {@code feature} to the updates of its owner.
+     *
+     * @param sets    the updates that define a field, identified by the element they modify
+     * @param unsets  the updates that remove a field, identified by the element they modify
+     * @param feature the bean identifying the feature
+     * @param value   the serialized value of the feature, or {@code null} to remove the value
+     */
+    private void writeValue(Map<Id, List<Bson>> sets, Map<Id, List<Bson>> unsets, SingleFeatureBean feature, @Nullable BsonValue value) {
+        final String fieldName = concat(ModelDocument.F_SINGLE_FEATURE, Integer.toString(feature.id()));
 
-        try {
-            final AggregateIterable<BasicDBObject> aggregate = documents.aggregate(pipeline, BasicDBObject.class);
-            return MoreIterables.onlyElement(aggregate).map(o -> o.getInt(fieldSize));
+        if (nonNull(value)) {
+            sets.computeIfAbsent(feature.owner(), i -> new ArrayList<>()).add(set(fieldName, value));
         }
-        catch (MongoCommandException e) {
-            // FIXME Don't use an exception to determine the presence of an index
-            if (e.getErrorCode() != 17124) { // "the $size operator requires an list" when index does not exist in collection
-                throw e;
+        else {
+            unsets.computeIfAbsent(feature.owner(), i -> new ArrayList<>()).add(unset(fieldName));
+        }
+    }
+
+    //endregion
+
+    //region Prefetch
+
+    @Override
+    public void prefetch(Prefetch prefetch) {
+        checkNotNull(prefetch, "prefetch");
+
+        final List<String> ownerIds = prefetch.ids().stream()
+                .map(idConverter::convert)
+                .collect(Collectors.toList());
+
+        final List<String> fieldNames = new ArrayList<>();
+        fieldNames.add(ModelDocument.F_CONTAINER);
+        fieldNames.add(ModelDocument.F_METACLASS);
+        Stream.concat(prefetch.valueFeatures().stream(), prefetch.referenceFeatures().stream())
+                .forEach(i -> fieldNames.add(concat(ModelDocument.F_SINGLE_FEATURE, Integer.toString(i))));
+        Stream.concat(prefetch.manyValueFeatures().stream(), prefetch.manyReferenceFeatures().stream())
+                .forEach(i -> fieldNames.add(concat(ModelDocument.F_MANY_FEATURE, Integer.toString(i))));
+
+        final Bson filter = in(ModelDocument.F_ID, ownerIds);
+        final Bson projection = include(fieldNames);
+
+        final Converter<Id, String> converter = referenceConverter();
+
+        for (ModelDocument instance : documents.find(filter).projection(projection)) {
+            final Id id = idConverter.revert(instance.getId());
+
+            Optional.ofNullable(instance.getContainer())
+                    .map(ContainerDocument::toBean)
+                    .ifPresent(c -> prefetch.containerFor(id, c));
+
+            Optional.ofNullable(instance.getMetaClass())
+                    .map(ClassDocument::toBean)
+                    .ifPresent(c -> prefetch.metaClassFor(id, c));
+
+            for (int i : prefetch.valueFeatures()) {
+                Optional.ofNullable(instance.getSingleFeatures().get(Integer.toString(i)))
+                        .ifPresent(v -> prefetch.valueFor(SingleFeatureBean.of(id, i), deserializeValue(v)));
+            }
+
+            for (int i : prefetch.referenceFeatures()) {
+                Optional.ofNullable(instance.getSingleFeatures().get(Integer.toString(i)))
+                        .ifPresent(v -> prefetch.referenceFor(SingleFeatureBean.of(id, i), converter.revert(deserializeValue(v))));
+            }
+
+            for (int i : prefetch.manyValueFeatures()) {
+                final List<Object> values = instance.getManyFeatures().getOrDefault(Integer.toString(i), Collections.emptyList()).stream()
+                        .map(this::deserializeValue)
+                        .collect(Collectors.toList());
+
+                prefetch.allValuesFor(SingleFeatureBean.of(id, i), values);
+            }
+
+            for (int i : prefetch.manyReferenceFeatures()) {
+                final List<Id> references = instance.getManyFeatures().getOrDefault(Integer.toString(i), Collections.emptyList()).stream()
+                        .map(v -> converter.revert(deserializeValue(v)))
+                        .collect(Collectors.toList());
+
+                prefetch.allReferencesFor(SingleFeatureBean.of(id, i), references);
             }
-            return Optional.empty();
         }
     }
 
@@ -353,6 +556,117 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
 
     // region MongoDB
 
+    @Override
+    public void migrateValues() {
+        if (format == ValueFormat.TYPED) {
+            return;
+        }
+
+        migrateDocuments();
+
+        writeFormat(ValueFormat.TYPED);
+        format = ValueFormat.TYPED;
+        isMigrating = false;
+
+        // The marks are only meaningful while the format is LEGACY
+        documents.updateMany(exists(F_MIGRATED), unset(F_MIGRATED));
+    }
+
+    /**
+     * Converts the values of all the model documents that have not been migrated yet to the {@link ValueFormat#TYPED}
+     * format.
+     * <p>
+     * The values of a document are converted and the document is marked as migrated in a single update, that only
+     * applies if the document is not marked yet. Stopping at any point leaves each document either in its legacy form
+     * or fully migrated: calling this method again only converts the remaining ones, and never decodes a value twice.
+     * The documents must not be modified while they are migrated, and no value can be read or written until the
+     * migration is completed by {@link #migrateValues()}.
+     */
+    void migrateDocuments() {
+        isMigrating = true;
+
+        final Bson notMigrated = exists(F_MIGRATED, false);
+        final Bson hasValues = or(exists(ModelDocument.F_SINGLE_FEATURE), exists(ModelDocument.F_MANY_FEATURE));
+        final Bson projection = include(ModelDocument.F_SINGLE_FEATURE, ModelDocument.F_MANY_FEATURE);
+
+        final List<UpdateOneModel<ModelDocument>> models = new ArrayList<>(MIGRATION_BATCH_SIZE);
+
+        for (ModelDocument instance : documents.find(and(hasValues, notMigrated)).projection(projection)) {
+            final List<Bson> updates = new ArrayList<>();
+
+            instance.getSingleFeatures().forEach((k, v) -> updates.add(set(concat(ModelDocument.F_SINGLE_FEATURE, k), migrateValue(v))));
+
+            instance.getManyFeatures().forEach((k, l) -> {
+                final List<BsonValue> values = l.stream().map(this::migrateValue).collect(Collectors.toList());
+                updates.add(set(concat(ModelDocument.F_MANY_FEATURE, k), values));
+            });
+
+            updates.add(set(F_MIGRATED, true));
+
+            // A document returned twice by the cursor is only updated once
+            models.add(new UpdateOneModel<>(and(eq(ModelDocument.F_ID, instance.getId()), notMigrated), combine(updates)));
+
+            if (models.size() == MIGRATION_BATCH_SIZE) {
+                documents.bulkWrite(models, new BulkWriteOptions().ordered(false));
+                models.clear();
+            }
+        }
+
+        if (!models.isEmpty()) {
+            documents.bulkWrite(models, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Converts a value in the {@link ValueFormat#LEGACY} format to the {@link ValueFormat#TYPED} format.
+     *
+     * @param value the value to migrate
+     *
+     * @return the migrated value
+     */
+    @Nonnull
+    private BsonValue migrateValue(BsonValue value) {
+        return ValueFormat.TYPED.encode(ValueFormat.LEGACY.decode(value));
+    }
+
+    /**
+     * Reads the format of the feature values stored in this database.
+     * <p>
+     * A new database is marked as {@link ValueFormat#TYPED}. An existing database without any marker has been
+     * created by a previous version, and uses the {@link ValueFormat#LEGACY} format until it is migrated.
+     *
+     * @return the format of the feature values
+     *
+     * @see #migrateValues()
+     */
+    @Nonnull
+    private ValueFormat readFormat() {
+        final Document marker = metadata.find(eq(ModelDocument.F_ID, K_VALUE_FORMAT)).first();
+
+        if (nonNull(marker)) {
+            return ValueFormat.valueOf(marker.getString(F_CONTENT));
+        }
+
+        if (nonNull(documents.find().projection(include(ModelDocument.F_ID)).first())) {
+            Log.warn("This database stores its values in the legacy format: call MongoDbBackend#migrateValues() to migrate them");
+            return ValueFormat.LEGACY;
+        }
+
+        writeFormat(ValueFormat.TYPED);
+        return ValueFormat.TYPED;
+    }
+
+    /**
+     * Records the format of the feature values stored in this database.
+     *
+     * @param format the format of the feature values
+     */
+    void writeFormat(ValueFormat format) {
+        final Document marker = new Document(ModelDocument.F_ID, K_VALUE_FORMAT).append(F_CONTENT, format.name());
+
+        metadata.replaceOne(eq(ModelDocument.F_ID, K_VALUE_FORMAT), marker, new ReplaceOptions().upsert(true));
+    }
+
     /**
      * Serializes the specified {@code value}.
      *
@@ -360,11 +674,13 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
      *
      * @return the serialized object
      *
-     * @see #deserializeValue(String)
+     * @see #deserializeValue(BsonValue)
      */
     @Nonnull
-    private <T> String serializeValue(T value) {
-        return serializer.convert(value);
+    private <T> BsonValue serializeValue(T value) {
+        checkNotMigrating();
+
+        return format.encode(value);
     }
 
     /**
@@ -377,9 +693,19 @@ class DefaultMongoDbBackend extends AbstractMongoDbBackend implements AllReferen
      * @see #serializeValue(Object)
      */
     @Nonnull
-    @SuppressWarnings("unchecked")
-    private <T> T deserializeValue(String value) {
-        return (T) serializer.revert(value);
+    private <T> T deserializeValue(BsonValue value) {
+        checkNotMigrating();
+
+        return format.decode(value);
+    }
+
+    /**
+     * Checks that the values of this database are all stored in the same format.
+     *
+     * @throws IllegalStateException if a migration of the values has been interrupted
+     */
+    private void checkNotMigrating() {
+        checkState(!isMigrating, "The migration of the values of this database has been interrupted: call MongoDbBackend#migrateValues() to resume it");
     }
 
     // endregion
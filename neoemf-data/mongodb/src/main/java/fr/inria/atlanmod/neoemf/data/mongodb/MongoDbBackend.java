@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.mongodb;
 
 import fr.inria.atlanmod.neoemf.data.Backend;
+import fr.inria.atlanmod.neoemf.data.mongodb.document.ValueFormat;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -34,4 +35,21 @@ public interface MongoDbBackend extends Backend {
     default boolean isDistributed() {
         return false;
     }
+
+    @Override
+    default boolean isConcurrentReadSafe() {
+        return true;
+    }
+
+    /**
+     * Migrates the feature values stored in this database to the {@link ValueFormat#TYPED} format.
+     * <p>
+     * Databases created by previous versions store their values in the {@link ValueFormat#LEGACY} format, and keep
+     * using it until they are migrated. This method does nothing if the values are already typed.
+     * <p>
+     * Each document is marked as migrated in the same update as its values: an interrupted migration is resumed by
+     * calling this method again. The database must not be modified during the migration, and no value can be read or
+     * written after an interrupted migration until it is resumed.
+     */
+    void migrateValues();
 }
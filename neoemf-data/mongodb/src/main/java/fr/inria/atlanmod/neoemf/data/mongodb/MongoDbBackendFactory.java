@@ -16,13 +16,16 @@ import com.mongodb.client.MongoDatabase;
 import fr.inria.atlanmod.neoemf.data.AbstractBackendFactory;
 import fr.inria.atlanmod.neoemf.data.Backend;
 import fr.inria.atlanmod.neoemf.data.BackendFactory;
+import fr.inria.atlanmod.neoemf.data.InvalidBackendException;
 import fr.inria.atlanmod.neoemf.data.mongodb.config.MongoDbConfig;
 
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
 import org.osgi.service.component.annotations.Component;
 
 import java.net.URL;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -37,6 +40,13 @@ import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 @ParametersAreNonnullByDefault
 public class MongoDbBackendFactory extends AbstractBackendFactory<MongoDbConfig> {
 
+    /**
+     * The minimum version of the MongoDB server, required by the update pipelines and by the aggregation expressions
+     * used in queries and projections.
+     */
+    @Nonnull
+    private static final int[] MIN_SERVER_VERSION = {4, 4};
+
     /**
      * Constructs a new {@code MongoDbBackendFactory}.
      */
@@ -51,6 +61,8 @@ public class MongoDbBackendFactory extends AbstractBackendFactory<MongoDbConfig>
 
         try {
             final MongoDatabase database = createDatabase(client, url.getPath().substring(1));
+            checkServerVersion(database.runCommand(new Document("buildInfo", 1)));
+
             return createMapper(config.getMapping(), client, database);
         }
         catch (RuntimeException e) {
@@ -71,6 +83,29 @@ public class MongoDbBackendFactory extends AbstractBackendFactory<MongoDbConfig>
         return new MongoClient(url.getHost(), url.getPort());
     }
 
+    /**
+     * Checks that the version of the MongoDB server is at least {@link #MIN_SERVER_VERSION}.
+     *
+     * @param buildInfo the result of the {@code buildInfo} command on the server
+     *
+     * @throws InvalidBackendException if the version of the server is not supported
+     */
+    static void checkServerVersion(Document buildInfo) {
+        final List<?> version = buildInfo.get("versionArray", List.class);
+
+        for (int i = 0; i < MIN_SERVER_VERSION.length; i++) {
+            final int part = i < version.size() ? ((Number) version.get(i)).intValue() : 0;
+
+            if (part > MIN_SERVER_VERSION[i]) {
+                return;
+            }
+            if (part < MIN_SERVER_VERSION[i]) {
+                throw new InvalidBackendException(String.format("MongoDB %s is not supported: the server must be at least %d.%d",
+                        buildInfo.getString("version"), MIN_SERVER_VERSION[0], MIN_SERVER_VERSION[1]));
+            }
+        }
+    }
+
     /**
      * Retrieves the database with the specified {@code name} on the {@code client}.
      * The database will be created if it does not already exist.
@@ -9,6 +9,7 @@
 package fr.inria.atlanmod.neoemf.data.mongodb.document;
 
 import org.atlanmod.commons.annotation.VisibleForReflection;
+import org.bson.BsonValue;
 import org.bson.codecs.pojo.annotations.BsonId;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 
@@ -75,16 +76,16 @@ public class ModelDocument {
     private ContainerDocument container;
 
     /**
-     * The single-valued features values of the related model object.
+     * The single-valued features values of the related model object, encoded in a {@link ValueFormat}.
      */
     @BsonProperty(F_SINGLE_FEATURE)
-    private Map<String, String> singleFeatures = new HashMap<>();
+    private Map<String, BsonValue> singleFeatures = new HashMap<>();
 
     /**
-     * The multi-valued features values of the related model object.
+     * The multi-valued features values of the related model object, encoded in a {@link ValueFormat}.
      */
     @BsonProperty(F_MANY_FEATURE)
-    private Map<String, List<String>> manyFeatures = new HashMap<>();
+    private Map<String, List<BsonValue>> manyFeatures = new HashMap<>();
 
     public String getId() {
         return id;
@@ -110,21 +111,21 @@ public class ModelDocument {
         this.container = container;
     }
 
-    public Map<String, String> getSingleFeatures() {
+    public Map<String, BsonValue> getSingleFeatures() {
         return singleFeatures;
     }
 
     @VisibleForReflection
-    public void setSingleFeatures(Map<String, String> singleFeatures) {
+    public void setSingleFeatures(Map<String, BsonValue> singleFeatures) {
         this.singleFeatures = singleFeatures;
     }
 
-    public Map<String, List<String>> getManyFeatures() {
+    public Map<String, List<BsonValue>> getManyFeatures() {
         return manyFeatures;
     }
 
     @VisibleForReflection
-    public void setManyFeatures(Map<String, List<String>> manyFeatures) {
+    public void setManyFeatures(Map<String, List<BsonValue>> manyFeatures) {
         this.manyFeatures = manyFeatures;
     }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mongodb.document;
+
+import org.atlanmod.commons.io.serializer.BinarySerializer;
+import org.atlanmod.commons.io.serializer.BinarySerializerFactory;
+import org.atlanmod.commons.io.serializer.StringSerializer;
+import org.atlanmod.commons.io.serializer.StringSerializerFactory;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * The format of the feature values stored in a {@link ModelDocument}.
+ * <p>
+ * Each collection uses only one format. It is recorded in the metadata of the database, so the values are always
+ * decoded in the format in which they have been written.
+ */
+@ParametersAreNonnullByDefault
+public enum ValueFormat {
+
+    /**
+     * The format used by previous versions: each value is serialized by Java and stored as a Base64 string.
+     * <p>
+     * Values in this format cannot be indexed or filtered by the server. It is only kept to read existing
+     * collections, before they are migrated to {@link #TYPED}.
+     */
+    LEGACY {
+        @Nonnull
+        @Override
+        public BsonValue encode(Object value) {
+            checkNotNull(value, "value");
+
+            return new BsonString(Serializers.BASE64.convert(value));
+        }
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V decode(BsonValue value) {
+            checkNotNull(value, "value");
+
+            return (V) Serializers.BASE64.revert(value.asString().getValue());
+        }
+    },
+
+    /**
+     * The format where strings and primitive values are stored as native BSON types.
+     * <p>
+     * Strings, integers, longs, doubles and booleans are mapped to their BSON equivalent. Floats, shorts, bytes and
+     * characters have no BSON equivalent: they are stored in a small document that keeps their type next to the
+     * closest BSON value. Any other value is serialized by Java and stored as raw binary data.
+     */
+    TYPED {
+        @Nonnull
+        @Override
+        public BsonValue encode(Object value) {
+            checkNotNull(value, "value");
+
+            if (value instanceof String) {
+                return new BsonString((String) value);
+            }
+            if (value instanceof Integer) {
+                return new BsonInt32((Integer) value);
+            }
+            if (value instanceof Long) {
+                return new BsonInt64((Long) value);
+            }
+            if (value instanceof Double) {
+                return new BsonDouble((Double) value);
+            }
+            if (value instanceof Boolean) {
+                return BsonBoolean.valueOf((Boolean) value);
+            }
+            if (value instanceof Float) {
+                return tagged(T_FLOAT, new BsonDouble((Float) value));
+            }
+            if (value instanceof Short) {
+                return tagged(T_SHORT, new BsonInt32((Short) value));
+            }
+            if (value instanceof Byte) {
+                return tagged(T_BYTE, new BsonInt32((Byte) value));
+            }
+            if (value instanceof Character) {
+                return tagged(T_CHAR, new BsonString(value.toString()));
+            }
+
+            return new BsonBinary(BsonBinarySubType.USER_DEFINED, Serializers.BINARY.convert(value));
+        }
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V decode(BsonValue value) {
+            checkNotNull(value, "value");
+
+            switch (value.getBsonType()) {
+                case STRING:
+                    return (V) value.asString().getValue();
+                case INT32:
+                    return (V) Integer.valueOf(value.asInt32().getValue());
+                case INT64:
+                    return (V) Long.valueOf(value.asInt64().getValue());
+                case DOUBLE:
+                    return (V) Double.valueOf(value.asDouble().getValue());
+                case BOOLEAN:
+                    return (V) Boolean.valueOf(value.asBoolean().getValue());
+                case DOCUMENT:
+                    return (V) untagged(value.asDocument());
+                case BINARY:
+                    return (V) Serializers.BINARY.revert(value.asBinary().getData());
+                default:
+                    throw new IllegalArgumentException(String.format("Unsupported BSON type: %s", value.getBsonType()));
+            }
+        }
+    };
+
+    /**
+     * The field name of the type of a tagged value.
+     */
+    @Nonnull
+    public static final String F_TYPE = "type";
+
+    /**
+     * The field name of the BSON value of a tagged value.
+     */
+    @Nonnull
+    public static final String F_VALUE = "value";
+
+    /**
+     * The type of a tagged {@link Float}.
+     */
+    @Nonnull
+    private static final String T_FLOAT = "float";
+
+    /**
+     * The type of a tagged {@link Short}.
+     */
+    @Nonnull
+    private static final String T_SHORT = "short";
+
+    /**
+     * The type of a tagged {@link Byte}.
+     */
+    @Nonnull
+    private static final String T_BYTE = "byte";
+
+    /**
+     * The type of a tagged {@link Character}.
+     */
+    @Nonnull
+    private static final String T_CHAR = "char";
+
+    /**
+     * Encodes the specified {@code value} in this format.
+     *
+     * @param value the value to encode
+     *
+     * @return the BSON representation of the value
+     *
+     * @see #decode(BsonValue)
+     */
+    @Nonnull
+    public abstract BsonValue encode(Object value);
+
+    /**
+     * Decodes a value encoded in this format.
+     *
+     * @param value the BSON representation of the value
+     * @param <V>   the type of the value
+     *
+     * @return the value
+     *
+     * @see #encode(Object)
+     */
+    @Nonnull
+    public abstract <V> V decode(BsonValue value);
+
+    /**
+     * Creates a document that associates the {@code type} of a value with its closest BSON representation.
+     *
+     * @param type  the type of the value
+     * @param value the closest BSON representation of the value
+     *
+     * @return a new document
+     */
+    @Nonnull
+    private static BsonDocument tagged(String type, BsonValue value) {
+        return new BsonDocument(F_TYPE, new BsonString(type)).append(F_VALUE, value);
+    }
+
+    /**
+     * Retrieves the value stored in a document created by {@link #tagged(String, BsonValue)}.
+     *
+     * @param document the document
+     *
+     * @return the value
+     */
+    @Nonnull
+    private static Object untagged(BsonDocument document) {
+        final String type = document.getString(F_TYPE).getValue();
+        final BsonValue value = document.get(F_VALUE);
+
+        switch (type) {
+            case T_FLOAT:
+                return (float) value.asDouble().getValue();
+            case T_SHORT:
+                return (short) value.asInt32().getValue();
+            case T_BYTE:
+                return (byte) value.asInt32().getValue();
+            case T_CHAR:
+                return value.asString().getValue().charAt(0);
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported tagged type: %s", type));
+        }
+    }
+
+    /**
+     * The serializers used for the values that have no BSON representation.
+     */
+    private static final class Serializers {
+
+        /**
+         * The serializer of any object.
+         */
+        @Nonnull
+        static final BinarySerializer<Object> BINARY = BinarySerializerFactory.getInstance().forAny();
+
+        /**
+         * The serializer of any object, in a Base64 representation.
+         */
+        @Nonnull
+        static final StringSerializer<Object> BASE64 = StringSerializerFactory.base64(BINARY);
+    }
+}
@@ -10,16 +10,24 @@ package fr.inria.atlanmod.neoemf.data.mongodb;
 
 import fr.inria.atlanmod.neoemf.context.Context;
 import fr.inria.atlanmod.neoemf.data.AbstractBackendFactoryTest;
+import fr.inria.atlanmod.neoemf.data.InvalidBackendException;
 import fr.inria.atlanmod.neoemf.data.mongodb.config.MongoDbConfig;
 import fr.inria.atlanmod.neoemf.data.mongodb.context.MongoDbDefaultContext;
 
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 /**
  * A test-case about {@link MongoDbBackendFactory}.
  */
@@ -32,6 +40,35 @@ class MongoDbBackendFactoryTest extends AbstractBackendFactoryTest {
         return new MongoDbDefaultContext();
     }
 
+    /**
+     * Checks that the servers older than MongoDB 4.4 are refused.
+     */
+    @Test
+    void testServerVersion() {
+        assertThatCode(() -> MongoDbBackendFactory.checkServerVersion(buildInfo(4, 4, 0))).doesNotThrowAnyException();
+        assertThatCode(() -> MongoDbBackendFactory.checkServerVersion(buildInfo(4, 10, 1))).doesNotThrowAnyException();
+        assertThatCode(() -> MongoDbBackendFactory.checkServerVersion(buildInfo(5, 0, 0))).doesNotThrowAnyException();
+
+        assertThatThrownBy(() -> MongoDbBackendFactory.checkServerVersion(buildInfo(4, 2, 12)))
+                .isInstanceOf(InvalidBackendException.class)
+                .hasMessageContaining("4.2.12");
+        assertThatThrownBy(() -> MongoDbBackendFactory.checkServerVersion(buildInfo(3, 6, 0)))
+                .isInstanceOf(InvalidBackendException.class);
+    }
+
+    /**
+     * Creates the result of the {@code buildInfo} command of a server in the given version.
+     *
+     * @param version the parts of the version
+     *
+     * @return the result of the command
+     */
+    @Nonnull
+    private Document buildInfo(int... version) {
+        return new Document("version", Arrays.stream(version).mapToObj(String::valueOf).collect(Collectors.joining(".")))
+                .append("versionArray", Arrays.stream(version).boxed().collect(Collectors.toList()));
+    }
+
     @Nonnull
     @Override
     protected Stream<Arguments> allMappings() {
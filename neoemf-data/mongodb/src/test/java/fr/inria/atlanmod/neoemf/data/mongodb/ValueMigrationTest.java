@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mongodb;
+
+import fr.inria.atlanmod.neoemf.AbstractUnitTest;
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.SingleFeatureBean;
+import fr.inria.atlanmod.neoemf.data.mongodb.context.MongoDbDefaultContext;
+import fr.inria.atlanmod.neoemf.data.mongodb.document.ValueFormat;
+import fr.inria.atlanmod.neoemf.data.store.Store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * A test-case about the migration of the values of a {@link DefaultMongoDbBackend} from the {@link ValueFormat#LEGACY}
+ * format.
+ */
+@ParametersAreNonnullByDefault
+class ValueMigrationTest extends AbstractUnitTest {
+
+    private final Id id0 = Id.getProvider().fromLong(42);
+
+    private final Id id1 = Id.getProvider().fromLong(43);
+
+    /**
+     * The back-end currently opened.
+     */
+    private DefaultMongoDbBackend backend;
+
+    @Nonnull
+    @Override
+    protected Context context() {
+        return new MongoDbDefaultContext();
+    }
+
+    @AfterEach
+    void closeBackend() {
+        if (nonNull(backend)) {
+            backend.close();
+        }
+    }
+
+    /**
+     * Checks that the values of a legacy database are readable after a migration, and after reopening the database.
+     */
+    @Test
+    void testMigrate() {
+        openLegacy();
+        writeValues(id0);
+
+        backend.migrateValues();
+        assertValues(id0);
+
+        reopen();
+        assertValues(id0);
+    }
+
+    /**
+     * Checks that an interrupted migration is resumed without decoding the values that have already been migrated.
+     */
+    @Test
+    void testResumeMigration() {
+        openLegacy();
+        writeValues(id0);
+        writeValues(id1);
+
+        // Interrupt the migration after the documents have been written, but before the format has been recorded
+        backend.migrateDocuments();
+
+        reopen();
+        backend.migrateValues();
+        assertValues(id0);
+        assertValues(id1);
+
+        reopen();
+        assertValues(id0);
+        assertValues(id1);
+    }
+
+    /**
+     * Checks that the values of a database whose migration has been interrupted cannot be read nor written until the
+     * migration is resumed.
+     */
+    @Test
+    void testInterruptedMigration() {
+        openLegacy();
+        writeValues(id0);
+
+        backend.migrateDocuments();
+        assertThat(catchThrowable(() -> writeValues(id1))).isInstanceOf(IllegalStateException.class);
+
+        reopen();
+        assertThat(catchThrowable(() -> assertValues(id0))).isInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(() -> writeValues(id1))).isInstanceOf(IllegalStateException.class);
+
+        backend.migrateValues();
+        writeValues(id1);
+        assertValues(id0);
+        assertValues(id1);
+    }
+
+    /**
+     * Opens a new database that stores its values in the {@link ValueFormat#LEGACY} format.
+     */
+    private void openLegacy() {
+        reopen();
+        backend.writeFormat(ValueFormat.LEGACY);
+        reopen();
+    }
+
+    /**
+     * Closes the current back-end, if any, and opens the database of the current test.
+     */
+    private void reopen() {
+        closeBackend();
+        backend = (DefaultMongoDbBackend) ((Store) context().createMapper(currentTempFile())).backend();
+    }
+
+    /**
+     * Writes single-valued and multi-valued features of the element identified by {@code id}.
+     *
+     * @param id the identifier of the element
+     */
+    private void writeValues(Id id) {
+        backend.setValue(SingleFeatureBean.of(id, 0), "value");
+        backend.setValue(SingleFeatureBean.of(id, 1), 42);
+        backend.appendAllValues(SingleFeatureBean.of(id, 2), Arrays.asList("a", "b"));
+    }
+
+    /**
+     * Checks the values written by {@link #writeValues(Id)}.
+     *
+     * @param id the identifier of the element
+     */
+    private void assertValues(Id id) {
+        assertThat(backend.<String>valueOf(SingleFeatureBean.of(id, 0))).contains("value");
+        assertThat(backend.<Integer>valueOf(SingleFeatureBean.of(id, 1))).contains(42);
+        assertThat(backend.<String>allValuesOf(SingleFeatureBean.of(id, 2)).collect(Collectors.toList())).containsExactly("a", "b");
+    }
+}
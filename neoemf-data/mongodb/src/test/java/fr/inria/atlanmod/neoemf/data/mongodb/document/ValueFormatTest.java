@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.data.mongodb.document;
+
+import org.atlanmod.commons.AbstractTest;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test-case about {@link ValueFormat}.
+ */
+@ParametersAreNonnullByDefault
+class ValueFormatTest extends AbstractTest {
+
+    /**
+     * The values to encode, with their exact type.
+     */
+    private static final List<Object> VALUES = Arrays.asList(
+            "value", 42, 42L, 4.2d, true, 4.2f, (short) 42, (byte) 42, 'c', Arrays.asList("a", "b")
+    );
+
+    @Test
+    void testTypedRoundTrip() {
+        for (Object value : VALUES) {
+            Object result = ValueFormat.TYPED.decode(ValueFormat.TYPED.encode(value));
+
+            assertThat(result).isEqualTo(value).hasSameClassAs(value);
+        }
+    }
+
+    @Test
+    void testLegacyRoundTrip() {
+        for (Object value : VALUES) {
+            Object result = ValueFormat.LEGACY.decode(ValueFormat.LEGACY.encode(value));
+
+            assertThat(result).isEqualTo(value).hasSameClassAs(value);
+        }
+    }
+
+    @Test
+    void testTypedNativeTypes() {
+        assertThat(ValueFormat.TYPED.encode("value").getBsonType()).isEqualTo(BsonType.STRING);
+        assertThat(ValueFormat.TYPED.encode(42).getBsonType()).isEqualTo(BsonType.INT32);
+        assertThat(ValueFormat.TYPED.encode(42L).getBsonType()).isEqualTo(BsonType.INT64);
+        assertThat(ValueFormat.TYPED.encode(4.2d).getBsonType()).isEqualTo(BsonType.DOUBLE);
+        assertThat(ValueFormat.TYPED.encode(true).getBsonType()).isEqualTo(BsonType.BOOLEAN);
+        assertThat(ValueFormat.TYPED.encode(Arrays.asList("a", "b")).getBsonType()).isEqualTo(BsonType.BINARY);
+    }
+
+    @Test
+    void testTypedTaggedTypes() {
+        BsonValue encoded = ValueFormat.TYPED.encode(4.2f);
+
+        assertThat(encoded.getBsonType()).isEqualTo(BsonType.DOCUMENT);
+        assertThat(encoded.asDocument().getString(ValueFormat.F_TYPE).getValue()).isEqualTo("float");
+        assertThat(encoded.asDocument().getDouble(ValueFormat.F_VALUE).getValue()).isEqualTo(4.2f);
+    }
+
+    @Test
+    void testMigration() {
+        for (Object value : VALUES) {
+            BsonValue legacy = ValueFormat.LEGACY.encode(value);
+            BsonValue typed = ValueFormat.TYPED.encode(ValueFormat.LEGACY.decode(legacy));
+
+            assertThat(typed).isEqualTo(ValueFormat.TYPED.encode(value));
+        }
+    }
+}
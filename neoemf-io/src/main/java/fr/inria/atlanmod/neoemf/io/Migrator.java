@@ -13,15 +13,20 @@ import fr.inria.atlanmod.neoemf.io.listener.CountingEventListener;
 import fr.inria.atlanmod.neoemf.io.listener.EventListener;
 import fr.inria.atlanmod.neoemf.io.listener.LoggingEventListener;
 import fr.inria.atlanmod.neoemf.io.listener.ProgressEventListener;
+import fr.inria.atlanmod.neoemf.io.listener.ThroughputEventListener;
 import fr.inria.atlanmod.neoemf.io.listener.TimerEventListener;
 import fr.inria.atlanmod.neoemf.io.processor.NoopProcessor;
+import fr.inria.atlanmod.neoemf.io.processor.PipedProcessor;
 import fr.inria.atlanmod.neoemf.io.processor.Processor;
 import fr.inria.atlanmod.neoemf.io.reader.AbstractReader;
 import fr.inria.atlanmod.neoemf.io.reader.DefaultMapperReader;
 import fr.inria.atlanmod.neoemf.io.reader.Reader;
+import fr.inria.atlanmod.neoemf.io.reader.binary.BinaryFileReader;
+import fr.inria.atlanmod.neoemf.io.reader.json.JsonStreamReader;
 import fr.inria.atlanmod.neoemf.io.reader.xmi.XmiStreamReader;
 import fr.inria.atlanmod.neoemf.io.writer.DefaultMapperWriter;
 import fr.inria.atlanmod.neoemf.io.writer.Writer;
+import fr.inria.atlanmod.neoemf.io.writer.binary.BinaryStreamWriter;
 import fr.inria.atlanmod.neoemf.io.writer.json.JsonStreamWriter;
 import fr.inria.atlanmod.neoemf.io.writer.xmi.XmiStreamWriter;
 
@@ -51,6 +56,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.WillNotClose;
@@ -109,6 +115,15 @@ public final class Migrator<T> {
     @Nonnull
     private final Set<OutputStream> streamsToClose = new HashSet<>();
 
+    /**
+     * The maximum number of batches of events waiting for each {@link Writer}, or {@code 0} if the writers are notified
+     * on the reading thread.
+     *
+     * @see #pipelined(int)
+     */
+    @Nonnegative
+    private int pipeBufferSize;
+
     /**
      * Constructs a new {@code Migrator} with the given arguments.
      *
@@ -154,6 +169,56 @@ public final class Migrator<T> {
         return new Migrator<>(new XmiStreamReader(), uncompressIfNecessary(stream));
     }
 
+    /**
+     * Creates a {@code Migrator} that reads a JSON file. The file can be compressed.
+     *
+     * @param file the JSON file to read
+     *
+     * @return a new migrator
+     *
+     * @throws IOException if an I/O error occurs during the creation
+     */
+    @Nonnull
+    public static Migrator<InputStream> fromJson(File file) throws IOException {
+        checkArgument(file.exists(), "file does not exists : %s", file.getAbsolutePath());
+        checkArgument(!file.isDirectory(), "file must not be a directory");
+        checkArgument(file.canRead(), "file cannot be read");
+
+        return fromJson(new FileInputStream(file));
+    }
+
+    /**
+     * Creates a {@code Migrator} that reads JSON content from an {@link InputStream}. The content can be compressed.
+     *
+     * @param stream the stream of the JSON content to read
+     *
+     * @return a new migrator
+     *
+     * @throws IOException if an I/O error occurs during the creation
+     */
+    @Nonnull
+    public static Migrator<InputStream> fromJson(InputStream stream) throws IOException {
+        return new Migrator<>(new JsonStreamReader(), uncompressIfNecessary(stream));
+    }
+
+    /**
+     * Creates a {@code Migrator} that reads a binary file.
+     *
+     * @param file the binary file to read
+     *
+     * @return a new migrator
+     *
+     * @see #toBinary(File, boolean)
+     */
+    @Nonnull
+    public static Migrator<File> fromBinary(File file) {
+        checkArgument(file.exists(), "file does not exists : %s", file.getAbsolutePath());
+        checkArgument(!file.isDirectory(), "file must not be a directory");
+        checkArgument(file.canRead(), "file cannot be read");
+
+        return new Migrator<>(new BinaryFileReader(), file);
+    }
+
     /**
      * Creates a {@code Migrator} that reads a {@link fr.inria.atlanmod.neoemf.data.mapping.DataMapper}.
      *
@@ -318,6 +383,40 @@ public final class Migrator<T> {
         return to(new JsonStreamWriter(stream));
     }
 
+    /**
+     * Specifies the binary {@code file} where to write the data.
+     *
+     * @param file the file where to write
+     *
+     * @return this migrator (for chaining)
+     *
+     * @throws IOException if an I/O error occurs during the creation
+     * @see #toBinary(File, boolean)
+     */
+    @Nonnull
+    public Migrator<T> toBinary(File file) throws IOException {
+        return toBinary(file, false);
+    }
+
+    /**
+     * Specifies the binary {@code file} where to write the data.
+     *
+     * @param file           the file where to write
+     * @param useCompression {@code true} if the blocks of the binary file must be compressed
+     *
+     * @return this migrator (for chaining)
+     *
+     * @throws IOException if an I/O error occurs during the creation
+     * @see #fromBinary(File)
+     */
+    @Nonnull
+    public Migrator<T> toBinary(File file, boolean useCompression) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        streamsToClose.add(out);
+
+        return to(new BinaryStreamWriter(out, useCompression));
+    }
+
     //endregion
 
     //region Listeners
@@ -392,6 +491,45 @@ public final class Migrator<T> {
 
     //endregion
 
+    //region Options
+
+    /**
+     * Notifies each {@link Writer} on a dedicated thread, with the default buffer size.
+     *
+     * @return this migrator (for chaining)
+     *
+     * @see #pipelined(int)
+     */
+    @Nonnull
+    public Migrator<T> pipelined() {
+        return pipelined(PipedProcessor.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Notifies each {@link Writer} on a dedicated thread, so that the reading and the writing are executed in parallel.
+     * <p>
+     * The events are sent to the writers through bounded buffers: the reading is blocked when a writer cannot keep up.
+     * The throughput of each stage is logged at the end of the migration.
+     * <p>
+     * <b>NOTE:</b> The mapping of the read events is still executed by the reading thread, because the readers depend
+     * on the identifiers resolved by their processors.
+     *
+     * @param bufferSize the maximum number of batches of events waiting for each writer
+     *
+     * @return this migrator (for chaining)
+     *
+     * @see PipedProcessor
+     */
+    @Nonnull
+    public Migrator<T> pipelined(@Nonnegative int bufferSize) {
+        checkArgument(bufferSize > 0, "bufferSize (%d) must be > 0", bufferSize);
+
+        this.pipeBufferSize = bufferSize;
+        return this;
+    }
+
+    //endregion
+
     /**
      * Runs the migration.
      *
@@ -400,18 +538,39 @@ public final class Migrator<T> {
     public void migrate() throws IOException {
         checkNotNull(writers, "writers");
 
+        Collection<PipedProcessor> pipes = new ArrayList<>(writers.size());
+
         try {
             // Bind handlers and notifiers
-            Collection<Handler> handlers = new ArrayList<>(listeners.size() + writers.size());
+            Collection<Handler> handlers = new ArrayList<>(listeners.size() + writers.size() + 1);
             final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
             logger.info("writers :: {}", writers.toArray());
             handlers.addAll(listeners);
-            handlers.addAll(writers);
+
+            if (pipeBufferSize > 0) {
+                handlers.add(new ThroughputEventListener(reader.getClass().getSimpleName()));
+
+                for (Writer writer : writers) {
+                    final String stage = writer.getClass().getSimpleName();
+
+                    PipedProcessor pipe = new PipedProcessor("neoemf-migrator-" + stage, pipeBufferSize);
+                    pipe.addNext(new ThroughputEventListener(stage));
+                    pipe.addNext(writer);
+
+                    pipes.add(pipe);
+                }
+                handlers.addAll(pipes);
+            }
+            else {
+                handlers.addAll(writers);
+            }
+
             reader.addNext(new NoopProcessor(handlers));
 
             reader.read(source);
         }
         finally {
+            pipes.forEach(PipedProcessor::close);
             closeAll();
         }
     }
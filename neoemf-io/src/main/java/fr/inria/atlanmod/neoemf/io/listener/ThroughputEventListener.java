@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io.listener;
+
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyElement;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+
+import org.atlanmod.commons.log.Log;
+import org.atlanmod.commons.time.Stopwatch;
+
+import java.time.Duration;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A {@link EventListener} that measures the number of events processed per second by a stage of an I/O process.
+ * <p>
+ * This listener is notified by a single thread: it must be registered once per stage.
+ */
+@ParametersAreNonnullByDefault
+public class ThroughputEventListener extends AbstractEventListener {
+
+    /**
+     * The name of the observed stage.
+     */
+    @Nonnull
+    private final String stage;
+
+    /**
+     * The stopwatch to measure elapsed time.
+     */
+    @Nonnull
+    private final Stopwatch stopwatch = Stopwatch.createUnstarted();
+
+    /**
+     * The current number of event.
+     */
+    @Nonnegative
+    private long eventCount;
+
+    /**
+     * Constructs a new {@code ThroughputEventListener}.
+     *
+     * @param stage the name of the observed stage
+     */
+    public ThroughputEventListener(String stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void onInitialize() {
+        stopwatch.start();
+    }
+
+    @Override
+    public void onStartElement(ProxyElement element) {
+        eventCount++;
+    }
+
+    @Override
+    public void onAttribute(ProxyAttribute attribute) {
+        eventCount++;
+    }
+
+    @Override
+    public void onReference(ProxyReference reference) {
+        eventCount++;
+    }
+
+    @Override
+    public void onComplete() {
+        stopwatch.stop();
+
+        final Duration elapsed = stopwatch.elapsed();
+        final long throughput = eventCount * 1000 / Math.max(1, elapsed.toMillis());
+
+        Log.info("[{0}] {1,number,#} events in {2} ({3,number,#} events/s)", stage, eventCount, elapsed, throughput);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io.processor;
+
+import fr.inria.atlanmod.neoemf.io.AbstractNotifier;
+import fr.inria.atlanmod.neoemf.io.Handler;
+import fr.inria.atlanmod.neoemf.io.Notifier;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyElement;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.nonNull;
+import static org.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A {@link Processor} that notifies its handlers on a dedicated thread.
+ * <p>
+ * Received events are grouped in batches, and sent to the consumer thread through a bounded ring buffer: when the
+ * buffer is full, the notifying thread is blocked until the handlers catch up. An exception thrown by a handler is
+ * re-thrown on the notifying thread, at the latest when the task is complete.
+ * <p>
+ * <b>NOTE:</b> The received proxies must not be modified after their notification.
+ */
+@ParametersAreNonnullByDefault
+public final class PipedProcessor extends AbstractNotifier<Handler> implements Processor, AutoCloseable {
+
+    /**
+     * The default number of batches that can be waiting in the buffer.
+     */
+    @Nonnegative
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+
+    /**
+     * The number of events in a batch.
+     */
+    @Nonnegative
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The event of the end of the task, that stops the consumer thread.
+     */
+    @Nonnull
+    private static final Event COMPLETE = Notifier::notifyComplete;
+
+    /**
+     * The batches waiting to be sent to the handlers.
+     */
+    @Nonnull
+    private final BlockingQueue<Event[]> buffer;
+
+    /**
+     * The thread that notifies the handlers.
+     */
+    @Nonnull
+    private final Thread consumer;
+
+    /**
+     * The batch being filled.
+     */
+    @Nonnull
+    private Event[] batch = new Event[BATCH_SIZE];
+
+    /**
+     * The number of events in the current {@link #batch}.
+     */
+    @Nonnegative
+    private int batchSize;
+
+    /**
+     * The first exception thrown by a handler, if any.
+     */
+    @Nullable
+    private volatile Throwable failure;
+
+    /**
+     * Constructs a new {@code PipedProcessor}.
+     *
+     * @param name       the name of the consumer thread
+     * @param bufferSize the maximum number of batches waiting to be sent to the handlers
+     */
+    public PipedProcessor(String name, @Nonnegative int bufferSize) {
+        checkArgument(bufferSize > 0, "bufferSize (%d) must be > 0", bufferSize);
+
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        this.consumer = new Thread(this::consume, name);
+        this.consumer.setDaemon(true);
+    }
+
+    @Override
+    protected boolean supportsMultiTargets() {
+        return true;
+    }
+
+    @Override
+    public void onInitialize() throws IOException {
+        consumer.start();
+        send(Notifier::notifyInitialize);
+    }
+
+    @Override
+    public void onStartElement(ProxyElement element) throws IOException {
+        send(n -> n.notifyStartElement(element));
+    }
+
+    @Override
+    public void onAttribute(ProxyAttribute attribute) throws IOException {
+        send(n -> n.notifyAttribute(attribute));
+    }
+
+    @Override
+    public void onReference(ProxyReference reference) throws IOException {
+        send(n -> n.notifyReference(reference));
+    }
+
+    @Override
+    public void onEndElement() throws IOException {
+        send(Notifier::notifyEndElement);
+    }
+
+    @Override
+    public void onComplete() throws IOException {
+        send(COMPLETE);
+        flush();
+
+        try {
+            consumer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the handlers");
+        }
+
+        checkNoFailure();
+    }
+
+    /**
+     * Stops the consumer thread if the task has not been completed, and discards the pending events.
+     */
+    @Override
+    public void close() {
+        if (consumer.isAlive()) {
+            consumer.interrupt();
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Adds the {@code event} to the current batch, and sends the batch if it is full.
+     *
+     * @param event the event to send
+     *
+     * @throws IOException if a handler has failed, or if the current thread is interrupted
+     */
+    private void send(Event event) throws IOException {
+        batch[batchSize++] = event;
+
+        if (batchSize == batch.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends the current batch to the consumer thread, waiting for space in the buffer if necessary.
+     *
+     * @throws IOException if a handler has failed, or if the current thread is interrupted
+     */
+    private void flush() throws IOException {
+        checkNoFailure();
+
+        if (batchSize == 0) {
+            return;
+        }
+
+        final Event[] events = batchSize == batch.length ? batch : Arrays.copyOf(batch, batchSize);
+
+        try {
+            buffer.put(events);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the handlers");
+        }
+
+        batch = new Event[BATCH_SIZE];
+        batchSize = 0;
+    }
+
+    /**
+     * Re-throws the exception thrown by a handler, if any.
+     *
+     * @throws IOException if a handler has failed
+     */
+    private void checkNoFailure() throws IOException {
+        final Throwable t = failure;
+
+        if (nonNull(t)) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * Notifies the handlers of the buffered events, until the end of the task.
+     * <p>
+     * After a failure, the remaining events are discarded so that the notifying thread is never blocked.
+     */
+    private void consume() {
+        try {
+            while (true) {
+                for (Event event : buffer.take()) {
+                    if (failure == null) {
+                        try {
+                            event.sendTo(this);
+                        }
+                        catch (Throwable t) {
+                            failure = t;
+                        }
+                    }
+
+                    if (event == COMPLETE) {
+                        return;
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An event waiting to be sent to the handlers.
+     */
+    @FunctionalInterface
+    private interface Event {
+
+        /**
+         * Sends this event through the {@code notifier}.
+         *
+         * @param notifier the notifier to use
+         *
+         * @throws IOException if an I/O error occurs in a handler
+         */
+        void sendTo(Notifier notifier) throws IOException;
+    }
+}
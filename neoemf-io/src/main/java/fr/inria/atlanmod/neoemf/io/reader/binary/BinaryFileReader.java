@@ -0,0 +1,562 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io.reader.binary;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.io.processor.ValueConverter;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyClass;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyElement;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyPackage;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyValue;
+import fr.inria.atlanmod.neoemf.io.reader.AbstractReader;
+
+import org.atlanmod.commons.annotation.Beta;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.FLAG_COMPRESSED;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.HEADER_SIZE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.MAGIC;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.MAX_VARINT_SIZE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_ATTRIBUTE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_CLASS;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_END_ELEMENT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_FEATURE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_NAME;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_REFERENCE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_START_ELEMENT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_BYTE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_CHAR;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_DOUBLE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_FALSE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_FLOAT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_INT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_LITERAL;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_LONG;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_SHORT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_STRING;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_TRUE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VERSION;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A {@link fr.inria.atlanmod.neoemf.io.reader.Reader} that reads data from a binary file.
+ * <p>
+ * The file is mapped in memory, and the records are parsed directly from the mapped regions: only the compressed
+ * blocks are copied, when they are inflated.
+ *
+ * @see fr.inria.atlanmod.neoemf.io.util.BinaryConstants
+ * @see fr.inria.atlanmod.neoemf.io.writer.binary.BinaryStreamWriter
+ */
+@Beta
+@ParametersAreNonnullByDefault
+public class BinaryFileReader extends AbstractReader<File> {
+
+    /**
+     * The maximum size of a region of the file mapped at once.
+     */
+    @Nonnegative
+    private static final int MAPPING_SIZE = 1 << 28;
+
+    /**
+     * The element names, by index.
+     */
+    @Nonnull
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * The meta-classes, by index.
+     */
+    @Nonnull
+    private final List<ProxyClass> classes = new ArrayList<>();
+
+    /**
+     * The features, by index.
+     */
+    @Nonnull
+    private final List<EStructuralFeature> features = new ArrayList<>();
+
+    /**
+     * The identifiers of the features in the meta-class of their owner, by index.
+     */
+    @Nonnull
+    private final List<Integer> featureIds = new ArrayList<>();
+
+    /**
+     * The channel of the file being read.
+     */
+    private FileChannel channel;
+
+    /**
+     * The region of the file currently mapped in memory.
+     */
+    private MappedByteBuffer region;
+
+    /**
+     * The position of the {@link #region} in the file.
+     */
+    @Nonnegative
+    private long regionStart;
+
+    /**
+     * The inflated content of the current block, when the file is compressed.
+     */
+    private ByteBuffer inflatedBlock;
+
+    /**
+     * A buffer used to decode strings.
+     */
+    @Nonnull
+    private byte[] stringBytes = new byte[1 << 8];
+
+    @Override
+    public void read(File source) throws IOException {
+        checkNotNull(source, "source");
+
+        try (FileChannel c = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            channel = c;
+
+            final long size = c.size();
+            final boolean isCompressed = readHeader(size);
+
+            Inflater inflater = isCompressed ? new Inflater() : null;
+            try {
+                notifyInitialize();
+
+                long position = HEADER_SIZE;
+                while (position < size) {
+                    position = readBlock(position, size, inflater);
+                }
+
+                notifyComplete();
+            }
+            finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+        finally {
+            channel = null;
+            region = null;
+            inflatedBlock = null;
+
+            names.clear();
+            classes.clear();
+            features.clear();
+            featureIds.clear();
+
+            ProxyPackage.Registry.getInstance().clean();
+        }
+    }
+
+    /**
+     * Reads and checks the header of the file.
+     *
+     * @param size the size of the file
+     *
+     * @return {@code true} if the blocks of the file are compressed
+     *
+     * @throws IOException if the file is not a binary file, or if its version is not supported
+     */
+    private boolean readHeader(long size) throws IOException {
+        if (size < HEADER_SIZE) {
+            throw new IOException("Malformed binary file: missing header");
+        }
+
+        final ByteBuffer header = regionOf(0, HEADER_SIZE);
+
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Malformed binary file: unknown magic number");
+        }
+
+        final byte version = header.get();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported binary file version: %d (expected %d)", version, VERSION));
+        }
+
+        return (header.get() & FLAG_COMPRESSED) != 0;
+    }
+
+    /**
+     * Reads the block at the given {@code position}, and notifies all its records.
+     *
+     * @param position the position of the block in the file
+     * @param size     the size of the file
+     * @param inflater the decompressor of the block, or {@code null} if the block is not compressed
+     *
+     * @return the position of the next block
+     *
+     * @throws IOException if an I/O error occurs when reading
+     */
+    private long readBlock(long position, long size, Inflater inflater) throws IOException {
+        final ByteBuffer header = regionOf(position, (int) Math.min(MAX_VARINT_SIZE * 2, size - position));
+        final int rawSize = (int) getVarLong(header);
+        final int storedSize = (int) getVarLong(header);
+
+        final long contentPosition = position + header.position();
+        final ByteBuffer content = regionOf(contentPosition, storedSize);
+
+        if (inflater == null) {
+            readRecords(content);
+        }
+        else {
+            if (inflatedBlock == null || inflatedBlock.capacity() < rawSize) {
+                inflatedBlock = ByteBuffer.allocate(rawSize);
+            }
+            inflatedBlock.clear().limit(rawSize);
+
+            try {
+                inflater.reset();
+                inflater.setInput(content);
+                while (inflatedBlock.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(inflatedBlock) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                }
+            }
+            catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+
+            if (inflatedBlock.hasRemaining()) {
+                throw new IOException("Malformed binary file: truncated block");
+            }
+
+            inflatedBlock.flip();
+            readRecords(inflatedBlock);
+        }
+
+        return contentPosition + storedSize;
+    }
+
+    /**
+     * Reads and notifies all the records of a block.
+     *
+     * @param block the content of the block
+     *
+     * @throws IOException if an I/O error occurs when notifying
+     */
+    private void readRecords(ByteBuffer block) throws IOException {
+        while (block.hasRemaining()) {
+            final byte type = block.get();
+            final int size = (int) getVarLong(block);
+            final int end = block.position() + size;
+
+            switch (type) {
+                case RECORD_NAME:
+                    readName(block);
+                    break;
+                case RECORD_CLASS:
+                    readClass(block);
+                    break;
+                case RECORD_FEATURE:
+                    readFeature(block);
+                    break;
+                case RECORD_START_ELEMENT:
+                    readStartElement(block);
+                    break;
+                case RECORD_END_ELEMENT:
+                    notifyEndElement();
+                    break;
+                case RECORD_ATTRIBUTE:
+                    readAttribute(block);
+                    break;
+                case RECORD_REFERENCE:
+                    readReference(block);
+                    break;
+                default:
+                    // Unknown record: skipped
+                    break;
+            }
+
+            block.position(end);
+        }
+    }
+
+    /**
+     * Reads an element name.
+     *
+     * @param record the payload of the record
+     */
+    private void readName(ByteBuffer record) {
+        final int index = (int) getVarLong(record);
+        checkIndex(index, names.size());
+
+        names.add(getString(record));
+    }
+
+    /**
+     * Reads a meta-class.
+     *
+     * @param record the payload of the record
+     */
+    private void readClass(ByteBuffer record) {
+        final int index = (int) getVarLong(record);
+        checkIndex(index, classes.size());
+
+        final String uri = getString(record);
+        final String name = getString(record);
+
+        classes.add(new ProxyClass(ClassBean.of(name, uri).get()));
+    }
+
+    /**
+     * Reads a feature.
+     *
+     * @param record the payload of the record
+     */
+    private void readFeature(ByteBuffer record) {
+        final int index = (int) getVarLong(record);
+        checkIndex(index, features.size());
+
+        final ProxyClass containingClass = classes.get((int) getVarLong(record));
+        final String name = getString(record);
+        final int featureId = (int) getVarLong(record);
+
+        final EStructuralFeature eFeature = containingClass.getOrigin().getEStructuralFeature(name);
+        checkNotNull(eFeature, "No feature named '%s' has been found in class '%s'", name, containingClass.getName());
+
+        features.add(eFeature);
+        featureIds.add(featureId);
+    }
+
+    /**
+     * Reads and notifies the start of an element.
+     *
+     * @param record the payload of the record
+     *
+     * @throws IOException if an I/O error occurs when notifying
+     */
+    private void readStartElement(ByteBuffer record) throws IOException {
+        final boolean isRoot = record.get() != 0;
+        final String name = names.get((int) getVarLong(record));
+        final ProxyClass metaClass = classes.get((int) getVarLong(record));
+        final Id id = getId(record);
+
+        ProxyElement element = new ProxyElement()
+                .setName(name)
+                .setId(ProxyValue.resolved(id))
+                .setRoot(isRoot)
+                .setMetaClass(metaClass);
+
+        notifyStartElement(element);
+    }
+
+    /**
+     * Reads and notifies the values of an attribute.
+     *
+     * @param record the payload of the record
+     *
+     * @throws IOException if an I/O error occurs when notifying
+     */
+    private void readAttribute(ByteBuffer record) throws IOException {
+        final Id owner = getId(record);
+        final int index = (int) getVarLong(record);
+        final int count = (int) getVarLong(record);
+
+        final EAttribute eAttribute = (EAttribute) features.get(index);
+        final int featureId = featureIds.get(index);
+
+        for (int i = 0; i < count; i++) {
+            ProxyAttribute attribute = new ProxyAttribute()
+                    .setOwner(owner)
+                    .setId(featureId)
+                    .setOrigin(eAttribute)
+                    .setValue(ProxyValue.resolved(getValue(record, eAttribute)));
+
+            notifyAttribute(attribute);
+        }
+    }
+
+    /**
+     * Reads and notifies the values of a reference.
+     *
+     * @param record the payload of the record
+     *
+     * @throws IOException if an I/O error occurs when notifying
+     */
+    private void readReference(ByteBuffer record) throws IOException {
+        final Id owner = getId(record);
+        final int index = (int) getVarLong(record);
+        final int count = (int) getVarLong(record);
+
+        final EReference eReference = (EReference) features.get(index);
+        final int featureId = featureIds.get(index);
+
+        for (int i = 0; i < count; i++) {
+            ProxyReference reference = new ProxyReference()
+                    .setOwner(owner)
+                    .setId(featureId)
+                    .setOrigin(eReference)
+                    .setValue(ProxyValue.resolved(getId(record)));
+
+            notifyReference(reference);
+        }
+    }
+
+    /**
+     * Reads a value of an attribute, preceded by its type.
+     *
+     * @param record     the payload of the record
+     * @param eAttribute the attribute of the value
+     *
+     * @return the value
+     */
+    @Nonnull
+    private Object getValue(ByteBuffer record, EAttribute eAttribute) {
+        final byte type = record.get();
+
+        switch (type) {
+            case VALUE_STRING:
+                return getString(record);
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_INT:
+                return (int) zigZag(getVarLong(record));
+            case VALUE_LONG:
+                return zigZag(getVarLong(record));
+            case VALUE_SHORT:
+                return (short) zigZag(getVarLong(record));
+            case VALUE_BYTE:
+                return record.get();
+            case VALUE_CHAR:
+                return (char) getVarLong(record);
+            case VALUE_DOUBLE:
+                return record.getDouble();
+            case VALUE_FLOAT:
+                return record.getFloat();
+            case VALUE_LITERAL:
+                return ValueConverter.INSTANCE.convert(getString(record), eAttribute);
+            default:
+                throw new IllegalStateException(String.format("Malformed binary file: unknown value type %d", type));
+        }
+    }
+
+    /**
+     * Reads an identifier, encoded on 8 bytes.
+     *
+     * @param record the payload of the record
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    private Id getId(ByteBuffer record) {
+        return Id.getProvider().fromLong(record.getLong());
+    }
+
+    /**
+     * Reads a string, as its length followed by its UTF-8 bytes.
+     *
+     * @param record the payload of the record
+     *
+     * @return the string
+     */
+    @Nonnull
+    private String getString(ByteBuffer record) {
+        final int length = (int) getVarLong(record);
+
+        if (stringBytes.length < length) {
+            stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+        }
+        record.get(stringBytes, 0, length);
+
+        return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a view of the file between the {@code position} and {@code position + length}, mapping a new region of
+     * the file if necessary.
+     *
+     * @param position the position in the file
+     * @param length   the number of bytes to read
+     *
+     * @return a buffer containing exactly the requested bytes
+     *
+     * @throws IOException if an I/O error occurs when mapping the file
+     */
+    @Nonnull
+    private ByteBuffer regionOf(long position, @Nonnegative int length) throws IOException {
+        if (region == null || position < regionStart || position + length > regionStart + region.capacity()) {
+            final long mappedSize = Math.min(channel.size() - position, Math.max(MAPPING_SIZE, length));
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, mappedSize);
+            regionStart = position;
+        }
+
+        final int offset = (int) (position - regionStart);
+        return region.duplicate().position(offset).limit(offset + length).slice();
+    }
+
+    /**
+     * Checks that a dictionary record has the expected {@code index}.
+     *
+     * @param index    the index of the record
+     * @param expected the expected index
+     */
+    private static void checkIndex(int index, int expected) {
+        if (index != expected) {
+            throw new IllegalStateException(String.format("Malformed binary file: unexpected index %d (expected %d)", index, expected));
+        }
+    }
+
+    /**
+     * Reads an unsigned variable-length integer, 7 bits at a time.
+     *
+     * @param buffer the buffer to read
+     *
+     * @return the value
+     */
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Decodes a signed value encoded with the zig-zag encoding.
+     *
+     * @param value the encoded value
+     *
+     * @return the decoded value
+     */
+    private static long zigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,54 +1,114 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
 package fr.inria.atlanmod.neoemf.io.reader.json;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.inria.atlanmod.neoemf.io.processor.AbstractProcessor;
+import fr.inria.atlanmod.neoemf.io.processor.EcoreMapper;
+import fr.inria.atlanmod.neoemf.io.processor.XPathResolver;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyClass;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyPackage;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyValue;
 import fr.inria.atlanmod.neoemf.io.reader.AbstractStreamReader;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+import fr.inria.atlanmod.neoemf.io.util.JsonConstants;
+
+import org.atlanmod.commons.primitive.Strings;
+import org.eclipse.emf.ecore.EPackage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.atlanmod.commons.Preconditions.checkArgument;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * An {@link AbstractStreamReader} that processes the raw structure of JSON files.
+ * <p>
+ * Each JSON object is an element: its fields are the features of the element, except for {@link JsonConstants#ECLASS}
+ * and {@link JsonConstants#ID} that define its meta-class and its identifier. The objects nested in a field are the
+ * elements contained by this feature.
+ *
+ * @see fr.inria.atlanmod.neoemf.io.writer.json.JsonStreamWriter
+ */
+@ParametersAreNonnullByDefault
+public abstract class AbstractJsonStreamReader extends AbstractStreamReader {
 
-import org.eclipse.emf.ecore.resource.Resource;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+    /**
+     * Whether the current element is a root element.
+     */
+    private boolean isRoot;
 
-import java.io.*;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+    @Nonnull
+    @Override
+    protected List<AbstractProcessor> createProcessors() {
+        return Arrays.asList(new EcoreMapper(), new XPathResolver());
+    }
 
+    /**
+     * Reads the start of a root element. Its name is defined by its meta-class.
+     */
+    protected final void readStartRootElement() {
+        readStartElement(null, Strings.EMPTY);
+        isRoot = true;
+    }
 
-public class AbstractJsonStreamReader extends AbstractStreamReader {
+    /**
+     * Reads the start of an element contained by the feature {@code name} of the previous element.
+     *
+     * @param name the name of the containing feature
+     */
+    protected final void readStartContainedElement(String name) {
+        readStartElement(null, name);
+        isRoot = false;
+    }
 
-	private final Logger logger = LoggerFactory.getLogger(AbstractJsonStreamReader.class);
+    @Override
+    protected final boolean isSpecialAttribute(@Nullable String prefix, String name, String value) {
+        if (Objects.equals(JsonConstants.ECLASS, name)) { // The meta-class of the current element
+            readClass(value);
+            return true;
+        }
 
-	/*public AbstractJsonStreamReader(){
-		JsonReaderHelper.resourceSet.getResourceFactoryRegistry()
-				.getExtensionToFactoryMap()
-				.put("json", new JsonResourceFactory());
+        if (Objects.equals(JsonConstants.ID, name)) { // The identifier of the current element
+            getCurrentElement().setId(ProxyValue.raw(value));
+            return true;
+        }
 
-	}*/
+        return false;
+    }
 
-	@Override
-	public void parse(@NotNull InputStream stream) throws IOException {
-		/*
-		 resource = JsonReaderHelper.mapper.reader()
-				.withAttribute(EMFContext.Attributes.RESOURCE_SET, JsonReaderHelper.resourceSet)
-				.withAttribute(EMFContext.Attributes.RESOURCE_URI, JsonReaderHelper.resourceData)
-				.forType(Resource.class)
-				.readValue(stream);
+    /**
+     * Reads the meta-class of the current element, from a value as {@code "<uri>#//<name>"}.
+     *
+     * @param value the value representing the meta-class
+     */
+    private void readClass(String value) {
+        final int separator = value.lastIndexOf(JsonConstants.ECLASS_SEPARATOR);
+        checkArgument(separator > 0, "Malformed meta-class %s", value);
 
+        final String uri = value.substring(0, separator);
+        final String name = value.substring(separator + JsonConstants.ECLASS_SEPARATOR.length());
 
-			String theString = IOUtils.toString(stream, StandardCharsets.UTF_8);
-			ObjectMapper mapper = new ObjectMapper();
-			Reader reader = new StringReader(theString);
+        final EPackage ePackage = EPackage.Registry.INSTANCE.getEPackage(uri);
+        checkNotNull(ePackage, "Unable to find EPackage '%s'", uri);
 
-		 */
-	}
+        final ProxyPackage ns = ProxyPackage.Registry.getInstance().get(ePackage);
 
+        getCurrentElement().setMetaClass(new ProxyClass(ns, name));
 
-	@Override
-	protected boolean isSpecialAttribute(@Nullable String prefix, String name, String value) throws IOException {
-		return false;
-	}
+        // The name of a root element is the name of its meta-class
+        if (isRoot) {
+            getCurrentElement().setName(name);
+        }
+    }
 }
@@ -1,5 +1,277 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
 package fr.inria.atlanmod.neoemf.io.reader.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import fr.inria.atlanmod.neoemf.io.util.JsonConstants;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static java.util.Objects.isNull;
+import static org.atlanmod.commons.Preconditions.checkState;
+
+/**
+ * An {@link AbstractJsonStreamReader} that uses the Jackson streaming API for reading and parsing JSON files.
+ * <p>
+ * The tokens are read one by one, and only the path from the root to the current element is kept in memory: the size
+ * of the read document has no impact on the memory consumption.
+ * <p>
+ * A document is made of one or several root objects, possibly grouped in an array. The {@link JsonConstants#ECLASS}
+ * and {@link JsonConstants#ID} fields of an object must be defined before its first nested object.
+ */
+@ParametersAreNonnullByDefault
 public class JsonStreamReader extends AbstractJsonStreamReader {
 
+    /**
+     * The factory used to create the JSON parsers.
+     */
+    @Nonnull
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * The path from the root to the current JSON structure.
+     */
+    @Nonnull
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    /**
+     * The current JSON parser.
+     */
+    private JsonParser parser;
+
+    @Override
+    public void parse(InputStream stream) throws IOException {
+        try (InputStream in = new BufferedInputStream(stream)) {
+            parser = FACTORY.createParser(in);
+
+            readStartDocument();
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                readToken(token);
+            }
+            readEndDocument();
+
+            parser.close();
+        }
+        finally {
+            frames.clear();
+            parser = null;
+        }
+    }
+
+    /**
+     * Reads the given {@code token}.
+     *
+     * @param token the token to read
+     */
+    private void readToken(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                readStartObject();
+                break;
+            case END_OBJECT:
+                readEndObject();
+                break;
+            case START_ARRAY:
+                readStartArray();
+                break;
+            case END_ARRAY:
+                frames.removeLast();
+                break;
+            case VALUE_STRING:
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                readValue(parser.getText());
+                break;
+            default:
+                // Field names are retrieved with their value, and null values are not sent
+                break;
+        }
+    }
+
+    /**
+     * Reads the start of an object, as a root element or as an element contained by the current element.
+     */
+    private void readStartObject() throws IOException {
+        final Frame parent = frames.peekLast();
+
+        if (isNull(parent) || parent.isRootArray()) {
+            readStartRootElement();
+        }
+        else {
+            final Frame owner = parent.owner();
+            if (!owner.flushed) {
+                flushCurrentElement();
+                owner.flushed = true;
+            }
+
+            readStartContainedElement(parent.isArray() ? parent.feature : parser.getCurrentName());
+        }
+
+        frames.addLast(Frame.object());
+    }
+
+    /**
+     * Reads the end of an object, and of its associated element.
+     */
+    private void readEndObject() throws IOException {
+        final Frame frame = frames.removeLast();
+
+        if (!frame.flushed) {
+            flushCurrentElement();
+        }
+
+        readEndElement();
+    }
+
+    /**
+     * Reads the start of an array, either grouping root objects, or containing the values of a multi-valued feature.
+     */
+    private void readStartArray() {
+        final Frame parent = frames.peekLast();
+
+        if (isNull(parent)) {
+            frames.addLast(Frame.array(null, null));
+        }
+        else {
+            checkState(!parent.isArray(), "Nested arrays are not supported");
+            frames.addLast(Frame.array(parser.getCurrentName(), parent));
+        }
+    }
+
+    /**
+     * Reads a scalar value of a feature of the current element.
+     *
+     * @param value the literal value
+     */
+    private void readValue(String value) throws IOException {
+        final Frame parent = frames.peekLast();
+        checkState(!isNull(parent) && !parent.isRootArray(), "A root value must be an object");
+
+        final String name = parent.isArray() ? parent.feature : parser.getCurrentName();
+        final Frame owner = parent.owner();
+
+        if (!owner.flushed) {
+            readAttribute(null, name, value);
+        }
+        else {
+            checkState(!Objects.equals(JsonConstants.ECLASS, name) && !Objects.equals(JsonConstants.ID, name),
+                    "The field '%s' must be defined before any contained element", name);
+
+            readSimpleElement(null, name, value);
+        }
+    }
+
+    /**
+     * A JSON structure being read.
+     */
+    private static final class Frame {
+
+        /**
+         * The name of the feature represented by this array, or {@code null} if this frame is an object or an array of
+         * root objects.
+         */
+        @Nullable
+        private final String feature;
+
+        /**
+         * The object that contains this array, or {@code null} if this frame is an object or an array of root
+         * objects.
+         */
+        @Nullable
+        private final Frame owner;
+
+        /**
+         * Whether this frame is an array.
+         */
+        private final boolean isArray;
+
+        /**
+         * Whether the element associated to this object has been flushed.
+         */
+        private boolean flushed;
+
+        /**
+         * Constructs a new {@code Frame}.
+         *
+         * @param feature the name of the feature represented by this array
+         * @param owner   the object that contains this array
+         * @param isArray whether this frame is an array
+         */
+        private Frame(@Nullable String feature, @Nullable Frame owner, boolean isArray) {
+            this.feature = feature;
+            this.owner = owner;
+            this.isArray = isArray;
+        }
+
+        /**
+         * Creates a new object frame.
+         *
+         * @return a new frame
+         */
+        @Nonnull
+        static Frame object() {
+            return new Frame(null, null, false);
+        }
+
+        /**
+         * Creates a new array frame.
+         *
+         * @param feature the name of the feature represented by this array, or {@code null} for root objects
+         * @param owner   the object that contains this array, or {@code null} for root objects
+         *
+         * @return a new frame
+         */
+        @Nonnull
+        static Frame array(@Nullable String feature, @Nullable Frame owner) {
+            return new Frame(feature, owner, true);
+        }
+
+        /**
+         * Returns whether this frame is an array.
+         *
+         * @return {@code true} if this frame is an array
+         */
+        boolean isArray() {
+            return isArray;
+        }
+
+        /**
+         * Returns whether this frame is an array of root objects.
+         *
+         * @return {@code true} if this frame is an array of root objects
+         */
+        boolean isRootArray() {
+            return isArray && isNull(owner);
+        }
+
+        /**
+         * Returns the object that owns the features read in this frame.
+         *
+         * @return the owning object
+         */
+        @Nonnull
+        Frame owner() {
+            return isArray ? Objects.requireNonNull(owner) : this;
+        }
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io.util;
+
+import org.atlanmod.commons.Throwables;
+import org.atlanmod.commons.annotation.Static;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A utility class that contains all the constants used in a binary file.
+ * <p>
+ * A binary file starts with a header made of the {@link #MAGIC} number, the {@link #VERSION} of the format, and a byte
+ * of flags. The rest of the file is a sequence of blocks, each one starting with the size of its content and the size
+ * of its stored content (different when the block is compressed), both encoded as variable-length integers.
+ * <p>
+ * The content of a block is a sequence of records that never overlaps another block. Each record starts with its type
+ * and the size of its payload, so that it can be skipped. Identifiers are encoded on 8 bytes, since they are mostly
+ * random and would not be shorter as variable-length integers. Indices and sizes are encoded as variable-length
+ * integers, and the names of classes and features are only written once, in dictionary records.
+ */
+@Static
+@ParametersAreNonnullByDefault
+public final class BinaryConstants {
+
+    /**
+     * The magic number of binary files ({@code "NEMF"}).
+     */
+    public static final int MAGIC = 0x4E454D46;
+
+    /**
+     * The current version of the format.
+     */
+    public static final byte VERSION = 2;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES + 2;
+
+    /**
+     * The flag indicating that the blocks are compressed with the {@link java.util.zip.Deflater}.
+     */
+    public static final byte FLAG_COMPRESSED = 0x01;
+
+    /**
+     * The default size of a block, in bytes.
+     */
+    public static final int BLOCK_SIZE = 1 << 20;
+
+    /**
+     * The maximum size of a variable-length integer, in bytes.
+     */
+    public static final int MAX_VARINT_SIZE = 10;
+
+    // region Records
+
+    /**
+     * The record of an element name: {@code index, name}.
+     */
+    public static final byte RECORD_NAME = 0x01;
+
+    /**
+     * The record of a meta-class: {@code index, uri, name}.
+     */
+    public static final byte RECORD_CLASS = 0x02;
+
+    /**
+     * The record of a feature: {@code index, class index, name, feature identifier}.
+     */
+    public static final byte RECORD_FEATURE = 0x03;
+
+    /**
+     * The record of the start of an element: {@code isRoot, name index, class index, identifier}.
+     */
+    public static final byte RECORD_START_ELEMENT = 0x10;
+
+    /**
+     * The record of the end of the current element, without payload.
+     */
+    public static final byte RECORD_END_ELEMENT = 0x11;
+
+    /**
+     * The record of the values of an attribute: {@code owner, feature index, count, values...}.
+     */
+    public static final byte RECORD_ATTRIBUTE = 0x12;
+
+    /**
+     * The record of the values of a reference: {@code owner, feature index, count, identifiers...}.
+     */
+    public static final byte RECORD_REFERENCE = 0x13;
+
+    // endregion
+
+    // region Values
+
+    /**
+     * The type of a {@link String} value.
+     */
+    public static final byte VALUE_STRING = 0x01;
+
+    /**
+     * The type of a {@link Boolean#TRUE} value.
+     */
+    public static final byte VALUE_TRUE = 0x02;
+
+    /**
+     * The type of a {@link Boolean#FALSE} value.
+     */
+    public static final byte VALUE_FALSE = 0x03;
+
+    /**
+     * The type of an {@link Integer} value.
+     */
+    public static final byte VALUE_INT = 0x04;
+
+    /**
+     * The type of a {@link Long} value.
+     */
+    public static final byte VALUE_LONG = 0x05;
+
+    /**
+     * The type of a {@link Short} value.
+     */
+    public static final byte VALUE_SHORT = 0x06;
+
+    /**
+     * The type of a {@link Byte} value.
+     */
+    public static final byte VALUE_BYTE = 0x07;
+
+    /**
+     * The type of a {@link Character} value.
+     */
+    public static final byte VALUE_CHAR = 0x08;
+
+    /**
+     * The type of a {@link Double} value.
+     */
+    public static final byte VALUE_DOUBLE = 0x09;
+
+    /**
+     * The type of a {@link Float} value.
+     */
+    public static final byte VALUE_FLOAT = 0x0A;
+
+    /**
+     * The type of any other value, stored as its literal representation.
+     *
+     * @see fr.inria.atlanmod.neoemf.io.processor.ValueConverter
+     */
+    public static final byte VALUE_LITERAL = 0x0F;
+
+    // endregion
+
+    private BinaryConstants() {
+        throw Throwables.notInstantiableClass(getClass());
+    }
+}
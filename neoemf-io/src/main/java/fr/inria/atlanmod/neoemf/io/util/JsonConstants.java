@@ -1,11 +1,33 @@
 package fr.inria.atlanmod.neoemf.io.util;
 
+import org.atlanmod.commons.Throwables;
 import org.atlanmod.commons.annotation.Static;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
+/**
+ * A utility class that contains all the constants used in a JSON file.
+ */
 @Static
 @ParametersAreNonnullByDefault
 public final class JsonConstants {
 
+    /**
+     * The field containing the meta-class of an element, as {@code "<uri>#//<name>"}.
+     */
+    public static final String ECLASS = "eClass";
+
+    /**
+     * The field containing the identifier of an element.
+     */
+    public static final String ID = "_id";
+
+    /**
+     * The separator between the URI of a package and the name of a meta-class in the {@link #ECLASS} field.
+     */
+    public static final String ECLASS_SEPARATOR = "#//";
+
+    private JsonConstants() {
+        throw Throwables.notInstantiableClass(getClass());
+    }
 }
@@ -68,7 +68,7 @@ public class DefaultMapperWriter extends AbstractWriter<DataMapper> {
         SingleFeatureBean bean = SingleFeatureBean.of(attribute.getOwner(), attribute.getId());
 
         if (!attribute.isMany()) {
-            target.valueFor(bean, values.get(0));
+            target.setValue(bean, values.get(0));
         }
         else {
             // Old code
@@ -94,7 +94,7 @@ public class DefaultMapperWriter extends AbstractWriter<DataMapper> {
         }
 
         if (!reference.isMany()) {
-            target.referenceFor(bean, values.get(0));
+            target.setReference(bean, values.get(0));
         }
         else {
             target.appendAllReferences(bean, values);
@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io.writer.binary;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.bean.ClassBean;
+import fr.inria.atlanmod.neoemf.io.processor.ValueConverter;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyClass;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyElement;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+import fr.inria.atlanmod.neoemf.io.writer.AbstractStreamWriter;
+
+import org.atlanmod.commons.annotation.Beta;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.BLOCK_SIZE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.FLAG_COMPRESSED;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.HEADER_SIZE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.MAGIC;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.MAX_VARINT_SIZE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_ATTRIBUTE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_CLASS;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_END_ELEMENT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_FEATURE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_NAME;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_REFERENCE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.RECORD_START_ELEMENT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_BYTE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_CHAR;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_DOUBLE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_FALSE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_FLOAT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_INT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_LITERAL;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_LONG;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_SHORT;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_STRING;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VALUE_TRUE;
+import static fr.inria.atlanmod.neoemf.io.util.BinaryConstants.VERSION;
+import static java.util.Objects.nonNull;
+
+/**
+ * An {@link AbstractStreamWriter} that writes data into a binary file.
+ * <p>
+ * The records are accumulated in blocks of {@link fr.inria.atlanmod.neoemf.io.util.BinaryConstants#BLOCK_SIZE}
+ * bytes, optionally compressed before being written in the stream.
+ *
+ * @see fr.inria.atlanmod.neoemf.io.util.BinaryConstants
+ * @see fr.inria.atlanmod.neoemf.io.reader.binary.BinaryFileReader
+ */
+@Beta
+@ParametersAreNonnullByDefault
+public class BinaryStreamWriter extends AbstractStreamWriter {
+
+    /**
+     * The indices of the element names that have already been written.
+     */
+    @Nonnull
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /**
+     * The indices of the meta-classes that have already been written.
+     */
+    @Nonnull
+    private final Map<ClassBean, Integer> classes = new HashMap<>();
+
+    /**
+     * The indices of the features that have already been written, by feature identifier.
+     */
+    @Nonnull
+    private final Map<EStructuralFeature, Map<Integer, Integer>> features = new HashMap<>();
+
+    /**
+     * The compressor of the blocks, or {@code null} if the blocks are not compressed.
+     */
+    @Nullable
+    private final Deflater deflater;
+
+    /**
+     * The number of features that have already been written.
+     */
+    @Nonnegative
+    private int featureCount;
+
+    /**
+     * The current block.
+     */
+    @Nonnull
+    private ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+
+    /**
+     * The payload of the current record.
+     */
+    @Nonnull
+    private ByteBuffer payload = ByteBuffer.allocate(1 << 8);
+
+    /**
+     * The compressed content of the current block.
+     */
+    @Nonnull
+    private byte[] compressedBlock = new byte[0];
+
+    /**
+     * Constructs a new {@code BinaryStreamWriter} with the given {@code stream}.
+     *
+     * @param stream the stream where to write data
+     */
+    public BinaryStreamWriter(OutputStream stream) {
+        this(stream, false);
+    }
+
+    /**
+     * Constructs a new {@code BinaryStreamWriter} with the given {@code stream}.
+     *
+     * @param stream         the stream where to write data
+     * @param useCompression {@code true} if the blocks must be compressed
+     */
+    public BinaryStreamWriter(OutputStream stream, boolean useCompression) {
+        super(stream);
+
+        this.deflater = useCompression ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    @Override
+    public void onInitialize() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put(nonNull(deflater) ? FLAG_COMPRESSED : 0);
+
+        target.write(header.array());
+    }
+
+    @Override
+    public void onComplete() throws IOException {
+        flushBlock();
+        target.flush();
+
+        if (nonNull(deflater)) {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void onStartElement(ProxyElement element) throws IOException {
+        super.onStartElement(element);
+
+        final ProxyClass metaClass = element.getMetaClass();
+
+        final int name = nameIndex(element.getName());
+        final int type = classIndex(ClassBean.of(metaClass.getName(), metaClass.getNamespace().getUri()));
+
+        payload.clear();
+        payload.put((byte) (element.isRoot() ? 1 : 0));
+        putVarInt(name);
+        putVarInt(type);
+        putId(element.getId().getResolved());
+        writeRecord(RECORD_START_ELEMENT);
+    }
+
+    @Override
+    public void onEndElement() throws IOException {
+        super.onEndElement();
+
+        payload.clear();
+        writeRecord(RECORD_END_ELEMENT);
+    }
+
+    @Override
+    public void onAttribute(ProxyAttribute attribute, List<Object> values) throws IOException {
+        final EAttribute eAttribute = attribute.getOrigin();
+        final int feature = featureIndex(eAttribute, attribute.getId());
+
+        payload.clear();
+        putId(attribute.getOwner());
+        putVarInt(feature);
+        putVarInt(values.size());
+        for (Object v : values) {
+            putValue(v, eAttribute);
+        }
+        writeRecord(RECORD_ATTRIBUTE);
+    }
+
+    @Override
+    public void onReference(ProxyReference reference, List<Id> values) throws IOException {
+        final int feature = featureIndex(reference.getOrigin(), reference.getId());
+
+        payload.clear();
+        putId(reference.getOwner());
+        putVarInt(feature);
+        putVarInt(values.size());
+        for (Id v : values) {
+            putId(v);
+        }
+        writeRecord(RECORD_REFERENCE);
+    }
+
+    /**
+     * Returns the index of the element {@code name}, and writes its dictionary record if it is a new name.
+     *
+     * @param name the name of an element
+     *
+     * @return the index of the name
+     */
+    @Nonnegative
+    private int nameIndex(String name) throws IOException {
+        Integer index = names.get(name);
+
+        if (index == null) {
+            index = names.size();
+            names.put(name, index);
+
+            payload.clear();
+            putVarInt(index);
+            putString(name);
+            writeRecord(RECORD_NAME);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index of the {@code metaClass}, and writes its dictionary record if it is a new meta-class.
+     *
+     * @param metaClass the meta-class
+     *
+     * @return the index of the meta-class
+     */
+    @Nonnegative
+    private int classIndex(ClassBean metaClass) throws IOException {
+        Integer index = classes.get(metaClass);
+
+        if (index == null) {
+            index = classes.size();
+            classes.put(metaClass, index);
+
+            payload.clear();
+            putVarInt(index);
+            putString(metaClass.uri());
+            putString(metaClass.name());
+            writeRecord(RECORD_CLASS);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index of the {@code eFeature}, and writes its dictionary record if it is a new feature.
+     *
+     * @param eFeature  the feature
+     * @param featureId the identifier of the feature in the meta-class of its owner
+     *
+     * @return the index of the feature
+     */
+    @Nonnegative
+    private int featureIndex(EStructuralFeature eFeature, int featureId) throws IOException {
+        final Map<Integer, Integer> indices = features.computeIfAbsent(eFeature, f -> new HashMap<>());
+        Integer index = indices.get(featureId);
+
+        if (index == null) {
+            final int containingClass = classIndex(ClassBean.from(eFeature.getEContainingClass()));
+
+            index = featureCount++;
+            indices.put(featureId, index);
+
+            payload.clear();
+            putVarInt(index);
+            putVarInt(containingClass);
+            putString(eFeature.getName());
+            putVarInt(featureId);
+            writeRecord(RECORD_FEATURE);
+        }
+
+        return index;
+    }
+
+    /**
+     * Writes the {@code value} of an attribute in the current payload, preceded by its type.
+     *
+     * @param value      the value to write
+     * @param eAttribute the attribute of the value
+     */
+    private void putValue(Object value, EAttribute eAttribute) {
+        ensurePayloadCapacity(1 + Long.BYTES);
+
+        if (value instanceof String) {
+            payload.put(VALUE_STRING);
+            putString((String) value);
+        }
+        else if (value instanceof Boolean) {
+            payload.put((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+        }
+        else if (value instanceof Integer) {
+            payload.put(VALUE_INT);
+            putVarLong(zigZag((Integer) value));
+        }
+        else if (value instanceof Long) {
+            payload.put(VALUE_LONG);
+            putVarLong(zigZag((Long) value));
+        }
+        else if (value instanceof Short) {
+            payload.put(VALUE_SHORT);
+            putVarLong(zigZag((Short) value));
+        }
+        else if (value instanceof Byte) {
+            payload.put(VALUE_BYTE).put((Byte) value);
+        }
+        else if (value instanceof Character) {
+            payload.put(VALUE_CHAR);
+            putVarInt((Character) value);
+        }
+        else if (value instanceof Double) {
+            payload.put(VALUE_DOUBLE).putDouble((Double) value);
+        }
+        else if (value instanceof Float) {
+            payload.put(VALUE_FLOAT).putFloat((Float) value);
+        }
+        else {
+            payload.put(VALUE_LITERAL);
+            putString(ValueConverter.INSTANCE.revert(value, eAttribute));
+        }
+    }
+
+    /**
+     * Writes a string in the current payload, as its length followed by its UTF-8 bytes.
+     *
+     * @param value the string to write
+     */
+    private void putString(String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        putVarInt(bytes.length);
+        ensurePayloadCapacity(bytes.length);
+        payload.put(bytes);
+    }
+
+    /**
+     * Writes an identifier in the current payload, on 8 bytes.
+     *
+     * @param id the identifier to write
+     */
+    private void putId(Id id) {
+        ensurePayloadCapacity(Long.BYTES);
+        payload.putLong(id.toLong());
+    }
+
+    /**
+     * Writes an unsigned variable-length integer in the current payload.
+     *
+     * @param value the value to write
+     */
+    private void putVarInt(@Nonnegative int value) {
+        putVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer in the current payload.
+     *
+     * @param value the value to write
+     */
+    private void putVarLong(long value) {
+        ensurePayloadCapacity(MAX_VARINT_SIZE);
+        putVarLong(payload, value);
+    }
+
+    /**
+     * Ensures that the current payload can receive {@code size} more bytes, and grows it if necessary.
+     *
+     * @param size the number of bytes to write
+     */
+    private void ensurePayloadCapacity(@Nonnegative int size) {
+        if (payload.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(payload.capacity() * 2, payload.position() + size));
+            payload.flip();
+            payload = larger.put(payload);
+        }
+    }
+
+    /**
+     * Appends the current payload as a new record of the given {@code type} in the current block. If the block cannot
+     * receive the record, it is flushed first.
+     *
+     * @param type the type of the record
+     *
+     * @throws IOException if an I/O error occurs when writing
+     */
+    private void writeRecord(byte type) throws IOException {
+        final int size = payload.position();
+        final int recordSize = 1 + MAX_VARINT_SIZE + size;
+
+        if (block.remaining() < recordSize) {
+            flushBlock();
+
+            // A single record larger than a block
+            if (block.capacity() < recordSize) {
+                block = ByteBuffer.allocate(recordSize);
+            }
+        }
+
+        block.put(type);
+        putVarLong(block, size);
+        block.put(payload.array(), 0, size);
+    }
+
+    /**
+     * Writes the current block in the {@link #target}, and compresses it if necessary.
+     *
+     * @throws IOException if an I/O error occurs when writing
+     */
+    private void flushBlock() throws IOException {
+        final int rawSize = block.position();
+        if (rawSize == 0) {
+            return;
+        }
+
+        byte[] content = block.array();
+        int storedSize = rawSize;
+
+        if (nonNull(deflater)) {
+            if (compressedBlock.length < rawSize) {
+                compressedBlock = new byte[rawSize];
+            }
+
+            deflater.reset();
+            deflater.setInput(block.array(), 0, rawSize);
+            deflater.finish();
+
+            storedSize = 0;
+            while (!deflater.finished()) {
+                if (storedSize == compressedBlock.length) {
+                    compressedBlock = Arrays.copyOf(compressedBlock, compressedBlock.length * 2);
+                }
+                storedSize += deflater.deflate(compressedBlock, storedSize, compressedBlock.length - storedSize);
+            }
+
+            content = compressedBlock;
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(MAX_VARINT_SIZE * 2);
+        putVarLong(header, rawSize);
+        putVarLong(header, storedSize);
+
+        target.write(header.array(), 0, header.position());
+        target.write(content, 0, storedSize);
+
+        block.clear();
+    }
+
+    /**
+     * Writes an unsigned variable-length integer in the {@code buffer}, 7 bits at a time.
+     *
+     * @param buffer the buffer where to write
+     * @param value  the value to write
+     */
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    /**
+     * Encodes a signed value, so that small negative values are also encoded on few bytes.
+     *
+     * @param value the value to encode
+     *
+     * @return the encoded value
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -4,6 +4,7 @@ import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
 import fr.inria.atlanmod.neoemf.io.proxy.ProxyElement;
 import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+import fr.inria.atlanmod.neoemf.io.util.JsonConstants;
 import fr.inria.atlanmod.neoemf.io.writer.AbstractStreamWriter;
 import org.atlanmod.commons.primitive.Strings;
 
@@ -31,6 +32,7 @@ public abstract class AbstractJsonStreamWriter extends AbstractStreamWriter {
     public final void onStartElement(ProxyElement element) throws IOException {
         super.onStartElement(element);
         writeStartElement(element.getMetaClass().getNamespace().getUri(), element.getMetaClass().getName());
+        writeAttribute(JsonConstants.ID, element.getId().getResolved().toHexString());
     }
 
     @Override
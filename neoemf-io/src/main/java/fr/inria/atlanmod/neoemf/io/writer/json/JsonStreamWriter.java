@@ -3,6 +3,7 @@ package fr.inria.atlanmod.neoemf.io.writer.json;
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.inria.atlanmod.neoemf.io.util.JsonConstants;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -36,7 +37,7 @@ public class JsonStreamWriter extends AbstractJsonStreamWriter {
     @Override
     protected void writeStartElement(String namespace, String name) throws IOException {
         jGenerator.writeStartObject();
-        jGenerator.writeStringField("eClass", namespace + "#//" + name);
+        jGenerator.writeStringField(JsonConstants.ECLASS, namespace + JsonConstants.ECLASS_SEPARATOR + name);
     }
 
     @Override
@@ -65,4 +65,36 @@ class FileCopyTest extends AbstractFileBasedTest {
         actual.eResource().unload();
         expected.eResource().unload();
     }
+
+    /**
+     * Checks the copy from a XMI file to another, through a binary file.
+     *
+     * @param uri            the URI of the file to copy
+     * @param useCompression {@code true} if the binary file must be compressed
+     */
+    @ParameterizedTest(name = "[{index}] source = {0} ; useCompression = {1}")
+    @ArgumentsSource(UriProvider.AllWithBooleans.class)
+    void testCopyThroughBinary(URI uri, Boolean useCompression) throws IOException {
+        final File binaryFile = new File(currentTempFile() + ".bin");
+        final File targetFile = new File(currentTempFile() + ".xmi");
+        Log.info("Exporting to {0}", binaryFile);
+
+        try (InputStream in = new URL(uri.toString()).openStream()) {
+            Migrator.fromXmi(in)
+                    .toBinary(binaryFile, useCompression)
+                    .migrate();
+        }
+
+        Migrator.fromBinary(binaryFile)
+                .toXmi(targetFile)
+                .migrate();
+
+        EObject actual = ResourceManager.load(URI.createFileURI(targetFile.toString()));
+        EObject expected = ResourceManager.load(uri);
+
+        ModelComparisonUtils.assertEObjectAreEqual(actual, expected);
+
+        actual.eResource().unload();
+        expected.eResource().unload();
+    }
 }
@@ -85,4 +85,27 @@ class ImportTest extends AbstractFileBasedTest {
             expected.eResource().unload();
         }
     }
+
+    /**
+     * Checks the import from a file to a {@link Backend}, when the writing is executed on a dedicated thread.
+     */
+    @Tag("slow")
+    @ParameterizedTest(name = "[{index}] source = {0}")
+    @ArgumentsSource(UriProvider.All.class)
+    void testPipelinedImport(URI uri) throws IOException {
+        final File sourceFile = currentTempFile();
+        Log.info("Importing from file... [{0}]", sourceFile);
+
+        try (Backend backend = new DefaultInMemoryBackend(); InputStream in = new URL(uri.toString()).openStream()) {
+            Migrator.fromXmi(in).toMapper(backend).pipelined(2).migrate();
+
+            EObject actual = createMockResource(uri, backend).getContents().get(0);
+            EObject expected = ResourceManager.load(uri);
+
+            // Comparing with EMF
+            ModelComparisonUtils.assertEObjectAreEqual(actual, expected);
+
+            expected.eResource().unload();
+        }
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.io;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyAttribute;
+import fr.inria.atlanmod.neoemf.io.proxy.ProxyReference;
+import fr.inria.atlanmod.neoemf.io.util.InMemoryElement;
+import fr.inria.atlanmod.neoemf.io.util.InMemoryWriter;
+import fr.inria.atlanmod.neoemf.io.util.ResourceManager;
+
+import org.atlanmod.commons.AbstractTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * A test-case about the reading of a JSON model.
+ */
+@ParametersAreNonnullByDefault
+class JsonReaderTest extends AbstractTest {
+
+    /**
+     * The root of the read model.
+     */
+    private InMemoryElement root;
+
+    @BeforeAll
+    static void registerPackages() {
+        ResourceManager.registerAllPackages();
+    }
+
+    @BeforeEach
+    void readSample() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/json/sample.json")) {
+            root = read(in);
+        }
+    }
+
+    /**
+     * Check that the elements and their children are properly processed.
+     */
+    @Test
+    void testElementsAndChildren() {
+        assertThat(root.name()).isEqualTo("Model");
+        assertThat(root.id()).isEqualTo(id("model"));
+        assertThat(root.metaClass().getNamespace().getPrefix()).isEqualTo("java");
+        assertThat(root.children()).hasSize(3);
+
+        InMemoryElement o = root.children().get(0);
+        assertThat(o.name()).isEqualTo("ownedElements");
+        assertThat(o.id()).isEqualTo(id("fr"));
+        assertThat(o.metaClass().getName()).isEqualTo("Package");
+        assertThat(o.children()).hasSize(1);
+
+        o = o.children().get(0).children().get(0);
+        assertThat(o.name()).isEqualTo("ownedElements");
+        assertThat(o.id()).isEqualTo(id("fr.inria.Sample"));
+        assertThat(o.metaClass().getName()).isEqualTo("ClassDeclaration");
+        assertThat(o.children()).hasSize(1);
+
+        InMemoryElement child = o.children().get(0);
+        assertThat(child.name()).isEqualTo("modifier");
+        assertThat(child.metaClass().getName()).isEqualTo("Modifier");
+        assertThat(child.children()).isEmpty();
+
+        o = root.children().get(2);
+        assertThat(o.name()).isEqualTo("compilationUnits");
+        assertThat(o.metaClass().getName()).isEqualTo("CompilationUnit");
+    }
+
+    /**
+     * Check that the attributes are properly processed, including those defined after a contained element.
+     */
+    @Test
+    void testAttributes() {
+        List<ProxyAttribute> attributes = root.attributes();
+        assertThat(attributes).hasSize(1);
+        assertValidAttribute(attributes.get(0), "name", "fr.inria.atlanmod.sample");
+
+        attributes = root.children().get(1).attributes();
+        assertThat(attributes).hasSize(2);
+        assertValidAttribute(attributes.get(0), "name", "java");
+        assertValidAttribute(attributes.get(1), "proxy", true);
+
+        attributes = root.children().get(0).children().get(0).children().get(0).children().get(0).attributes();
+        assertThat(attributes).hasSize(1);
+        assertValidAttribute(attributes.get(0), "visibility", "public");
+
+        attributes = root.children().get(2).attributes();
+        assertThat(attributes).hasSize(2);
+        assertValidAttribute(attributes.get(0), "name", "Sample.java");
+        assertValidAttribute(attributes.get(1), "originalFilePath", "src/fr/inria/Sample.java");
+    }
+
+    /**
+     * Check that the containments and the references by identifier are properly processed.
+     */
+    @Test
+    void testReferences() {
+        List<ProxyReference> references = root.references();
+        assertThat(references).hasSize(3);
+        assertValidReference(references.get(0), "ownedElements", id("fr"));
+        assertValidReference(references.get(1), "ownedElements", id("java"));
+        assertValidReference(references.get(2), "compilationUnits", id("Sample.java"));
+
+        references = root.children().get(0).children().get(0).children().get(0).references();
+        assertThat(references).hasSize(3);
+        assertValidReference(references.get(0), "modifier", id("fr.inria.Sample.modifier"));
+        assertValidReference(references.get(1), "package", id("fr.inria"));
+        assertValidReference(references.get(2), "originalCompilationUnit", id("Sample.java"));
+
+        references = root.children().get(2).references();
+        assertThat(references).hasSize(1);
+        assertValidReference(references.get(0), "package", id("fr.inria"));
+    }
+
+    /**
+     * Check that an identifier defined after a contained element is rejected.
+     */
+    @Test
+    void testLateIdentifier() {
+        String json = "{\"eClass\": \"http://www.eclipse.org/MoDisco/Java/0.2.incubation/java#//Model\", "
+                + "\"ownedElements\": [{\"ownedPackages\": [{\"name\": \"inria\"}], \"_id\": \"fr\"}]}";
+
+        assertThat(
+                catchThrowable(() -> read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+        ).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Reads a JSON model from the given {@code stream}.
+     *
+     * @param stream the stream to read
+     *
+     * @return the root of the read model
+     */
+    @Nonnull
+    private InMemoryElement read(InputStream stream) throws IOException {
+        InMemoryWriter writer = new InMemoryWriter();
+
+        Migrator.fromJson(stream)
+                .to(writer)
+                .migrate();
+
+        return checkNotNull(writer.getRoot(), "writer.root");
+    }
+
+    /**
+     * Returns the identifier generated from the given raw {@code value}.
+     *
+     * @param value the raw identifier
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    private Id id(String value) {
+        return Id.getProvider().generate(value);
+    }
+
+    /**
+     * Checks that the {@code attribute} has the given arguments.
+     *
+     * @param attribute the attribute to test
+     * @param name      the expected name
+     * @param value     the expected value
+     */
+    private void assertValidAttribute(ProxyAttribute attribute, String name, Object value) {
+        assertThat(attribute.getName()).isEqualTo(name);
+        assertThat(attribute.getValue().getResolved()).isEqualTo(value);
+    }
+
+    /**
+     * Checks that the {@code reference} has the given arguments.
+     *
+     * @param reference   the reference to test
+     * @param name        the expected name
+     * @param idReference the expected reference
+     */
+    private void assertValidReference(ProxyReference reference, String name, Id idReference) {
+        assertThat(reference.getName()).isEqualTo(name);
+        assertThat(reference.getValue().getResolved()).isEqualTo(idReference);
+    }
+}
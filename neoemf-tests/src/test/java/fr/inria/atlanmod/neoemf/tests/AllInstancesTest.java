@@ -26,6 +26,7 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 import java.io.IOException;
 import java.util.Map;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -33,7 +34,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
- * A test-case about the {@link PersistentResource#allInstancesOf(EClass, boolean)} method.
+ * A test-case about the {@link PersistentResource#allInstancesOf(EClass, boolean)} and {@link
+ * PersistentResource#streamInstancesOf(EClass, boolean)} methods.
  */
 @ParametersAreNonnullByDefault
 class AllInstancesTest extends AbstractResourceBasedTest {
@@ -115,6 +117,25 @@ class AllInstancesTest extends AbstractResourceBasedTest {
         }
     }
 
+    /**
+     * Checks the content returned by {@link PersistentResource#streamInstancesOf(EClass, boolean)}.
+     */
+    @ParameterizedTest(name = "[{index}] {0}: isStrict = {1}")
+    @ArgumentsSource(ContextProvider.AllWithBooleans.class)
+    void testStreamInstances(Context context, Boolean isStrict) throws IOException {
+        try (PersistentResource resource = createPersistentResource(context)) {
+            fillResource(resource);
+
+            try (Stream<Node> abstractNodes = resource.streamInstancesOf(EPACKAGE.getNode(), isStrict)) {
+                assertThat(abstractNodes).hasSize(isStrict ? NODE_STRICT_COUNT : NODE_COUNT);
+            }
+
+            try (Stream<PhysicalNode> physicalNodes = resource.streamInstancesOf(EPACKAGE.getPhysicalNode(), isStrict)) {
+                assertThat(physicalNodes).containsExactlyInAnyOrderElementsOf(resource.allInstancesOf(EPACKAGE.getPhysicalNode(), isStrict));
+            }
+        }
+    }
+
     /**
      * Fills the {@code resource}.
      *
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2013 Atlanmod.
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v2.0 which accompanies
+ * this distribution, and is available at https://www.eclipse.org/legal/epl-2.0/
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.config.BaseConfig;
+import fr.inria.atlanmod.neoemf.config.ImmutableConfig;
+import fr.inria.atlanmod.neoemf.context.Context;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.provider.ContextProvider;
+import fr.inria.atlanmod.neoemf.tests.sample.Node;
+import fr.inria.atlanmod.neoemf.tests.sample.Tree;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * A test-case about reading a {@link PersistentResource} from several threads, in the concurrent read-only mode, and
+ * about {@link PersistentResource#parallelAllContents()}.
+ *
+ * @see fr.inria.atlanmod.neoemf.config.Config#concurrentReads()
+ */
+@ParametersAreNonnullByDefault
+class ConcurrentReadTest extends AbstractResourceBasedTest {
+
+    /**
+     * The number of threads reading the resource at the same time.
+     */
+    private static final int THREAD_COUNT = 8;
+
+    /**
+     * The number of {@link Tree} under the root.
+     */
+    private static final int TREE_COUNT = 10;
+
+    /**
+     * The number of {@link Node} in each {@link Tree}.
+     */
+    private static final int NODE_COUNT = 50;
+
+    /**
+     * Checks that several threads that traverse the same resource read the same content, in the same order.
+     */
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ContextProvider.All.class)
+    void testConcurrentReads(Context context) throws Exception {
+        assumeTrue(context.isPersistent(), "The context is transient");
+        assumeTrue(context.isConcurrentReadSafe(), "The context does not support concurrent reads");
+
+        try (PersistentResource resource = createPersistentResource(context)) {
+            fillResource(resource);
+
+            resource.save(context.config());
+            resource.unload();
+
+            ImmutableConfig config = new BaseConfig<>().merge(context.config()).concurrentReads();
+            assertThat(config.isConcurrentReads()).isTrue();
+
+            resource.load(config);
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+            try {
+                List<Future<List<String>>> futures = IntStream.range(0, THREAD_COUNT)
+                        .mapToObj(i -> executor.submit(() -> namesOf(resource)))
+                        .collect(Collectors.toList());
+
+                List<String> expected = futures.get(0).get();
+                assertThat(expected).hasSize(1 + TREE_COUNT * (NODE_COUNT + 1));
+
+                for (Future<List<String>> future : futures) {
+                    assertThat(future.get()).containsExactlyElementsOf(expected);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Checks that {@link PersistentResource#parallelAllContents()} returns the same elements as {@link
+     * PersistentResource#getAllContents()}, in the same order.
+     */
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ContextProvider.All.class)
+    void testParallelAllContents(Context context) throws Exception {
+        assumeTrue(context.isPersistent(), "The context is transient");
+        assumeTrue(context.isConcurrentReadSafe(), "The context does not support concurrent reads");
+
+        try (PersistentResource resource = createPersistentResource(context)) {
+            fillResource(resource);
+
+            resource.save(context.config());
+            resource.unload();
+            resource.load(new BaseConfig<>().merge(context.config()).concurrentReads());
+
+            assertThat(resource.parallelAllContents().isParallel()).isTrue();
+
+            List<String> names = resource.parallelAllContents()
+                    .map(this::nameOf)
+                    .collect(Collectors.toList());
+
+            assertThat(names).containsExactlyElementsOf(namesOf(resource));
+        }
+    }
+    /**
+     * Checks that {@link PersistentResource#parallelAllContents()} returns a sequential stream if the resource is not
+     * in the concurrent read-only mode.
+     */
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ContextProvider.All.class)
+    void testParallelAllContentsWithoutConcurrentReads(Context context) throws Exception {
+        try (PersistentResource resource = createPersistentResource(context)) {
+            fillResource(resource);
+
+            assertThat(resource.parallelAllContents().isParallel()).isFalse();
+
+            List<String> names = resource.parallelAllContents()
+                    .map(this::nameOf)
+                    .collect(Collectors.toList());
+
+            assertThat(names).containsExactlyElementsOf(namesOf(resource));
+        }
+    }
+
+    /**
+     * Fills the {@code resource}.
+     *
+     * @param resource the resource to fill
+     */
+    private void fillResource(Resource resource) {
+        Tree rootTree = EFACTORY.createTree();
+        rootTree.setName("RootTree");
+
+        IntStream.range(0, TREE_COUNT).forEachOrdered(i -> {
+            Tree tree = EFACTORY.createTree();
+            tree.setName("Tree" + i);
+            rootTree.getChildren().add(tree);
+
+            IntStream.range(0, NODE_COUNT).forEachOrdered(j -> {
+                Node node = EFACTORY.createPhysicalNode();
+                node.setLabel("Node" + i + '-' + j);
+                tree.getNodes().add(node);
+            });
+        });
+
+        resource.getContents().add(rootTree);
+    }
+
+    /**
+     * Traverses the {@code resource} and returns the name of all its elements, in the traversal order.
+     *
+     * @param resource the resource to traverse
+     *
+     * @return the names of the elements
+     */
+    @Nonnull
+    private List<String> namesOf(Resource resource) {
+        List<String> names = new ArrayList<>();
+        resource.getAllContents().forEachRemaining(o -> names.add(nameOf(o)));
+        return names;
+    }
+
+    /**
+     * Returns the name of the {@code object}.
+     *
+     * @param object the object
+     *
+     * @return the name of the object
+     */
+    @Nonnull
+    private String nameOf(EObject object) {
+        return object instanceof Tree
+                ? ((Tree) object).getName()
+                : ((Node) object).getLabel();
+    }
+}